@@ -3,7 +3,11 @@ package com.tygrus.task_list;
 import com.tygrus.task_list.application.dto.*;
 import com.tygrus.task_list.application.usecase.BatchUpdateTasksUseCase;
 import com.tygrus.task_list.domain.model.*;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
 import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.TaskWriteEpochs;
+import com.tygrus.task_list.infrastructure.repository.changefeed.InMemoryTaskChangeFeed;
+import com.tygrus.task_list.infrastructure.repository.counter.TaskWriteEpochCounter;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -302,10 +306,14 @@ public class BatchUpdateDemo {
     private static class InMemoryTaskRepository implements TaskRepository {
         private final Map<String, Task> tasks = new ConcurrentHashMap<>();
         private final AtomicInteger sequenceGenerator = new AtomicInteger(1);
+        private final InMemoryTaskChangeFeed changeFeed = new InMemoryTaskChangeFeed();
+        private final TaskWriteEpochCounter writeEpochs = new TaskWriteEpochCounter();
         
         @Override
         public Task save(Task task) {
-            tasks.put(task.getId().getValue(), task);
+            Task previous = tasks.put(task.getId().getValue(), task);
+            changeFeed.publish(TaskChange.typeOf(previous, task), task);
+            writeEpochs.advance(previous, task);
             return task;
         }
         
@@ -321,7 +329,21 @@ public class BatchUpdateDemo {
         
         @Override
         public void deleteById(TaskId taskId) {
-            tasks.remove(taskId.getValue());
+            Task removed = tasks.remove(taskId.getValue());
+            if (removed != null) {
+                changeFeed.publish(TaskChange.Type.DELETED, removed);
+                writeEpochs.advance(removed, null);
+            }
+        }
+        
+        @Override
+        public TaskChangeFeed changeFeed() {
+            return changeFeed;
+        }
+        
+        @Override
+        public TaskWriteEpochs writeEpochs() {
+            return writeEpochs;
         }
         
         @Override
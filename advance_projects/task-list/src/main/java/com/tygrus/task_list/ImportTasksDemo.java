@@ -7,8 +7,13 @@ import com.tygrus.task_list.application.service.FileParser;
 import com.tygrus.task_list.application.service.JsonFileParser;
 import com.tygrus.task_list.application.usecase.ImportTasksUseCase;
 import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskChange;
 import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
 import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.TaskWriteEpochs;
+import com.tygrus.task_list.infrastructure.repository.changefeed.InMemoryTaskChangeFeed;
+import com.tygrus.task_list.infrastructure.repository.counter.TaskWriteEpochCounter;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -32,11 +37,15 @@ public class ImportTasksDemo {
     private static class InMemoryTaskRepository implements TaskRepository {
         private final ConcurrentHashMap<String, Task> tasks = new ConcurrentHashMap<>();
         private final AtomicLong sequenceGenerator = new AtomicLong(1);
+        private final InMemoryTaskChangeFeed changeFeed = new InMemoryTaskChangeFeed();
+        private final TaskWriteEpochCounter writeEpochs = new TaskWriteEpochCounter();
         
         @Override
         public Task save(Task task) {
             // 模擬保存操作
-            tasks.put(task.getId().getValue(), task);
+            Task previous = tasks.put(task.getId().getValue(), task);
+            changeFeed.publish(TaskChange.typeOf(previous, task), task);
+            writeEpochs.advance(previous, task);
             return task;
         }
         
@@ -52,7 +61,21 @@ public class ImportTasksDemo {
         
         @Override
         public void deleteById(TaskId taskId) {
-            tasks.remove(taskId.getValue());
+            Task removed = tasks.remove(taskId.getValue());
+            if (removed != null) {
+                changeFeed.publish(TaskChange.Type.DELETED, removed);
+                writeEpochs.advance(removed, null);
+            }
+        }
+        
+        @Override
+        public TaskChangeFeed changeFeed() {
+            return changeFeed;
+        }
+        
+        @Override
+        public TaskWriteEpochs writeEpochs() {
+            return writeEpochs;
         }
         
         @Override
@@ -14,6 +14,16 @@ import java.util.function.Consumer;
  */
 public class BatchUpdateTaskRequest {
     
+    /**
+     * 批次執行模式
+     */
+    public enum ExecutionMode {
+        /** 逐筆查詢與保存，衝突時單筆重試 */
+        PER_TASK,
+        /** 每批以一次批次查詢載入、一條集合式語句寫入，適合大量任務 */
+        BULK
+    }
+    
     private final List<String> taskIds;
     private final TaskStatus newStatus;
     private final String updatedBy;
@@ -21,6 +31,7 @@ public class BatchUpdateTaskRequest {
     private final int batchSize;
     private final int maxRetries;
     private final Consumer<BatchProgressUpdate> progressCallback;
+    private final ExecutionMode executionMode;
     
     private BatchUpdateTaskRequest(Builder builder) {
         this.taskIds = List.copyOf(builder.taskIds);
@@ -30,6 +41,7 @@ public class BatchUpdateTaskRequest {
         this.batchSize = builder.batchSize;
         this.maxRetries = builder.maxRetries;
         this.progressCallback = builder.progressCallback;
+        this.executionMode = builder.executionMode;
     }
     
     public static Builder builder() {
@@ -44,6 +56,7 @@ public class BatchUpdateTaskRequest {
         private int batchSize = 10; // 預設批次大小
         private int maxRetries = 3; // 預設重試次數
         private Consumer<BatchProgressUpdate> progressCallback;
+        private ExecutionMode executionMode = ExecutionMode.PER_TASK;
         
         public Builder taskIds(List<String> taskIds) {
             this.taskIds = taskIds;
@@ -86,6 +99,14 @@ public class BatchUpdateTaskRequest {
             return this;
         }
         
+        public Builder executionMode(ExecutionMode executionMode) {
+            if (executionMode == null) {
+                throw new IllegalArgumentException("Execution mode cannot be null");
+            }
+            this.executionMode = executionMode;
+            return this;
+        }
+        
         public BatchUpdateTaskRequest build() {
             validateRequiredFields();
             return new BatchUpdateTaskRequest(this);
@@ -133,6 +154,10 @@ public class BatchUpdateTaskRequest {
         return progressCallback;
     }
     
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+    
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -142,18 +167,19 @@ public class BatchUpdateTaskRequest {
                maxRetries == that.maxRetries &&
                Objects.equals(taskIds, that.taskIds) &&
                newStatus == that.newStatus &&
+               executionMode == that.executionMode &&
                Objects.equals(updatedBy, that.updatedBy) &&
                Objects.equals(reason, that.reason);
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(taskIds, newStatus, updatedBy, reason, batchSize, maxRetries);
+        return Objects.hash(taskIds, newStatus, updatedBy, reason, batchSize, maxRetries, executionMode);
     }
     
     @Override
     public String toString() {
-        return String.format("BatchUpdateTaskRequest{taskIds=%d items, newStatus=%s, updatedBy='%s', batchSize=%d}", 
-            taskIds.size(), newStatus, updatedBy, batchSize);
+        return String.format("BatchUpdateTaskRequest{taskIds=%d items, newStatus=%s, updatedBy='%s', batchSize=%d, mode=%s}", 
+            taskIds.size(), newStatus, updatedBy, batchSize, executionMode);
     }
 }
\ No newline at end of file
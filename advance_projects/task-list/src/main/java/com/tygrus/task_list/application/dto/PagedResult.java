@@ -14,11 +14,13 @@ public class PagedResult<T> {
     private final List<T> content;
     private final PageInfo pageInfo;
     private final long totalElements;
+    private final String nextPageToken;
 
-    private PagedResult(List<T> content, PageInfo pageInfo, long totalElements) {
+    private PagedResult(List<T> content, PageInfo pageInfo, long totalElements, String nextPageToken) {
         this.content = content != null ? List.copyOf(content) : Collections.emptyList();
         this.pageInfo = pageInfo;
         this.totalElements = Math.max(0, totalElements);
+        this.nextPageToken = nextPageToken;
     }
 
     /**
@@ -33,7 +35,34 @@ public class PagedResult<T> {
      */
     public static <T> PagedResult<T> of(List<T> content, int page, int pageSize, long totalElements) {
         PageInfo pageInfo = new PageInfo(page, pageSize, totalElements);
-        return new PagedResult<>(content, pageInfo, totalElements);
+        return new PagedResult<>(content, pageInfo, totalElements, null);
+    }
+
+    /**
+     * 建立依頁號分頁、並附上續頁標記的結果
+     * 呼叫端可從任一頁改以續頁標記讀取下一頁，之後不受前面插入或刪除的資料影響
+     *
+     * @param nextPageToken 從本頁最後一筆之後讀取的續頁標記，沒有下一頁時為 null
+     */
+    public static <T> PagedResult<T> of(List<T> content, int page, int pageSize, long totalElements,
+                                        String nextPageToken) {
+        PageInfo pageInfo = new PageInfo(page, pageSize, totalElements);
+        return new PagedResult<>(content, pageInfo, totalElements, nextPageToken);
+    }
+
+    /**
+     * 建立以續頁標記分頁（keyset）的結果
+     * 不計算總筆數，totalElements 只反映本頁筆數；是否有下一頁以 nextPageToken 判斷
+     *
+     * @param content 當前頁的資料內容
+     * @param pageSize 每頁大小
+     * @param nextPageToken 下一頁的續頁標記，沒有下一頁時為 null
+     * @param <T> 資料類型
+     * @return 分頁結果
+     */
+    public static <T> PagedResult<T> withContinuation(List<T> content, int pageSize, String nextPageToken) {
+        long size = content != null ? content.size() : 0;
+        return new PagedResult<>(content, new PageInfo(0, pageSize, size), size, nextPageToken);
     }
 
     /**
@@ -73,6 +102,13 @@ public class PagedResult<T> {
         return totalElements;
     }
 
+    /**
+     * 下一頁的續頁標記，結果不支援續讀或已是最後一頁時為 null
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
     // Convenience methods
     public int getSize() {
         return content.size();
@@ -87,7 +123,7 @@ public class PagedResult<T> {
     }
 
     public boolean hasNext() {
-        return pageInfo.hasNext();
+        return nextPageToken != null || pageInfo.hasNext();
     }
 
     public boolean hasPrevious() {
@@ -103,7 +139,7 @@ public class PagedResult<T> {
     }
 
     public boolean isLast() {
-        return pageInfo.isLast();
+        return nextPageToken == null && pageInfo.isLast();
     }
 
     /**
@@ -122,6 +122,9 @@ public class StatisticsRequest {
         private String reportTitle;
         private String description;
         
+        /**
+         * 指定建立時間範圍；任一端為 null 表示該端不設限
+         */
         public Builder timeRange(LocalDateTime start, LocalDateTime end) {
             this.startDate = start;
             this.endDate = end;
@@ -209,14 +212,14 @@ public class StatisticsRequest {
         }
         
         public StatisticsRequest build() {
-            // 預設時間範圍為最近30天
-            if (startDate == null || endDate == null) {
+            // 未指定時間範圍時預設為最近30天；只指定一端時另一端不設限
+            if (startDate == null && endDate == null) {
                 endDate = LocalDateTime.now();
                 startDate = endDate.minusDays(30);
             }
             
             // 驗證時間範圍
-            if (startDate.isAfter(endDate)) {
+            if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
                 throw new IllegalArgumentException("Start date must be before end date");
             }
             
@@ -273,8 +276,8 @@ public class StatisticsRequest {
      */
     public String getCacheKey() {
         return String.format("statistics_%s_%s_%s_%s_%s",
-            startDate.toLocalDate(),
-            endDate.toLocalDate(),
+            dateOf(startDate),
+            dateOf(endDate),
             statusFilter.hashCode(),
             priorityFilter.hashCode(),
             dimensions.hashCode()
@@ -302,7 +305,14 @@ public class StatisticsRequest {
     public String toString() {
         return String.format(
             "StatisticsRequest{period=%s to %s, dimensions=%s, useCache=%s}",
-            startDate.toLocalDate(), endDate.toLocalDate(), dimensions, useCache
+            dateOf(startDate), dateOf(endDate), dimensions, useCache
         );
     }
+    
+    /**
+     * 不設限的一端以 * 表示
+     */
+    private static String dateOf(LocalDateTime time) {
+        return time != null ? time.toLocalDate().toString() : "*";
+    }
 }
\ No newline at end of file
@@ -10,6 +10,9 @@ import java.util.List;
  * QueryTaskListUseCase的請求DTO
  * 支援複雜的過濾、排序和分頁查詢
  * 展示Collections Framework在複雜查詢場景中的應用
+ *
+ * 指定續頁標記（上一頁結果的 nextPageToken）時從標記的位置之後讀取 pageSize 筆，忽略 page；
+ * 標記記錄了排序條件，過濾條件須與取得標記的請求相同
  */
 public class TaskQueryRequest {
     private final List<TaskStatus> statusFilter;
@@ -20,6 +23,7 @@ public class TaskQueryRequest {
     private final SortDirection sortDirection;
     private final int page;
     private final int pageSize;
+    private final String continuationToken;
 
     // Private constructor for builder pattern
     private TaskQueryRequest(Builder builder) {
@@ -33,6 +37,8 @@ public class TaskQueryRequest {
         this.sortDirection = builder.sortDirection != null ? builder.sortDirection : SortDirection.DESC;
         this.page = Math.max(0, builder.page); // 確保page >= 0
         this.pageSize = Math.max(1, builder.pageSize); // 確保pageSize >= 1
+        this.continuationToken = builder.continuationToken != null && !builder.continuationToken.isBlank()
+            ? builder.continuationToken : null;
     }
 
     // Static factory method for simple queries
@@ -107,6 +113,17 @@ public class TaskQueryRequest {
         return page * pageSize;
     }
 
+    /**
+     * 續頁標記，null 表示依 page 分頁
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public boolean hasContinuationToken() {
+        return continuationToken != null;
+    }
+
     /**
      * Builder class for creating TaskQueryRequest instances
      */
@@ -119,6 +136,7 @@ public class TaskQueryRequest {
         private SortDirection sortDirection;
         private int page = 0;
         private int pageSize = 10;
+        private String continuationToken;
 
         public Builder statusFilter(List<TaskStatus> statusFilter) {
             this.statusFilter = statusFilter;
@@ -182,6 +200,14 @@ public class TaskQueryRequest {
             return this;
         }
 
+        /**
+         * @param continuationToken 上一頁結果的 nextPageToken，null 或空白表示依 page 分頁
+         */
+        public Builder continuationToken(String continuationToken) {
+            this.continuationToken = continuationToken;
+            return this;
+        }
+
         public TaskQueryRequest build() {
             return new TaskQueryRequest(this);
         }
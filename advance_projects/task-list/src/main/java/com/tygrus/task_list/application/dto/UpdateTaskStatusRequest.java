@@ -1,6 +1,7 @@
 package com.tygrus.task_list.application.dto;
 
 import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.WriteDurability;
 
 /**
  * 更新任務狀態請求DTO
@@ -17,12 +18,14 @@ public class UpdateTaskStatusRequest {
     private final TaskStatus newStatus;
     private final String reason;
     private final String updatedBy; // 可選：操作者ID
+    private final WriteDurability durability; // 可選：預設等待寫入完成
 
     private UpdateTaskStatusRequest(Builder builder) {
         this.taskId = builder.taskId;
         this.newStatus = builder.newStatus;
         this.reason = builder.reason;
         this.updatedBy = builder.updatedBy;
+        this.durability = builder.durability;
     }
 
     // Static factory method for simple status update
@@ -56,6 +59,10 @@ public class UpdateTaskStatusRequest {
         return updatedBy;
     }
 
+    public WriteDurability getDurability() {
+        return durability;
+    }
+
     // Validation methods
     public boolean hasUpdatedBy() {
         return updatedBy != null && !updatedBy.trim().isEmpty();
@@ -69,6 +76,7 @@ public class UpdateTaskStatusRequest {
         private TaskStatus newStatus;
         private String reason;
         private String updatedBy;
+        private WriteDurability durability = WriteDurability.SYNC;
 
         public Builder taskId(String taskId) {
             this.taskId = taskId;
@@ -90,6 +98,14 @@ public class UpdateTaskStatusRequest {
             return this;
         }
 
+        /**
+         * 寫入的完成保證，可容忍短暫延遲的更新（如看板拖放）使用 ASYNC
+         */
+        public Builder durability(WriteDurability durability) {
+            this.durability = durability;
+            return this;
+        }
+
         public UpdateTaskStatusRequest build() {
             validateRequiredFields();
             return new UpdateTaskStatusRequest(this);
@@ -107,6 +123,9 @@ public class UpdateTaskStatusRequest {
             if (reason == null || reason.trim().isEmpty()) {
                 throw new IllegalArgumentException("Reason cannot be null or empty");
             }
+            if (durability == null) {
+                throw new IllegalArgumentException("Durability cannot be null");
+            }
         }
     }
 }
\ No newline at end of file
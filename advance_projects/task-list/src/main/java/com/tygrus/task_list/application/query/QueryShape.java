@@ -0,0 +1,40 @@
+package com.tygrus.task_list.application.query;
+
+import com.tygrus.task_list.application.dto.TaskQueryRequest;
+import com.tygrus.task_list.application.dto.TaskQueryRequest.SortDirection;
+import com.tygrus.task_list.application.dto.TaskQueryRequest.TaskSortField;
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.infrastructure.search.TaskTextIndex;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 查詢結果快取鍵的條件部分：TaskQueryRequest 去除分頁後的過濾與排序條件
+ *
+ * 狀態與優先級以集合表示，查詢詞轉小寫、去重並排序，
+ * 因此只有條件順序或大小寫不同的請求共用同一組快取頁面。
+ */
+record QueryShape(Set<TaskStatus> statuses,
+                  Set<Priority> priorities,
+                  List<String> titleTerms,
+                  List<String> descriptionTerms,
+                  TaskSortField sortField,
+                  SortDirection sortDirection) {
+
+    static QueryShape of(TaskQueryRequest request) {
+        return new QueryShape(
+            request.hasStatusFilter() ? EnumSet.copyOf(request.getStatusFilter()) : EnumSet.noneOf(TaskStatus.class),
+            request.hasPriorityFilter() ? EnumSet.copyOf(request.getPriorityFilter()) : EnumSet.noneOf(Priority.class),
+            normalizedTerms(request.getTitleContains()),
+            normalizedTerms(request.getDescriptionContains()),
+            request.getSortField(),
+            request.getSortDirection());
+    }
+
+    private static List<String> normalizedTerms(String query) {
+        return TaskTextIndex.queryTerms(query).stream().distinct().sorted().toList();
+    }
+}
@@ -0,0 +1,152 @@
+package com.tygrus.task_list.application.query;
+
+import com.tygrus.task_list.application.dto.PagedResult;
+import com.tygrus.task_list.application.dto.TaskDTO;
+import com.tygrus.task_list.application.dto.TaskQueryRequest;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.TaskWriteEpochs;
+import com.tygrus.task_list.infrastructure.cache.WTinyLfuCache;
+import com.tygrus.task_list.infrastructure.persistence.routing.ReadYourWritesContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 任務清單查詢結果快取
+ *
+ * 以正規化後的請求（{@link QueryShape} 加上頁碼、每頁筆數與續頁標記）為鍵，保存該頁的 DTO 與總筆數。
+ * 每個項目記下載入前取得的寫入世代（{@link TaskWriteEpochs#stamp}）：
+ * 以狀態過濾的請求只依賴所選狀態的世代，其他狀態的寫入不會使其失效；不過濾狀態的請求依賴全域世代。
+ * 讀取時世代不同即視為未命中並移除舊項目，寫入完成後的下一次讀取必定重新查詢。
+ *
+ * 世代在查詢前取得，查詢期間的寫入會讓放入的項目在下一次讀取時失效，不會保存比寫入舊的結果。
+ * 寫入世代在本機提交後即推進，副本可能尚未同步，因此要放入快取的查詢一律走主庫
+ * （{@link ReadYourWritesContext#onPrimary}），避免副本的舊結果以新世代保存下來；命中的請求不存取資料庫。
+ * 記憶體用量以各頁 DTO 的字串長度與固定的物件開銷估計，字串以每字元兩位元組計算。
+ */
+public class TaskQueryResultCache {
+
+    public static final long DEFAULT_MAXIMUM_PAGES = 1_000;
+
+    // 鍵、快取節點、PagedResult 與 PageInfo 的估計開銷
+    private static final long PAGE_OVERHEAD = 256;
+    // TaskDTO 本身與內容清單中的引用
+    private static final long TASK_OVERHEAD = 56;
+    // LocalDateTime 與其 LocalDate、LocalTime
+    private static final long DATE_TIME_BYTES = 72;
+    // String 物件與底層陣列的標頭
+    private static final long STRING_OVERHEAD = 40;
+
+    private final TaskRepository source;
+    private final WTinyLfuCache<PageKey, CachedPage> pages;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+
+    public TaskQueryResultCache(TaskRepository source) {
+        this(source, DEFAULT_MAXIMUM_PAGES);
+    }
+
+    /**
+     * @param source 提供寫入世代的儲存庫，須與載入結果的儲存庫相同
+     * @param maximumPages 最多保存的頁數
+     */
+    public TaskQueryResultCache(TaskRepository source, long maximumPages) {
+        this.source = source;
+        this.pages = new WTinyLfuCache<>(maximumPages);
+    }
+
+    /**
+     * 取得請求的結果，未命中或已失效時以 loader 查詢並放入快取
+     *
+     * @param request 查詢請求
+     * @param loader 查詢儲存庫並轉換為 DTO 的函式
+     * @return 該頁的結果，命中時為快取保存的同一個物件
+     */
+    public PagedResult<TaskDTO> get(TaskQueryRequest request,
+                                    Function<TaskQueryRequest, PagedResult<TaskDTO>> loader) {
+        TaskWriteEpochs epochs = source.writeEpochs();
+        PageKey key = PageKey.of(request);
+        long epoch = epochs.stamp(key.shape().statuses());
+        CachedPage cached = pages.getIfPresent(key);
+        if (cached != null && cached.epoch() == epoch) {
+            hitCount.increment();
+            return cached.result();
+        }
+        missCount.increment();
+        if (cached != null) {
+            invalidationCount.increment();
+            pages.invalidate(key);
+        }
+
+        long stamp = pages.stamp(key);
+        PagedResult<TaskDTO> result = ReadYourWritesContext.onPrimary(() -> loader.apply(request));
+        pages.putIfUnchanged(key, new CachedPage(result, epoch, estimateBytes(result)), stamp);
+        return result;
+    }
+
+    public Stats getStats() {
+        WTinyLfuCache.Stats stats = pages.stats();
+        return new Stats(hitCount.sum(), missCount.sum(), invalidationCount.sum(), stats.evictionCount(),
+            stats.size(), pages.weightedSize(CachedPage::estimatedBytes));
+    }
+
+    private static long estimateBytes(PagedResult<TaskDTO> result) {
+        long bytes = PAGE_OVERHEAD;
+        for (TaskDTO task : result.getContent()) {
+            bytes += TASK_OVERHEAD
+                + bytesOf(task.getId()) + bytesOf(task.getTitle()) + bytesOf(task.getDescription())
+                + bytesOf(task.getDueDate()) + bytesOf(task.getCreatedAt()) + bytesOf(task.getUpdatedAt());
+        }
+        return bytes + bytesOf(result.getNextPageToken());
+    }
+
+    private static long bytesOf(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+    }
+
+    private static long bytesOf(LocalDateTime value) {
+        return value == null ? 0 : DATE_TIME_BYTES;
+    }
+
+    /**
+     * 快取鍵：請求的過濾與排序條件加上分頁；帶續頁標記時頁碼不影響結果，固定為 0
+     */
+    record PageKey(QueryShape shape, int page, int pageSize, String continuationToken) {
+
+        static PageKey of(TaskQueryRequest request) {
+            return new PageKey(QueryShape.of(request), request.hasContinuationToken() ? 0 : request.getPage(),
+                request.getPageSize(), request.getContinuationToken());
+        }
+    }
+
+    private record CachedPage(PagedResult<TaskDTO> result, long epoch, long estimatedBytes) {
+    }
+
+    /**
+     * 快取統計
+     *
+     * @param hitCount 命中次數
+     * @param missCount 未命中次數（含已失效）
+     * @param invalidationCount 因寫入世代改變而移除的項目數
+     * @param evictionCount 因容量淘汰的項目數
+     * @param size 目前保存的頁數
+     * @param estimatedBytes 目前保存內容的估計位元組數
+     */
+    public record Stats(long hitCount, long missCount, long invalidationCount, long evictionCount,
+                        long size, long estimatedBytes) {
+
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return requests > 0 ? (double) hitCount / requests : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Stats{pages=%d, bytes=%d, hits=%d, misses=%d, hitRate=%.2f%%, invalidations=%d}",
+                size, estimatedBytes, hitCount, missCount, hitRate() * 100, invalidationCount);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.tygrus.task_list.domain.exception.OptimisticLockException;
 import com.tygrus.task_list.domain.model.Task;
 import com.tygrus.task_list.domain.model.TaskId;
 import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.AsyncTaskRepository;
 import com.tygrus.task_list.domain.repository.TaskRepository;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -40,6 +41,7 @@ public class BatchUpdateTasksUseCase {
 
     private static final Logger logger = LogManager.getLogger(BatchUpdateTasksUseCase.class);
     private final TaskRepository taskRepository;
+    private final AsyncTaskRepository asyncTaskRepository;
     private final ExecutorService executorService;
     private final ReentrantReadWriteLock progressLock = new ReentrantReadWriteLock();
     
@@ -50,7 +52,15 @@ public class BatchUpdateTasksUseCase {
     private final AtomicInteger totalRetries = new AtomicInteger(0);
 
     public BatchUpdateTasksUseCase(TaskRepository taskRepository) {
+        this(taskRepository, null);
+    }
+
+    /**
+     * @param asyncTaskRepository 供 executeAsync 使用，null 時 executeAsync 改在執行緒池執行同步版本
+     */
+    public BatchUpdateTasksUseCase(TaskRepository taskRepository, AsyncTaskRepository asyncTaskRepository) {
         this.taskRepository = taskRepository;
+        this.asyncTaskRepository = asyncTaskRepository;
         // 創建固定大小的執行緒池，適合CPU密集型任務
         this.executorService = Executors.newFixedThreadPool(
             Math.min(Runtime.getRuntime().availableProcessors() * 2, 10)
@@ -118,6 +128,53 @@ public class BatchUpdateTasksUseCase {
         }
     }
 
+    /**
+     * 非同步執行批次任務更新
+     * 
+     * 每個任務（BULK 模式為每個批次）都是一條由 AsyncTaskRepository 串接的非同步流程，
+     * 等待資料庫與重試退避時都不占用執行緒，同時進行的操作數只受 AsyncTaskRepository 的並行上限限制。
+     * 結果與 execute 相同；逾時時 future 以 BatchOperationException 失敗
+     * 
+     * @param request 批次更新請求
+     * @return 批次操作結果
+     */
+    public CompletableFuture<BatchOperationResult> executeAsync(BatchUpdateTaskRequest request) {
+        if (asyncTaskRepository == null) {
+            return CompletableFuture.supplyAsync(() -> execute(request), executorService);
+        }
+        LocalDateTime startTime = LocalDateTime.now();
+        resetCounters();
+        BatchOperationResult.Builder resultBuilder = BatchOperationResult.builder()
+            .startTime(startTime)
+            .totalCount(request.getTaskIds().size());
+        
+        List<CompletableFuture<BatchResult>> futures;
+        if (request.getExecutionMode() == BatchUpdateTaskRequest.ExecutionMode.BULK) {
+            futures = partitionTasks(request.getTaskIds(), request.getBatchSize()).stream()
+                .map(batch -> processBatchInBulkAsync(batch, request))
+                .collect(Collectors.toList());
+        } else {
+            futures = request.getTaskIds().stream()
+                .map(taskId -> processTaskAsync(taskId, request))
+                .collect(Collectors.toList());
+        }
+        
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .orTimeout(5, TimeUnit.MINUTES)
+            .handle((ignored, error) -> {
+                if (unwrap(error) instanceof TimeoutException) {
+                    futures.forEach(future -> future.cancel(true));
+                    throw new BatchOperationException("Batch operation timed out after 5 minutes", 
+                        Collections.emptyList());
+                }
+                List<BatchResult> batchResults = futures.stream()
+                    .map(this::safelyGetResult)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+                return aggregateResults(batchResults, resultBuilder, startTime);
+            });
+    }
+
     /**
      * 非同步處理單個批次
      */
@@ -132,33 +189,281 @@ public class BatchUpdateTasksUseCase {
      * 處理單個批次
      */
     private BatchResult processBatch(List<String> taskIds, BatchUpdateTaskRequest request) {
+        if (request.getExecutionMode() == BatchUpdateTaskRequest.ExecutionMode.BULK) {
+            return processBatchInBulk(taskIds, request);
+        }
+        
         List<TaskDTO> successfulTasks = new ArrayList<>();
         List<BatchOperationError> errors = new ArrayList<>();
         
         for (String taskId : taskIds) {
             try {
                 TaskDTO updatedTask = updateSingleTaskWithRetry(taskId, request);
-                successfulTasks.add(updatedTask);
-                totalSuccessful.incrementAndGet();
-                
-                // 更新進度
-                updateProgress(request, taskId, "Completed successfully");
-                
+                recordSuccess(request, taskId, updatedTask, successfulTasks);
             } catch (Exception e) {
-                BatchOperationError error = new BatchOperationError(taskId, e.getMessage(), e);
-                errors.add(error);
-                totalFailed.incrementAndGet();
-                
-                // 更新進度
-                updateProgress(request, taskId, "Failed: " + e.getMessage());
+                recordFailure(request, taskId, e, errors);
+            }
+        }
+        
+        return new BatchResult(successfulTasks, errors);
+    }
+
+    /**
+     * 以集合式操作處理單個批次
+     * 一次 findByIds 載入整批任務，在記憶體中驗證狀態轉換，
+     * 再以一次 saveAllWithOptimisticLock 寫入合法的任務；
+     * 版本衝突的任務重新載入後整批重試，不合法的轉換直接記為該筆的錯誤
+     */
+    private BatchResult processBatchInBulk(List<String> taskIds, BatchUpdateTaskRequest request) {
+        List<TaskDTO> successfulTasks = new ArrayList<>();
+        List<BatchOperationError> errors = new ArrayList<>();
+        int maxRetries = request.getMaxRetries();
+        
+        List<String> pending = taskIds;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            List<String> conflicted = updatePartition(pending, request, successfulTasks, errors);
+            if (conflicted.isEmpty()) {
+                break;
+            }
+            if (attempt > maxRetries) {
+                for (String taskId : conflicted) {
+                    recordFailure(request, taskId, new ConcurrencyConflictException(taskId, "OPTIMISTIC_LOCK",
+                        "Failed after " + maxRetries + " retries: version conflict", attempt), errors);
+                }
+                break;
             }
             
-            totalProcessed.incrementAndGet();
+            totalRetries.addAndGet(conflicted.size());
+            try {
+                Thread.sleep(100L * (1L << (attempt - 1))); // 100ms, 200ms, 400ms...
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                for (String taskId : conflicted) {
+                    recordFailure(request, taskId, new ConcurrencyConflictException(taskId, "INTERRUPTED",
+                        "Thread was interrupted during retry", ie, attempt), errors);
+                }
+                break;
+            }
+            pending = conflicted;
         }
         
         return new BatchResult(successfulTasks, errors);
     }
 
+    /**
+     * 對一組任務執行一輪集合式更新
+     * 
+     * @return 版本衝突、需要重試的任務ID
+     */
+    private List<String> updatePartition(List<String> taskIds, BatchUpdateTaskRequest request,
+                                         List<TaskDTO> successfulTasks, List<BatchOperationError> errors) {
+        Map<String, TaskId> ids = parseTaskIds(taskIds, request, errors);
+        Map<TaskId, Task> found = ids.isEmpty()
+            ? Collections.emptyMap()
+            : taskRepository.findByIds(new ArrayList<>(ids.values()));
+        
+        List<Task> candidates = transitionFound(ids, found, request, errors);
+        if (candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        Map<TaskId, Task> saved = taskRepository.saveAllWithOptimisticLock(candidates);
+        return recordSaved(candidates, saved, request, successfulTasks);
+    }
+
+    private Map<String, TaskId> parseTaskIds(List<String> taskIds, BatchUpdateTaskRequest request,
+                                             List<BatchOperationError> errors) {
+        Map<String, TaskId> ids = new LinkedHashMap<>();
+        for (String taskId : taskIds) {
+            try {
+                ids.put(taskId, TaskId.of(taskId));
+            } catch (IllegalArgumentException e) {
+                recordFailure(request, taskId, e, errors);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 對找到的任務執行狀態轉換，找不到或轉換不合法的任務記為錯誤
+     * 
+     * @return 可以寫入的任務
+     */
+    private List<Task> transitionFound(Map<String, TaskId> ids, Map<TaskId, Task> found,
+                                       BatchUpdateTaskRequest request, List<BatchOperationError> errors) {
+        List<Task> candidates = new ArrayList<>(ids.size());
+        for (Map.Entry<String, TaskId> entry : ids.entrySet()) {
+            Task task = found.get(entry.getValue());
+            if (task == null) {
+                recordFailure(request, entry.getKey(), new TaskNotFoundException(entry.getKey()), errors);
+                continue;
+            }
+            try {
+                applyTransition(task, request.getNewStatus());
+                candidates.add(task);
+            } catch (IllegalStatusTransitionException e) {
+                recordFailure(request, entry.getKey(), e, errors);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * 記錄寫入成功的任務
+     * 
+     * @return 版本衝突、需要重試的任務ID
+     */
+    private List<String> recordSaved(List<Task> candidates, Map<TaskId, Task> saved,
+                                     BatchUpdateTaskRequest request, List<TaskDTO> successfulTasks) {
+        List<String> conflicted = new ArrayList<>();
+        for (Task candidate : candidates) {
+            Task savedTask = saved.get(candidate.getId());
+            if (savedTask != null) {
+                recordSuccess(request, candidate.getId().getValue(), TaskDTO.fromTask(savedTask), successfulTasks);
+            } else {
+                conflicted.add(candidate.getId().getValue());
+            }
+        }
+        return conflicted;
+    }
+
+    private void recordSuccess(BatchUpdateTaskRequest request, String taskId, TaskDTO updatedTask,
+                               List<TaskDTO> successfulTasks) {
+        successfulTasks.add(updatedTask);
+        totalSuccessful.incrementAndGet();
+        
+        // 更新進度
+        updateProgress(request, taskId, "Completed successfully");
+        totalProcessed.incrementAndGet();
+    }
+
+    private void recordFailure(BatchUpdateTaskRequest request, String taskId, Exception e,
+                               List<BatchOperationError> errors) {
+        errors.add(new BatchOperationError(taskId, e.getMessage(), e));
+        totalFailed.incrementAndGet();
+        
+        // 更新進度
+        updateProgress(request, taskId, "Failed: " + e.getMessage());
+        totalProcessed.incrementAndGet();
+    }
+
+    /**
+     * 以集合式操作非同步處理單個批次，流程與 processBatchInBulk 相同
+     */
+    private CompletableFuture<BatchResult> processBatchInBulkAsync(List<String> taskIds, 
+                                                                   BatchUpdateTaskRequest request) {
+        List<TaskDTO> successfulTasks = new ArrayList<>();
+        List<BatchOperationError> errors = new ArrayList<>();
+        return updatePartitionAsync(taskIds, request, 1, successfulTasks, errors)
+            .thenApply(ignored -> new BatchResult(successfulTasks, errors));
+    }
+
+    /**
+     * 非同步執行一輪集合式更新，版本衝突的任務在退避後遞迴重試
+     * 同一批次的各輪依序執行，successfulTasks 與 errors 不會被並行存取
+     */
+    private CompletableFuture<Void> updatePartitionAsync(List<String> taskIds, BatchUpdateTaskRequest request,
+                                                         int attempt, List<TaskDTO> successfulTasks,
+                                                         List<BatchOperationError> errors) {
+        Map<String, TaskId> ids = parseTaskIds(taskIds, request, errors);
+        if (ids.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        return asyncTaskRepository.findByIds(new ArrayList<>(ids.values()))
+            .thenCompose(found -> {
+                List<Task> candidates = transitionFound(ids, found, request, errors);
+                if (candidates.isEmpty()) {
+                    return CompletableFuture.completedFuture(Collections.<String>emptyList());
+                }
+                return asyncTaskRepository.saveAllWithOptimisticLock(candidates)
+                    .thenApply(saved -> recordSaved(candidates, saved, request, successfulTasks));
+            })
+            .thenCompose(conflicted -> {
+                if (conflicted.isEmpty()) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                int maxRetries = request.getMaxRetries();
+                if (attempt > maxRetries) {
+                    for (String taskId : conflicted) {
+                        recordFailure(request, taskId, new ConcurrencyConflictException(taskId, "OPTIMISTIC_LOCK",
+                            "Failed after " + maxRetries + " retries: version conflict", attempt), errors);
+                    }
+                    return CompletableFuture.completedFuture(null);
+                }
+                totalRetries.addAndGet(conflicted.size());
+                return CompletableFuture.runAsync(() -> { }, backoff(attempt))
+                    .thenCompose(ignored -> updatePartitionAsync(conflicted, request, attempt + 1, 
+                        successfulTasks, errors));
+            });
+    }
+
+    /**
+     * 非同步更新單個任務，結果包成只含一筆的 BatchResult
+     */
+    private CompletableFuture<BatchResult> processTaskAsync(String taskId, BatchUpdateTaskRequest request) {
+        return updateSingleTaskAsync(taskId, request, 1)
+            .handle((updatedTask, error) -> {
+                List<TaskDTO> successfulTasks = new ArrayList<>(1);
+                List<BatchOperationError> errors = new ArrayList<>(1);
+                if (error == null) {
+                    recordSuccess(request, taskId, updatedTask, successfulTasks);
+                } else {
+                    Throwable cause = unwrap(error);
+                    recordFailure(request, taskId, 
+                        cause instanceof Exception exception ? exception : new RuntimeException(cause), errors);
+                }
+                return new BatchResult(successfulTasks, errors);
+            });
+    }
+
+    /**
+     * 以非同步流程更新單個任務，重試規則與 updateSingleTaskWithRetry 相同
+     */
+    private CompletableFuture<TaskDTO> updateSingleTaskAsync(String taskId, BatchUpdateTaskRequest request, 
+                                                             int attempt) {
+        TaskId id;
+        try {
+            id = TaskId.of(taskId);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        
+        return asyncTaskRepository.findById(id)
+            .thenCompose(taskOptional -> {
+                Task task = taskOptional.orElseThrow(() -> new TaskNotFoundException(taskId));
+                long expectedVersion = task.getVersion();
+                applyTransition(task, request.getNewStatus());
+                return asyncTaskRepository.saveWithOptimisticLock(task, expectedVersion);
+            })
+            .thenApply(TaskDTO::fromTask)
+            .exceptionallyCompose(error -> {
+                Throwable cause = unwrap(error);
+                if (!(cause instanceof OptimisticLockException e)) {
+                    return CompletableFuture.failedFuture(cause);
+                }
+                totalRetries.incrementAndGet();
+                int maxRetries = request.getMaxRetries();
+                if (attempt > maxRetries) {
+                    return CompletableFuture.failedFuture(new ConcurrencyConflictException(taskId, "OPTIMISTIC_LOCK",
+                        "Failed after " + maxRetries + " retries: " + e.getMessage(), e, attempt));
+                }
+                return CompletableFuture.runAsync(() -> { }, backoff(attempt))
+                    .thenCompose(ignored -> updateSingleTaskAsync(taskId, request, attempt + 1));
+            });
+    }
+
+    /**
+     * 指數退避的延遲執行器：100ms, 200ms, 400ms...
+     */
+    private static Executor backoff(int attempt) {
+        return CompletableFuture.delayedExecutor(100L * (1L << (attempt - 1)), TimeUnit.MILLISECONDS);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
     /**
      * 使用重試機制更新單個任務
      */
@@ -211,23 +516,31 @@ public class BatchUpdateTasksUseCase {
         }
         
         Task task = taskOptional.get();
-        TaskStatus originalStatus = task.getStatus();
+        long expectedVersion = task.getVersion();
         
         // 執行狀態轉換
+        applyTransition(task, request.getNewStatus());
+        
+        // 以樂觀鎖保存任務，版本衝突時拋出 OptimisticLockException 觸發重試
+        Task savedTask = taskRepository.saveWithOptimisticLock(task, expectedVersion);
+        
+        return TaskDTO.fromTask(savedTask);
+    }
+
+    /**
+     * 依領域規則執行狀態轉換，違反規則時轉為 IllegalStatusTransitionException
+     */
+    private static void applyTransition(Task task, TaskStatus newStatus) {
+        TaskStatus originalStatus = task.getStatus();
         try {
-            task.updateStatus(request.getNewStatus());
+            task.updateStatus(newStatus);
         } catch (IllegalStateException e) {
             throw new IllegalStatusTransitionException(
                 originalStatus.name(), 
-                request.getNewStatus().name(),
+                newStatus.name(),
                 e.getMessage()
             );
         }
-        
-        // 保存任務
-        Task savedTask = taskRepository.save(task);
-        
-        return TaskDTO.fromTask(savedTask);
     }
 
     /**
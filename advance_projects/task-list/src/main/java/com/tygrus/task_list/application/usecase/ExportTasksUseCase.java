@@ -5,6 +5,7 @@ import com.tygrus.task_list.application.dto.ExportResult;
 import com.tygrus.task_list.application.dto.ExportTasksRequest;
 import com.tygrus.task_list.application.service.TaskExporter;
 import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.repository.TaskQuery;
 import com.tygrus.task_list.domain.repository.TaskRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,23 +59,23 @@ public class ExportTasksUseCase {
             // 驗證請求參數
             validateRequest(request);
             
+            // 選擇適當的匯出器，不支援的格式不必查詢
+            TaskExporter exporter = findExporter(request.getFormat());
+            if (exporter == null) {
+                String errorMsg = "No exporter found for format: " + request.getFormat();
+                logger.error(errorMsg);
+                return new ExportResult(errorMsg);
+            }
+            
             // 查詢符合條件的任務
             List<Task> tasks = queryTasks(request);
             
             // 檢查匯出數量限制
             if (tasks.size() > request.getMaxRecords()) {
-                logger.warn("Export result truncated from {} to {} records", tasks.size(), request.getMaxRecords());
+                logger.warn("Export result truncated to {} records", request.getMaxRecords());
                 tasks = tasks.subList(0, request.getMaxRecords());
             }
             
-            // 選擇適當的匯出器
-            TaskExporter exporter = findExporter(request.getFormat());
-            if (exporter == null) {
-                String errorMsg = "No exporter found for format: " + request.getFormat();
-                logger.error(errorMsg);
-                return new ExportResult(errorMsg);
-            }
-            
             // 執行匯出
             String fileName = generateFileName(request);
             byte[] fileContent = exporter.export(tasks, fileName);
@@ -131,75 +132,32 @@ public class ExportTasksUseCase {
     
     /**
      * 根據請求條件查詢任務
+     * 條件轉換為 TaskQuery 交給儲存庫執行，只取上限加一筆以判斷是否需要截斷；已封存的任務一併匯出，
+     * 已刪除的任務只在請求 includeDeleted 時匯出
      * 
      * @param request 匯出請求
      * @return 符合條件的任務清單
      */
     private List<Task> queryTasks(ExportTasksRequest request) {
-        // 先取得所有任務
-        List<Task> allTasks;
-        if (request.isIncludeDeleted()) {
-            // 包含已刪除的任務 - 需要實作專門的方法
-            allTasks = taskRepository.findAll();
-        } else {
-            allTasks = taskRepository.findAll();
-        }
-        
-        // 應用篩選條件
-        return allTasks.stream()
-            .filter(task -> matchesStatusFilter(task, request))
-            .filter(task -> matchesDateFilter(task, request))
-            .filter(task -> matchesTitleFilter(task, request))
-            .limit(request.getMaxRecords() + 1000) // 多查一些，以便後續截斷
-            .collect(Collectors.toList());
+        return taskRepository.query(toTaskQuery(request)).tasks();
     }
     
     /**
-     * 檢查任務是否符合狀態篩選條件
+     * 將匯出請求轉換為查詢規格
+     * 標題篩選整段視為一個不分大小寫的查詢詞
      */
-    private boolean matchesStatusFilter(Task task, ExportTasksRequest request) {
-        return request.getStatusFilter() == null || 
-               request.getStatusFilter().isEmpty() || 
-               request.getStatusFilter().contains(task.getStatus());
-    }
-    
-    /**
-     * 檢查任務是否符合日期篩選條件
-     */
-    private boolean matchesDateFilter(Task task, ExportTasksRequest request) {
-        // 檢查創建日期篩選
-        if (request.getCreatedFrom() != null && task.getCreatedAt().isBefore(request.getCreatedFrom())) {
-            return false;
-        }
-        if (request.getCreatedTo() != null && task.getCreatedAt().isAfter(request.getCreatedTo())) {
-            return false;
-        }
-        
-        // 檢查到期日期篩選
-        if (request.getDueDateFrom() != null) {
-            if (task.getDueDate() == null || task.getDueDate().isBefore(request.getDueDateFrom())) {
-                return false;
-            }
-        }
-        if (request.getDueDateTo() != null) {
-            if (task.getDueDate() == null || task.getDueDate().isAfter(request.getDueDateTo())) {
-                return false;
-            }
-        }
-        
-        return true;
-    }
-    
-    /**
-     * 檢查任務是否符合標題篩選條件
-     */
-    private boolean matchesTitleFilter(Task task, ExportTasksRequest request) {
-        if (request.getTitleFilter() == null || request.getTitleFilter().trim().isEmpty()) {
-            return true;
-        }
-        
-        String filter = request.getTitleFilter().toLowerCase();
-        return task.getTitle().toLowerCase().contains(filter);
+    static TaskQuery toTaskQuery(ExportTasksRequest request) {
+        String titleFilter = request.getTitleFilter();
+        return TaskQuery.builder()
+            .statuses(request.getStatusFilter())
+            .titleTerms(titleFilter == null || titleFilter.trim().isEmpty() ? List.of() : List.of(titleFilter))
+            .createdBetween(request.getCreatedFrom(), request.getCreatedTo())
+            .dueDateBetween(request.getDueDateFrom(), request.getDueDateTo())
+            .limit(request.getMaxRecords() + 1)
+            .countTotal(false)
+            .includeArchived(true)
+            .includeDeleted(request.isIncludeDeleted())
+            .build();
     }
     
     /**
@@ -9,6 +9,7 @@ import com.tygrus.task_list.application.service.FileParser;
 import com.tygrus.task_list.domain.model.Priority;
 import com.tygrus.task_list.domain.model.Task;
 import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.AsyncTaskRepository;
 import com.tygrus.task_list.domain.repository.TaskRepository;
 
 import java.io.ByteArrayInputStream;
@@ -18,6 +19,8 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
@@ -33,10 +36,20 @@ public class ImportTasksUseCase {
     private static final int BATCH_SIZE = 100; // 批次處理大小
     
     private final TaskRepository taskRepository;
+    private final AsyncTaskRepository asyncTaskRepository;
     private final List<FileParser> fileParsers;
     
     public ImportTasksUseCase(TaskRepository taskRepository, List<FileParser> fileParsers) {
+        this(taskRepository, null, fileParsers);
+    }
+    
+    /**
+     * @param asyncTaskRepository 供 executeAsync 並行保存任務，null 時 executeAsync 改在共用執行緒池執行同步版本
+     */
+    public ImportTasksUseCase(TaskRepository taskRepository, AsyncTaskRepository asyncTaskRepository,
+                              List<FileParser> fileParsers) {
         this.taskRepository = Objects.requireNonNull(taskRepository, "TaskRepository cannot be null");
+        this.asyncTaskRepository = asyncTaskRepository;
         this.fileParsers = Objects.requireNonNull(fileParsers, "FileParsers cannot be null");
         
         if (fileParsers.isEmpty()) {
@@ -69,6 +82,74 @@ public class ImportTasksUseCase {
         }
     }
     
+    /**
+     * 非同步執行批次匯入
+     * 檔案解析完成後每筆任務各自送出保存，不等待前一筆完成；
+     * 同時寫入的數量由 AsyncTaskRepository 限制，結果依檔案中的順序排列
+     * 
+     * @param fileContent 檔案內容 (byte array)
+     * @param fileName 檔案名稱
+     * @return 匯入結果
+     */
+    public CompletableFuture<ImportResult> executeAsync(byte[] fileContent, String fileName) {
+        if (asyncTaskRepository == null) {
+            return CompletableFuture.supplyAsync(() -> execute(fileContent, fileName));
+        }
+        validateInput(fileContent, fileName);
+        validateFileSize(fileContent, fileName);
+        FileParser parser = findSuitableParser(fileName);
+        
+        List<CreateTaskRequest> requests = new ArrayList<>();
+        List<String> parseErrors = new ArrayList<>();
+        try (InputStream inputStream = new ByteArrayInputStream(fileContent);
+             Stream<CreateTaskRequest> requestStream = parser.parse(inputStream, fileName)) {
+            requestStream.forEach(requests::add);
+        } catch (Exception e) {
+            parseErrors.add("Failed to parse file: " + e.getMessage());
+        }
+        
+        List<CompletableFuture<ProcessResult>> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            int line = i + 1;
+            CompletableFuture<ProcessResult> result;
+            try {
+                Task task = createTaskFromRequest(requests.get(i));
+                result = asyncTaskRepository.save(task)
+                    .thenApply(savedTask -> ProcessResult.success(TaskDTO.fromTask(savedTask)));
+            } catch (Exception e) {
+                result = CompletableFuture.failedFuture(e);
+            }
+            results.add(result.exceptionally(error ->
+                ProcessResult.failure("Line " + line + ": " + unwrap(error).getMessage())));
+        }
+        
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> {
+                List<String> errorMessages = new ArrayList<>();
+                List<TaskDTO> successfulTasks = new ArrayList<>();
+                for (CompletableFuture<ProcessResult> result : results) {
+                    ProcessResult processResult = result.join();
+                    if (processResult.isSuccess()) {
+                        successfulTasks.add(processResult.getTaskDTO());
+                    } else {
+                        errorMessages.add(processResult.getErrorMessage());
+                    }
+                }
+                errorMessages.addAll(parseErrors);
+                return ImportResult.builder()
+                    .totalCount(requests.size())
+                    .successCount(successfulTasks.size())
+                    .failureCount(requests.size() - successfulTasks.size())
+                    .errorMessages(errorMessages)
+                    .successfulTasks(successfulTasks)
+                    .build();
+            });
+    }
+    
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+    
     private void validateInput(byte[] fileContent, String fileName) {
         if (fileContent == null) {
             throw new IllegalArgumentException("File content cannot be null");
@@ -3,35 +3,62 @@ package com.tygrus.task_list.application.usecase;
 import com.tygrus.task_list.application.dto.PagedResult;
 import com.tygrus.task_list.application.dto.TaskDTO;
 import com.tygrus.task_list.application.dto.TaskQueryRequest;
-import com.tygrus.task_list.application.dto.TaskQueryRequest.TaskSortField;
-import com.tygrus.task_list.application.dto.TaskQueryRequest.SortDirection;
+import com.tygrus.task_list.application.query.TaskQueryResultCache;
 import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskCounts;
+import com.tygrus.task_list.domain.repository.TaskQuery;
+import com.tygrus.task_list.domain.repository.TaskQueryCursor;
+import com.tygrus.task_list.domain.repository.TaskQueryResult;
 import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.search.TaskTextIndex;
 
 import org.springframework.stereotype.Service;
-import java.util.Comparator;
 import java.util.List;
-import java.util.function.Predicate;
-import java.util.stream.Stream;
+import java.util.Optional;
 
 /**
  * 查詢任務列表的Use Case (UC-002)
  * 
  * 展示Collections Framework的強大功能：
  * - Stream API進行複雜的過濾和轉換
- * - Predicate組合進行多條件過濾
- * - Comparator進行多欄位排序
- * - 手動分頁實現展示List的subList操作
+ * - 過濾、排序與分頁轉換為 TaskQuery 交給儲存庫執行，資料庫實作只傳回該頁的資料列
+ * - 只轉換該頁的任務為DTO
  * 
  * 這個類是學習Collections Framework的絕佳範例
+ * 
+ * 標題與描述搜尋以空白分隔多個詞，每個詞都需包含（AND）；
+ * 配置 TaskTextIndex 時由倒排索引取得候選任務，候選任務以同一個 TaskQuery 在記憶體中過濾並選出該頁，
+ * 與儲存庫查詢的條件語意、排序與分頁完全相同
+ * 
+ * 配置 TaskQueryResultCache 時，相同的請求直接回傳快取的頁面，儲存庫的寫入世代改變後才重新查詢；
+ * 由文字索引取得候選任務的請求不經過快取
+ * 
+ * 儲存庫查詢的結果附上下一頁的續頁標記（最後一筆的排序鍵與ID）；帶標記的請求從該位置之後讀取，
+ * 不計算總筆數，多取一筆判斷是否還有下一頁。帶標記的請求一律由儲存庫以相同條件查詢
  */
 @Service
 public class QueryTaskListUseCase {
 
     private final TaskRepository taskRepository;
+    private final TaskTextIndex textIndex;
+    private final TaskQueryResultCache resultCache;
 
     public QueryTaskListUseCase(TaskRepository taskRepository) {
+        this(taskRepository, null);
+    }
+
+    public QueryTaskListUseCase(TaskRepository taskRepository, TaskTextIndex textIndex) {
+        this(taskRepository, textIndex, null);
+    }
+
+    /**
+     * @param resultCache 查詢結果快取，null 表示每次都查詢儲存庫
+     */
+    public QueryTaskListUseCase(TaskRepository taskRepository, TaskTextIndex textIndex,
+                                TaskQueryResultCache resultCache) {
         this.taskRepository = taskRepository;
+        this.textIndex = textIndex;
+        this.resultCache = resultCache;
     }
 
     /**
@@ -39,124 +66,105 @@ public class QueryTaskListUseCase {
      * 
      * @param request 查詢請求參數
      * @return 分頁的任務列表
+     * @throws IllegalArgumentException 續頁標記無效或以不同的排序條件取得時
      */
     public PagedResult<TaskDTO> execute(TaskQueryRequest request) {
-        // 1. 從Repository獲取所有任務
-        List<Task> allTasks = taskRepository.findAll();
-
-        // 2. 使用Stream API進行過濾
-        Stream<Task> filteredStream = allTasks.stream()
-            .filter(buildFilterPredicate(request));
-
-        // 3. 轉換為DTO並收集到List
-        List<TaskDTO> filteredTasks = filteredStream
-            .map(this::convertToDTO)
-            .toList();
-
-        // 4. 排序 (使用Comparator)
-        List<TaskDTO> sortedTasks = applySorting(filteredTasks, request);
-
-        // 5. 分頁 (手動實現展示List操作)
-        return applyPagination(sortedTasks, request);
+        // 文字索引依變更流非同步更新，寫入世代改變時索引可能尚未反映該次寫入，這類請求不經過快取
+        if (resultCache != null && !usesTextIndex(request)) {
+            return resultCache.get(request, this::load);
+        }
+        return load(request);
     }
 
     /**
-     * 建立複合過濾條件
-     * 展示Predicate的組合使用和方法引用
+     * 查詢儲存庫或文字索引並轉換該頁的任務
      */
-    private Predicate<Task> buildFilterPredicate(TaskQueryRequest request) {
-        Predicate<Task> predicate = task -> true; // 初始條件：接受所有
-
-        // 狀態過濾 - 展示List.contains的使用
-        if (request.hasStatusFilter()) {
-            predicate = predicate.and(task -> 
-                request.getStatusFilter().contains(task.getStatus()));
-        }
-
-        // 優先級過濾
-        if (request.hasPriorityFilter()) {
-            predicate = predicate.and(task -> 
-                request.getPriorityFilter().contains(task.getPriority()));
-        }
-
-        // 標題包含 - 展示String操作和Optional處理
-        if (request.hasTitleFilter()) {
-            String searchTerm = request.getTitleContains().toLowerCase().trim();
-            predicate = predicate.and(task -> 
-                task.getTitle().toLowerCase().contains(searchTerm));
-        }
+    private PagedResult<TaskDTO> load(TaskQueryRequest request) {
+        int page = request.getPage();
+        int pageSize = request.getPageSize();
 
-        // 描述包含 - 處理null值的情況
-        if (request.hasDescriptionFilter()) {
-            String searchTerm = request.getDescriptionContains().toLowerCase().trim();
-            predicate = predicate.and(task -> {
-                String description = task.getDescription();
-                return description != null && 
-                       description.toLowerCase().contains(searchTerm);
-            });
+        // 有文字搜尋條件時先由索引取得候選任務，其餘查詢交給儲存庫執行；只有該頁的任務轉為DTO
+        TaskQuery query = toTaskQuery(request);
+        Optional<List<Task>> candidates = searchIndex(request);
+        TaskQueryResult result = candidates.isPresent()
+            ? query.select(candidates.get().stream())
+            : taskRepository.query(query);
+        List<Task> tasks = result.tasks();
+        if (query.after() != null) {
+            boolean hasMore = tasks.size() > pageSize;
+            List<Task> pageTasks = hasMore ? tasks.subList(0, pageSize) : tasks;
+            return PagedResult.withContinuation(convertToDTOs(pageTasks), pageSize,
+                hasMore ? nextPageToken(query, pageTasks) : null);
         }
-
-        return predicate;
+        boolean hasMore = !tasks.isEmpty() && (long) request.getOffset() + tasks.size() < result.totalMatches();
+        return PagedResult.of(convertToDTOs(tasks), page, pageSize, result.totalMatches(),
+            hasMore ? nextPageToken(query, tasks) : null);
     }
 
     /**
-     * 應用排序邏輯
-     * 展示Comparator的使用和方法引用
+     * 將請求轉換為儲存庫的查詢規格，標題與描述依空白拆成多個查詢詞
+     * 帶續頁標記時從標記的位置之後多取一筆，不計算總筆數
      */
-    private List<TaskDTO> applySorting(List<TaskDTO> tasks, TaskQueryRequest request) {
-        if (tasks.isEmpty()) {
-            return tasks;
-        }
-
-        Comparator<TaskDTO> comparator = createComparator(request.getSortField());
-        
-        // 根據排序方向決定是否反轉
-        if (request.getSortDirection() == SortDirection.DESC) {
-            comparator = comparator.reversed();
+    static TaskQuery toTaskQuery(TaskQueryRequest request) {
+        TaskQuery.Builder builder = TaskQuery.builder()
+            .statuses(request.getStatusFilter())
+            .priorities(request.getPriorityFilter())
+            .titleTerms(TaskTextIndex.queryTerms(request.getTitleContains()))
+            .descriptionTerms(TaskTextIndex.queryTerms(request.getDescriptionContains()))
+            .sortBy(TaskQuery.SortField.valueOf(request.getSortField().name()),
+                request.getSortDirection() == TaskQueryRequest.SortDirection.DESC);
+        if (request.hasContinuationToken()) {
+            return builder
+                .after(TaskQueryCursor.decode(request.getContinuationToken()))
+                .limit((int) Math.min(request.getPageSize() + 1L, TaskQuery.UNLIMITED))
+                .countTotal(false)
+                .build();
         }
+        return builder
+            .offset(request.getOffset())
+            .limit(request.getPageSize())
+            .build();
+    }
 
-        // 使用Stream進行排序並收集結果
-        return tasks.stream()
-            .sorted(comparator)
-            .toList();
+    private static String nextPageToken(TaskQuery query, List<Task> pageTasks) {
+        Task last = pageTasks.get(pageTasks.size() - 1);
+        return TaskQueryCursor.after(last, query.sortField(), query.descending()).encode();
     }
 
     /**
-     * 建立排序比較器
-     * 展示Comparator的多種用法和方法引用
+     * 查詢結果快取，供檢視命中統計；未配置時為 null
      */
-    private Comparator<TaskDTO> createComparator(TaskSortField sortField) {
-        return switch (sortField) {
-            case TITLE -> Comparator.comparing(TaskDTO::getTitle, 
-                String.CASE_INSENSITIVE_ORDER);
-            case STATUS -> Comparator.comparing(dto -> dto.getStatus().name());
-            case PRIORITY -> Comparator.comparing(dto -> dto.getPriority().ordinal());
-            case CREATED_AT -> Comparator.comparing(TaskDTO::getCreatedAt);
-            case UPDATED_AT -> Comparator.comparing(TaskDTO::getUpdatedAt);
-        };
+    public TaskQueryResultCache getResultCache() {
+        return resultCache;
     }
 
     /**
-     * 應用分頁邏輯
-     * 展示List的subList操作和邊界處理
+     * 未刪除任務依狀態與優先級的計數
+     * 維護計數器的儲存庫直接讀取計數器，不掃描任務
      */
-    private PagedResult<TaskDTO> applyPagination(List<TaskDTO> tasks, TaskQueryRequest request) {
-        int totalElements = tasks.size();
-        int offset = request.getOffset();
-        int pageSize = request.getPageSize();
+    public TaskCounts countTasks() {
+        return taskRepository.counts();
+    }
 
-        // 處理邊界情況
-        if (offset >= totalElements) {
-            return PagedResult.empty(request.getPage(), pageSize);
-        }
+    private boolean usesTextIndex(TaskQueryRequest request) {
+        return textIndex != null && !request.hasContinuationToken()
+            && (request.hasTitleFilter() || request.hasDescriptionFilter());
+    }
 
-        // 計算結束位置，使用Math.min避免越界
-        int endIndex = Math.min(offset + pageSize, totalElements);
-        
-        // 使用subList進行分頁切片
-        List<TaskDTO> pageContent = tasks.subList(offset, endIndex);
+    /**
+     * 以倒排索引查詢符合文字條件的任務
+     */
+    private Optional<List<Task>> searchIndex(TaskQueryRequest request) {
+        if (!usesTextIndex(request)) {
+            return Optional.empty();
+        }
+        return textIndex.search(request.getTitleContains(), request.getDescriptionContains());
+    }
 
-        return PagedResult.of(pageContent, request.getPage(), pageSize, totalElements);
+    private List<TaskDTO> convertToDTOs(List<Task> tasks) {
+        return tasks.stream()
+            .map(this::convertToDTO)
+            .toList();
     }
 
     /**
@@ -183,11 +191,11 @@ public class QueryTaskListUseCase {
      */
     @SuppressWarnings("unused") // 為測試準備的方法
     private java.util.Map<com.tygrus.task_list.domain.model.TaskStatus, Long> getTaskStatusStatistics() {
-        return taskRepository.findAll().stream()
+        return taskRepository.streamAll(tasks -> tasks
             .collect(java.util.stream.Collectors.groupingBy(
                 Task::getStatus,
                 java.util.stream.Collectors.counting()
-            ));
+            )));
     }
 
     /**
@@ -196,9 +204,9 @@ public class QueryTaskListUseCase {
      */
     @SuppressWarnings("unused") // 為測試準備的方法  
     private List<Task> getHighPriorityTasks() {
-        return taskRepository.findAll().stream()
+        return taskRepository.streamAll(tasks -> tasks
             .filter(task -> task.getPriority() == 
                 com.tygrus.task_list.domain.model.Priority.HIGH)
-            .toList();
+            .toList());
     }
 }
\ No newline at end of file
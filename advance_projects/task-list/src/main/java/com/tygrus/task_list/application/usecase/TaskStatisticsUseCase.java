@@ -3,14 +3,15 @@ package com.tygrus.task_list.application.usecase;
 import com.tygrus.task_list.application.dto.ChartData;
 import com.tygrus.task_list.application.dto.StatisticsReport;
 import com.tygrus.task_list.application.dto.StatisticsRequest;
-import com.tygrus.task_list.application.dto.TaskDTO;
 import com.tygrus.task_list.domain.model.Priority;
-import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskColumns;
 import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.AsyncTaskRepository;
 import com.tygrus.task_list.domain.repository.TaskRepository;
 import com.tygrus.task_list.infrastructure.cache.StatisticsCache;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
@@ -18,7 +19,6 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * UC-010: 任務統計分析 UseCase
@@ -27,13 +27,14 @@ import java.util.stream.Stream;
  * - Stream API 複雜統計計算
  * - 多維度分析（狀態、優先級、時間）
  * - 多種圖表格式支援
- * - 記憶體優化的大資料處理
+ * - 欄式快照掃描，避免為統計建立 Task/DTO 物件
  * - 可配置的統計維度
  * - 快取機制提升效能
  */
 public class TaskStatisticsUseCase {
     
     private final TaskRepository taskRepository;
+    private final AsyncTaskRepository asyncTaskRepository;
     private final StatisticsCache statisticsCache;
     
     // 日期格式化器
@@ -42,8 +43,27 @@ public class TaskStatisticsUseCase {
     private static final DateTimeFormatter MONTHLY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
     private static final DateTimeFormatter QUARTERLY_FORMAT = DateTimeFormatter.ofPattern("yyyy-'Q'Q");
     
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Set<StatisticsRequest.Dimension> TIME_DIMENSIONS = Set.of(
+        StatisticsRequest.Dimension.TIME_DAILY,
+        StatisticsRequest.Dimension.TIME_WEEKLY,
+        StatisticsRequest.Dimension.TIME_MONTHLY,
+        StatisticsRequest.Dimension.TIME_QUARTERLY
+    );
+    
     public TaskStatisticsUseCase(TaskRepository taskRepository, StatisticsCache statisticsCache) {
+        this(taskRepository, null, statisticsCache);
+    }
+    
+    /**
+     * @param asyncTaskRepository 供 generateReportAsync 讀取資料，null 時改在共用執行緒池執行同步版本
+     */
+    public TaskStatisticsUseCase(TaskRepository taskRepository, AsyncTaskRepository asyncTaskRepository,
+                                 StatisticsCache statisticsCache) {
         this.taskRepository = taskRepository;
+        this.asyncTaskRepository = asyncTaskRepository;
         this.statisticsCache = statisticsCache;
     }
     
@@ -54,298 +74,249 @@ public class TaskStatisticsUseCase {
         long startTime = System.currentTimeMillis();
         
         // 檢查快取
-        if (request.isUseCache()) {
-            Optional<StatisticsReport> cached = statisticsCache.get(request.getCacheKey());
-            if (cached.isPresent()) {
-                return enhanceReportWithCacheInfo(cached.get(), startTime, true);
-            }
+        Optional<StatisticsReport> cached = findCachedReport(request, startTime);
+        if (cached.isPresent()) {
+            return cached.get();
         }
         
-        // 獲取任務資料
-        List<TaskDTO> tasks = fetchTasksInDateRange(request);
-        
-        // 使用記憶體優化處理大資料集
-        Stream<TaskDTO> taskStream = request.isEnableMemoryOptimization() && tasks.size() > 1000
-            ? tasks.parallelStream()
-            : tasks.stream();
-        
-        // 建立統計報告
-        StatisticsReport report = buildStatisticsReport(request, taskStream, tasks.size());
-        
-        // 快取結果
-        if (request.isUseCache()) {
-            statisticsCache.put(request.getCacheKey(), report);
-        }
-        
-        return enhanceReportWithCacheInfo(report, startTime, false);
+        return buildAndCacheReport(request, taskRepository.findAllAsColumns(), startTime);
     }
     
     /**
      * 非同步生成統計報告
+     * 有 AsyncTaskRepository 時資料讀取不占用呼叫端或共用執行緒池的執行緒
      */
     public CompletableFuture<StatisticsReport> generateReportAsync(StatisticsRequest request) {
-        return CompletableFuture.supplyAsync(() -> generateReport(request));
-    }
-    
-    /**
-     * 獲取時間範圍內的任務
-     */
-    private List<TaskDTO> fetchTasksInDateRange(StatisticsRequest request) {
-        List<Task> allTasks = taskRepository.findAll();
-        System.out.println("DEBUG: Found " + allTasks.size() + " tasks from repository");
-        
-        List<TaskDTO> result = allTasks.stream()
-            .filter(task -> {
-                boolean notDeleted = !task.isDeleted() || request.isIncludeDeleted();
-                System.out.println("DEBUG: Task " + task.getId() + " - deleted filter: " + notDeleted);
-                return notDeleted;
-            })
-            .map(task -> {
-                TaskDTO dto = TaskDTO.fromTask(task);
-                System.out.println("DEBUG: Mapped task " + task.getId() + " to DTO, createdAt: " + dto.getCreatedAt());
-                return dto;
-            })
-            .filter(task -> {
-                boolean inRange = isTaskInDateRange(task, request);
-                System.out.println("DEBUG: Task " + task.getId() + " - date range filter: " + inRange + 
-                    " (created: " + task.getCreatedAt() + ", range: " + request.getStartDate() + " to " + request.getEndDate() + ")");
-                return inRange;
-            })
-            .filter(task -> {
-                boolean statusMatch = matchesStatusFilter(task, request);
-                System.out.println("DEBUG: Task " + task.getId() + " - status filter: " + statusMatch);
-                return statusMatch;
-            })
-            .filter(task -> {
-                boolean priorityMatch = matchesPriorityFilter(task, request);
-                System.out.println("DEBUG: Task " + task.getId() + " - priority filter: " + priorityMatch);
-                return priorityMatch;
-            })
-            .limit(request.getMaxResults())
-            .collect(Collectors.toList());
-        
-        System.out.println("DEBUG: Final filtered result: " + result.size() + " tasks");
-        return result;
-    }
-    
-    /**
-     * 檢查任務是否在指定時間範圍內
-     */
-    private boolean isTaskInDateRange(TaskDTO task, StatisticsRequest request) {
-        LocalDateTime taskDate = task.getCreatedAt();
-        return !taskDate.isBefore(request.getStartDate()) && !taskDate.isAfter(request.getEndDate());
-    }
-    
-    /**
-     * 檢查任務是否符合狀態篩選
-     */
-    private boolean matchesStatusFilter(TaskDTO task, StatisticsRequest request) {
-        return request.getStatusFilter().isEmpty() || request.getStatusFilter().contains(task.getStatus());
+        if (asyncTaskRepository == null) {
+            return CompletableFuture.supplyAsync(() -> generateReport(request));
+        }
+        long startTime = System.currentTimeMillis();
+        Optional<StatisticsReport> cached = findCachedReport(request, startTime);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        return asyncTaskRepository.findAllAsColumns()
+            .thenApply(columns -> buildAndCacheReport(request, columns, startTime));
     }
     
-    /**
-     * 檢查任務是否符合優先級篩選
-     */
-    private boolean matchesPriorityFilter(TaskDTO task, StatisticsRequest request) {
-        return request.getPriorityFilter().isEmpty() || request.getPriorityFilter().contains(task.getPriority());
+    private Optional<StatisticsReport> findCachedReport(StatisticsRequest request, long startTime) {
+        if (!request.isUseCache()) {
+            return Optional.empty();
+        }
+        return statisticsCache.get(request.getCacheKey())
+            .map(report -> enhanceReportWithCacheInfo(report, startTime, true));
     }
     
-    /**
-     * 建立統計報告
-     */
-    private StatisticsReport buildStatisticsReport(StatisticsRequest request, Stream<TaskDTO> taskStream, int totalCount) {
-        // 收集基本統計資料（使用函數式程式設計）
-        List<TaskDTO> taskList = taskStream.collect(Collectors.toList());
+    private StatisticsReport buildAndCacheReport(StatisticsRequest request, TaskColumns columns, long startTime) {
+        // 以欄式快照篩選任務，只保留列索引，不建立 Task/TaskDTO 物件
+        int[] selected = selectRows(columns, request);
         
-        var basicStats = calculateBasicStatistics(taskList);
-        var dimensionStats = calculateDimensionStatistics(taskList, request.getDimensions());
-        var chartDataList = generateChartData(dimensionStats, request.getChartPreference());
+        // 建立統計報告
+        StatisticsReport report = buildStatisticsReport(request, columns, selected);
         
-        return StatisticsReport.builder()
-            .period(request.getStartDate(), request.getEndDate(), generatePeriodDescription(request))
-            .totalTasks(totalCount)
-            .completedTasks(basicStats.getOrDefault("completed", 0L))
-            .pendingTasks(basicStats.getOrDefault("pending", 0L))
-            .inProgressTasks(basicStats.getOrDefault("inProgress", 0L))
-            .cancelledTasks(basicStats.getOrDefault("cancelled", 0L))
-            .completionRate(calculateCompletionRate(basicStats))
-            .tasksByStatus(dimensionStats.getOrDefault("status", Map.of()))
-            .tasksByPriority(dimensionStats.getOrDefault("priority", Map.of()))
-            .tasksByTimeGroup(dimensionStats.getOrDefault("time", Map.of()))
-            .avgCompletionDays(calculateAverageCompletionDays(taskList))
-            .overdueTasks(calculateOverdueTasks(taskList))
-            .chartDataList(chartDataList)
-            .build();
+        // 快取結果
+        if (request.isUseCache()) {
+            statisticsCache.put(request.getCacheKey(), report);
+        }
+        
+        return enhanceReportWithCacheInfo(report, startTime, false);
     }
     
     /**
-     * 計算基本統計數據（使用 Stream API）
+     * 篩選符合刪除、時間範圍、狀態與優先級條件的列
+     * 時間以 epoch 毫秒比較，篩選條件先轉為以 ordinal 查表的布林陣列
+     * 未指定的起訖日視為不設限；有指定任一端時，沒有建立時間的任務不列入
      */
-    private Map<String, Long> calculateBasicStatistics(List<TaskDTO> tasks) {
-        return tasks.stream()
-            .collect(Collectors.groupingBy(
-                task -> task.getStatus().name().toLowerCase(),
-                Collectors.counting()
-            ))
-            .entrySet().stream()
-            .collect(Collectors.toMap(
-                entry -> mapStatusKey(entry.getKey()),
-                Map.Entry::getValue,
-                (v1, v2) -> v1 + v2 // 合併重複鍵
-            ));
+    private int[] selectRows(TaskColumns columns, StatisticsRequest request) {
+        boolean hasRange = request.getStartDate() != null || request.getEndDate() != null;
+        long startMillis = request.getStartDate() != null
+            ? TaskColumns.toEpochMillis(request.getStartDate()) : Long.MIN_VALUE;
+        long endMillis = request.getEndDate() != null
+            ? TaskColumns.toEpochMillis(request.getEndDate()) : Long.MAX_VALUE;
+        boolean includeDeleted = request.isIncludeDeleted();
+        boolean[] statusAllowed = allowedOrdinals(STATUSES, request.getStatusFilter());
+        boolean[] priorityAllowed = allowedOrdinals(PRIORITIES, request.getPriorityFilter());
+        int limit = Math.max(0, request.getMaxResults());
+        
+        int[] selected = new int[Math.min(columns.size(), limit)];
+        int count = 0;
+        for (int i = 0; i < columns.size() && count < limit; i++) {
+            if (!includeDeleted && columns.isDeleted(i)) {
+                continue;
+            }
+            long createdAt = columns.createdAtMillis(i);
+            if (hasRange && (createdAt == TaskColumns.NO_TIME || createdAt < startMillis || createdAt > endMillis)) {
+                continue;
+            }
+            if (statusAllowed[columns.statusOrdinal(i)] && priorityAllowed[columns.priorityOrdinal(i)]) {
+                selected[count++] = i;
+            }
+        }
+        return Arrays.copyOf(selected, count);
     }
     
     /**
-     * 映射狀態鍵
+     * 將篩選集合轉為 ordinal 查表；空集合表示不篩選
      */
-    private String mapStatusKey(String statusKey) {
-        return switch (statusKey) {
-            case "todo", "pending" -> "pending";
-            case "in_progress" -> "inProgress";
-            case "completed" -> "completed";
-            case "cancelled" -> "cancelled";
-            default -> statusKey;
-        };
+    private static <E extends Enum<E>> boolean[] allowedOrdinals(E[] values, Set<E> filter) {
+        boolean[] allowed = new boolean[values.length];
+        for (E value : values) {
+            allowed[value.ordinal()] = filter.isEmpty() || filter.contains(value);
+        }
+        return allowed;
     }
     
     /**
-     * 計算多維度統計（函數式程式設計展示）
+     * 建立統計報告
      */
-    private Map<String, Map<String, Long>> calculateDimensionStatistics(
-            List<TaskDTO> tasks, 
-            Set<StatisticsRequest.Dimension> dimensions) {
+    private StatisticsReport buildStatisticsReport(StatisticsRequest request, TaskColumns columns, int[] selected) {
+        // 一次走訪計算狀態與優先級計數
+        long[] statusCounts = new long[STATUSES.length];
+        long[] priorityCounts = new long[PRIORITIES.length];
+        for (int row : selected) {
+            statusCounts[columns.statusOrdinal(row)]++;
+            priorityCounts[columns.priorityOrdinal(row)]++;
+        }
         
-        Map<String, Map<String, Long>> results = new HashMap<>();
+        long completed = statusCounts[TaskStatus.COMPLETED.ordinal()];
+        Set<StatisticsRequest.Dimension> dimensions = request.getDimensions();
+        Map<String, Long> tasksByStatus = dimensions.contains(StatisticsRequest.Dimension.STATUS)
+            ? groupByStatus(statusCounts) : Map.of();
+        Map<String, Long> tasksByPriority = dimensions.contains(StatisticsRequest.Dimension.PRIORITY)
+            ? groupByPriority(priorityCounts) : Map.of();
+        Map<String, Long> tasksByTime = dimensions.stream()
+            .filter(TIME_DIMENSIONS::contains)
+            .findFirst()
+            .map(dimension -> groupByTime(columns, selected, dimension))
+            .orElse(Map.of());
         
-        // 按狀態統計
+        Map<String, Map<String, Long>> dimensionStats = new HashMap<>();
         if (dimensions.contains(StatisticsRequest.Dimension.STATUS)) {
-            results.put("status", groupByStatus(tasks));
+            dimensionStats.put("status", tasksByStatus);
         }
-        
-        // 按優先級統計
         if (dimensions.contains(StatisticsRequest.Dimension.PRIORITY)) {
-            results.put("priority", groupByPriority(tasks));
+            dimensionStats.put("priority", tasksByPriority);
         }
-        
-        // 時間維度統計
-        Set<StatisticsRequest.Dimension> timeDimensions = Set.of(
-            StatisticsRequest.Dimension.TIME_DAILY,
-            StatisticsRequest.Dimension.TIME_WEEKLY,
-            StatisticsRequest.Dimension.TIME_MONTHLY,
-            StatisticsRequest.Dimension.TIME_QUARTERLY
-        );
-        
-        Optional<StatisticsRequest.Dimension> timeDimension = dimensions.stream()
-            .filter(timeDimensions::contains)
-            .findFirst();
-        
-        if (timeDimension.isPresent()) {
-            results.put("time", groupByTime(tasks, timeDimension.get()));
+        if (!tasksByTime.isEmpty()) {
+            dimensionStats.put("time", tasksByTime);
         }
+        var chartDataList = generateChartData(dimensionStats, request.getChartPreference());
         
-        return results;
+        return StatisticsReport.builder()
+            .period(request.getStartDate(), request.getEndDate(), generatePeriodDescription(request))
+            .totalTasks(selected.length)
+            .completedTasks(completed)
+            .pendingTasks(statusCounts[TaskStatus.TODO.ordinal()] + statusCounts[TaskStatus.PENDING.ordinal()])
+            .inProgressTasks(statusCounts[TaskStatus.IN_PROGRESS.ordinal()])
+            .cancelledTasks(statusCounts[TaskStatus.CANCELLED.ordinal()])
+            .completionRate(selected.length > 0 ? (double) completed / selected.length : 0.0)
+            .tasksByStatus(tasksByStatus)
+            .tasksByPriority(tasksByPriority)
+            .tasksByTimeGroup(tasksByTime)
+            .avgCompletionDays(calculateAverageCompletionDays(columns, selected))
+            .overdueTasks(calculateOverdueTasks(columns, selected))
+            .chartDataList(chartDataList)
+            .build();
     }
     
     /**
-     * 按狀態分組統計（Stream API 示範）
+     * 按狀態分組統計，顯示名稱相同的狀態（TODO/PENDING）合併計數
      */
-    private Map<String, Long> groupByStatus(List<TaskDTO> tasks) {
-        return tasks.stream()
-            .collect(Collectors.groupingBy(
-                task -> task.getStatus().getDisplayName(),
-                LinkedHashMap::new, // 保持順序
-                Collectors.counting()
-            ));
+    private Map<String, Long> groupByStatus(long[] statusCounts) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (TaskStatus status : STATUSES) {
+            if (statusCounts[status.ordinal()] > 0) {
+                result.merge(status.getDisplayName(), statusCounts[status.ordinal()], Long::sum);
+            }
+        }
+        return result;
     }
     
     /**
-     * 按優先級分組統計（函數式程式設計示範）
+     * 按優先級分組統計，依優先級等級排序
      */
-    private Map<String, Long> groupByPriority(List<TaskDTO> tasks) {
-        return tasks.stream()
-            .collect(Collectors.groupingBy(
-                task -> task.getPriority().getDisplayName(),
-                // 自訂排序 - 按優先級等級排序
-                () -> new TreeMap<>(Comparator.comparing(key -> 
-                    Arrays.stream(Priority.values())
-                        .filter(p -> p.getDisplayName().equals(key))
-                        .mapToInt(Priority::getLevel)
-                        .findFirst()
-                        .orElse(0)
-                )),
-                Collectors.counting()
-            ));
+    private Map<String, Long> groupByPriority(long[] priorityCounts) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        Arrays.stream(PRIORITIES)
+            .sorted(Comparator.comparingInt(Priority::getLevel))
+            .filter(priority -> priorityCounts[priority.ordinal()] > 0)
+            .forEach(priority -> result.put(priority.getDisplayName(), priorityCounts[priority.ordinal()]));
+        return result;
     }
     
     /**
-     * 按時間分組統計（複雜 Stream 操作示範）
+     * 按時間分組統計
+     * 分組鍵只取決於日期，因此每個日期只格式化一次
      */
-    private Map<String, Long> groupByTime(List<TaskDTO> tasks, StatisticsRequest.Dimension timeDimension) {
-        Function<TaskDTO, String> groupingFunction = createTimeGroupingFunction(timeDimension);
+    private Map<String, Long> groupByTime(TaskColumns columns, int[] selected, StatisticsRequest.Dimension timeDimension) {
+        Function<LocalDateTime, String> groupingFunction = createTimeGroupingFunction(timeDimension);
+        Map<Long, String> keyByEpochDay = new HashMap<>();
+        Map<String, Long> result = new LinkedHashMap<>(); // 保持時間順序
         
-        return tasks.stream()
-            .collect(Collectors.groupingBy(
-                groupingFunction,
-                LinkedHashMap::new, // 保持時間順序
-                Collectors.counting()
-            ));
+        for (int row : selected) {
+            long epochDay = Math.floorDiv(columns.createdAtMillis(row), MILLIS_PER_DAY);
+            String key = keyByEpochDay.computeIfAbsent(epochDay,
+                day -> groupingFunction.apply(LocalDate.ofEpochDay(day).atStartOfDay()));
+            result.merge(key, 1L, Long::sum);
+        }
+        return result;
     }
     
     /**
      * 創建時間分組函數（高階函數示範）
      */
-    private Function<TaskDTO, String> createTimeGroupingFunction(StatisticsRequest.Dimension timeDimension) {
+    private Function<LocalDateTime, String> createTimeGroupingFunction(StatisticsRequest.Dimension timeDimension) {
         return switch (timeDimension) {
-            case TIME_DAILY -> task -> task.getCreatedAt().format(DAILY_FORMAT);
-            case TIME_WEEKLY -> task -> {
-                LocalDateTime date = task.getCreatedAt();
+            case TIME_DAILY -> date -> date.format(DAILY_FORMAT);
+            case TIME_WEEKLY -> date -> {
                 // 計算週數（從週一開始）
                 LocalDateTime weekStart = date.with(DayOfWeek.MONDAY);
                 return weekStart.format(WEEKLY_FORMAT);
             };
-            case TIME_MONTHLY -> task -> task.getCreatedAt().format(MONTHLY_FORMAT);
-            case TIME_QUARTERLY -> task -> {
-                LocalDateTime date = task.getCreatedAt();
+            case TIME_MONTHLY -> date -> date.format(MONTHLY_FORMAT);
+            case TIME_QUARTERLY -> date -> {
                 int quarter = (date.getMonthValue() - 1) / 3 + 1;
                 return date.getYear() + "-Q" + quarter;
             };
-            default -> task -> "其他";
+            default -> date -> "其他";
         };
     }
     
     /**
-     * 計算完成率
-     */
-    private double calculateCompletionRate(Map<String, Long> basicStats) {
-        long total = basicStats.values().stream().mapToLong(Long::longValue).sum();
-        long completed = basicStats.getOrDefault("completed", 0L);
-        return total > 0 ? (double) completed / total : 0.0;
-    }
-    
-    /**
-     * 計算平均完成天數（Stream API 進階用法）
+     * 計算平均完成天數（不足一天的部分捨去，與 ChronoUnit.DAYS.between 一致）
      */
-    private double calculateAverageCompletionDays(List<TaskDTO> tasks) {
-        return tasks.stream()
-            .filter(task -> task.getStatus() == TaskStatus.COMPLETED)
-            .filter(task -> task.getUpdatedAt() != null)
-            .mapToDouble(task -> ChronoUnit.DAYS.between(task.getCreatedAt(), task.getUpdatedAt()))
-            .average()
-            .orElse(0.0);
+    private double calculateAverageCompletionDays(TaskColumns columns, int[] selected) {
+        long totalDays = 0;
+        int completedCount = 0;
+        int completedOrdinal = TaskStatus.COMPLETED.ordinal();
+        for (int row : selected) {
+            long updatedAt = columns.updatedAtMillis(row);
+            if (columns.statusOrdinal(row) == completedOrdinal && updatedAt != TaskColumns.NO_TIME) {
+                totalDays += (updatedAt - columns.createdAtMillis(row)) / MILLIS_PER_DAY;
+                completedCount++;
+            }
+        }
+        return completedCount > 0 ? (double) totalDays / completedCount : 0.0;
     }
     
     /**
      * 計算逾期任務數量
      */
-    private long calculateOverdueTasks(List<TaskDTO> tasks) {
-        LocalDateTime now = LocalDateTime.now();
+    private long calculateOverdueTasks(TaskColumns columns, int[] selected) {
+        long now = TaskColumns.toEpochMillis(LocalDateTime.now());
+        int completedOrdinal = TaskStatus.COMPLETED.ordinal();
+        int cancelledOrdinal = TaskStatus.CANCELLED.ordinal();
         
-        return tasks.stream()
-            .filter(task -> task.getStatus() != TaskStatus.COMPLETED)
-            .filter(task -> task.getStatus() != TaskStatus.CANCELLED)
-            .filter(task -> task.getDueDate() != null)
-            .filter(task -> task.getDueDate().isBefore(now))
-            .count();
+        long overdue = 0;
+        for (int row : selected) {
+            int status = columns.statusOrdinal(row);
+            long dueDate = columns.dueDateMillis(row);
+            if (status != completedOrdinal && status != cancelledOrdinal
+                    && dueDate != TaskColumns.NO_TIME && dueDate < now) {
+                overdue++;
+            }
+        }
+        return overdue;
     }
     
     /**
@@ -453,6 +424,16 @@ public class TaskStatisticsUseCase {
      * 生成時間段描述
      */
     private String generatePeriodDescription(StatisticsRequest request) {
+        if (request.getStartDate() == null && request.getEndDate() == null) {
+            return "全部期間";
+        }
+        if (request.getStartDate() == null) {
+            return String.format("至 %s", request.getEndDate().toLocalDate().format(DAILY_FORMAT));
+        }
+        if (request.getEndDate() == null) {
+            return String.format("自 %s 起", request.getStartDate().toLocalDate().format(DAILY_FORMAT));
+        }
+        
         long daysBetween = ChronoUnit.DAYS.between(
             request.getStartDate().toLocalDate(), 
             request.getEndDate().toLocalDate()
@@ -10,6 +10,7 @@ import com.tygrus.task_list.domain.model.Task;
 import com.tygrus.task_list.domain.model.TaskId;
 import com.tygrus.task_list.domain.model.TaskStatus;
 import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.WriteDurability;
 
 import org.springframework.stereotype.Service;
 
@@ -68,8 +69,10 @@ public class UpdateTaskStatusUseCase {
         // 5. 添加Domain Events
         addDomainEvents(task, originalStatus, request);
         
-        // 6. 保存任務
-        Task savedTask = taskRepository.save(task);
+        // 6. 保存任務（要求 ASYNC 時寫入緩衝即返回）
+        Task savedTask = request.getDurability() == WriteDurability.ASYNC
+            ? taskRepository.save(task, WriteDurability.ASYNC)
+            : taskRepository.save(task);
         
         // 7. 轉換為DTO並返回
         return convertToDTO(savedTask);
@@ -0,0 +1,23 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.repository.VirtualThreadTaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 非同步儲存庫配置
+ * 以虛擬執行緒包裝主要的 TaskRepository，並行上限預設與 Hikari 連線池大小相同，
+ * 可用 task.async.max-concurrency 覆寫
+ */
+@Configuration
+public class AsyncRepositoryConfig {
+
+    @Bean(destroyMethod = "close")
+    public VirtualThreadTaskRepository asyncTaskRepository(
+            TaskRepository taskRepository,
+            @Value("${task.async.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency) {
+        return new VirtualThreadTaskRepository(taskRepository, maxConcurrency);
+    }
+}
@@ -0,0 +1,35 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.infrastructure.repository.DurableTaskRepository;
+import com.tygrus.task_list.infrastructure.repository.wal.WriteAheadLog.SyncMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 記憶體內儲存庫持久化配置
+ * 設定 task.inmemory.durability.enabled=true 時，以 DurableTaskRepository 取代純記憶體實作
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.inmemory.durability.enabled", havingValue = "true")
+public class InMemoryDurabilityConfig {
+
+    @Bean(initMethod = "open", destroyMethod = "close")
+    @Primary
+    public DurableTaskRepository durableTaskRepository(
+            @Value("${task.inmemory.durability.directory:./data/task-store}") String directory,
+            @Value("${task.inmemory.durability.sync-mode:PER_BATCH}") SyncMode syncMode,
+            @Value("${task.inmemory.durability.segment-size-bytes:67108864}") long segmentSizeBytes,
+            @Value("${task.inmemory.durability.snapshot-interval-seconds:300}") long snapshotIntervalSeconds) {
+        return new DurableTaskRepository(
+            Path.of(directory),
+            syncMode,
+            segmentSizeBytes,
+            Duration.ofSeconds(snapshotIntervalSeconds));
+    }
+}
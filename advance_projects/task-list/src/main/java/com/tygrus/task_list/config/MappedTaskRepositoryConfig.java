@@ -0,0 +1,25 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.infrastructure.repository.MappedFileTaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * 記憶體映射檔案儲存庫配置
+ * 設定 task.mapped.enabled=true 時註冊 mappedFileTaskRepository，需要時以名稱注入
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.mapped.enabled", havingValue = "true")
+public class MappedTaskRepositoryConfig {
+
+    @Bean(name = "mappedFileTaskRepository", initMethod = "open", destroyMethod = "close")
+    public MappedFileTaskRepository mappedFileTaskRepository(
+            @Value("${task.mapped.directory:./data/task-mapped}") String directory,
+            @Value("${task.mapped.chunk-size-bytes:67108864}") int chunkSize) {
+        return new MappedFileTaskRepository(Path.of(directory), chunkSize);
+    }
+}
@@ -0,0 +1,74 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.infrastructure.persistence.routing.ReadYourWritesFilter;
+import com.tygrus.task_list.infrastructure.persistence.routing.ReplicaLagMonitor;
+import com.tygrus.task_list.infrastructure.persistence.routing.ReplicaLagProbe;
+import com.tygrus.task_list.infrastructure.persistence.routing.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 讀寫分離配置
+ * 設定 task.datasource.replicas.enabled=true 時，以路由資料來源取代預設資料來源：
+ * spring.datasource.* 為主庫，task.datasource.replicas.urls 為以逗號分隔的副本 JDBC URL
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ReplicaLagMonitor replicaLagMonitor(
+            DataSourceProperties primaryProperties,
+            @Value("${task.datasource.replicas.urls}") List<String> replicaUrls,
+            @Value("${task.datasource.replicas.max-lag-ms:5000}") long maxLagMs,
+            @Value("${task.datasource.replicas.lag-check-interval-ms:1000}") long checkIntervalMs) {
+        return new ReplicaLagMonitor(replicaDataSources(primaryProperties, replicaUrls),
+            ReplicaLagProbe.POSTGRESQL, Duration.ofMillis(maxLagMs), Duration.ofMillis(checkIntervalMs));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            DataSourceProperties primaryProperties,
+            @Value("${task.datasource.replicas.max-lag-ms:5000}") long maxLagMs,
+            ReplicaLagMonitor replicaLagMonitor) {
+        DataSource primary = primaryProperties.initializeDataSourceBuilder().build();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+            replicaLagMonitor.replicas(), replicaLagMonitor, Duration.ofMillis(maxLagMs));
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+
+    /**
+     * 副本沿用主庫的帳號與驅動，鍵值為 replica-0、replica-1...
+     */
+    private static Map<String, DataSource> replicaDataSources(DataSourceProperties primaryProperties,
+                                                               List<String> replicaUrls) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            replicas.put("replica-" + i, DataSourceBuilder.create()
+                .url(replicaUrls.get(i).trim())
+                .username(primaryProperties.getUsername())
+                .password(primaryProperties.getPassword())
+                .driverClassName(primaryProperties.determineDriverClassName())
+                .build());
+        }
+        return replicas;
+    }
+}
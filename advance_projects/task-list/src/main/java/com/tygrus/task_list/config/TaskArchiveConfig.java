@@ -0,0 +1,95 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.repository.TieredTaskRepository;
+import com.tygrus.task_list.infrastructure.repository.archive.ArchivableTaskStore;
+import com.tygrus.task_list.infrastructure.repository.archive.TaskArchive;
+import com.tygrus.task_list.infrastructure.repository.archive.TaskArchiver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.Ordered;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 任務分層封存配置
+ * 設定 task.archive.enabled=true 時，以 TieredTaskRepository 包裝 postgresqlTaskRepository，
+ * 單筆查詢與匯出透明地讀取封存庫；TaskArchiveScheduler 定期把完成或刪除超過
+ * task.archive.after-days 天的任務移到 task.archive.directory 下的壓縮區段檔
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.archive.enabled", havingValue = "true")
+public class TaskArchiveConfig {
+
+    static final String TIERED_REPOSITORY_BEAN = "postgresqlTaskRepository";
+
+    @Bean(initMethod = "open", destroyMethod = "close")
+    public TaskArchive taskArchive(@Value("${task.archive.directory:./data/task-archive}") String directory) {
+        return new TaskArchive(Path.of(directory));
+    }
+
+    /**
+     * 交易代理的自動建立器同樣是 HIGHEST_PRECEDENCE，排在其後執行才能包裝已建立交易代理的原儲存庫；
+     * 在分片、寫入緩衝與讀取快取包裝之前執行，這些包裝都在分層儲存庫之外
+     */
+    @Bean
+    public static TieredTaskRepositoryPostProcessor tieredTaskRepositoryPostProcessor(
+            ObjectProvider<TaskArchive> taskArchive) {
+        return new TieredTaskRepositoryPostProcessor(taskArchive);
+    }
+
+    /**
+     * 依賴熱資料層先完成包裝，才能取得其原始參照
+     */
+    @Bean
+    @DependsOn(TIERED_REPOSITORY_BEAN)
+    public TaskArchiver taskArchiver(
+            TaskArchive taskArchive,
+            TieredTaskRepositoryPostProcessor tieredTaskRepositoryPostProcessor,
+            @Value("${task.archive.after-days:90}") long afterDays,
+            @Value("${task.archive.batch-size:10000}") int batchSize) {
+        ArchivableTaskStore store = tieredTaskRepositoryPostProcessor.getHotStore();
+        if (store == null) {
+            throw new IllegalStateException(TIERED_REPOSITORY_BEAN + " does not support archiving");
+        }
+        return new TaskArchiver(store, taskArchive, Duration.ofDays(afterDays), batchSize);
+    }
+
+    /**
+     * 包裝熱資料層並保留其原始參照，封存作業需要直接讀出與移除熱資料層的任務
+     */
+    public static class TieredTaskRepositoryPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<TaskArchive> taskArchive;
+        private volatile ArchivableTaskStore hotStore;
+
+        TieredTaskRepositoryPostProcessor(ObjectProvider<TaskArchive> taskArchive) {
+            this.taskArchive = taskArchive;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (TIERED_REPOSITORY_BEAN.equals(beanName) && bean instanceof TaskRepository repository
+                    && bean instanceof ArchivableTaskStore store) {
+                hotStore = store;
+                return new TieredTaskRepository(repository, taskArchive.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 1;
+        }
+
+        ArchivableTaskStore getHotStore() {
+            return hotStore;
+        }
+    }
+}
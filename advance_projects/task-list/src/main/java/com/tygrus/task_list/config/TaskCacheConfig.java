@@ -0,0 +1,59 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.repository.CachingTaskRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 任務讀取快取配置
+ * 設定 task.cache.enabled=true 時，以 CachingTaskRepository 包裝 postgresqlTaskRepository，
+ * 沿用其 @Primary 地位，所有注入 TaskRepository 的用例與控制器都會經過快取。
+ * 快取統計以 task.cache.* 指標公開於 actuator
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.cache.enabled", havingValue = "true")
+public class TaskCacheConfig {
+
+    static final String CACHED_REPOSITORY_BEAN = "postgresqlTaskRepository";
+
+    /**
+     * 在交易代理建立之後包裝，快取命中不會開啟交易
+     */
+    @Bean
+    public static BeanPostProcessor cachingTaskRepositoryPostProcessor(Environment environment) {
+        long maximumSize = environment.getProperty("task.cache.maximum-size", Long.class, 10_000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (CACHED_REPOSITORY_BEAN.equals(beanName) && bean instanceof TaskRepository repository) {
+                    return new CachingTaskRepository(repository, maximumSize);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder taskCacheMetrics(TaskRepository taskRepository) {
+        return registry -> {
+            if (!(taskRepository instanceof CachingTaskRepository cache)) {
+                return;
+            }
+            FunctionCounter.builder("task.cache.hits", cache, c -> c.getStats().hitCount())
+                .description("Task cache hits").register(registry);
+            FunctionCounter.builder("task.cache.misses", cache, c -> c.getStats().missCount())
+                .description("Task cache misses").register(registry);
+            FunctionCounter.builder("task.cache.evictions", cache, c -> c.getStats().evictionCount())
+                .description("Task cache evictions").register(registry);
+            Gauge.builder("task.cache.size", cache, c -> c.getStats().size())
+                .description("Cached task count").register(registry);
+        };
+    }
+}
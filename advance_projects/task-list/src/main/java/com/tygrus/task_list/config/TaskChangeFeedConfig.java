@@ -0,0 +1,32 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.infrastructure.persistence.outbox.OutboxTaskChangeFeed;
+import com.tygrus.task_list.infrastructure.persistence.repository.JpaTaskChangeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 任務變更流配置
+ * task.changefeed.enabled=true（預設）時，PostgreSQLTaskRepository 的寫入會同時寫入 task_changes outbox，
+ * 並由 outboxTaskChangeFeed 輪詢後發布，涵蓋所有應用程式實例的寫入；停用時只在交易提交後於記憶體內發布本機的寫入。
+ * 記憶體內的儲存庫不需配置，一律提供變更流
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.changefeed.enabled", havingValue = "true")
+public class TaskChangeFeedConfig {
+
+    @Bean(name = "outboxTaskChangeFeed", initMethod = "start", destroyMethod = "stop")
+    public OutboxTaskChangeFeed outboxTaskChangeFeed(
+            JpaTaskChangeRepository changeRepository,
+            @Value("${task.changefeed.retention:10000}") int retention,
+            @Value("${task.changefeed.poll-interval-ms:200}") long pollIntervalMs,
+            @Value("${task.changefeed.gap-timeout-ms:5000}") long gapTimeoutMs,
+            @Value("${task.changefeed.table-retention-hours:168}") long tableRetentionHours) {
+        return new OutboxTaskChangeFeed(changeRepository, retention,
+            Duration.ofMillis(pollIntervalMs), Duration.ofMillis(gapTimeoutMs), Duration.ofHours(tableRetentionHours));
+    }
+}
@@ -0,0 +1,31 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.infrastructure.persistence.migration.TaskIdColumnMigration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 任務ID 欄位遷移配置
+ * task.id-migration.enabled=true（預設）時，在 EntityManagerFactory 建立前把 varchar 的任務ID 欄位
+ * 轉為 uuid 主鍵，hbm2ddl 驗證或更新時看到的已是轉換後的欄位
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.id-migration.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskIdMigrationConfig {
+
+    static final String MIGRATION_BEAN = "taskIdColumnMigration";
+
+    @Bean(MIGRATION_BEAN)
+    public TaskIdColumnMigration taskIdColumnMigration(DataSource dataSource) {
+        return new TaskIdColumnMigration(dataSource);
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor taskIdMigrationDependsOnPostProcessor() {
+        return new EntityManagerFactoryDependsOnPostProcessor(MIGRATION_BEAN);
+    }
+}
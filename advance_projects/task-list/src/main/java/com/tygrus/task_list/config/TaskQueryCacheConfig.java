@@ -0,0 +1,52 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.application.query.TaskQueryResultCache;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 任務清單查詢結果快取配置
+ * 設定 task.query-cache.enabled=true 時，QueryTaskListUseCase 以請求為鍵快取整頁結果，
+ * 由 @Primary TaskRepository 的寫入世代判斷是否失效。世代只涵蓋本機的寫入：
+ * 多個應用程式實例共用資料庫時，其他實例改變計數的寫入在計數器校正發現偏差後才使快取失效，
+ * 不改變計數的寫入要等到該狀態下一次本機寫入，因此只適合單一實例或可接受此延遲的部署。
+ * 快取統計以 task.query-cache.* 指標公開於 actuator
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.query-cache.enabled", havingValue = "true")
+public class TaskQueryCacheConfig {
+
+    @Bean
+    public TaskQueryResultCache taskQueryResultCache(TaskRepository taskRepository, Environment environment) {
+        long maximumPages = environment.getProperty("task.query-cache.maximum-pages", Long.class,
+            TaskQueryResultCache.DEFAULT_MAXIMUM_PAGES);
+        return new TaskQueryResultCache(taskRepository, maximumPages);
+    }
+
+    @Bean
+    public MeterBinder taskQueryCacheMetrics(TaskQueryResultCache resultCache) {
+        return registry -> {
+            FunctionCounter.builder("task.query-cache.hits", resultCache, c -> c.getStats().hitCount())
+                .description("Task list pages served from the result cache").register(registry);
+            FunctionCounter.builder("task.query-cache.misses", resultCache, c -> c.getStats().missCount())
+                .description("Task list pages loaded from the repository").register(registry);
+            FunctionCounter.builder("task.query-cache.invalidations", resultCache,
+                    c -> c.getStats().invalidationCount())
+                .description("Cached pages dropped because a write advanced their epoch").register(registry);
+            FunctionCounter.builder("task.query-cache.evictions", resultCache, c -> c.getStats().evictionCount())
+                .description("Cached pages evicted by size").register(registry);
+            Gauge.builder("task.query-cache.hit-ratio", resultCache, c -> c.getStats().hitRate())
+                .description("Fraction of task list requests served from the result cache").register(registry);
+            Gauge.builder("task.query-cache.size", resultCache, c -> c.getStats().size())
+                .description("Cached task list pages").register(registry);
+            Gauge.builder("task.query-cache.memory", resultCache, c -> c.getStats().estimatedBytes())
+                .description("Estimated heap used by cached task list pages").baseUnit("bytes").register(registry);
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.search.TaskTextIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 任務全文檢索配置
+ * task.search.enabled=true（預設）時以主要的 TaskRepository 建立倒排索引，
+ * 供 QueryTaskListUseCase 的標題、描述搜尋與 PostgreSQLTaskRepository.findByTitle 使用。
+ * 索引依賴儲存庫的變更流保持更新，第一次查詢時建立
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.search.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskSearchConfig {
+
+    @Bean
+    public TaskTextIndex taskTextIndex(
+            TaskRepository taskRepository,
+            @Value("${task.search.index-descriptions:true}") boolean indexDescriptions) {
+        return new TaskTextIndex(taskRepository, indexDescriptions);
+    }
+}
@@ -0,0 +1,127 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.persistence.sharding.PostgreSQLTaskShard;
+import com.tygrus.task_list.infrastructure.repository.ShardedTaskRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 任務分片配置
+ * 設定 task.sharding.enabled=true 時，以 ShardedTaskRepository 包裝 postgresqlTaskRepository：
+ * spring.datasource.* 上的原儲存庫為分片 primary，task.sharding.urls 為以逗號分隔的其他分片 JDBC URL，
+ * 依序命名為 shard-1、shard-2...，各自以 PostgreSQLTaskShard 建立獨立的 EntityManagerFactory 與交易管理器。
+ * 分片名稱決定雜湊環上的位置，調整 URL 順序會搬動任務的擁有者
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+public class TaskShardingConfig {
+
+    static final String SHARDED_REPOSITORY_BEAN = "postgresqlTaskRepository";
+
+    /**
+     * 在交易代理建立與分層封存包裝之後、寫入緩衝與讀取快取包裝之前執行，每個分片都經過自己的交易代理
+     */
+    @Bean
+    public static ShardedTaskRepositoryPostProcessor shardedTaskRepositoryPostProcessor(
+            Environment environment,
+            ObjectProvider<DataSourceProperties> dataSourceProperties,
+            ObjectProvider<JpaProperties> jpaProperties,
+            ObjectProvider<HibernateProperties> hibernateProperties) {
+        return new ShardedTaskRepositoryPostProcessor(
+            environment.getProperty("task.sharding.urls", String[].class, new String[0]),
+            environment.getProperty("task.sharding.virtual-nodes", Integer.class,
+                ShardedTaskRepository.DEFAULT_VIRTUAL_NODES),
+            dataSourceProperties, jpaProperties, hibernateProperties);
+    }
+
+    public static class ShardedTaskRepositoryPostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+
+        private final String[] shardUrls;
+        private final int virtualNodes;
+        private final ObjectProvider<DataSourceProperties> dataSourceProperties;
+        private final ObjectProvider<JpaProperties> jpaProperties;
+        private final ObjectProvider<HibernateProperties> hibernateProperties;
+        // 關閉時依建立的相反順序釋放：路由層、各分片的 EntityManagerFactory、連線池
+        private final List<Closeable> resources = new ArrayList<>();
+
+        ShardedTaskRepositoryPostProcessor(String[] shardUrls, int virtualNodes,
+                                           ObjectProvider<DataSourceProperties> dataSourceProperties,
+                                           ObjectProvider<JpaProperties> jpaProperties,
+                                           ObjectProvider<HibernateProperties> hibernateProperties) {
+            this.shardUrls = shardUrls;
+            this.virtualNodes = virtualNodes;
+            this.dataSourceProperties = dataSourceProperties;
+            this.jpaProperties = jpaProperties;
+            this.hibernateProperties = hibernateProperties;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (SHARDED_REPOSITORY_BEAN.equals(beanName) && bean instanceof TaskRepository primary) {
+                Map<String, TaskRepository> shards = new LinkedHashMap<>();
+                shards.put("primary", primary);
+                Map<String, Object> shardJpaProperties = shardJpaProperties();
+                DataSourceProperties primaryProperties = dataSourceProperties.getObject();
+                for (int i = 0; i < shardUrls.length; i++) {
+                    DataSource dataSource = DataSourceBuilder.create()
+                        .url(shardUrls[i].trim())
+                        .username(primaryProperties.getUsername())
+                        .password(primaryProperties.getPassword())
+                        .driverClassName(primaryProperties.determineDriverClassName())
+                        .build();
+                    if (dataSource instanceof Closeable pool) {
+                        resources.add(pool);
+                    }
+                    PostgreSQLTaskShard shard = PostgreSQLTaskShard.create("shard-" + (i + 1), dataSource,
+                        shardJpaProperties);
+                    resources.add(shard);
+                    shards.put(shard.name(), shard.repository());
+                }
+                ShardedTaskRepository sharded = new ShardedTaskRepository(shards, virtualNodes);
+                resources.add(sharded);
+                return sharded;
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 2;
+        }
+
+        @Override
+        public void destroy() throws IOException {
+            for (int i = resources.size() - 1; i >= 0; i--) {
+                resources.get(i).close();
+            }
+        }
+
+        /**
+         * 分片沿用 spring.jpa.* 的方言、命名策略與 ddl-auto 設定
+         */
+        private Map<String, Object> shardJpaProperties() {
+            return hibernateProperties.getObject().determineHibernateProperties(
+                jpaProperties.getObject().getProperties(), new HibernateSettings().ddlAuto(() -> "none"));
+        }
+    }
+}
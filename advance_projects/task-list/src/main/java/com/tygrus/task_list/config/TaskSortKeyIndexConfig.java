@@ -0,0 +1,25 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.infrastructure.persistence.migration.TaskSortKeyIndexMigration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+import javax.sql.DataSource;
+
+/**
+ * 任務排序鍵索引配置
+ * task.sort-key-indexes.enabled=true（預設）時，在 EntityManagerFactory 建立資料表之後
+ * 建立標題與優先級排序鍵的運算式索引
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.sort-key-indexes.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskSortKeyIndexConfig {
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public TaskSortKeyIndexMigration taskSortKeyIndexMigration(DataSource dataSource) {
+        return new TaskSortKeyIndexMigration(dataSource);
+    }
+}
@@ -0,0 +1,99 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.WriteDurability;
+import com.tygrus.task_list.infrastructure.repository.WriteBehindTaskRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * 任務寫入緩衝配置
+ * 設定 task.write-behind.enabled=true 時，以 WriteBehindTaskRepository 包裝 postgresqlTaskRepository，
+ * 同一任務的連續更新在緩衝中合併後以 saveAll 分批寫入。
+ * task.write-behind.default-durability 決定未指定完成保證的寫入是否等待寫入資料庫；
+ * 看板拖放一律以 ASYNC 寫入。緩衝統計以 task.write-behind.* 指標公開於 actuator
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.write-behind.enabled", havingValue = "true")
+public class WriteBehindConfig {
+
+    static final String BUFFERED_REPOSITORY_BEAN = "postgresqlTaskRepository";
+
+    /**
+     * 在分層封存與分片包裝之後、讀取快取包裝之前執行：緩衝寫入經過分層或分片儲存庫，快取位於最外層
+     */
+    @Bean
+    public static WriteBehindPostProcessor writeBehindPostProcessor(Environment environment) {
+        return new WriteBehindPostProcessor(
+            environment.getProperty("task.write-behind.default-durability", WriteDurability.class, WriteDurability.SYNC),
+            environment.getProperty("task.write-behind.max-batch-size", Integer.class, 500),
+            environment.getProperty("task.write-behind.max-pending", Integer.class, 10_000),
+            Duration.ofMillis(environment.getProperty("task.write-behind.flush-interval-ms", Long.class, 200L)));
+    }
+
+    /**
+     * 指標透過後處理器讀取統計，儲存庫尚未建立時為 0
+     */
+    @Bean
+    public MeterBinder taskWriteBehindMetrics(WriteBehindPostProcessor writeBehindPostProcessor) {
+        return registry -> {
+            FunctionCounter.builder("task.write-behind.writes", writeBehindPostProcessor, p -> p.getStats().writes())
+                .description("Writes accepted by the write-behind buffer").register(registry);
+            FunctionCounter.builder("task.write-behind.coalesced", writeBehindPostProcessor, p -> p.getStats().coalesced())
+                .description("Writes merged into a newer write of the same task").register(registry);
+            FunctionCounter.builder("task.write-behind.flushes", writeBehindPostProcessor, p -> p.getStats().flushes())
+                .description("Batched saveAll calls").register(registry);
+            FunctionCounter.builder("task.write-behind.flush-failures", writeBehindPostProcessor,
+                    p -> p.getStats().failedFlushes())
+                .description("Failed saveAll calls").register(registry);
+            Gauge.builder("task.write-behind.pending", writeBehindPostProcessor, p -> p.getStats().pending())
+                .description("Buffered task writes").register(registry);
+        };
+    }
+
+    public static class WriteBehindPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final WriteDurability defaultDurability;
+        private final int maxBatchSize;
+        private final int maxPending;
+        private final Duration flushInterval;
+        private volatile WriteBehindTaskRepository repository;
+
+        WriteBehindPostProcessor(WriteDurability defaultDurability, int maxBatchSize, int maxPending,
+                                 Duration flushInterval) {
+            this.defaultDurability = defaultDurability;
+            this.maxBatchSize = maxBatchSize;
+            this.maxPending = maxPending;
+            this.flushInterval = flushInterval;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (BUFFERED_REPOSITORY_BEAN.equals(beanName) && bean instanceof TaskRepository delegate) {
+                repository = new WriteBehindTaskRepository(
+                    delegate, defaultDurability, maxBatchSize, maxPending, flushInterval);
+                return repository;
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 3;
+        }
+
+        WriteBehindTaskRepository.Stats getStats() {
+            WriteBehindTaskRepository current = repository;
+            return current != null ? current.getStats() : new WriteBehindTaskRepository.Stats(0, 0, 0, 0, 0, 0);
+        }
+    }
+}
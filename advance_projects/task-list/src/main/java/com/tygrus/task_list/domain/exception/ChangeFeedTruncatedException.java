@@ -0,0 +1,27 @@
+package com.tygrus.task_list.domain.exception;
+
+/**
+ * 變更流截斷例外
+ * 
+ * 要求的序號早於變更流保留的範圍，中間的變更已無法取得
+ */
+public class ChangeFeedTruncatedException extends DomainException {
+
+    private final long requestedSequence;
+    private final long oldestAvailableSequence;
+
+    public ChangeFeedTruncatedException(long requestedSequence, long oldestAvailableSequence) {
+        super(String.format("Change feed no longer retains sequence %d (oldest available: %d)",
+            requestedSequence, oldestAvailableSequence));
+        this.requestedSequence = requestedSequence;
+        this.oldestAvailableSequence = oldestAvailableSequence;
+    }
+
+    public long getRequestedSequence() {
+        return requestedSequence;
+    }
+
+    public long getOldestAvailableSequence() {
+        return oldestAvailableSequence;
+    }
+}
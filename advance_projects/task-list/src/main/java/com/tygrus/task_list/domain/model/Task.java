@@ -27,6 +27,7 @@ public class Task {
     private boolean deleted;
     private LocalDateTime deletedAt;
     private String deletedBy;
+    private long version;
     private final List<DomainEvent> domainEvents = new ArrayList<>();
     
     // Builder pattern for complex construction
@@ -96,6 +97,20 @@ public class Task {
                                              LocalDateTime dueDate, LocalDateTime createdAt,
                                              LocalDateTime updatedAt, boolean deleted,
                                              LocalDateTime deletedAt, String deletedBy) {
+        return restoreFromPersistence(id, title, description, status, priority, dueDate,
+                                     createdAt, updatedAt, deleted, deletedAt, deletedBy, 0L);
+    }
+    
+    /**
+     * 完整恢復方法 - 包含持久化版本號
+     * 版本號供樂觀鎖使用，由儲存庫在每次寫入時遞增
+     */
+    public static Task restoreFromPersistence(TaskId id, String title, String description, 
+                                             TaskStatus status, Priority priority,
+                                             LocalDateTime dueDate, LocalDateTime createdAt,
+                                             LocalDateTime updatedAt, boolean deleted,
+                                             LocalDateTime deletedAt, String deletedBy,
+                                             long version) {
         // 使用 builder 建立基本物件
         Task task = Task.builder()
             .id(id)
@@ -112,6 +127,7 @@ public class Task {
         task.deleted = deleted;
         task.deletedAt = deletedAt;
         task.deletedBy = deletedBy;
+        task.version = version;
         
         return task;
     }
@@ -131,6 +147,7 @@ public class Task {
         this.deleted = false; // 預設未刪除
         this.deletedAt = null;
         this.deletedBy = null;
+        this.version = 0L;
     }
     
     private void validateRequiredFields(Builder builder) {
@@ -272,6 +289,13 @@ public class Task {
         return deletedBy;
     }
     
+    /**
+     * 取得載入時的持久化版本號，用於樂觀鎖比對
+     */
+    public long getVersion() {
+        return version;
+    }
+    
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -0,0 +1,38 @@
+package com.tygrus.task_list.domain.model;
+
+import java.time.Instant;
+
+/**
+ * 任務變更記錄
+ *
+ * 由儲存庫在每次寫入後發布到 {@link com.tygrus.task_list.domain.repository.TaskChangeFeed}。
+ * 序號在同一個變更流內單調遞增但不保證連續；同一任務的變更依寫入順序排列。
+ * task 為變更後的狀態（刪除時為刪除前最後的狀態），由所有訂閱者共用，不可修改。
+ *
+ * @param sequence 變更序號
+ * @param type 變更類型
+ * @param taskId 任務ID
+ * @param task 變更後的任務快照
+ * @param occurredAt 變更時間
+ */
+public record TaskChange(long sequence, Type type, TaskId taskId, Task task, Instant occurredAt) {
+
+    public enum Type {
+        INSERTED,
+        UPDATED,
+        DELETED
+    }
+
+    /**
+     * 依寫入前後的狀態判斷變更類型
+     *
+     * @param previous 寫入前的任務，null 表示新增
+     * @param current 寫入後的任務，null 表示移除
+     */
+    public static Type typeOf(Task previous, Task current) {
+        if (current == null || (current.isDeleted() && (previous == null || !previous.isDeleted()))) {
+            return Type.DELETED;
+        }
+        return previous == null ? Type.INSERTED : Type.UPDATED;
+    }
+}
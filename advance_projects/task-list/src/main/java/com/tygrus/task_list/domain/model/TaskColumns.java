@@ -0,0 +1,127 @@
+package com.tygrus.task_list.domain.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+/**
+ * 任務欄式快照（struct-of-arrays）
+ *
+ * 只保存統計與篩選常用的欄位：狀態、優先級以 byte 陣列存放 ordinal，
+ * 時間以 UTC epoch 毫秒存放於 long 陣列（{@link #NO_TIME} 表示 null），刪除旗標以位元圖存放。
+ * 全量掃描只需走訪少數連續的基本型別陣列，不必建立 Task 或 DTO 物件。
+ * 快照建立後不可變，可安全地在多執行緒間共享。
+ */
+public final class TaskColumns {
+
+    /** 時間欄位為 null 時的值 */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final TaskColumns EMPTY = new TaskColumns(0, new byte[0], new byte[0],
+        new long[0], new long[0], new long[0], new long[0]);
+
+    private final int size;
+    private final byte[] statuses;
+    private final byte[] priorities;
+    private final long[] createdAtMillis;
+    private final long[] updatedAtMillis;
+    private final long[] dueDateMillis;
+    private final long[] deletedBits;
+
+    /**
+     * 以既有陣列建立快照，陣列的所有權轉移給快照，呼叫端之後不得再修改
+     */
+    public TaskColumns(int size, byte[] statuses, byte[] priorities, long[] createdAtMillis,
+                       long[] updatedAtMillis, long[] dueDateMillis, long[] deletedBits) {
+        this.size = size;
+        this.statuses = statuses;
+        this.priorities = priorities;
+        this.createdAtMillis = createdAtMillis;
+        this.updatedAtMillis = updatedAtMillis;
+        this.dueDateMillis = dueDateMillis;
+        this.deletedBits = deletedBits;
+    }
+
+    public static TaskColumns empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 由任務集合轉換，供未自行維護欄式資料的儲存庫使用
+     */
+    public static TaskColumns of(Collection<Task> tasks) {
+        int size = tasks.size();
+        byte[] statuses = new byte[size];
+        byte[] priorities = new byte[size];
+        long[] createdAt = new long[size];
+        long[] updatedAt = new long[size];
+        long[] dueDate = new long[size];
+        long[] deletedBits = new long[bitmapLength(size)];
+
+        int i = 0;
+        for (Task task : tasks) {
+            statuses[i] = (byte) task.getStatus().ordinal();
+            priorities[i] = (byte) task.getPriority().ordinal();
+            createdAt[i] = toEpochMillis(task.getCreatedAt());
+            updatedAt[i] = toEpochMillis(task.getUpdatedAt());
+            dueDate[i] = toEpochMillis(task.getDueDate());
+            if (task.isDeleted()) {
+                deletedBits[i >>> 6] |= 1L << i;
+            }
+            i++;
+        }
+        return new TaskColumns(size, statuses, priorities, createdAt, updatedAt, dueDate, deletedBits);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int statusOrdinal(int index) {
+        return statuses[index];
+    }
+
+    public TaskStatus status(int index) {
+        return STATUSES[statuses[index]];
+    }
+
+    public int priorityOrdinal(int index) {
+        return priorities[index];
+    }
+
+    public Priority priority(int index) {
+        return PRIORITIES[priorities[index]];
+    }
+
+    public long createdAtMillis(int index) {
+        return createdAtMillis[index];
+    }
+
+    public long updatedAtMillis(int index) {
+        return updatedAtMillis[index];
+    }
+
+    public long dueDateMillis(int index) {
+        return dueDateMillis[index];
+    }
+
+    public boolean isDeleted(int index) {
+        return (deletedBits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * 位元圖需要的 long 數量
+     */
+    public static int bitmapLength(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    /**
+     * 轉為 UTC epoch 毫秒，null 轉為 {@link #NO_TIME}
+     */
+    public static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : NO_TIME;
+    }
+}
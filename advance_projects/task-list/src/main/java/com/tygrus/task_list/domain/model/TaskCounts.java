@@ -0,0 +1,106 @@
+package com.tygrus.task_list.domain.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 未刪除任務依狀態與優先級的計數快照
+ *
+ * 狀態計數與優先級計數各自加總都等於 {@link #total()}。
+ * 由維護計數器的儲存庫直接產生時，各欄位並非同一時間點讀取，並行寫入期間可能有短暫的誤差。
+ */
+public final class TaskCounts {
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final long[] statusCounts;
+    private final long[] priorityCounts;
+
+    private TaskCounts(long[] statusCounts, long[] priorityCounts) {
+        this.statusCounts = statusCounts;
+        this.priorityCounts = priorityCounts;
+    }
+
+    /**
+     * @param statusCounts 以 TaskStatus ordinal 為索引的計數
+     * @param priorityCounts 以 Priority ordinal 為索引的計數
+     */
+    public static TaskCounts of(long[] statusCounts, long[] priorityCounts) {
+        if (statusCounts.length != STATUSES.length || priorityCounts.length != PRIORITIES.length) {
+            throw new IllegalArgumentException("Counts must be indexed by TaskStatus and Priority ordinal");
+        }
+        return new TaskCounts(statusCounts.clone(), priorityCounts.clone());
+    }
+
+    /**
+     * 掃描欄式快照計數，略過已刪除的任務
+     */
+    public static TaskCounts of(TaskColumns columns) {
+        long[] statusCounts = new long[STATUSES.length];
+        long[] priorityCounts = new long[PRIORITIES.length];
+        for (int i = 0; i < columns.size(); i++) {
+            if (!columns.isDeleted(i)) {
+                statusCounts[columns.statusOrdinal(i)]++;
+                priorityCounts[columns.priorityOrdinal(i)]++;
+            }
+        }
+        return new TaskCounts(statusCounts, priorityCounts);
+    }
+
+    public static TaskCounts empty() {
+        return new TaskCounts(new long[STATUSES.length], new long[PRIORITIES.length]);
+    }
+
+    public long countOf(TaskStatus status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    public long countOf(Priority priority) {
+        return priorityCounts[priority.ordinal()];
+    }
+
+    public long total() {
+        return Arrays.stream(statusCounts).sum();
+    }
+
+    public Map<TaskStatus, Long> byStatus() {
+        Map<TaskStatus, Long> result = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : STATUSES) {
+            result.put(status, statusCounts[status.ordinal()]);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    public Map<Priority, Long> byPriority() {
+        Map<Priority, Long> result = new EnumMap<>(Priority.class);
+        for (Priority priority : PRIORITIES) {
+            result.put(priority, priorityCounts[priority.ordinal()]);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TaskCounts other)) {
+            return false;
+        }
+        return Arrays.equals(statusCounts, other.statusCounts)
+            && Arrays.equals(priorityCounts, other.priorityCounts);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(statusCounts) + Arrays.hashCode(priorityCounts);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskCounts{byStatus=" + byStatus() + ", byPriority=" + byPriority() + "}";
+    }
+}
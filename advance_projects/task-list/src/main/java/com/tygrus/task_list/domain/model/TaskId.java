@@ -2,19 +2,49 @@ package com.tygrus.task_list.domain.model;
 
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * TaskId值物件
  * 
  * 提供類型安全的任務ID，基於UUID實作
+ * 標準小寫格式的UUID以兩個 long 保存，字串於 getValue() 時才產生；
+ * 其他格式（如匯入的外部ID）保存原字串。雜湊值於建立時計算並快取。
  */
 public final class TaskId {
     
+    // 產生ID時最後使用的 (毫秒時間戳 << 12 | 序號)，確保同一毫秒內仍單調遞增
+    private static final AtomicLong LAST_TIMESTAMP_AND_SEQUENCE = new AtomicLong();
+    
+    // 非UUID格式時為原字串，UUID格式時為 null
     private final String value;
+    private final long mostSigBits;
+    private final long leastSigBits;
+    private final int hash;
     
     private TaskId(String value) {
         validateValue(value);
-        this.value = value != null ? value.trim() : null;
+        String trimmed = value.trim();
+        if (isCanonicalUuid(trimmed)) {
+            UUID uuid = UUID.fromString(trimmed);
+            this.value = null;
+            this.mostSigBits = uuid.getMostSignificantBits();
+            this.leastSigBits = uuid.getLeastSignificantBits();
+            this.hash = Long.hashCode(mostSigBits ^ leastSigBits);
+        } else {
+            this.value = trimmed;
+            this.mostSigBits = 0L;
+            this.leastSigBits = 0L;
+            this.hash = trimmed.hashCode();
+        }
+    }
+    
+    private TaskId(long mostSigBits, long leastSigBits) {
+        this.value = null;
+        this.mostSigBits = mostSigBits;
+        this.leastSigBits = leastSigBits;
+        this.hash = Long.hashCode(mostSigBits ^ leastSigBits);
     }
     
     private void validateValue(String value) {
@@ -45,8 +75,28 @@ public final class TaskId {
         }
     }
     
+    /**
+     * 產生時間排序的ID（UUIDv7 格式）
+     * 前 48 位元為毫秒時間戳、其後 12 位元為同毫秒內的序號，新ID在索引中永遠附加在尾端；
+     * 其餘 62 位元為亂數。ID 可由時間推測先後，不應作為存取控制的秘密值
+     */
     public static TaskId generate() {
-        return new TaskId(UUID.randomUUID().toString());
+        long timestampAndSequence = nextTimestampAndSequence();
+        long mostSigBits = ((timestampAndSequence >>> 12) << 16) | 0x7000L | (timestampAndSequence & 0xFFFL);
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new TaskId(mostSigBits, leastSigBits);
+    }
+    
+    private static long nextTimestampAndSequence() {
+        while (true) {
+            long now = System.currentTimeMillis() << 12;
+            long last = LAST_TIMESTAMP_AND_SEQUENCE.get();
+            // 序號用完時進位到下一毫秒，維持單調
+            long next = now > last ? now : last + 1;
+            if (LAST_TIMESTAMP_AND_SEQUENCE.compareAndSet(last, next)) {
+                return next;
+            }
+        }
     }
     
     public static TaskId of(String value) {
@@ -64,7 +114,7 @@ public final class TaskId {
         if (uuid == null) {
             throw new IllegalArgumentException("UUID cannot be null");
         }
-        return new TaskId(uuid.toString());
+        return new TaskId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
     }
     
     /**
@@ -79,7 +129,7 @@ public final class TaskId {
     }
     
     public String getValue() {
-        return value;
+        return value != null ? value : new UUID(mostSigBits, leastSigBits).toString();
     }
     
     @Override
@@ -87,25 +137,31 @@ public final class TaskId {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         TaskId taskId = (TaskId) obj;
-        return Objects.equals(value, taskId.value);
+        return hash == taskId.hash
+            && mostSigBits == taskId.mostSigBits
+            && leastSigBits == taskId.leastSigBits
+            && Objects.equals(value, taskId.value);
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return hash;
     }
     
     /**
      * 檢查此TaskId是否為UUID格式
      */
     public boolean isUuidFormat() {
-        return isValidUuidFormat(this.value);
+        return value == null || isValidUuidFormat(value);
     }
     
     /**
      * 如果是UUID格式，轉換為UUID物件
      */
     public java.util.Optional<UUID> toUuid() {
+        if (value == null) {
+            return java.util.Optional.of(new UUID(mostSigBits, leastSigBits));
+        }
         try {
             return java.util.Optional.of(UUID.fromString(this.value));
         } catch (IllegalArgumentException e) {
@@ -113,8 +169,50 @@ public final class TaskId {
         }
     }
     
+    /**
+     * 是否為以兩個 long 保存的標準格式UUID
+     */
+    public boolean isCompact() {
+        return value == null;
+    }
+    
+    /**
+     * 標準格式UUID的高 64 位元，非UUID格式時為 0
+     */
+    public long getMostSignificantBits() {
+        return mostSigBits;
+    }
+    
+    /**
+     * 標準格式UUID的低 64 位元，非UUID格式時為 0
+     */
+    public long getLeastSignificantBits() {
+        return leastSigBits;
+    }
+    
+    /**
+     * 是否為 UUID.toString() 產生的標準格式（36 字元、小寫十六進位）
+     * 只有這種格式能無損地以兩個 long 保存並還原為相同字串
+     */
+    public static boolean isCanonicalUuid(String value) {
+        if (value.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     @Override
     public String toString() {
-        return value;
+        return getValue();
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.tygrus.task_list.domain.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskColumns;
+import com.tygrus.task_list.domain.model.TaskId;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 非同步 Task Repository 接口
+ *
+ * 與 {@link TaskRepository} 的操作一一對應，改為回傳 CompletableFuture，呼叫端不需占用執行緒等待 I/O。
+ * 失敗時 future 以原本同步操作拋出的例外完成（例如 OptimisticLockException）。
+ * 實作負責限制同時執行的操作數，呼叫端可以一次送出大量操作。
+ */
+public interface AsyncTaskRepository {
+
+    CompletableFuture<Task> save(Task task);
+
+    CompletableFuture<Optional<Task>> findById(TaskId taskId);
+
+    CompletableFuture<Boolean> existsById(TaskId taskId);
+
+    CompletableFuture<Void> deleteById(TaskId taskId);
+
+    CompletableFuture<List<Task>> findAll();
+
+    CompletableFuture<TaskColumns> findAllAsColumns();
+
+    /**
+     * 非同步串流讀取所有任務，reader 在執行操作的執行緒上消費串流
+     */
+    <R> CompletableFuture<R> streamAll(Function<? super Stream<Task>, ? extends R> reader);
+
+    CompletableFuture<Long> forEachChunk(int chunkSize, Consumer<? super List<Task>> chunkConsumer);
+
+    CompletableFuture<Map<TaskId, Task>> findByIds(List<TaskId> taskIds);
+
+    CompletableFuture<List<Task>> saveAll(List<Task> tasks);
+
+    CompletableFuture<Map<TaskId, Boolean>> existsByIds(List<TaskId> taskIds);
+
+    CompletableFuture<Task> saveWithOptimisticLock(Task task, Long expectedVersion);
+
+    CompletableFuture<Map<TaskId, Task>> saveAllWithOptimisticLock(List<Task> tasks);
+}
@@ -0,0 +1,60 @@
+package com.tygrus.task_list.domain.repository;
+
+import com.tygrus.task_list.domain.model.TaskChange;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 任務變更流
+ *
+ * 儲存庫的新增、更新與刪除依序號排列，保留最近一段範圍供讀取或訂閱。
+ * 消費者記住處理到的序號，之後從下一個序號續讀即可增量維護衍生狀態，不必重新 findAll；
+ * 要求的序號已超出保留範圍時拋出 {@link com.tygrus.task_list.domain.exception.ChangeFeedTruncatedException}，
+ * 此時消費者需要重新全量載入後從 {@link #latestSequence()} 之後續讀。
+ */
+public interface TaskChangeFeed {
+
+    /**
+     * 最新變更的序號，尚無變更時為 0
+     */
+    long latestSequence();
+
+    /**
+     * 讀取序號大於等於 fromSequence 的變更
+     *
+     * @param fromSequence 起始序號（含）
+     * @param maxChanges 最多筆數
+     * @return 依序號排列的變更，沒有新變更時為空
+     */
+    List<TaskChange> read(long fromSequence, int maxChanges);
+
+    /**
+     * 自 fromSequence（含）開始訂閱：先補送保留範圍內的舊變更，再持續收到新變更
+     * 每個訂閱以獨立的執行緒依序呼叫 listener；listener 拋出的例外會被記錄後略過
+     *
+     * @param fromSequence 起始序號，只訂閱之後的變更時傳入 latestSequence() + 1
+     * @param listener 變更處理函式
+     * @return 訂閱，關閉後停止傳遞
+     */
+    Subscription subscribe(long fromSequence, Consumer<TaskChange> listener);
+
+    /**
+     * 變更流訂閱
+     */
+    interface Subscription extends AutoCloseable {
+
+        /**
+         * 最後傳遞給 listener 的序號
+         */
+        long position();
+
+        /**
+         * 是否仍在傳遞；關閉或落後超出保留範圍後為 false
+         */
+        boolean isActive();
+
+        @Override
+        void close();
+    }
+}
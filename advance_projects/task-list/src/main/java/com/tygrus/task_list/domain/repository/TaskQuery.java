@@ -0,0 +1,463 @@
+package com.tygrus.task_list.domain.repository;
+
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * 任務查詢規格
+ *
+ * 描述過濾、排序與分頁條件，由 {@link TaskRepository#query(TaskQuery)} 執行：
+ * 資料庫實作轉換為 SQL 條件，只讀取需要的資料列；記憶體實作以自身的索引縮小候選範圍。
+ * 未覆寫的實作以 {@link #select(Stream)} 在串流上求值，結果與下推到資料庫時相同。
+ *
+ * 條件語意：
+ * - 預設不含已軟刪除的任務，{@link #includeDeleted()} 為 true 時才納入；所有實作都以此為準
+ * - 狀態與優先級為集合，空集合表示不過濾
+ * - 標題與描述的查詢詞不分大小寫，每個詞都需包含（AND）；文字為 null 時不符合
+ * - 建立時間與到期日範圍包含兩端點；指定到期日範圍時沒有到期日的任務不符合
+ * - 排序欄位為 null 時不排序，依儲存順序回傳；鍵相同時依任務ID排序，方向與排序方向相同
+ * - 標題依逐字元轉小寫後的 Unicode 碼位排序，不受 JVM 或資料庫的語系定序影響
+ * - 指定續讀位置（{@link #after()}）時只回傳排序在該位置之後的任務，須有排序且排序條件與位置相同；
+ *   (排序鍵, 任務ID) 為全序，逐頁以最後一筆續讀不會重複或遺漏，不受之前的位置插入或刪除任務影響。
+ *   續讀位置只對發出它的儲存庫實作有效：任務ID的比較依實作的儲存格式而定，換到另一個實作可能重複或遺漏
+ *
+ * 過濾與排序條件在建立時編譯為 {@link TaskQueryPlan}，以條件形狀快取，翻頁與續讀共用同一個計畫；
+ * {@link #matches}、{@link #comparator()} 與 {@link #select} 都經由計畫求值。
+ *
+ * 規格不可變，可在多執行緒間共用。
+ */
+public final class TaskQuery {
+
+    /** 不限筆數 */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final Set<TaskStatus> statuses;
+    private final Set<Priority> priorities;
+    private final List<String> titleTerms;
+    private final List<String> descriptionTerms;
+    private final LocalDateTime createdFrom;
+    private final LocalDateTime createdTo;
+    private final LocalDateTime dueDateFrom;
+    private final LocalDateTime dueDateTo;
+    private final SortField sortField;
+    private final boolean descending;
+    private final int offset;
+    private final int limit;
+    private final boolean countTotal;
+    private final boolean includeArchived;
+    private final boolean includeDeleted;
+    private final TaskQueryCursor after;
+    // after 的排序鍵：排序欄位為標題時為原文，其他欄位轉換為計畫使用的基本型別鍵
+    private final String afterTitle;
+    private final long afterSortKey;
+    private final TaskQueryPlan plan;
+
+    private TaskQuery(Builder builder) {
+        this.statuses = builder.statuses.isEmpty()
+            ? Set.of() : Collections.unmodifiableSet(EnumSet.copyOf(builder.statuses));
+        this.priorities = builder.priorities.isEmpty()
+            ? Set.of() : Collections.unmodifiableSet(EnumSet.copyOf(builder.priorities));
+        this.titleTerms = normalizedTerms(builder.titleTerms);
+        this.descriptionTerms = normalizedTerms(builder.descriptionTerms);
+        this.createdFrom = builder.createdFrom;
+        this.createdTo = builder.createdTo;
+        this.dueDateFrom = builder.dueDateFrom;
+        this.dueDateTo = builder.dueDateTo;
+        this.sortField = builder.sortField;
+        this.descending = builder.descending;
+        this.offset = Math.max(0, builder.offset);
+        this.limit = Math.max(0, builder.limit);
+        this.countTotal = builder.countTotal;
+        this.includeArchived = builder.includeArchived;
+        this.includeDeleted = builder.includeDeleted;
+        this.after = builder.after;
+        if (after != null && (sortField != after.sortField() || descending != after.descending())) {
+            throw new IllegalArgumentException("Continuation token was issued for a different sort order");
+        }
+        this.afterTitle = after != null && sortField == SortField.TITLE ? after.sortKey() : null;
+        this.afterSortKey = after != null ? parseSortKey(after) : 0L;
+        this.plan = TaskQueryPlan.of(this);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Set<TaskStatus> statuses() {
+        return statuses;
+    }
+
+    public Set<Priority> priorities() {
+        return priorities;
+    }
+
+    /**
+     * 標題需包含的查詢詞，已轉為小寫
+     */
+    public List<String> titleTerms() {
+        return titleTerms;
+    }
+
+    /**
+     * 描述需包含的查詢詞，已轉為小寫
+     */
+    public List<String> descriptionTerms() {
+        return descriptionTerms;
+    }
+
+    public LocalDateTime createdFrom() {
+        return createdFrom;
+    }
+
+    public LocalDateTime createdTo() {
+        return createdTo;
+    }
+
+    public LocalDateTime dueDateFrom() {
+        return dueDateFrom;
+    }
+
+    public LocalDateTime dueDateTo() {
+        return dueDateTo;
+    }
+
+    public boolean hasDueDateRange() {
+        return dueDateFrom != null || dueDateTo != null;
+    }
+
+    /**
+     * 排序欄位，null 表示不排序
+     */
+    public SortField sortField() {
+        return sortField;
+    }
+
+    public boolean descending() {
+        return descending;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * 最多回傳的筆數，{@link #UNLIMITED} 表示不限
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * 是否計算符合條件的總筆數；不需要時實作可在取得該頁後停止讀取
+     */
+    public boolean countTotal() {
+        return countTotal;
+    }
+
+    /**
+     * 是否包含已移到封存層的任務
+     */
+    public boolean includeArchived() {
+        return includeArchived;
+    }
+
+    /**
+     * 是否包含已軟刪除的任務
+     */
+    public boolean includeDeleted() {
+        return includeDeleted;
+    }
+
+    /**
+     * 續讀位置，null 表示從第一筆開始
+     */
+    public TaskQueryCursor after() {
+        return after;
+    }
+
+    /**
+     * 任務是否符合所有過濾條件並排在續讀位置之後
+     * 條件依編譯後計畫的順序檢查，估計可排除較多且較便宜的條件先檢查，文字比對在最後
+     */
+    public boolean matches(Task task) {
+        return plan.matches(this, task);
+    }
+
+    /**
+     * 依排序欄位與方向比較任務，未指定排序欄位時視為相等
+     * 標題依轉小寫後的碼位；狀態依名稱；優先級依宣告順序；時間為 null 時排在最前；鍵相同時依任務ID
+     */
+    public Comparator<Task> comparator() {
+        if (sortField == null) {
+            return (left, right) -> 0;
+        }
+        return plan::compare;
+    }
+
+    /**
+     * 在串流上求值：過濾、計數並選出指定的頁面
+     *
+     * 有排序時以有界堆積（{@link TopKSelector}）只保留前 offset + limit 筆，時間 O(n log(offset + limit))；
+     * 沒有排序且不需計數時，取得該頁後即停止讀取串流。
+     * 回傳的是候選串流中的原物件，不複製。
+     *
+     * @param candidates 候選任務，可包含不符合條件的任務
+     */
+    public TaskQueryResult select(Stream<Task> candidates) {
+        return select(candidates, sortField != null ? topKSelector() : null);
+    }
+
+    /**
+     * 以指定的選取器求值，有排序時 selector 不可為 null
+     */
+    TaskQueryResult select(Stream<Task> candidates, TopKSelector selector) {
+        Iterator<Task> matching = candidates.filter(this::matches).iterator();
+        long end = (long) offset + limit;
+        if (sortField == null) {
+            List<Task> page = new ArrayList<>();
+            long matched = 0;
+            while (matching.hasNext()) {
+                Task task = matching.next();
+                if (matched >= offset && matched < end) {
+                    page.add(task);
+                }
+                matched++;
+                if (matched >= end && !countTotal) {
+                    break;
+                }
+            }
+            return new TaskQueryResult(page, countTotal ? matched : TaskQueryResult.UNKNOWN_TOTAL);
+        }
+
+        long matched = 0;
+        while (matching.hasNext()) {
+            selector.offer(matching.next());
+            matched++;
+        }
+        Task[] sorted = selector.drainSorted();
+        List<Task> page = new ArrayList<>(Math.max(0, sorted.length - offset));
+        for (int i = offset; i < sorted.length; i++) {
+            page.add(sorted[i]);
+        }
+        return new TaskQueryResult(page, countTotal ? matched : TaskQueryResult.UNKNOWN_TOTAL);
+    }
+
+    /**
+     * 保留前 offset + limit 筆的選取器
+     */
+    TopKSelector topKSelector() {
+        return new TopKSelector((int) Math.min((long) offset + limit, Integer.MAX_VALUE), comparator());
+    }
+
+    /**
+     * 從第一筆起取前 offset + limit 筆的相同查詢，供分片等需要合併多個來源後再分頁的實作使用
+     */
+    public TaskQuery firstRows() {
+        return toBuilder()
+            .offset(0)
+            .limit((int) Math.min((long) offset + limit, UNLIMITED))
+            .build();
+    }
+
+    public Builder toBuilder() {
+        return new Builder()
+            .statuses(statuses)
+            .priorities(priorities)
+            .titleTerms(titleTerms)
+            .descriptionTerms(descriptionTerms)
+            .createdBetween(createdFrom, createdTo)
+            .dueDateBetween(dueDateFrom, dueDateTo)
+            .sortBy(sortField, descending)
+            .offset(offset)
+            .limit(limit)
+            .countTotal(countTotal)
+            .includeArchived(includeArchived)
+            .includeDeleted(includeDeleted)
+            .after(after);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskQuery{" +
+                "statuses=" + statuses +
+                ", priorities=" + priorities +
+                ", titleTerms=" + titleTerms +
+                ", descriptionTerms=" + descriptionTerms +
+                ", created=[" + createdFrom + ", " + createdTo + "]" +
+                ", dueDate=[" + dueDateFrom + ", " + dueDateTo + "]" +
+                ", sort=" + sortField + (descending ? " DESC" : " ASC") +
+                ", offset=" + offset +
+                ", limit=" + limit +
+                ", countTotal=" + countTotal +
+                ", includeArchived=" + includeArchived +
+                ", includeDeleted=" + includeDeleted +
+                (after != null ? ", after=(" + after.sortKey() + ", " + after.taskId() + ")" : "") +
+                '}';
+    }
+
+    /**
+     * 編譯後的查詢計畫，同一形狀的查詢共用
+     */
+    TaskQueryPlan plan() {
+        return plan;
+    }
+
+    /**
+     * 任務是否排在續讀位置之後，由計畫在過濾條件中依序呼叫
+     */
+    boolean isAfterCursor(Task task) {
+        return plan.isAfter(task, afterTitle, afterSortKey, after.taskId());
+    }
+
+    private static long parseSortKey(TaskQueryCursor cursor) {
+        try {
+            return TaskQueryPlan.sortKeyOf(cursor.sortField(), cursor.sortKey());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+    }
+
+    private static List<String> normalizedTerms(Collection<String> terms) {
+        return terms.stream()
+            .filter(term -> term != null && !term.isEmpty())
+            .map(term -> term.toLowerCase(Locale.ROOT))
+            .distinct()
+            .toList();
+    }
+
+    /**
+     * 可排序的欄位
+     */
+    public enum SortField {
+        TITLE,
+        STATUS,
+        PRIORITY,
+        CREATED_AT,
+        UPDATED_AT
+    }
+
+    /**
+     * Builder class for creating TaskQuery instances
+     */
+    public static class Builder {
+        private Collection<TaskStatus> statuses = List.of();
+        private Collection<Priority> priorities = List.of();
+        private Collection<String> titleTerms = List.of();
+        private Collection<String> descriptionTerms = List.of();
+        private LocalDateTime createdFrom;
+        private LocalDateTime createdTo;
+        private LocalDateTime dueDateFrom;
+        private LocalDateTime dueDateTo;
+        private SortField sortField;
+        private boolean descending;
+        private int offset = 0;
+        private int limit = UNLIMITED;
+        private boolean countTotal = true;
+        private boolean includeArchived = false;
+        private boolean includeDeleted = false;
+        private TaskQueryCursor after;
+
+        public Builder statuses(Collection<TaskStatus> statuses) {
+            this.statuses = statuses != null ? statuses : List.of();
+            return this;
+        }
+
+        public Builder priorities(Collection<Priority> priorities) {
+            this.priorities = priorities != null ? priorities : List.of();
+            return this;
+        }
+
+        /**
+         * @param titleTerms 標題需包含的每個詞，不分大小寫
+         */
+        public Builder titleTerms(Collection<String> titleTerms) {
+            this.titleTerms = titleTerms != null ? titleTerms : List.of();
+            return this;
+        }
+
+        /**
+         * @param descriptionTerms 描述需包含的每個詞，不分大小寫
+         */
+        public Builder descriptionTerms(Collection<String> descriptionTerms) {
+            this.descriptionTerms = descriptionTerms != null ? descriptionTerms : List.of();
+            return this;
+        }
+
+        /**
+         * @param from 建立時間下界（含），null 表示不限
+         * @param to 建立時間上界（含），null 表示不限
+         */
+        public Builder createdBetween(LocalDateTime from, LocalDateTime to) {
+            this.createdFrom = from;
+            this.createdTo = to;
+            return this;
+        }
+
+        /**
+         * @param from 到期日下界（含），null 表示不限
+         * @param to 到期日上界（含），null 表示不限
+         */
+        public Builder dueDateBetween(LocalDateTime from, LocalDateTime to) {
+            this.dueDateFrom = from;
+            this.dueDateTo = to;
+            return this;
+        }
+
+        public Builder sortBy(SortField sortField, boolean descending) {
+            this.sortField = sortField;
+            this.descending = descending;
+            return this;
+        }
+
+        public Builder offset(int offset) {
+            this.offset = offset;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        public Builder countTotal(boolean countTotal) {
+            this.countTotal = countTotal;
+            return this;
+        }
+
+        public Builder includeArchived(boolean includeArchived) {
+            this.includeArchived = includeArchived;
+            return this;
+        }
+
+        public Builder includeDeleted(boolean includeDeleted) {
+            this.includeDeleted = includeDeleted;
+            return this;
+        }
+
+        /**
+         * @param after 續讀位置，排序欄位與方向須與 sortBy 相同；null 表示從第一筆開始
+         * @throws IllegalArgumentException build 時排序條件與位置不同
+         */
+        public Builder after(TaskQueryCursor after) {
+            this.after = after;
+            return this;
+        }
+
+        public TaskQuery build() {
+            return new TaskQuery(this);
+        }
+    }
+}
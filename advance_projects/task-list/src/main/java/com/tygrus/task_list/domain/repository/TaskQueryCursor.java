@@ -0,0 +1,85 @@
+package com.tygrus.task_list.domain.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * 任務查詢的續讀位置
+ *
+ * 記錄上一頁最後一筆的 (排序鍵, 任務ID)，以 {@link TaskQuery.Builder#after} 指定後只回傳排在該位置之後的任務，
+ * 與前面插入或刪除了多少任務無關，每頁的成本也不隨頁數增加。
+ * 以 URL-safe Base64 編碼為不透明字串交給呼叫端，並帶上排序欄位與方向，防止以不同排序條件誤用續頁標記。
+ * 標記只對發出它的儲存庫實作有效：鍵相同時的任務ID順序，資料庫實作依ID的二進位欄位值，記憶體實作依字串。
+ *
+ * @param sortField 排序欄位
+ * @param descending 是否遞減排序
+ * @param sortKey 上一頁最後一筆的排序鍵（字串形式），該欄位為 null 時為 null
+ * @param taskId 上一頁最後一筆的任務ID
+ */
+public record TaskQueryCursor(TaskQuery.SortField sortField, boolean descending, String sortKey, String taskId) {
+
+    private static final int FORMAT_VERSION = 1;
+
+    public TaskQueryCursor {
+        Objects.requireNonNull(sortField, "Sort field cannot be null");
+        Objects.requireNonNull(taskId, "Task ID cannot be null");
+    }
+
+    /**
+     * 以任務在指定排序下的位置建立續讀位置
+     * 標題為原文；狀態與優先級為列舉名稱；時間為 ISO-8601 字串
+     */
+    public static TaskQueryCursor after(Task last, TaskQuery.SortField sortField, boolean descending) {
+        String sortKey = switch (sortField) {
+            case TITLE -> last.getTitle();
+            case STATUS -> last.getStatus().name();
+            case PRIORITY -> last.getPriority().name();
+            case CREATED_AT -> last.getCreatedAt() != null ? last.getCreatedAt().toString() : null;
+            case UPDATED_AT -> last.getUpdatedAt() != null ? last.getUpdatedAt().toString() : null;
+        };
+        return new TaskQueryCursor(sortField, descending, sortKey, last.getId().getValue());
+    }
+
+    public String encode() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(sortField.name());
+            out.writeBoolean(descending);
+            out.writeBoolean(sortKey != null);
+            if (sortKey != null) {
+                out.writeUTF(sortKey);
+            }
+            out.writeUTF(taskId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode task query cursor", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.toByteArray());
+    }
+
+    /**
+     * @throws IllegalArgumentException 標記不是 {@link #encode()} 產生的字串時
+     */
+    public static TaskQueryCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported continuation token version");
+            }
+            TaskQuery.SortField sortField = TaskQuery.SortField.valueOf(in.readUTF());
+            boolean descending = in.readBoolean();
+            String sortKey = in.readBoolean() ? in.readUTF() : null;
+            return new TaskQueryCursor(sortField, descending, sortKey, in.readUTF());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+    }
+}
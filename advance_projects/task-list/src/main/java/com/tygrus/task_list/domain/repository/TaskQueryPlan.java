@@ -0,0 +1,356 @@
+package com.tygrus.task_list.domain.repository;
+
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 編譯後的任務查詢計畫
+ *
+ * 由 {@link TaskQuery} 的過濾與排序條件（不含分頁、時間範圍的端點與續讀位置）編譯而成，
+ * 以條件形狀為鍵快取，翻頁、換時間範圍或續讀時不重新編譯。編譯時：
+ * - 狀態與優先級條件以序數位元遮罩檢查
+ * - 標題與描述的查詢詞已在 TaskQuery 轉小寫，逐列以不分大小寫的區段比對，不建立小寫副本
+ * - 條件依每單位成本可排除的比例排序，依序檢查，任一條件不符即停止；
+ *   列舉條件的通過比例依選取的值數估計，文字比對成本較高，描述又長於標題
+ * - 排序以基本型別鍵比較：狀態名稱名次、優先級序數、時間的 epoch 奈秒；標題逐碼位轉小寫比較
+ *
+ * 估計只影響檢查順序，不影響結果。計畫不可變，可在多執行緒間共用。
+ */
+final class TaskQueryPlan {
+
+    static final int MAXIMUM_PLANS = 256;
+
+    private static final int ENUM_COST = 1;
+    private static final int RANGE_COST = 2;
+    private static final int TITLE_COST = 4;
+    private static final int DESCRIPTION_COST = 16;
+    // 無統計資料時每個查詢詞與時間端點的估計通過比例
+    private static final double TERM_SELECTIVITY = 0.1;
+    private static final double BOUND_SELECTIVITY = 0.5;
+    // 大多數任務未刪除
+    private static final double NOT_DELETED_SELECTIVITY = 0.9;
+
+    // 狀態依名稱字母順序的名次，與資料庫以字串欄位排序的結果相同
+    private static final int[] STATUS_NAME_RANK = new int[TaskStatus.values().length];
+
+    static {
+        TaskStatus[] byName = TaskStatus.values().clone();
+        Arrays.sort(byName, Comparator.comparing(TaskStatus::name));
+        for (int rank = 0; rank < byName.length; rank++) {
+            STATUS_NAME_RANK[byName[rank].ordinal()] = rank;
+        }
+    }
+
+    // 以存取順序淘汰最久未用的計畫
+    private static final Map<Shape, TaskQueryPlan> PLANS = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Shape, TaskQueryPlan> eldest) {
+            return size() > MAXIMUM_PLANS;
+        }
+    };
+
+    private final List<Filter> filters;
+    private final Check[] checks;
+    private final TaskQuery.SortField sortField;
+    private final boolean descending;
+
+    private TaskQueryPlan(List<Filter> filters, TaskQuery.SortField sortField, boolean descending) {
+        this.filters = List.copyOf(filters);
+        this.checks = filters.stream().map(Filter::check).toArray(Check[]::new);
+        this.sortField = sortField;
+        this.descending = descending;
+    }
+
+    /**
+     * 取得查詢的計畫，同一形狀的查詢共用快取的計畫
+     */
+    static TaskQueryPlan of(TaskQuery query) {
+        Shape shape = Shape.of(query);
+        synchronized (PLANS) {
+            TaskQueryPlan plan = PLANS.get(shape);
+            if (plan != null) {
+                return plan;
+            }
+        }
+        TaskQueryPlan compiled = compile(shape);
+        synchronized (PLANS) {
+            TaskQueryPlan existing = PLANS.putIfAbsent(shape, compiled);
+            return existing != null ? existing : compiled;
+        }
+    }
+
+    /**
+     * 目前快取的計畫數
+     */
+    static int cachedPlans() {
+        synchronized (PLANS) {
+            return PLANS.size();
+        }
+    }
+
+    /**
+     * 任務是否符合查詢的所有過濾條件；時間範圍的端點與續讀位置取自 query
+     */
+    boolean matches(TaskQuery query, Task task) {
+        for (Check check : checks) {
+            if (!check.test(query, task)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 依排序欄位與方向比較任務，鍵相同時依任務ID
+     */
+    int compare(Task left, Task right) {
+        int compared = sortField == TaskQuery.SortField.TITLE
+            ? compareTitles(left.getTitle(), right.getTitle())
+            : Long.compare(sortKey(left), sortKey(right));
+        if (compared == 0) {
+            compared = left.getId().getValue().compareTo(right.getId().getValue());
+        }
+        return descending ? -compared : compared;
+    }
+
+    /**
+     * 任務是否排在續讀位置之後
+     *
+     * @param title 位置的標題，排序欄位為標題時使用
+     * @param key 位置的基本型別排序鍵，其他排序欄位時使用
+     */
+    boolean isAfter(Task task, String title, long key, String taskId) {
+        int compared = sortField == TaskQuery.SortField.TITLE
+            ? compareTitles(task.getTitle(), title)
+            : Long.compare(sortKey(task), key);
+        if (compared == 0) {
+            compared = task.getId().getValue().compareTo(taskId);
+        }
+        return descending ? compared < 0 : compared > 0;
+    }
+
+    /**
+     * 依檢查順序列出過濾條件與估計的通過比例，供記錄與除錯
+     */
+    String describe() {
+        String filterPart = filters.isEmpty() ? "all"
+            : filters.stream()
+                .map(filter -> String.format("%s (%.2f)", filter.description(), filter.selectivity()))
+                .collect(Collectors.joining(" -> "));
+        return filterPart + " | sort " + (sortField != null ? sortField + (descending ? " DESC" : " ASC") : "none");
+    }
+
+    @Override
+    public String toString() {
+        return "TaskQueryPlan[" + describe() + "]";
+    }
+
+    private long sortKey(Task task) {
+        return switch (sortField) {
+            case TITLE -> 0L;
+            case STATUS -> STATUS_NAME_RANK[task.getStatus().ordinal()];
+            case PRIORITY -> task.getPriority().ordinal();
+            case CREATED_AT -> epochNanos(task.getCreatedAt());
+            case UPDATED_AT -> epochNanos(task.getUpdatedAt());
+        };
+    }
+
+    /**
+     * 續讀位置排序鍵的基本型別形式，與 {@link #sortKey} 相同
+     */
+    static long sortKeyOf(TaskQuery.SortField sortField, String key) {
+        return switch (sortField) {
+            case TITLE -> 0L;
+            case STATUS -> STATUS_NAME_RANK[TaskStatus.valueOf(key).ordinal()];
+            case PRIORITY -> Priority.valueOf(key).ordinal();
+            case CREATED_AT, UPDATED_AT -> epochNanos(key != null ? LocalDateTime.parse(key) : null);
+        };
+    }
+
+    /**
+     * 以 UTC 換算的 epoch 奈秒，可表示到 2262 年；null 排在最前
+     */
+    private static long epochNanos(LocalDateTime time) {
+        if (time == null) {
+            return Long.MIN_VALUE;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    /**
+     * 逐碼位轉小寫後比較，與資料庫實作的 lower(title) COLLATE ucs_basic 相同，不配置新字串；null 排在最前
+     */
+    static int compareTitles(String left, String right) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : -1) : 1;
+        }
+        int i = 0;
+        int j = 0;
+        while (i < left.length() && j < right.length()) {
+            int leftCodePoint = left.codePointAt(i);
+            int rightCodePoint = right.codePointAt(j);
+            int compared = Integer.compare(Character.toLowerCase(leftCodePoint), Character.toLowerCase(rightCodePoint));
+            if (compared != 0) {
+                return compared;
+            }
+            i += Character.charCount(leftCodePoint);
+            j += Character.charCount(rightCodePoint);
+        }
+        return Boolean.compare(i < left.length(), j < right.length());
+    }
+
+    private static TaskQueryPlan compile(Shape shape) {
+        List<Filter> filters = new ArrayList<>();
+
+        if (!shape.includeDeleted()) {
+            filters.add(new Filter("not deleted", NOT_DELETED_SELECTIVITY, ENUM_COST,
+                (query, task) -> !task.isDeleted()));
+        }
+        if (!shape.statuses().isEmpty()) {
+            long mask = ordinalMask(shape.statuses());
+            filters.add(new Filter("status in " + shape.statuses(),
+                (double) shape.statuses().size() / TaskStatus.values().length, ENUM_COST,
+                (query, task) -> (mask & (1L << task.getStatus().ordinal())) != 0));
+        }
+        if (!shape.priorities().isEmpty()) {
+            long mask = ordinalMask(shape.priorities());
+            filters.add(new Filter("priority in " + shape.priorities(),
+                (double) shape.priorities().size() / Priority.values().length, ENUM_COST,
+                (query, task) -> (mask & (1L << task.getPriority().ordinal())) != 0));
+        }
+        if (shape.createdBounds() > 0) {
+            filters.add(new Filter("created within range", Math.pow(BOUND_SELECTIVITY, shape.createdBounds()),
+                RANGE_COST,
+                (query, task) -> withinRange(task.getCreatedAt(), query.createdFrom(), query.createdTo())));
+        }
+        if (shape.dueDateBounds() > 0) {
+            filters.add(new Filter("due date within range", Math.pow(BOUND_SELECTIVITY, shape.dueDateBounds()),
+                RANGE_COST,
+                (query, task) -> withinRange(task.getDueDate(), query.dueDateFrom(), query.dueDateTo())));
+        }
+        if (shape.afterCursor()) {
+            filters.add(new Filter("after cursor", BOUND_SELECTIVITY, RANGE_COST, TaskQuery::isAfterCursor));
+        }
+        if (!shape.titleTerms().isEmpty()) {
+            String[] terms = shape.titleTerms().toArray(String[]::new);
+            filters.add(new Filter("title contains " + shape.titleTerms(),
+                Math.pow(TERM_SELECTIVITY, terms.length), TITLE_COST,
+                (query, task) -> containsAll(task.getTitle(), terms)));
+        }
+        if (!shape.descriptionTerms().isEmpty()) {
+            String[] terms = shape.descriptionTerms().toArray(String[]::new);
+            filters.add(new Filter("description contains " + shape.descriptionTerms(),
+                Math.pow(TERM_SELECTIVITY, terms.length), DESCRIPTION_COST,
+                (query, task) -> containsAll(task.getDescription(), terms)));
+        }
+
+        filters.sort(Comparator.comparingDouble(Filter::rank).reversed());
+        return new TaskQueryPlan(filters, shape.sortField(), shape.descending());
+    }
+
+    private static long ordinalMask(Set<? extends Enum<?>> values) {
+        long mask = 0L;
+        for (Enum<?> value : values) {
+            mask |= 1L << value.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * 時間是否在範圍內（含兩端點）；指定任一端點時 null 不符合
+     */
+    private static boolean withinRange(LocalDateTime time, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return true;
+        }
+        if (time == null) {
+            return false;
+        }
+        return (from == null || !time.isBefore(from)) && (to == null || !time.isAfter(to));
+    }
+
+    /**
+     * 文字是否包含每個已轉小寫的查詢詞；null 文字視為不符合
+     */
+    private static boolean containsAll(String text, String[] lowerCaseTerms) {
+        if (text == null) {
+            return false;
+        }
+        for (String term : lowerCaseTerms) {
+            if (!containsIgnoreCase(text, term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(String text, String term) {
+        int last = text.length() - term.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, term, 0, term.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean test(TaskQuery query, Task task);
+    }
+
+    /**
+     * 一個過濾條件
+     *
+     * @param description 條件描述
+     * @param selectivity 估計的通過比例，0 到 1
+     * @param cost 相對檢查成本
+     * @param check 檢查函式
+     */
+    private record Filter(String description, double selectivity, int cost, Check check) {
+
+        /**
+         * 每單位成本可排除的比例，越大越先檢查
+         */
+        double rank() {
+            return (1.0 - selectivity) / cost;
+        }
+    }
+
+    /**
+     * 計畫快取鍵：過濾與排序條件的形狀；時間範圍只記有幾個端點，端點的值與續讀位置在執行時取自查詢
+     */
+    private record Shape(Set<TaskStatus> statuses,
+                         Set<Priority> priorities,
+                         List<String> titleTerms,
+                         List<String> descriptionTerms,
+                         int createdBounds,
+                         int dueDateBounds,
+                         boolean includeDeleted,
+                         boolean afterCursor,
+                         TaskQuery.SortField sortField,
+                         boolean descending) {
+
+        static Shape of(TaskQuery query) {
+            return new Shape(query.statuses(), query.priorities(), query.titleTerms(), query.descriptionTerms(),
+                bounds(query.createdFrom(), query.createdTo()), bounds(query.dueDateFrom(), query.dueDateTo()),
+                query.includeDeleted(), query.after() != null, query.sortField(), query.descending());
+        }
+
+        private static int bounds(LocalDateTime from, LocalDateTime to) {
+            return (from != null ? 1 : 0) + (to != null ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.tygrus.task_list.domain.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+
+import java.util.List;
+
+/**
+ * {@link TaskQuery} 的執行結果
+ *
+ * @param tasks 該頁的任務，依查詢的排序排列
+ * @param totalMatches 符合條件的總筆數；查詢未要求計數時為 {@link #UNKNOWN_TOTAL}
+ */
+public record TaskQueryResult(List<Task> tasks, long totalMatches) {
+
+    public static final long UNKNOWN_TOTAL = -1L;
+
+    public TaskQueryResult {
+        tasks = List.copyOf(tasks);
+    }
+
+    public boolean hasTotal() {
+        return totalMatches != UNKNOWN_TOTAL;
+    }
+}
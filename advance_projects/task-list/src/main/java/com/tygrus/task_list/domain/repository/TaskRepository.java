@@ -1,11 +1,20 @@
 package com.tygrus.task_list.domain.repository;
 
+import com.tygrus.task_list.domain.exception.OptimisticLockException;
 import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskColumns;
+import com.tygrus.task_list.domain.model.TaskCounts;
 import com.tygrus.task_list.domain.model.TaskId;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Task Repository接口
@@ -18,9 +27,19 @@ public interface TaskRepository {
     
     /**
      * 儲存任務
+     * 回傳儲存後的任務，包含新的版本號；實作可能回傳副本而不更新傳入的物件，
+     * 之後以 saveWithOptimisticLock 更新時應使用回傳值的版本號
      */
     Task save(Task task);
     
+    /**
+     * 以指定的完成保證儲存任務
+     * 預設等同 save(task)，緩衝寫入的實作依 durability 決定是否等待寫入資料來源
+     */
+    default Task save(Task task, WriteDurability durability) {
+        return save(task);
+    }
+    
     /**
      * 根據ID查詢任務
      */
@@ -39,10 +58,107 @@ public interface TaskRepository {
     /**
      * 查詢所有任務
      * 為QueryTaskListUseCase提供基礎資料
-     * 實際的過濾、排序、分頁邏輯在Application層實現
+     * 條件查詢請使用 query(TaskQuery)，由儲存庫在資料來源端過濾、排序與分頁
      */
     List<Task> findAll();
     
+    /**
+     * 以欄式快照查詢所有任務
+     * 供只需要狀態、優先級與時間欄位的全量統計使用，避免建立 Task 與 DTO 物件
+     * 預設由 findAll() 轉換，維護欄式資料的實作應覆寫
+     */
+    default TaskColumns findAllAsColumns() {
+        return TaskColumns.of(findAll());
+    }
+    
+    /**
+     * 以串流逐筆讀取所有任務
+     * 串流只在 reader 執行期間有效（實作可能持有資料庫游標），reader 不可將串流本身回傳
+     * 預設由 findAll() 轉換，能以游標讀取的實作應覆寫以維持固定記憶體用量
+     * 
+     * @param reader 消費串流並產生結果的函式
+     * @return reader 的結果
+     */
+    default <R> R streamAll(Function<? super Stream<Task>, ? extends R> reader) {
+        return reader.apply(findAll().stream());
+    }
+    
+    /**
+     * 以串流逐筆讀取所有任務，包含已移到封存層的任務
+     * 供匯出等需要完整歷史的讀取；清單頁面等日常查詢使用 streamAll，只讀取熱資料
+     * 預設等同 streamAll，分層儲存的實作應覆寫
+     * 
+     * @param reader 消費串流並產生結果的函式
+     * @return reader 的結果
+     */
+    default <R> R streamAllIncludingArchived(Function<? super Stream<Task>, ? extends R> reader) {
+        return streamAll(reader);
+    }
+    
+    /**
+     * 依查詢規格過濾、排序並分頁
+     * 預設以 streamAll（包含封存時為 streamAllIncludingArchived）串流全部任務後以 {@link TaskQuery#select} 求值；
+     * 能把條件下推到資料庫或以索引縮小候選範圍的實作應覆寫，只讀取該頁需要的任務
+     *
+     * @param query 查詢規格
+     * @return 該頁任務與符合條件的總筆數
+     */
+    default TaskQueryResult query(TaskQuery query) {
+        if (query.includeArchived()) {
+            return streamAllIncludingArchived(query::select);
+        }
+        return streamAll(query::select);
+    }
+    
+    /**
+     * 以固定大小的區塊逐批處理所有任務
+     * 處理完一批才讀取下一批，記憶體用量只與區塊大小有關
+     * 
+     * @param chunkSize 每批筆數
+     * @param chunkConsumer 處理每一批任務
+     * @return 處理的總筆數
+     */
+    default long forEachChunk(int chunkSize, Consumer<? super List<Task>> chunkConsumer) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        return streamAll(tasks -> {
+            Iterator<Task> iterator = tasks.iterator();
+            long total = 0;
+            while (iterator.hasNext()) {
+                List<Task> chunk = new ArrayList<>(chunkSize);
+                while (chunk.size() < chunkSize && iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                }
+                chunkConsumer.accept(chunk);
+                total += chunk.size();
+            }
+            return total;
+        });
+    }
+    
+    /**
+     * 未刪除任務依狀態與優先級的計數
+     * 預設掃描欄式快照，維護計數器的實作應覆寫為常數時間讀取
+     */
+    default TaskCounts counts() {
+        return TaskCounts.of(findAllAsColumns());
+    }
+    
+    /**
+     * 此儲存庫的變更流
+     * 每次新增、更新與刪除成功後依序發布一筆變更，供快取、統計等消費者增量更新。
+     * 每個實作都須提供，變更在寫入對讀取端可見之後才發布
+     */
+    TaskChangeFeed changeFeed();
+    
+    /**
+     * 此儲存庫的寫入世代
+     * 每次新增、更新與刪除的結果對讀取端可見後遞增，供查詢結果快取判斷快取的頁面是否仍然有效。
+     * 呼叫端每次比對前都應重新呼叫：緩衝寫入的實作在此先寫出緩衝，之後的世代才涵蓋已接受的寫入
+     */
+    TaskWriteEpochs writeEpochs();
+    
     /**
      * 批次查詢任務
      * 為批次操作提供效能優化
@@ -75,8 +191,28 @@ public interface TaskRepository {
      * 
      * @param task 要更新的任務
      * @param expectedVersion 期望的版本號
-     * @return 更新後的任務
+     * @return 更新後的任務，版本號已遞增；與 save 相同，傳入的物件不一定被更新
      * @throws com.tygrus.task_list.domain.exception.OptimisticLockException 當版本衝突時
      */
     Task saveWithOptimisticLock(Task task, Long expectedVersion);
-}
\ No newline at end of file
+    
+    /**
+     * 批次使用樂觀鎖更新任務
+     * 每個任務以自身的 getVersion() 作為期望版本號；版本衝突或已不存在的任務不會寫入，也不會出現在結果中
+     * 預設逐筆呼叫 saveWithOptimisticLock，能以單一語句批次比對版本的實作應覆寫
+     * 
+     * @param tasks 要更新的任務列表
+     * @return 成功寫入的任務映射表 (TaskId -> 更新後的任務)
+     */
+    default Map<TaskId, Task> saveAllWithOptimisticLock(List<Task> tasks) {
+        Map<TaskId, Task> saved = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            try {
+                saved.put(task.getId(), saveWithOptimisticLock(task, task.getVersion()));
+            } catch (OptimisticLockException e) {
+                // 衝突的任務不列入結果，由呼叫端依缺漏的 ID 判斷
+            }
+        }
+        return saved;
+    }
+}
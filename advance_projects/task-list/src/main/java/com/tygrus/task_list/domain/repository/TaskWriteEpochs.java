@@ -0,0 +1,71 @@
+package com.tygrus.task_list.domain.repository;
+
+import com.tygrus.task_list.domain.model.TaskStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 儲存庫的寫入世代
+ *
+ * 每次寫入的結果對讀取端可見之後，全域世代與受影響任務寫入前後所屬狀態的世代各遞增一次。
+ * 世代只增不減，讀取端在查詢前取得世代、之後再比對，不變即表示期間沒有會影響該查詢結果的寫入：
+ * 以狀態過濾的查詢只需比對所選狀態的世代，其他狀態的寫入不會使其失效。
+ */
+public interface TaskWriteEpochs {
+
+    /**
+     * 任何寫入都會遞增的全域世代
+     */
+    long global();
+
+    /**
+     * 寫入前或寫入後屬於指定狀態的任務被寫入時遞增的世代
+     */
+    long of(TaskStatus status);
+
+    /**
+     * 只以指定狀態集合過濾的查詢所依賴的世代
+     * 空集合或包含全部狀態時為全域世代，否則為各狀態世代的和；各世代只增不減，和不變即表示各世代皆未變
+     *
+     * @param statuses 查詢的狀態過濾條件，空集合表示不過濾
+     */
+    default long stamp(Set<TaskStatus> statuses) {
+        if (statuses.isEmpty() || statuses.size() == TaskStatus.values().length) {
+            return global();
+        }
+        long stamp = 0;
+        for (TaskStatus status : statuses) {
+            stamp += of(status);
+        }
+        return stamp;
+    }
+
+    /**
+     * 以多個儲存庫的世代加總，供分片等組合多個資料來源的儲存庫使用
+     * 組合的來源只能增加不能移除，否則加總可能倒退
+     */
+    static TaskWriteEpochs sumOf(Collection<? extends TaskWriteEpochs> sources) {
+        List<TaskWriteEpochs> snapshot = List.copyOf(sources);
+        return new TaskWriteEpochs() {
+            @Override
+            public long global() {
+                long sum = 0;
+                for (TaskWriteEpochs source : snapshot) {
+                    sum += source.global();
+                }
+                return sum;
+            }
+
+            @Override
+            public long of(TaskStatus status) {
+                long sum = 0;
+                for (TaskWriteEpochs source : snapshot) {
+                    sum += source.of(status);
+                }
+                return sum;
+            }
+        };
+    }
+}
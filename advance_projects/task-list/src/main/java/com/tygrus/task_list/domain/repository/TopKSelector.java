@@ -0,0 +1,115 @@
+package com.tygrus.task_list.domain.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 有界的前 K 筆選取
+ *
+ * 以陣列實作的二元堆積保留目前排序最前的 K 筆，堆頂為其中最後的一筆；
+ * 新任務只有排在堆頂之前才會取代堆頂，因此掃描 n 筆的成本為 O(n log K)，
+ * 只為進入堆積的任務保留引用，陣列依實際保留的筆數成長，最多 K 格。
+ *
+ * 非執行緒安全，每次查詢建立一個。
+ */
+final class TopKSelector {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int limit;
+    private final Comparator<Task> order;
+
+    private Task[] heap;
+    private int size;
+
+    /**
+     * @param limit 保留的筆數
+     * @param order 排序，需為全序
+     */
+    TopKSelector(int limit, Comparator<Task> order) {
+        this.limit = limit;
+        this.order = order;
+        this.heap = new Task[Math.min(limit, INITIAL_CAPACITY)];
+    }
+
+    void offer(Task task) {
+        if (limit == 0) {
+            return;
+        }
+        if (size < limit) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, (int) Math.min((long) heap.length * 2, limit));
+            }
+            heap[size] = task;
+            siftUp(size++);
+        } else if (order.compare(task, heap[0]) < 0) {
+            heap[0] = task;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * 目前保留的筆數，不超過 limit
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * 堆積陣列的長度，不超過 limit
+     */
+    int capacity() {
+        return heap.length;
+    }
+
+    /**
+     * 依排序取出保留的任務，之後選取器為空
+     */
+    Task[] drainSorted() {
+        Task[] sorted = new Task[size];
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            sorted[i] = heap[0];
+            heap[0] = heap[--size];
+            heap[size] = null;
+            siftDown(0);
+        }
+        return sorted;
+    }
+
+    // 堆頂為排序最後的一筆：父節點不排在子節點之前
+    private void siftUp(int index) {
+        Task task = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (order.compare(heap[parent], task) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = task;
+    }
+
+    private void siftDown(int index) {
+        if (size == 0) {
+            return;
+        }
+        Task task = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && order.compare(heap[right], heap[child]) > 0) {
+                child = right;
+            }
+            if (order.compare(task, heap[child]) >= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = task;
+    }
+}
@@ -0,0 +1,20 @@
+package com.tygrus.task_list.domain.repository;
+
+/**
+ * 單次寫入的完成保證
+ *
+ * 由呼叫端依操作性質選擇：看板拖放等可容忍短暫延遲的更新使用 ASYNC，
+ * 需要確定已寫入的操作使用 SYNC。不緩衝寫入的儲存庫一律視為 SYNC。
+ */
+public enum WriteDurability {
+
+    /**
+     * 寫入資料來源後才返回
+     */
+    SYNC,
+
+    /**
+     * 進入寫入緩衝即返回，之後批次寫入資料來源；同一實例的讀取立即可見
+     */
+    ASYNC
+}
@@ -0,0 +1,367 @@
+package com.tygrus.task_list.infrastructure.cache;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * 有界的頻率感知快取（W-TinyLFU）
+ *
+ * 容量分為三段：
+ * - 視窗區（約 1%）：新項目先進入，以 LRU 吸收短暫的突發存取
+ * - 試用區：自視窗區淘汰的項目須比試用區最久未用的項目更常被存取才能進入主區，
+ *   存取頻率由 {@link FrequencySketch} 估計（同時計入命中與未命中）
+ * - 保護區（主區的 80%）：試用區內再次被存取的項目晉升至此，超出時降回試用區
+ *
+ * 讀取不加鎖；存取順序與頻率的更新以 tryLock 進行，鎖被占用時略過該次記錄，
+ * 高並行下頻率資訊會略有失真，但讀取不會被淘汰邏輯阻塞。
+ *
+ * 每個鍵對應一個寫入世代（依雜湊分段，不隨鍵數增長）。載入前先以 {@link #stamp} 取得世代，
+ * {@link #putIfUnchanged} 只在世代未變時放入；{@link #invalidate} 先遞增世代再移除項目，
+ * 因此在寫入前開始、寫入後才完成的載入不會把舊值放回快取。
+ *
+ * @param <K> 鍵型別
+ * @param <V> 值型別，應為不可變或由呼叫端自行複製
+ */
+public final class WTinyLfuCache<K, V> {
+
+    private static final int STAMP_STRIPES = 1024;
+
+    private enum Region { WINDOW, PROBATION, PROTECTED }
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        Region region;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * 以節點本身的 prev/next 串接的存取順序佇列，first 為最久未使用
+     */
+    private static final class AccessOrder<K, V> {
+        Node<K, V> first;
+        Node<K, V> last;
+        long size;
+
+        void addLast(Node<K, V> node) {
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            first = null;
+            last = null;
+            size = 0;
+        }
+    }
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final long maximumSize;
+    private final long windowMaximum;
+    private final long mainMaximum;
+    private final long protectedMaximum;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final AccessOrder<K, V> window = new AccessOrder<>();
+    private final AccessOrder<K, V> probation = new AccessOrder<>();
+    private final AccessOrder<K, V> protectedRegion = new AccessOrder<>();
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder discardedPutCount = new LongAdder();
+
+    public WTinyLfuCache(long maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.mainMaximum = maximumSize - windowMaximum;
+        this.protectedMaximum = mainMaximum * 4 / 5;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * 查詢快取，並記錄命中或未命中
+     *
+     * @return 快取的值，未命中時為 null
+     */
+    public V getIfPresent(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            missCount.increment();
+            recordMiss(key);
+            return null;
+        }
+        hitCount.increment();
+        recordHit(node);
+        return node.value;
+    }
+
+    /**
+     * 取得鍵目前的寫入世代，載入資料前呼叫
+     */
+    public long stamp(K key) {
+        return stamps.get(stripeOf(key));
+    }
+
+    /**
+     * 自取得世代後該鍵沒有被失效時才放入快取
+     * 已有項目時保留原項目：它同樣是在最後一次失效之後放入的
+     *
+     * @return 是否放入（或已存在同樣有效的項目）
+     */
+    public boolean putIfUnchanged(K key, V value, long stamp) {
+        int stripe = stripeOf(key);
+        Node<K, V> node = new Node<>(key, value);
+        boolean[] inserted = {false};
+        Node<K, V> current = data.compute(key, (k, existing) -> {
+            if (stamps.get(stripe) != stamp) {
+                return existing;
+            }
+            if (existing != null) {
+                return existing;
+            }
+            inserted[0] = true;
+            return node;
+        });
+        if (inserted[0]) {
+            afterInsert(node);
+            return true;
+        }
+        if (current == null) {
+            discardedPutCount.increment();
+        }
+        return current != null;
+    }
+
+    /**
+     * 遞增寫入世代並移除項目，於資料來源寫入完成後呼叫
+     */
+    public void invalidate(K key) {
+        stamps.incrementAndGet(stripeOf(key));
+        Node<K, V> removed = data.remove(key);
+        if (removed != null) {
+            evictionLock.lock();
+            try {
+                unlink(removed);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 清空快取，進行中的載入都不會放入
+     */
+    public void invalidateAll() {
+        evictionLock.lock();
+        try {
+            for (int i = 0; i < STAMP_STRIPES; i++) {
+                stamps.incrementAndGet(i);
+            }
+            data.clear();
+            for (AccessOrder<K, V> order : List.of(window, probation, protectedRegion)) {
+                for (Node<K, V> node = order.first; node != null; node = node.next) {
+                    node.region = null;
+                }
+                order.clear();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public long size() {
+        return data.mappingCount();
+    }
+
+    /**
+     * 目前所有項目的權重總和，走訪整個快取，供指標等低頻讀取使用
+     *
+     * @param weigher 單一值的權重，例如估計的位元組數
+     */
+    public long weightedSize(ToLongFunction<? super V> weigher) {
+        long total = 0;
+        for (Node<K, V> node : data.values()) {
+            total += weigher.applyAsLong(node.value);
+        }
+        return total;
+    }
+
+    public Stats stats() {
+        return new Stats(hitCount.sum(), missCount.sum(), evictionCount.sum(), discardedPutCount.sum(),
+            size(), maximumSize);
+    }
+
+    private void recordMiss(K key) {
+        if (evictionLock.tryLock()) {
+            try {
+                sketch.increment(key);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void recordHit(Node<K, V> node) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            sketch.increment(node.key);
+            if (node.region == null) {
+                return;
+            }
+            switch (node.region) {
+                case WINDOW -> window.moveToLast(node);
+                case PROTECTED -> protectedRegion.moveToLast(node);
+                case PROBATION -> {
+                    probation.remove(node);
+                    node.region = Region.PROTECTED;
+                    protectedRegion.addLast(node);
+                    while (protectedRegion.size > protectedMaximum) {
+                        Node<K, V> demoted = protectedRegion.first;
+                        protectedRegion.remove(demoted);
+                        demoted.region = Region.PROBATION;
+                        probation.addLast(demoted);
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void afterInsert(Node<K, V> node) {
+        evictionLock.lock();
+        try {
+            // 放入後到取得鎖之間可能已被失效或清空
+            if (data.get(node.key) != node) {
+                return;
+            }
+            node.region = Region.WINDOW;
+            window.addLast(node);
+            while (window.size > windowMaximum) {
+                Node<K, V> candidate = window.first;
+                window.remove(candidate);
+                candidate.region = null;
+                admit(candidate);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 視窗區淘汰的候選者與試用區最久未用的項目比較頻率，較少被存取的一方被淘汰
+     */
+    private void admit(Node<K, V> candidate) {
+        if (probation.size + protectedRegion.size < mainMaximum) {
+            candidate.region = Region.PROBATION;
+            probation.addLast(candidate);
+            return;
+        }
+        Node<K, V> victim = probation.first != null ? probation.first : protectedRegion.first;
+        if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+            evict(victim);
+            candidate.region = Region.PROBATION;
+            probation.addLast(candidate);
+        } else {
+            evict(candidate);
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        unlink(node);
+        if (data.remove(node.key, node)) {
+            evictionCount.increment();
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.region == null) {
+            return;
+        }
+        switch (node.region) {
+            case WINDOW -> window.remove(node);
+            case PROBATION -> probation.remove(node);
+            case PROTECTED -> protectedRegion.remove(node);
+        }
+        node.region = null;
+    }
+
+    private static int stripeOf(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STAMP_STRIPES - 1);
+    }
+
+    /**
+     * 快取統計
+     *
+     * @param hitCount 命中次數
+     * @param missCount 未命中次數
+     * @param evictionCount 因容量淘汰的項目數
+     * @param discardedPutCount 載入期間遇到寫入而放棄放入的次數
+     * @param size 目前項目數
+     * @param maximumSize 容量上限
+     */
+    public record Stats(long hitCount, long missCount, long evictionCount, long discardedPutCount,
+                        long size, long maximumSize) {
+
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return requests > 0 ? (double) hitCount / requests : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Stats{size=%d/%d, hits=%d, misses=%d, hitRate=%.2f%%, evictions=%d}",
+                size, maximumSize, hitCount, missCount, hitRate() * 100, evictionCount);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.JavaType;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -25,11 +26,15 @@ public class TaskAttachmentEntity {
     @Column(name = "id", length = 36, nullable = false)
     private String id;
 
+    // 任務主鍵的 UUID 字串，非 UUID 格式的任務ID 另存於 taskLegacyId
     @NotBlank
-    @Size(max = 36)
-    @Column(name = "task_id", nullable = false, length = 36)
+    @JavaType(TaskIdJavaType.class)
+    @Column(name = "task_id", nullable = false)
     private String taskId;
 
+    @Column(name = "task_legacy_id", length = TaskIdJavaType.LEGACY_ID_LENGTH)
+    private String taskLegacyId;
+
     @NotBlank
     @Size(max = 255)
     @Column(name = "filename", nullable = false)
@@ -70,7 +75,7 @@ public class TaskAttachmentEntity {
     public TaskAttachmentEntity(String id, String taskId, String filename, 
                                String contentType, Long fileSize, byte[] fileData) {
         this.id = id;
-        this.taskId = taskId;
+        setTaskId(taskId);
         this.filename = filename;
         this.contentType = contentType;
         this.fileSize = fileSize;
@@ -86,7 +91,7 @@ public class TaskAttachmentEntity {
 
     // Getters
     public String getId() { return id; }
-    public String getTaskId() { return taskId; }
+    public String getTaskId() { return TaskIdJavaType.restore(taskId, taskLegacyId); }
     public String getFilename() { return filename; }
     public String getContentType() { return contentType; }
     public Long getFileSize() { return fileSize; }
@@ -98,7 +103,10 @@ public class TaskAttachmentEntity {
 
     // Setters
     public void setId(String id) { this.id = id; }
-    public void setTaskId(String taskId) { this.taskId = taskId; }
+    public void setTaskId(String taskId) {
+        this.taskId = TaskIdJavaType.keyOf(taskId);
+        this.taskLegacyId = TaskIdJavaType.legacyIdOf(taskId);
+    }
     public void setFilename(String filename) { this.filename = filename; }
     public void setContentType(String contentType) { this.contentType = contentType; }
     public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
@@ -125,7 +133,7 @@ public class TaskAttachmentEntity {
     public String toString() {
         return "TaskAttachmentEntity{" +
                 "id='" + id + '\'' +
-                ", taskId='" + taskId + '\'' +
+                ", taskId='" + getTaskId() + '\'' +
                 ", filename='" + filename + '\'' +
                 ", contentType='" + contentType + '\'' +
                 ", fileSize=" + fileSize +
@@ -0,0 +1,116 @@
+package com.tygrus.task_list.infrastructure.persistence.entity;
+
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskChange;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JavaType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * JPA Entity for the task change outbox
+ * 每列為一次任務寫入後的快照，與寫入在同一個交易內新增；自動遞增的 ID 即為變更序號
+ */
+@Entity
+@Table(name = "task_changes", indexes = {
+    @Index(name = "idx_task_change_changed_at", columnList = "changed_at")
+})
+public class TaskChangeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    // 任務主鍵的 UUID 字串，非 UUID 格式的任務ID 另存於 taskLegacyId
+    @JavaType(TaskIdJavaType.class)
+    @Column(name = "task_id", nullable = false)
+    private String taskId;
+
+    @Column(name = "task_legacy_id", length = TaskIdJavaType.LEGACY_ID_LENGTH)
+    private String taskLegacyId;
+
+    @Column(name = "change_type", nullable = false, length = 10)
+    private String changeType;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "description", length = 2000)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private TaskStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", nullable = false, length = 20)
+    private Priority priority;
+
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "deleted", nullable = false)
+    private Boolean deleted = false;
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    protected TaskChangeEntity() {
+        // JPA 需要的默認建構子
+    }
+
+    /**
+     * 轉換為 Domain 變更記錄
+     */
+    public TaskChange toDomain() {
+        Task task = Task.restoreFromPersistence(
+            TaskId.of(getTaskId()),
+            title,
+            description,
+            status,
+            priority,
+            dueDate,
+            createdAt,
+            updatedAt,
+            deleted != null ? deleted : false,
+            deletedAt,
+            null,  // deletedBy 字段在 TaskEntity 中沒有存儲
+            version
+        );
+        return new TaskChange(id, TaskChange.Type.valueOf(changeType), task.getId(), task,
+            changedAt.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getTaskId() { return TaskIdJavaType.restore(taskId, taskLegacyId); }
+    public String getChangeType() { return changeType; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+
+    @Override
+    public String toString() {
+        return "TaskChangeEntity{" +
+                "id=" + id +
+                ", taskId='" + getTaskId() + '\'' +
+                ", changeType=" + changeType +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.JavaType;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -17,18 +18,26 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "tasks", indexes = {
-    @Index(name = "idx_task_status", columnList = "status"),
     @Index(name = "idx_task_due_date", columnList = "dueDate"),
-    @Index(name = "idx_task_created_at", columnList = "createdAt"),
     @Index(name = "idx_task_deleted", columnList = "deleted"),
-    @Index(name = "idx_task_title", columnList = "title")
+    // Keyset 分頁用的 (排序鍵, id) 複合索引，同時涵蓋原本的單欄索引
+    @Index(name = "idx_task_status_id", columnList = "status, id"),
+    @Index(name = "idx_task_priority_id", columnList = "priority, id"),
+    @Index(name = "idx_task_created_at_id", columnList = "createdAt, id"),
+    @Index(name = "idx_task_updated_at_id", columnList = "updatedAt, id"),
+    @Index(name = "idx_task_title_id", columnList = "title, id")
 })
 public class TaskEntity {
 
+    // 主鍵的 UUID 字串，欄位為 16 位元組的 uuid；非 UUID 格式的任務ID 另存於 legacyId
     @Id
-    @Column(name = "id", length = 36, nullable = false)
+    @JavaType(TaskIdJavaType.class)
+    @Column(name = "id", nullable = false)
     private String id;
 
+    @Column(name = "legacy_id", length = TaskIdJavaType.LEGACY_ID_LENGTH)
+    private String legacyId;
+
     @NotBlank
     @Size(max = 255)
     @Column(name = "title", nullable = false)
@@ -79,7 +88,7 @@ public class TaskEntity {
     public TaskEntity(String id, String title, String description, TaskStatus status, 
                      com.tygrus.task_list.domain.model.Priority priority,
                      LocalDateTime dueDate, LocalDateTime createdAt) {
-        this.id = id;
+        setId(id);
         this.title = title;
         this.description = description;
         this.status = status;
@@ -95,7 +104,7 @@ public class TaskEntity {
      */
     public static TaskEntity fromDomain(Task task) {
         TaskEntity entity = new TaskEntity();
-        entity.id = task.getId().getValue();
+        entity.setId(task.getId().getValue());
         entity.title = task.getTitle();
         entity.description = task.getDescription();
         entity.status = task.getStatus();
@@ -115,7 +124,7 @@ public class TaskEntity {
      */
     public Task toDomain() {
         return Task.restoreFromPersistence(
-            TaskId.of(this.id),
+            TaskId.of(getId()),
             this.title,
             this.description,
             this.status,
@@ -125,7 +134,8 @@ public class TaskEntity {
             this.updatedAt,
             this.deleted != null ? this.deleted : false,
             this.deletedAt,
-            null  // deletedBy 字段在 TaskEntity 中沒有存儲
+            null,  // deletedBy 字段在 TaskEntity 中沒有存儲
+            this.version != null ? this.version : 0L
         );
     }
 
@@ -165,7 +175,7 @@ public class TaskEntity {
     }
 
     // Getters
-    public String getId() { return id; }
+    public String getId() { return TaskIdJavaType.restore(id, legacyId); }
     public String getTitle() { return title; }
     public String getDescription() { return description; }
     public TaskStatus getStatus() { return status; }
@@ -179,7 +189,10 @@ public class TaskEntity {
     public Integer getAttachmentCount() { return attachmentCount; }
 
     // Setters (for JPA)
-    public void setId(String id) { this.id = id; }
+    public void setId(String id) {
+        this.id = TaskIdJavaType.keyOf(id);
+        this.legacyId = TaskIdJavaType.legacyIdOf(id);
+    }
     public void setTitle(String title) { this.title = title; }
     public void setDescription(String description) { this.description = description; }
     public void setStatus(TaskStatus status) { this.status = status; }
@@ -208,7 +221,7 @@ public class TaskEntity {
     @Override
     public String toString() {
         return "TaskEntity{" +
-                "id='" + id + '\'' +
+                "id='" + getId() + '\'' +
                 ", title='" + title + '\'' +
                 ", status=" + status +
                 ", deleted=" + deleted +
@@ -0,0 +1,119 @@
+package com.tygrus.task_list.infrastructure.persistence.entity;
+
+import com.tygrus.task_list.domain.model.TaskId;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractClassJavaType;
+import org.hibernate.type.descriptor.java.ImmutableMutabilityPlan;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+import org.hibernate.type.descriptor.jdbc.JdbcTypeIndicators;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * 任務ID 的 16 位元組 UUID 主鍵映射
+ *
+ * 欄位為資料庫的 uuid 型別（PostgreSQL 與 H2 皆為固定 16 位元組）。
+ * 標準格式的 UUID 直接存為其值，時間排序的 ID 在索引中依時間遞增排列；
+ * 其他格式的舊 ID 存為以其 UTF-8 位元組計算的名稱式 UUID（第 3 版，同 {@link UUID#nameUUIDFromBytes}），
+ * 原值另存於 legacy 欄位，實體由 {@link #restore} 還原原本的任務ID。
+ *
+ * 屬性與查詢參數仍是字串：任務ID 與其主鍵字串綁定為相同的欄位值，也視為相等，
+ * 因此 JPQL 參數、findAllById 與持久化上下文的實體識別都可直接使用任務ID。
+ * 以 Hibernate JavaType 而非 AttributeConverter 實作，JPA 的轉換器不套用在 @Id 上
+ */
+public class TaskIdJavaType extends AbstractClassJavaType<String> {
+
+    /** 舊 ID 欄位長度，與 TaskId 的上限相同 */
+    public static final int LEGACY_ID_LENGTH = 255;
+
+    public TaskIdJavaType() {
+        super(String.class, ImmutableMutabilityPlan.instance(),
+            (a, b) -> keyUuidOf(a).compareTo(keyUuidOf(b)));
+    }
+
+    @Override
+    public JdbcType getRecommendedJdbcType(JdbcTypeIndicators indicators) {
+        return indicators.getJdbcType(SqlTypes.UUID);
+    }
+
+    @Override
+    public boolean areEqual(String one, String another) {
+        return one == another || one != null && another != null && keyUuidOf(one).equals(keyUuidOf(another));
+    }
+
+    @Override
+    public int extractHashCode(String value) {
+        return keyUuidOf(value).hashCode();
+    }
+
+    @Override
+    public String toString(String value) {
+        return value;
+    }
+
+    @Override
+    public String fromString(CharSequence string) {
+        return string.toString();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <X> X unwrap(String value, Class<X> type, WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (UUID.class.isAssignableFrom(type)) {
+            return (X) keyUuidOf(value);
+        }
+        if (String.class.isAssignableFrom(type)) {
+            return (X) keyOf(value);
+        }
+        throw unknownUnwrap(type);
+    }
+
+    @Override
+    public <X> String wrap(X value, WrapperOptions options) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof UUID uuid) {
+            return uuid.toString();
+        }
+        if (value instanceof String string) {
+            return string;
+        }
+        throw unknownWrap(value.getClass());
+    }
+
+    /**
+     * 任務ID 對應的主鍵值，供原生 SQL 綁定參數使用
+     */
+    public static UUID keyUuidOf(String taskId) {
+        return TaskId.isCanonicalUuid(taskId)
+            ? UUID.fromString(taskId)
+            : UUID.nameUUIDFromBytes(taskId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 任務ID 對應的主鍵字串；UUID 格式的任務ID 即為本身
+     */
+    public static String keyOf(String taskId) {
+        return TaskId.isCanonicalUuid(taskId) ? taskId : keyUuidOf(taskId).toString();
+    }
+
+    /**
+     * 需要另存於 legacy 欄位的原值，UUID 格式的任務ID 為 null
+     */
+    public static String legacyIdOf(String taskId) {
+        return TaskId.isCanonicalUuid(taskId) ? null : taskId;
+    }
+
+    /**
+     * 由主鍵字串與 legacy 欄位還原任務ID
+     */
+    public static String restore(String key, String legacyId) {
+        return legacyId != null ? legacyId : key;
+    }
+}
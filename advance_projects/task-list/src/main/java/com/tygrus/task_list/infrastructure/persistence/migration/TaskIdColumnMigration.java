@@ -0,0 +1,97 @@
+package com.tygrus.task_list.infrastructure.persistence.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 任務ID 欄位的型別遷移
+ *
+ * 舊版以 varchar(36) 保存任務ID，hbm2ddl 的 update 不會改變既有欄位的型別，
+ * 因此在 EntityManagerFactory 建立前把仍為字元型別的欄位轉為 uuid 主鍵（與 TaskIdJavaType 相同）：
+ * UUID 格式的 ID 直接轉型，其他格式的 ID 轉為 md5 計算的名稱式 UUID（與 UUID.nameUUIDFromBytes 相同），
+ * 原值保存在對應的 legacy 欄位。所有欄位在同一個交易內轉換，已是 uuid 的欄位或不存在的資料表略過，可重複執行。
+ * 只處理 PostgreSQL；H2 開發與測試資料庫以 create-drop 建立，不需要遷移
+ */
+public class TaskIdColumnMigration implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskIdColumnMigration.class);
+
+    private static final String UUID_PATTERN =
+        "^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$";
+
+    // 交易結束後即消失的暫存函式；名稱式 UUID 把第 6 位元組的高 4 位設為版本 3、第 8 位元組的高 2 位設為 IETF 變體
+    private static final String KEY_FUNCTION =
+        "CREATE OR REPLACE FUNCTION pg_temp.task_id_key(id text) RETURNS uuid LANGUAGE sql IMMUTABLE AS " +
+        "'SELECT CASE WHEN id ~ ''" + UUID_PATTERN + "'' THEN CAST(id AS uuid) " +
+        "ELSE CAST(encode(set_byte(set_byte(h, 6, (get_byte(h, 6) & 15) | 48), 8, (get_byte(h, 8) & 63) | 128), " +
+        "''hex'') AS uuid) END " +
+        "FROM (SELECT decode(md5(convert_to(id, ''UTF8'')), ''hex'') AS h) AS digest'";
+
+    private static final List<IdColumn> ID_COLUMNS = List.of(
+        new IdColumn("tasks", "id", "legacy_id"),
+        new IdColumn("task_attachments", "task_id", "task_legacy_id"),
+        new IdColumn("task_changes", "task_id", "task_legacy_id")
+    );
+
+    private final DataSource dataSource;
+
+    public TaskIdColumnMigration(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        migrate();
+    }
+
+    /**
+     * @return 轉換的欄位數
+     */
+    public int migrate() throws Exception {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, "getDatabaseProductName");
+        if (!"PostgreSQL".equals(product)) {
+            return 0;
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Integer migrated = new TransactionTemplate(new DataSourceTransactionManager(dataSource)).execute(status -> {
+            int count = 0;
+            for (IdColumn column : ID_COLUMNS) {
+                if (!isCharacterColumn(jdbc, column)) {
+                    continue;
+                }
+                if (count == 0) {
+                    jdbc.execute(KEY_FUNCTION);
+                }
+                logger.info("Migrating {}.{} to uuid task id keys", column.table(), column.key());
+                jdbc.execute("ALTER TABLE " + column.table() + " ADD COLUMN IF NOT EXISTS "
+                    + column.legacy() + " varchar(255)");
+                jdbc.update("UPDATE " + column.table() + " SET " + column.legacy() + " = " + column.key()
+                    + " WHERE " + column.key() + " !~ ?", UUID_PATTERN);
+                jdbc.execute("ALTER TABLE " + column.table() + " ALTER COLUMN " + column.key()
+                    + " TYPE uuid USING pg_temp.task_id_key(" + column.key() + ")");
+                count++;
+            }
+            return count;
+        });
+        return migrated != null ? migrated : 0;
+    }
+
+    private static boolean isCharacterColumn(JdbcTemplate jdbc, IdColumn column) {
+        List<String> types = jdbc.queryForList(
+            "SELECT data_type FROM information_schema.columns " +
+            "WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?",
+            String.class, column.table(), column.key());
+        return !types.isEmpty() && types.get(0).startsWith("character");
+    }
+
+    private record IdColumn(String table, String key, String legacy) {
+    }
+}
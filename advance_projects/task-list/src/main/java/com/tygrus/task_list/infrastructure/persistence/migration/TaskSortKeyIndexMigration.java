@@ -0,0 +1,84 @@
+package com.tygrus.task_list.infrastructure.persistence.migration;
+
+import com.tygrus.task_list.domain.model.Priority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 任務排序鍵的運算式索引
+ *
+ * 查詢規格依標題或優先級排序時，PostgreSQLTaskRepository 以轉小寫的 ucs_basic 定序標題與優先級名次的 CASE 運算式
+ * 排序並比較續讀位置，(title, id) 與 (priority, id) 欄位索引用不上；這裡以完全相同的運算式建立 (運算式, id) 索引，
+ * 續讀時可沿索引從該位置開始掃描。JPA 的 @Index 只能列出欄位，因此在 EntityManagerFactory 建立資料表後才執行，
+ * 已存在的索引略過，可重複執行。只處理 PostgreSQL；資料表不存在時略過
+ */
+public class TaskSortKeyIndexMigration implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskSortKeyIndexMigration.class);
+
+    /** 標題的排序鍵，與 Hibernate 為 PostgreSQLTaskRepository 產生的 SQL 相同 */
+    public static final String TITLE_KEY = "lower(title) collate ucs_basic";
+
+    /** 優先級的排序名次：宣告順序，其他值排在最後 */
+    public static final String PRIORITY_RANK = rankOf("priority", Priority.values());
+
+    private static final List<SortKeyIndex> INDEXES = List.of(
+        new SortKeyIndex("idx_task_title_key_id", TITLE_KEY),
+        new SortKeyIndex("idx_task_priority_rank_id", PRIORITY_RANK)
+    );
+
+    private final DataSource dataSource;
+
+    public TaskSortKeyIndexMigration(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        migrate();
+    }
+
+    /**
+     * @return 建立的索引數
+     */
+    public int migrate() throws Exception {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, "getDatabaseProductName");
+        if (!"PostgreSQL".equals(product)) {
+            return 0;
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        if (!Boolean.TRUE.equals(jdbc.queryForObject("SELECT to_regclass('tasks') IS NOT NULL", Boolean.class))) {
+            return 0;
+        }
+        int created = 0;
+        for (SortKeyIndex index : INDEXES) {
+            Integer existing = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM pg_indexes WHERE schemaname = current_schema() AND indexname = ?",
+                Integer.class, index.name());
+            if (existing != null && existing > 0) {
+                continue;
+            }
+            logger.info("Creating sort key index {}", index.name());
+            jdbc.execute("CREATE INDEX IF NOT EXISTS " + index.name() + " ON tasks ((" + index.expression() + "), id)");
+            created++;
+        }
+        return created;
+    }
+
+    private static <E extends Enum<E>> String rankOf(String column, E[] values) {
+        StringBuilder sql = new StringBuilder("case");
+        for (E value : values) {
+            sql.append(" when ").append(column).append("='").append(value.name()).append("' then ").append(value.ordinal());
+        }
+        return sql.append(" else ").append(values.length).append(" end").toString();
+    }
+
+    private record SortKeyIndex(String name, String expression) {
+    }
+}
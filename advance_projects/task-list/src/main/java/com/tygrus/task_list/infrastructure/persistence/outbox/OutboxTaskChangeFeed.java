@@ -0,0 +1,174 @@
+package com.tygrus.task_list.infrastructure.persistence.outbox;
+
+import com.tygrus.task_list.domain.exception.ChangeFeedTruncatedException;
+import com.tygrus.task_list.domain.model.TaskChange;
+import com.tygrus.task_list.infrastructure.persistence.entity.TaskChangeEntity;
+import com.tygrus.task_list.infrastructure.persistence.repository.JpaTaskChangeRepository;
+import com.tygrus.task_list.infrastructure.repository.changefeed.InMemoryTaskChangeFeed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 以 task_changes outbox 資料表為來源的變更流
+ *
+ * PostgreSQLTaskRepository 在寫入的同一個交易內新增 outbox 列，本類別以單一執行緒依序號輪詢新列，
+ * 附加到記憶體內的保留範圍供讀取與訂閱；落後超出記憶體範圍的讀取改查 outbox 資料表。
+ *
+ * 自動遞增的序號在取號時決定，提交順序可能不同：較大的序號可能先提交，較小的序號稍後才可見。
+ * 輪詢遇到序號缺口時最多等待 gapTimeout，讓較早的交易提交；逾時視為已回滾的缺口並跳過，
+ * 因此變更流的序號單調遞增但不保證連續。
+ * outbox 列保留 retentionPeriod 後由背景清理刪除。
+ */
+public class OutboxTaskChangeFeed extends InMemoryTaskChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxTaskChangeFeed.class);
+
+    private static final int POLL_BATCH_SIZE = 500;
+
+    private final JpaTaskChangeRepository changeRepository;
+    private final int retention;
+    private final Duration pollInterval;
+    private final Duration gapTimeout;
+    private final Duration retentionPeriod;
+    private final ScheduledExecutorService scheduler;
+
+    // 以下欄位只由輪詢執行緒存取
+    private long polledSequence;
+    private long gapDetectedNanos;
+    private boolean waitingOnGap;
+
+    public OutboxTaskChangeFeed(JpaTaskChangeRepository changeRepository, int retention,
+                                Duration pollInterval, Duration gapTimeout, Duration retentionPeriod) {
+        super(retention);
+        this.changeRepository = changeRepository;
+        this.retention = retention;
+        this.pollInterval = pollInterval;
+        this.gapTimeout = gapTimeout;
+        this.retentionPeriod = retentionPeriod;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-change-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 載入最近的變更到記憶體範圍並開始輪詢與清理
+     * 啟動前已存在的缺口不再等待
+     */
+    public void start() {
+        scheduler.execute(this::prime);
+        long pollMillis = pollInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        long pruneMillis = Math.max(pollMillis, Math.min(retentionPeriod.toMillis() / 4, TimeUnit.HOURS.toMillis(1)));
+        scheduler.scheduleWithFixedDelay(this::prune, pruneMillis, pruneMillis, TimeUnit.MILLISECONDS);
+        logger.info("Task change outbox polling every {} ms, retaining {} changes in memory and {} in the table",
+            pollMillis, retention, retentionPeriod);
+    }
+
+    public void stop() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 超出記憶體範圍的變更改由 outbox 資料表讀取，只回傳已附加到記憶體範圍的序號
+     */
+    @Override
+    protected List<TaskChange> readEvicted(long fromSequence, int maxChanges) {
+        Long oldest = changeRepository.findOldestId();
+        long latest = latestSequence();
+        if (oldest == null || fromSequence < oldest) {
+            throw new ChangeFeedTruncatedException(fromSequence, oldest != null ? oldest : latest + 1);
+        }
+        List<TaskChange> changes = changeRepository.findAfter(fromSequence - 1, PageRequest.of(0, maxChanges))
+            .stream()
+            .filter(entity -> entity.getId() <= latest)
+            .map(TaskChangeEntity::toDomain)
+            .collect(Collectors.toList());
+        if (changes.isEmpty()) {
+            throw new ChangeFeedTruncatedException(fromSequence, oldest);
+        }
+        return changes;
+    }
+
+    private void prime() {
+        try {
+            List<TaskChangeEntity> latest = new ArrayList<>(
+                changeRepository.findLatest(PageRequest.of(0, retention)));
+            Collections.reverse(latest);
+            for (TaskChangeEntity entity : latest) {
+                append(entity.toDomain());
+                polledSequence = entity.getId();
+            }
+            logger.info("Primed task change feed with {} changes up to sequence {}", latest.size(), polledSequence);
+        } catch (Exception e) {
+            logger.error("Failed to prime task change feed", e);
+        }
+    }
+
+    /**
+     * 依序號附加新的 outbox 列，遇到未逾時的缺口即停止，等下次輪詢
+     */
+    private void poll() {
+        try {
+            List<TaskChangeEntity> rows;
+            do {
+                rows = changeRepository.findAfter(polledSequence, PageRequest.of(0, POLL_BATCH_SIZE));
+                for (TaskChangeEntity entity : rows) {
+                    if (entity.getId() != polledSequence + 1 && !gapExpired()) {
+                        return;
+                    }
+                    waitingOnGap = false;
+                    append(entity.toDomain());
+                    polledSequence = entity.getId();
+                }
+            } while (rows.size() == POLL_BATCH_SIZE);
+        } catch (Exception e) {
+            logger.error("Failed to poll task change outbox after sequence {}", polledSequence, e);
+        }
+    }
+
+    private boolean gapExpired() {
+        long now = System.nanoTime();
+        if (!waitingOnGap) {
+            waitingOnGap = true;
+            gapDetectedNanos = now;
+            return gapTimeout.isZero();
+        }
+        if (now - gapDetectedNanos < gapTimeout.toNanos()) {
+            return false;
+        }
+        logger.debug("Skipping task change sequence gap after {}", polledSequence);
+        return true;
+    }
+
+    private void prune() {
+        try {
+            int deleted = changeRepository.deleteChangedBefore(LocalDateTime.now().minus(retentionPeriod));
+            if (deleted > 0) {
+                logger.debug("Pruned {} task changes older than {}", deleted, retentionPeriod);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to prune task change outbox", e);
+        }
+    }
+}
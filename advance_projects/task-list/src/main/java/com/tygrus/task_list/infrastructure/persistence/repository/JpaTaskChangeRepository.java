@@ -0,0 +1,47 @@
+package com.tygrus.task_list.infrastructure.persistence.repository;
+
+import com.tygrus.task_list.infrastructure.persistence.entity.TaskChangeEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JPA Repository for TaskChangeEntity
+ * 提供變更 outbox 的依序讀取與過期清理
+ */
+@Repository
+public interface JpaTaskChangeRepository extends JpaRepository<TaskChangeEntity, Long> {
+
+    /**
+     * 依序號讀取指定序號之後的變更
+     */
+    @Query("SELECT c FROM TaskChangeEntity c WHERE c.id > :afterId ORDER BY c.id")
+    List<TaskChangeEntity> findAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * 最新的變更，依序號遞減
+     */
+    @Query("SELECT c FROM TaskChangeEntity c ORDER BY c.id DESC")
+    List<TaskChangeEntity> findLatest(Pageable pageable);
+
+    /**
+     * 保留中最舊的序號，沒有變更時為 null
+     */
+    @Query("SELECT MIN(c.id) FROM TaskChangeEntity c")
+    Long findOldestId();
+
+    /**
+     * 刪除指定時間之前的變更
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TaskChangeEntity c WHERE c.changedAt < :cutoff")
+    int deleteChangedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
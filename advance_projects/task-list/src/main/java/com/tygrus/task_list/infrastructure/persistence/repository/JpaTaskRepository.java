@@ -1,18 +1,26 @@
 package com.tygrus.task_list.infrastructure.persistence.repository;
 
 import com.tygrus.task_list.infrastructure.persistence.entity.TaskEntity;
+import com.tygrus.task_list.domain.model.Priority;
 import com.tygrus.task_list.domain.model.TaskStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * JPA Repository for TaskEntity
@@ -21,12 +29,29 @@ import java.util.Optional;
 @Repository
 public interface JpaTaskRepository extends JpaRepository<TaskEntity, String> {
 
+    /**
+     * 串流查詢每次自 JDBC 抓取的筆數
+     */
+    int STREAM_FETCH_SIZE = 500;
+
     /**
      * 查找所有未刪除的任務
      */
     @Query("SELECT t FROM TaskEntity t WHERE t.deleted = false")
     List<TaskEntity> findAllActive();
 
+    /**
+     * 以資料庫游標串流所有未刪除的任務
+     * 每次往返只抓取 fetch size 筆，實體為唯讀不做髒檢查；必須在交易內消費並關閉
+     */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "" + STREAM_FETCH_SIZE),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheable", value = "false")
+    })
+    @Query("SELECT t FROM TaskEntity t WHERE t.deleted = false")
+    Stream<TaskEntity> streamAllActive();
+
     /**
      * 查找所有未刪除的任務（分頁）
      */
@@ -85,6 +110,23 @@ public interface JpaTaskRepository extends JpaRepository<TaskEntity, String> {
                          @Param("status") TaskStatus status,
                          @Param("updateTime") LocalDateTime updateTime);
 
+    /**
+     * 以版本號為條件更新任務（單一來回的 compare-and-set）
+     * 版本不符、任務不存在或已刪除時影響列數為 0
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TaskEntity t SET t.title = :title, t.description = :description, t.status = :status, " +
+           "t.priority = :priority, t.dueDate = :dueDate, t.updatedAt = :updateTime, t.version = t.version + 1 " +
+           "WHERE t.id = :id AND t.version = :expectedVersion AND t.deleted = false")
+    int updateIfVersionMatches(@Param("id") String id,
+                               @Param("expectedVersion") Long expectedVersion,
+                               @Param("title") String title,
+                               @Param("description") String description,
+                               @Param("status") TaskStatus status,
+                               @Param("priority") Priority priority,
+                               @Param("dueDate") LocalDateTime dueDate,
+                               @Param("updateTime") LocalDateTime updateTime);
+
     /**
      * 查找指定 ID 的未刪除任務
      */
@@ -97,6 +139,13 @@ public interface JpaTaskRepository extends JpaRepository<TaskEntity, String> {
     @Query("SELECT t.status, COUNT(t) FROM TaskEntity t WHERE t.deleted = false GROUP BY t.status")
     List<Object[]> countByStatus();
 
+    /**
+     * 統計各狀態與優先級組合的任務數量，每列為 (status, priority, count)
+     */
+    @Query("SELECT t.status, t.priority, COUNT(t) FROM TaskEntity t WHERE t.deleted = false " +
+           "GROUP BY t.status, t.priority")
+    List<Object[]> countByStatusAndPriority();
+
     /**
      * 統計指定日期範圍內創建的任務數量
      */
@@ -140,6 +189,29 @@ public interface JpaTaskRepository extends JpaRepository<TaskEntity, String> {
            "FROM TaskEntity t WHERE t.deleted = false GROUP BY t.status")
     List<Object[]> getTaskStatistics();
 
+    /**
+     * 依 ID 順序查找可封存的任務：刪除早於截止時間，或已完成且之後未再更新
+     */
+    @Query("SELECT t FROM TaskEntity t WHERE (t.deleted = true AND t.deletedAt < :cutoff) " +
+           "OR (t.deleted = false AND t.status = 'COMPLETED' AND t.updatedAt < :cutoff) ORDER BY t.id")
+    List<TaskEntity> findArchivable(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * 物理刪除指定任務中仍符合封存條件者
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TaskEntity t WHERE t.id IN :ids AND ((t.deleted = true AND t.deletedAt < :cutoff) " +
+           "OR (t.deleted = false AND t.status = 'COMPLETED' AND t.updatedAt < :cutoff))")
+    int deleteArchivable(@Param("ids") Collection<String> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 以 SELECT ... FOR UPDATE 鎖定並讀出指定任務（包含已刪除）
+     * 鎖定到交易結束，讀出的即是之後同一交易內寫入前的狀態
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TaskEntity t WHERE t.id IN :ids")
+    List<TaskEntity> findAllByIdForUpdate(@Param("ids") Collection<String> ids);
+
     /**
      * 清理已刪除的任務（物理刪除，用於定期清理）
      */
@@ -0,0 +1,52 @@
+package com.tygrus.task_list.infrastructure.persistence.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+
+/**
+ * Keyset 分頁的續頁位置
+ *
+ * 記錄上一頁最後一筆的 (排序鍵, ID)，下一頁從該位置之後開始讀取。
+ * 以 URL-safe Base64 編碼為不透明字串交給呼叫端，並帶上排序欄位與方向，
+ * 防止以不同排序條件誤用續頁標記。
+ *
+ * @param sortBy 排序欄位（實體屬性名稱）
+ * @param descending 是否遞減排序
+ * @param sortKey 上一頁最後一筆的排序鍵（字串形式）
+ * @param lastId 上一頁最後一筆的任務ID
+ */
+record KeysetCursor(String sortBy, boolean descending, String sortKey, String lastId) {
+
+    private static final int FORMAT_VERSION = 1;
+
+    String encode() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(sortBy);
+            out.writeBoolean(descending);
+            out.writeUTF(sortKey);
+            out.writeUTF(lastId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode keyset cursor", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.toByteArray());
+    }
+
+    static KeysetCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported continuation token version");
+            }
+            return new KeysetCursor(in.readUTF(), in.readBoolean(), in.readUTF(), in.readUTF());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+    }
+}
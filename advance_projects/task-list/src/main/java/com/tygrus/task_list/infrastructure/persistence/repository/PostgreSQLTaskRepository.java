@@ -1,55 +1,184 @@
 package com.tygrus.task_list.infrastructure.persistence.repository;
 
+import com.tygrus.task_list.application.dto.PagedResult;
+import com.tygrus.task_list.domain.exception.OptimisticLockException;
+import com.tygrus.task_list.domain.model.Priority;
 import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskChange;
+import com.tygrus.task_list.domain.model.TaskCounts;
 import com.tygrus.task_list.domain.model.TaskId;
 import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
+import com.tygrus.task_list.domain.repository.TaskQuery;
+import com.tygrus.task_list.domain.repository.TaskQueryCursor;
+import com.tygrus.task_list.domain.repository.TaskQueryResult;
 import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.TaskWriteEpochs;
 import com.tygrus.task_list.infrastructure.persistence.entity.TaskEntity;
+import com.tygrus.task_list.infrastructure.persistence.entity.TaskIdJavaType;
+import com.tygrus.task_list.infrastructure.persistence.outbox.OutboxTaskChangeFeed;
+import com.tygrus.task_list.infrastructure.persistence.routing.ReadYourWritesContext;
+import com.tygrus.task_list.infrastructure.repository.archive.ArchivableTaskStore;
+import com.tygrus.task_list.infrastructure.repository.changefeed.InMemoryTaskChangeFeed;
+import com.tygrus.task_list.infrastructure.repository.counter.ReconcilableTaskCounts;
+import com.tygrus.task_list.infrastructure.repository.counter.TaskCounters;
+import com.tygrus.task_list.infrastructure.repository.counter.TaskWriteEpochCounter;
+import com.tygrus.task_list.infrastructure.search.TaskTextIndex;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * PostgreSQL implementation of TaskRepository
  * 將 JPA Repository 適配為 Domain Repository
+ * 標示 readOnly 的查詢在啟用讀寫分離時會路由到副本；非 readOnly 的交易會被視為寫入，
+ * 之後同一請求的讀取都改走主庫，因此所有只讀的方法都必須標示 readOnly
+ * 啟用變更流時，每次寫入在同一個交易內把寫入後的資料列複製到 task_changes outbox，
+ * 寫入回滾時 outbox 列一併回滾
+ * 
+ * 狀態與優先級計數保存在本機的 LongAdder 計數器：樂觀鎖更新由 UPDATE ... RETURNING 取得寫入前的狀態與優先級，
+ * 其他寫入以 SELECT ... FOR UPDATE 鎖定並讀出受影響的任務，由寫入前的狀態與寫入的內容計算差值，
+ * 交易提交後才套用；不另外查詢寫入前後的計數。其他應用程式實例或直接 SQL 的寫入不會反映到計數器，
+ * 由 {@link #reconcileCounters()} 定期以 GROUP BY 校正。寫入世代在同一時點推進，同樣只涵蓋本機的寫入
  */
 @Repository("postgresqlTaskRepository")
 @Primary
 @Transactional
-public class PostgreSQLTaskRepository implements TaskRepository {
+public class PostgreSQLTaskRepository implements TaskRepository, ReconcilableTaskCounts, ArchivableTaskStore {
 
     private static final Logger logger = LoggerFactory.getLogger(PostgreSQLTaskRepository.class);
 
+    // Keyset 分頁支援的排序欄位 -> 資料表欄位；每個都有 (欄位, id) 複合索引
+    // updated_at 在建立時即寫入且由 @PreUpdate 維護，不會是 null
+    private static final Map<String, String> KEYSET_SORT_COLUMNS = Map.of(
+        "title", "title",
+        "status", "status",
+        "priority", "priority",
+        "createdAt", "created_at",
+        "updatedAt", "updated_at"
+    );
+
+    // 把寫入後的資料列複製為 outbox 列；版本號為 0 的列視為新增
+    private static final String RECORD_CHANGES_HQL =
+        "INSERT INTO TaskChangeEntity (taskId, taskLegacyId, changeType, title, description, status, priority, dueDate, " +
+        "createdAt, updatedAt, deleted, deletedAt, version, changedAt) " +
+        "SELECT t.id, t.legacyId, CASE WHEN t.deleted = true THEN 'DELETED' WHEN t.version = 0 THEN 'INSERTED' ELSE 'UPDATED' END, " +
+        "t.title, t.description, t.status, t.priority, t.dueDate, t.createdAt, t.updatedAt, t.deleted, t.deletedAt, " +
+        "t.version, :changedAt FROM TaskEntity t WHERE t.id IN :ids";
+
+    // 未啟用 outbox 時讀出寫入後的資料列，欄位與 outbox 列相同
+    private static final String WRITTEN_ROWS_HQL =
+        "SELECT t.id, t.legacyId, t.title, t.description, t.status, t.priority, t.dueDate, t.createdAt, t.updatedAt, " +
+        "t.deleted, t.deletedAt, t.version FROM TaskEntity t WHERE t.id IN :ids";
+
+    // 批次樂觀鎖更新每條語句的筆數，每筆 7 個參數，遠低於 PostgreSQL 的 32767 上限
+    static final int OPTIMISTIC_BATCH_SIZE = 500;
+    
+    // 封存移除每條語句的 ID 數
+    private static final int PURGE_BATCH_SIZE = 1000;
+
     private final JpaTaskRepository jpaTaskRepository;
     
-    @PersistenceContext
     private EntityManager entityManager;
+    
+    // 連線的資料庫是否為 PostgreSQL，第一次使用時由 JDBC metadata 判斷
+    private volatile Boolean postgreSQL;
+    
+    // 未啟用 outbox 時為 null，寫入不產生 outbox 列，改為提交後發布到 localChangeFeed
+    private OutboxTaskChangeFeed changeFeed;
+    
+    // 只涵蓋本機的寫入，其他應用程式實例的寫入需要 outbox 才看得到
+    private final InMemoryTaskChangeFeed localChangeFeed = new InMemoryTaskChangeFeed();
+    
+    // 索引以本儲存庫為來源，延後到查詢時才取得以免循環依賴
+    private ObjectProvider<TaskTextIndex> textIndex;
+    
+    private final TaskCounters counters = new TaskCounters();
+    
+    private final TaskWriteEpochCounter writeEpochs = new TaskWriteEpochCounter();
+    
+    // 第一次成功校正前計數器尚未載入資料庫的既有資料
+    private volatile boolean countersLoaded;
 
     public PostgreSQLTaskRepository(JpaTaskRepository jpaTaskRepository) {
         this.jpaTaskRepository = jpaTaskRepository;
     }
+    
+    /**
+     * 分片各自傳入連到自己資料來源的共用 EntityManager
+     */
+    @PersistenceContext
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+    
+    @Autowired(required = false)
+    public void setChangeFeed(OutboxTaskChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+    
+    @Autowired
+    public void setTextIndex(ObjectProvider<TaskTextIndex> textIndex) {
+        this.textIndex = textIndex;
+    }
+    
+    /**
+     * 啟用 outbox 時為輪詢 task_changes 的變更流，否則為本機寫入在交易提交後發布的記憶體變更流
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TaskChangeFeed changeFeed() {
+        return changeFeed != null ? changeFeed : localChangeFeed;
+    }
 
     @Override
     public Task save(Task task) {
         logger.debug("Saving task with ID: {}", task.getId().getValue());
         
-        try {
-            // 檢查是否為已存在的實體
-            Optional<TaskEntity> existingEntity = jpaTaskRepository.findById(task.getId().getValue());
+        try (CountedWrite counted = new CountedWrite()) {
+            // 鎖定並讀出已存在的實體，寫入前的狀態即為計數的起點
+            Optional<TaskEntity> existingEntity = jpaTaskRepository.findAllByIdForUpdate(List.of(task.getId().getValue()))
+                .stream().findFirst();
+            Task previous = existingEntity.map(TaskEntity::toDomain).orElse(null);
             
             TaskEntity entity;
             if (existingEntity.isPresent()) {
@@ -62,9 +191,15 @@ public class PostgreSQLTaskRepository implements TaskRepository {
             }
             
             TaskEntity savedEntity = jpaTaskRepository.save(entity);
+            recordChanges(List.of(savedEntity.getId()));
+            Task saved = savedEntity.toDomain();
+            counted.commit(() -> {
+                counters.apply(previous, saved);
+                writeEpochs.advance(previous, saved);
+            });
             
             logger.debug("Successfully saved task with ID: {}", savedEntity.getId());
-            return savedEntity.toDomain();
+            return saved;
         } catch (Exception e) {
             logger.error("Failed to save task with ID: {}", task.getId().getValue(), e);
             throw new RuntimeException("Failed to save task", e);
@@ -72,6 +207,7 @@ public class PostgreSQLTaskRepository implements TaskRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Task> findById(TaskId id) {
         logger.debug("Finding task by ID: {}", id.getValue());
         
@@ -93,6 +229,7 @@ public class PostgreSQLTaskRepository implements TaskRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Task> findAll() {
         logger.debug("Finding all active tasks");
         
@@ -110,15 +247,48 @@ public class PostgreSQLTaskRepository implements TaskRepository {
         }
     }
 
+    /**
+     * 以資料庫游標串流所有未刪除的任務
+     * 每讀取一個 fetch size 的量就清空持久化上下文，讓已轉換的實體可被回收，
+     * 記憶體用量與資料表大小無關。
+     * 只轉換資料存取的例外；reader 自身拋出的例外原樣傳給呼叫端
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public <R> R streamAll(Function<? super Stream<Task>, ? extends R> reader) {
+        logger.debug("Streaming all active tasks");
+        
+        try (Stream<TaskEntity> entities = jpaTaskRepository.streamAllActive()) {
+            long[] streamed = {0};
+            Stream<Task> tasks = entities.map(entity -> {
+                Task task = entity.toDomain();
+                if (++streamed[0] % JpaTaskRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+                return task;
+            });
+            R result = reader.apply(tasks);
+            logger.debug("Streamed {} active tasks", streamed[0]);
+            return result;
+        } catch (PersistenceException | DataAccessException e) {
+            logger.error("Failed to stream tasks", e);
+            throw new RuntimeException("Failed to stream tasks", e);
+        }
+    }
+
     @Override
     public void deleteById(TaskId id) {
         logger.debug("Soft deleting task with ID: {}", id.getValue());
         
-        try {
+        try (CountedWrite counted = new CountedWrite()) {
+            List<String> ids = List.of(id.getValue());
+            Task previous = lockForWrite(ids).get(id.getValue());
             LocalDateTime now = LocalDateTime.now();
             int updated = jpaTaskRepository.softDeleteById(id.getValue(), now, now);
             
             if (updated > 0) {
+                recordChanges(ids);
+                counted.commit(List.of(new Transition(previous, null)));
                 logger.debug("Successfully soft deleted task with ID: {}", id.getValue());
             } else {
                 logger.warn("No task found to delete with ID: {}", id.getValue());
@@ -130,6 +300,7 @@ public class PostgreSQLTaskRepository implements TaskRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean existsById(TaskId id) {
         logger.debug("Checking if task exists with ID: {}", id.getValue());
         
@@ -144,6 +315,7 @@ public class PostgreSQLTaskRepository implements TaskRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<TaskId, Task> findByIds(List<TaskId> taskIds) {
         logger.debug("Finding tasks by IDs: {}", taskIds.size());
         
@@ -172,15 +344,36 @@ public class PostgreSQLTaskRepository implements TaskRepository {
     public List<Task> saveAll(List<Task> tasks) {
         logger.debug("Batch saving {} tasks", tasks.size());
         
-        try {
+        try (CountedWrite counted = new CountedWrite()) {
+            List<String> ids = tasks.stream().map(task -> task.getId().getValue()).collect(Collectors.toList());
+            
+            // 與 save 相同：鎖定並讀出已存在的實體，記下寫入前的狀態後就地更新，保留 version 等 JPA 管理的字段
+            Map<String, TaskEntity> existing = jpaTaskRepository.findAllByIdForUpdate(ids).stream()
+                .collect(Collectors.toMap(TaskEntity::getId, Function.identity()));
+            Map<String, Task> previous = new HashMap<>();
+            existing.forEach((id, entity) -> previous.put(id, entity.toDomain()));
             List<TaskEntity> entities = tasks.stream()
-                .map(TaskEntity::fromDomain)
+                .map(task -> {
+                    TaskEntity entity = existing.get(task.getId().getValue());
+                    if (entity == null) {
+                        return TaskEntity.fromDomain(task);
+                    }
+                    entity.updateFromDomain(task);
+                    return entity;
+                })
                 .collect(Collectors.toList());
             
             List<TaskEntity> savedEntities = jpaTaskRepository.saveAll(entities);
+            recordChanges(ids);
             List<Task> savedTasks = savedEntities.stream()
                 .map(TaskEntity::toDomain)
                 .collect(Collectors.toList());
+            // 同一 ID 出現多次時只計最後寫入的內容
+            Map<String, Task> current = new LinkedHashMap<>();
+            savedTasks.forEach(saved -> current.put(saved.getId().getValue(), saved));
+            counted.commit(current.values().stream()
+                .map(saved -> new Transition(previous.get(saved.getId().getValue()), saved))
+                .toList());
             
             logger.debug("Successfully batch saved {} tasks", savedTasks.size());
             return savedTasks;
@@ -191,6 +384,7 @@ public class PostgreSQLTaskRepository implements TaskRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<TaskId, Boolean> existsByIds(List<TaskId> taskIds) {
         logger.debug("Checking existence for {} task IDs", taskIds.size());
         
@@ -221,39 +415,409 @@ public class PostgreSQLTaskRepository implements TaskRepository {
         }
     }
 
+    /**
+     * 以單一條件式 UPDATE 比對版本號並寫入，比對與寫入之間沒有競態空窗
+     * PostgreSQL 上與批次版本共用同一條語句，由 RETURNING 取得寫入前的狀態與優先級供計數，只需一次來回；
+     * 其他資料庫先鎖定該列讀出寫入前的狀態，再執行 JPQL 條件式更新
+     */
     @Override
     public Task saveWithOptimisticLock(Task task, Long expectedVersion) {
         logger.debug("Saving task with optimistic lock: ID={}, expectedVersion={}", 
                     task.getId().getValue(), expectedVersion);
         
-        try {
-            // 先檢查當前版本
-            Optional<TaskEntity> existingEntity = jpaTaskRepository.findById(task.getId().getValue());
-            if (existingEntity.isEmpty()) {
-                throw new RuntimeException("Task not found for optimistic lock update");
+        if (expectedVersion == null) {
+            throw new IllegalArgumentException("Expected version cannot be null");
+        }
+        
+        int updated;
+        LocalDateTime now = LocalDateTime.now();
+        Task saved = updatedSnapshot(task, now, expectedVersion + 1);
+        try (CountedWrite counted = new CountedWrite()) {
+            List<String> ids = List.of(task.getId().getValue());
+            Task previous;
+            if (isPostgreSQL()) {
+                entityManager.flush();
+                List<Object[]> rows = executeVersionedBatch(List.of(task), List.of(expectedVersion), now);
+                updated = rows.size();
+                previous = rows.isEmpty() ? null : previousOf(task, rows.get(0));
+                // 語句繞過持久化上下文，清除以免後續讀到舊版本
+                entityManager.clear();
+            } else {
+                previous = lockForWrite(ids).get(task.getId().getValue());
+                updated = jpaTaskRepository.updateIfVersionMatches(
+                    task.getId().getValue(), expectedVersion, task.getTitle(), task.getDescription(),
+                    task.getStatus(), task.getPriority(), task.getDueDate(), now);
             }
-            
-            if (!existingEntity.get().getVersion().equals(expectedVersion)) {
-                throw new RuntimeException("Optimistic lock exception: version mismatch");
+            if (updated > 0) {
+                recordChanges(ids);
+                counted.commit(List.of(new Transition(previous, saved)));
             }
-            
-            // 執行更新
-            TaskEntity entity = TaskEntity.fromDomain(task);
-            entity.setVersion(expectedVersion);
-            TaskEntity savedEntity = jpaTaskRepository.save(entity);
-            
-            logger.debug("Successfully saved task with optimistic lock: ID={}, newVersion={}", 
-                        savedEntity.getId(), savedEntity.getVersion());
-            return savedEntity.toDomain();
         } catch (Exception e) {
             logger.error("Failed to save task with optimistic lock: ID={}", task.getId().getValue(), e);
             throw new RuntimeException("Failed to save task with optimistic lock", e);
         }
+        
+        if (updated == 0) {
+            throw new OptimisticLockException(String.format(
+                "Version conflict for task %s: expected version %d is stale or task no longer exists",
+                task.getId().getValue(), expectedVersion));
+        }
+        
+        logger.debug("Successfully saved task with optimistic lock: ID={}, newVersion={}", 
+                    task.getId().getValue(), expectedVersion + 1);
+        return saved;
+    }
+
+    /**
+     * 批次樂觀鎖更新
+     * 每 {@value #OPTIMISTIC_BATCH_SIZE} 筆組成一條 UPDATE ... FROM (VALUES ...) RETURNING 語句，
+     * 由資料庫逐列比對版本號，回傳的 ID 即為寫入成功的任務，同時回傳寫入前的狀態與優先級供計數。
+     * 此語法為 PostgreSQL 專用，其他資料庫（如開發用的 H2）逐筆執行條件式更新
+     */
+    @Override
+    public Map<TaskId, Task> saveAllWithOptimisticLock(List<Task> tasks) {
+        logger.debug("Saving {} tasks with optimistic lock", tasks.size());
+        
+        if (!isPostgreSQL()) {
+            return TaskRepository.super.saveAllWithOptimisticLock(tasks);
+        }
+        
+        try (CountedWrite counted = new CountedWrite()) {
+            // 先送出待寫入的變更，避免與批次語句互相覆蓋
+            entityManager.flush();
+            Map<TaskId, Task> saved = new LinkedHashMap<>();
+            List<Transition> transitions = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+            for (int from = 0; from < tasks.size(); from += OPTIMISTIC_BATCH_SIZE) {
+                List<Task> batch = tasks.subList(from, Math.min(from + OPTIMISTIC_BATCH_SIZE, tasks.size()));
+                // RETURNING 傳回的是主鍵，舊格式的任務ID 需以主鍵字串對應
+                Map<String, Task> byId = new HashMap<>();
+                for (Task task : batch) {
+                    byId.put(TaskIdJavaType.keyOf(task.getId().getValue()), task);
+                }
+                List<Long> expectedVersions = batch.stream().map(Task::getVersion).toList();
+                
+                for (Object[] row : executeVersionedBatch(batch, expectedVersions, now)) {
+                    Task task = byId.get(row[0].toString());
+                    Task updated = updatedSnapshot(task, now, task.getVersion() + 1);
+                    saved.put(task.getId(), updated);
+                    transitions.add(new Transition(previousOf(task, row), updated));
+                }
+            }
+            recordChanges(saved.keySet().stream().map(TaskId::getValue).collect(Collectors.toList()));
+            counted.commit(transitions);
+            
+            // 批次語句繞過持久化上下文，清除以免後續讀到舊版本
+            entityManager.clear();
+            
+            logger.debug("Saved {} of {} tasks with optimistic lock", saved.size(), tasks.size());
+            return saved;
+        } catch (Exception e) {
+            logger.error("Failed to save tasks with optimistic lock", e);
+            throw new RuntimeException("Failed to save tasks with optimistic lock", e);
+        }
+    }
+
+    /**
+     * 以一條語句依版本號條件更新一批任務，回傳每個寫入成功的任務的 (id, 寫入前狀態, 寫入前優先級)
+     *
+     * old 以 FOR UPDATE 鎖定版本相符的資料列並自我聯結，鎖定在同一條語句內完成，不多一次來回；
+     * 讀出的即是 UPDATE 寫入前的資料列，即使並行的批次語句修改了狀態卻未推進版本號也不會讀到舊值。
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object[]> executeVersionedBatch(List<Task> batch, List<Long> expectedVersions,
+                                                 LocalDateTime updateTime) {
+        StringBuilder sql = new StringBuilder(
+            "WITH v(id, expected_version, title, description, status, priority, due_date) AS (VALUES ");
+        for (int i = 0; i < batch.size(); i++) {
+            Task task = batch.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            // null 以字面值寫入：未具型別的 null 參數無法轉型
+            sql.append("(CAST(:id").append(i).append(" AS uuid), CAST(:version").append(i)
+               .append(" AS bigint), CAST(:title").append(i).append(" AS varchar), ")
+               .append(task.getDescription() != null ? "CAST(:description" + i + " AS varchar)" : "CAST(NULL AS varchar)")
+               .append(", CAST(:status").append(i).append(" AS varchar), CAST(:priority").append(i)
+               .append(" AS varchar), ")
+               .append(task.getDueDate() != null ? "CAST(:dueDate" + i + " AS timestamp)" : "CAST(NULL AS timestamp)")
+               .append(')');
+        }
+        sql.append("), old AS (SELECT o.id, o.status, o.priority FROM tasks AS o JOIN v ON o.id = v.id ")
+           .append("AND o.version = v.expected_version AND o.deleted = false FOR UPDATE OF o) ")
+           .append("UPDATE tasks AS t SET title = v.title, description = v.description, status = v.status, ")
+           .append("priority = v.priority, due_date = v.due_date, updated_at = :updateTime, version = t.version + 1 ")
+           .append("FROM v, old ")
+           .append("WHERE t.id = v.id AND old.id = t.id AND t.version = v.expected_version AND t.deleted = false ")
+           .append("RETURNING t.id, old.status, old.priority");
+        
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("updateTime", updateTime);
+        for (int i = 0; i < batch.size(); i++) {
+            Task task = batch.get(i);
+            query.setParameter("id" + i, TaskIdJavaType.keyUuidOf(task.getId().getValue()));
+            query.setParameter("version" + i, expectedVersions.get(i));
+            query.setParameter("title" + i, task.getTitle());
+            if (task.getDescription() != null) {
+                query.setParameter("description" + i, task.getDescription());
+            }
+            query.setParameter("status" + i, task.getStatus().name());
+            query.setParameter("priority" + i, task.getPriority().name());
+            if (task.getDueDate() != null) {
+                query.setParameter("dueDate" + i, task.getDueDate());
+            }
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * 寫入前的任務，只有狀態與優先級取自資料庫，供計數器與寫入世代使用
+     */
+    private static Task previousOf(Task task, Object[] row) {
+        return Task.restoreFromPersistence(
+            task.getId(), task.getTitle(), task.getDescription(),
+            TaskStatus.valueOf((String) row[1]), Priority.valueOf((String) row[2]),
+            task.getDueDate(), task.getCreatedAt(), task.getUpdatedAt(), false, null, null, task.getVersion());
+    }
+
+    /**
+     * 在目前交易內為剛寫入的任務新增 outbox 列；
+     * 未啟用 outbox 時讀出寫入後的資料列，交易提交後依相同的類型規則發布到記憶體變更流
+     */
+    private void recordChanges(Collection<String> ids) {
+        recordChanges(ids, null);
+    }
+
+    /**
+     * @param updatedAt 非 null 時只記錄 updated_at 等於此值的列，略過批次語句未實際更新的任務
+     */
+    private void recordChanges(Collection<String> ids, LocalDateTime updatedAt) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        // 先送出待寫入的變更，讓 INSERT ... SELECT 讀到寫入後的資料列
+        entityManager.flush();
+        if (changeFeed == null) {
+            publishAfterCommit(writtenRows(ids, updatedAt));
+            return;
+        }
+        Query query = entityManager.createQuery(
+                updatedAt != null ? RECORD_CHANGES_HQL + " AND t.updatedAt = :updatedAt" : RECORD_CHANGES_HQL)
+            .setParameter("ids", ids)
+            .setParameter("changedAt", LocalDateTime.now());
+        if (updatedAt != null) {
+            query.setParameter("updatedAt", updatedAt);
+        }
+        query.executeUpdate();
+    }
+
+    /**
+     * 以欄位投影讀出寫入後的資料列，不經過持久化上下文：批次語句更新的列在上下文中可能仍是舊的實體
+     */
+    private List<Task> writtenRows(Collection<String> ids, LocalDateTime updatedAt) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                updatedAt != null ? WRITTEN_ROWS_HQL + " AND t.updatedAt = :updatedAt" : WRITTEN_ROWS_HQL, Object[].class)
+            .setParameter("ids", ids);
+        if (updatedAt != null) {
+            query.setParameter("updatedAt", updatedAt);
+        }
+        return query.getResultList().stream()
+            .map(row -> Task.restoreFromPersistence(
+                TaskId.of(TaskIdJavaType.restore((String) row[0], (String) row[1])),
+                (String) row[2], (String) row[3], (TaskStatus) row[4], (Priority) row[5],
+                (LocalDateTime) row[6], (LocalDateTime) row[7], (LocalDateTime) row[8],
+                (Boolean) row[9], (LocalDateTime) row[10], null, (Long) row[11]))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 類型規則與 RECORD_CHANGES_HQL 相同；沒有交易時（僅測試直接呼叫）立即發布
+     */
+    private void publishAfterCommit(List<Task> written) {
+        Runnable publish = () -> written.forEach(task -> localChangeFeed.publish(
+            task.isDeleted() ? TaskChange.Type.DELETED
+                : task.getVersion() == 0L ? TaskChange.Type.INSERTED : TaskChange.Type.UPDATED,
+            task));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish.run();
+            }
+        });
+    }
+
+    /**
+     * 未刪除任務依狀態與優先級的計數
+     * 計數器載入後直接讀取，不查詢資料庫也不開啟交易
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TaskCounts counts() {
+        if (countersLoaded) {
+            return counters.snapshot();
+        }
+        // 尚未載入：嘗試以校正載入，載入期間有寫入時這次直接回傳資料庫的計數
+        if (reconcileCounters()) {
+            return counters.snapshot();
+        }
+        return countFromDatabase();
+    }
+    
+    /**
+     * 以 GROUP BY 重新計數並修正計數器的偏差，一律在主庫執行以免副本延遲造成誤修正
+     * 以唯讀交易執行，不會讓執行緒被記錄為寫入過；掃描期間本機有寫入進行時略過
+     * 
+     * @return 是否完成比對
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public boolean reconcileCounters() {
+        long corrections = counters.corrections();
+        boolean reconciled = counters.reconcile(() -> ReadYourWritesContext.onPrimary(this::countFromDatabase));
+        if (reconciled) {
+            countersLoaded = true;
+        }
+        if (counters.corrections() != corrections) {
+            // 偏差來自本機看不到的寫入，無法得知影響的狀態
+            writeEpochs.advanceAll();
+        }
+        return reconciled;
+    }
+    
+    /**
+     * 寫入世代，與計數器相同在交易提交後推進
+     * 只反映本機的寫入；校正計數器發現偏差時推進所有世代
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TaskWriteEpochs writeEpochs() {
+        return writeEpochs;
+    }
+    
+    private TaskCounts countFromDatabase() {
+        return toCounts(jpaTaskRepository.countByStatusAndPriority());
+    }
+    
+    /**
+     * 以 SELECT ... FOR UPDATE 鎖定指定任務並讀出寫入前的狀態（包含已刪除者）
+     * 查詢前會自動送出待寫入的變更，鎖定到交易結束，之後同一交易內的寫入作用在讀出的狀態上；讀出的實體隨即脫離持久化上下文，
+     * 以免之後的批次語句更新資料列後仍讀到舊的實體
+     */
+    private Map<String, Task> lockForWrite(Collection<String> ids) {
+        Map<String, Task> locked = new HashMap<>();
+        if (ids.isEmpty()) {
+            return locked;
+        }
+        for (TaskEntity entity : jpaTaskRepository.findAllByIdForUpdate(ids)) {
+            locked.put(entity.getId(), entity.toDomain());
+            entityManager.detach(entity);
+        }
+        return locked;
+    }
+    
+    private static TaskCounts toCounts(List<Object[]> rows) {
+        long[] statusCounts = new long[TaskStatus.values().length];
+        long[] priorityCounts = new long[Priority.values().length];
+        for (Object[] row : rows) {
+            long count = ((Number) row[2]).longValue();
+            statusCounts[((TaskStatus) row[0]).ordinal()] += count;
+            priorityCounts[((Priority) row[1]).ordinal()] += count;
+        }
+        return TaskCounts.of(statusCounts, priorityCounts);
+    }
+    
+    /**
+     * 一次寫入的計數區間
+     * 建立時標記寫入開始；commit 後在交易提交時套用計數差並標記結束，回滾時只標記結束；
+     * 未 commit 就關閉（寫入失敗或沒有影響任何任務）時直接標記結束
+     */
+    private final class CountedWrite implements AutoCloseable {
+        
+        private boolean committed;
+        
+        CountedWrite() {
+            counters.beginWrite();
+        }
+        
+        void commit(List<Transition> transitions) {
+            commit(() -> transitions.forEach(transition -> {
+                counters.apply(transition.previous(), transition.current());
+                writeEpochs.advance(transition.previous(), transition.current());
+            }));
+        }
+        
+        void commit(Runnable adjustment) {
+            committed = true;
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                try {
+                    adjustment.run();
+                } finally {
+                    counters.endWrite();
+                }
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    try {
+                        if (status == STATUS_COMMITTED) {
+                            adjustment.run();
+                        }
+                    } finally {
+                        counters.endWrite();
+                    }
+                }
+            });
+        }
+        
+        @Override
+        public void close() {
+            if (!committed) {
+                counters.endWrite();
+            }
+        }
+    }
+
+    /**
+     * 單一任務寫入前後的內容，null 表示新增或移除
+     */
+    private record Transition(Task previous, Task current) {
+    }
+
+    private boolean isPostgreSQL() {
+        Boolean postgreSQL = this.postgreSQL;
+        if (postgreSQL == null) {
+            String product = entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+            postgreSQL = "PostgreSQL".equalsIgnoreCase(product);
+            this.postgreSQL = postgreSQL;
+        }
+        return postgreSQL;
+    }
+
+    /**
+     * 條件式更新成功後，由寫入的欄位組出新版本的任務，不必再查詢一次
+     */
+    private static Task updatedSnapshot(Task task, LocalDateTime updatedAt, long version) {
+        return Task.restoreFromPersistence(
+            task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getPriority(),
+            task.getDueDate(), task.getCreatedAt(), updatedAt, false, null, null, version);
+    }
+
+    private static Task withStatus(Task task, TaskStatus status, LocalDateTime updatedAt) {
+        return Task.restoreFromPersistence(
+            task.getId(), task.getTitle(), task.getDescription(), status, task.getPriority(),
+            task.getDueDate(), task.getCreatedAt(), updatedAt, false, null, null, task.getVersion());
     }
 
     /**
      * 查找指定狀態的任務
      */
+    @Transactional(readOnly = true)
     public List<Task> findByStatus(TaskStatus status) {
         logger.debug("Finding tasks by status: {}", status);
         
@@ -273,10 +837,22 @@ public class PostgreSQLTaskRepository implements TaskRepository {
 
     /**
      * 根據標題搜尋任務
+     * 有倒排索引時以空白分隔的每個詞都需包含，只載入候選任務；
+     * 否則以 LIKE 比對整個字串，需要掃描資料表
      */
+    @Transactional(readOnly = true)
     public List<Task> findByTitle(String title) {
         logger.debug("Finding tasks by title containing: {}", title);
         
+        TaskTextIndex index = textIndex != null ? textIndex.getIfAvailable() : null;
+        if (index != null) {
+            Optional<List<Task>> indexed = index.search(title, null);
+            if (indexed.isPresent()) {
+                logger.debug("Found {} tasks with title containing: {} using text index", indexed.get().size(), title);
+                return indexed.get();
+            }
+        }
+        
         try {
             List<TaskEntity> entities = jpaTaskRepository.findByTitleContainingAndNotDeleted(title);
             List<Task> tasks = entities.stream()
@@ -294,6 +870,7 @@ public class PostgreSQLTaskRepository implements TaskRepository {
     /**
      * 統計任務數量
      */
+    @Transactional(readOnly = true)
     public long count() {
         logger.debug("Counting all active tasks");
         
@@ -310,6 +887,7 @@ public class PostgreSQLTaskRepository implements TaskRepository {
     /**
      * 進階查詢方法 - 查找到期的任務
      */
+    @Transactional(readOnly = true)
     public List<Task> findOverdueTasks() {
         logger.debug("Finding overdue tasks");
         
@@ -331,6 +909,7 @@ public class PostgreSQLTaskRepository implements TaskRepository {
     /**
      * 進階查詢方法 - 查找即將到期的任務
      */
+    @Transactional(readOnly = true)
     public List<Task> findTasksDueSoon(int hoursAhead) {
         logger.debug("Finding tasks due within {} hours", hoursAhead);
         
@@ -357,13 +936,21 @@ public class PostgreSQLTaskRepository implements TaskRepository {
     public int softDeleteTasks(List<TaskId> taskIds) {
         logger.debug("Soft deleting {} tasks", taskIds.size());
         
-        try {
+        try (CountedWrite counted = new CountedWrite()) {
             List<String> ids = taskIds.stream()
                 .map(TaskId::getValue)
                 .collect(Collectors.toList());
+            Map<String, Task> previous = lockForWrite(ids);
             
             LocalDateTime now = LocalDateTime.now();
             int deleted = jpaTaskRepository.softDeleteByIds(ids, now, now);
+            if (deleted > 0) {
+                recordChanges(ids, now);
+                counted.commit(previous.values().stream()
+                    .filter(task -> !task.isDeleted())
+                    .map(task -> new Transition(task, null))
+                    .toList());
+            }
             
             // 清除實體管理器快取以確保後續查詢能讀取到最新資料
             entityManager.flush();
@@ -383,13 +970,21 @@ public class PostgreSQLTaskRepository implements TaskRepository {
     public int updateTaskStatus(List<TaskId> taskIds, TaskStatus status) {
         logger.debug("Updating status of {} tasks to {}", taskIds.size(), status);
         
-        try {
+        try (CountedWrite counted = new CountedWrite()) {
             List<String> ids = taskIds.stream()
                 .map(TaskId::getValue)
                 .collect(Collectors.toList());
+            Map<String, Task> previous = lockForWrite(ids);
             
             LocalDateTime now = LocalDateTime.now();
             int updated = jpaTaskRepository.updateStatusByIds(ids, status, now);
+            if (updated > 0) {
+                recordChanges(ids, now);
+                counted.commit(previous.values().stream()
+                    .filter(task -> !task.isDeleted())
+                    .map(task -> new Transition(task, withStatus(task, status, now)))
+                    .toList());
+            }
             
             // 清除實體管理器快取以確保後續查詢能讀取到最新資料
             entityManager.flush();
@@ -403,9 +998,241 @@ public class PostgreSQLTaskRepository implements TaskRepository {
         }
     }
 
+    /**
+     * 依 ID 順序查詢可封存的任務（包含已軟刪除者）
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Task> findArchivable(LocalDateTime cutoff, int limit) {
+        logger.debug("Finding up to {} tasks archivable before {}", limit, cutoff);
+        
+        try {
+            return jpaTaskRepository.findArchivable(cutoff, PageRequest.of(0, limit)).stream()
+                .map(TaskEntity::toDomain)
+                .collect(Collectors.toList());
+        } catch (Exception e) {
+            logger.error("Failed to find archivable tasks", e);
+            throw new RuntimeException("Failed to find archivable tasks", e);
+        }
+    }
+
+    /**
+     * 物理刪除已封存且仍符合條件的任務
+     * 任務只是移到封存庫，不寫入 outbox；計數器照常扣除移出的未刪除任務
+     */
+    @Override
+    public Set<TaskId> purgeArchived(Collection<TaskId> taskIds, LocalDateTime cutoff) {
+        logger.debug("Purging {} archived tasks", taskIds.size());
+        
+        try (CountedWrite counted = new CountedWrite()) {
+            List<String> ids = taskIds.stream().map(TaskId::getValue).collect(Collectors.toList());
+            List<Transition> transitions = new ArrayList<>();
+            Set<TaskId> purged = new HashSet<>();
+            for (int from = 0; from < ids.size(); from += PURGE_BATCH_SIZE) {
+                List<String> batch = ids.subList(from, Math.min(from + PURGE_BATCH_SIZE, ids.size()));
+                // 鎖定後仍符合封存條件的任務即是 DELETE 會移除的任務
+                List<Task> archivable = lockForWrite(batch).values().stream()
+                    .filter(task -> ArchivableTaskStore.isArchivable(task, cutoff))
+                    .toList();
+                if (archivable.isEmpty()) {
+                    continue;
+                }
+                jpaTaskRepository.deleteArchivable(batch, cutoff);
+                for (Task task : archivable) {
+                    purged.add(task.getId());
+                    transitions.add(new Transition(task, null));
+                }
+            }
+            counted.commit(transitions);
+            
+            logger.debug("Purged {} of {} archived tasks", purged.size(), taskIds.size());
+            return purged;
+        } catch (Exception e) {
+            logger.error("Failed to purge archived tasks", e);
+            throw new RuntimeException("Failed to purge archived tasks", e);
+        }
+    }
+
+    /**
+     * 將查詢規格轉換為 Criteria 查詢在資料庫執行
+     * 過濾、排序與 OFFSET/LIMIT 都在 SQL 中完成，只有該頁的資料列會傳回應用程式；
+     * 需要總筆數時另以相同條件執行 COUNT，從第一筆起讀取且第一頁未滿時直接以該頁筆數作為總數。
+     * 狀態直接依欄位值排序：列舉名稱在第一個不同的字元就是不同的大寫字母，任何定序的先後都與名稱的字母順序相同；
+     * 優先級以 CASE 對應到宣告順序的名次，鍵相同時依 id 排序（方向與排序方向相同），翻頁結果穩定。
+     * 指定續讀位置時以 (排序鍵, id) 的條件從該位置之後讀取，不使用 OFFSET：
+     * 狀態、建立與更新時間沿 (column, id) 索引直接定位；標題與優先級的排序鍵為運算式，
+     * 由 TaskSortKeyIndexMigration 建立相同運算式的 (運算式, id) 索引。
+     * id 以 uuid 主鍵比較：UUID 格式的 ID 與記憶體實作的順序相同；舊格式 ID 的主鍵為名稱式 UUID，
+     * 排序鍵相同時與記憶體實作的先後不同，但在資料庫內仍是固定的全序，翻頁不會重複或遺漏
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskQueryResult query(TaskQuery query) {
+        logger.debug("Querying tasks: {}", query);
+        
+        try {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<TaskEntity> select = cb.createQuery(TaskEntity.class);
+            Root<TaskEntity> root = select.from(TaskEntity.class);
+            select.select(root).where(predicatesOf(query, cb, root));
+            if (query.sortField() != null) {
+                Expression<?> sortKey = sortExpressionOf(query.sortField(), cb, root);
+                Order order = query.descending() ? cb.desc(sortKey) : cb.asc(sortKey);
+                select.orderBy(order, query.descending() ? cb.desc(root.get("id")) : cb.asc(root.get("id")));
+            }
+            
+            TypedQuery<TaskEntity> typed = entityManager.createQuery(select).setFirstResult(query.offset());
+            if (query.limit() != TaskQuery.UNLIMITED) {
+                typed.setMaxResults(query.limit());
+            }
+            List<Task> tasks = typed.getResultList().stream()
+                .map(TaskEntity::toDomain)
+                .collect(Collectors.toList());
+            
+            long total = TaskQueryResult.UNKNOWN_TOTAL;
+            if (query.countTotal()) {
+                total = query.offset() == 0 && query.after() == null && tasks.size() < query.limit()
+                    ? tasks.size() : countMatches(query, cb);
+            }
+            
+            logger.debug("Found {} tasks, total matches {}", tasks.size(), total);
+            return new TaskQueryResult(tasks, total);
+        } catch (Exception e) {
+            logger.error("Failed to query tasks", e);
+            throw new RuntimeException("Failed to query tasks", e);
+        }
+    }
+
+    private long countMatches(TaskQuery query, CriteriaBuilder cb) {
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<TaskEntity> root = count.from(TaskEntity.class);
+        count.select(cb.count(root)).where(predicatesOf(query, cb, root));
+        return entityManager.createQuery(count).getSingleResult();
+    }
+
+    private static Predicate[] predicatesOf(TaskQuery query, CriteriaBuilder cb, Root<TaskEntity> root) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (!query.includeDeleted()) {
+            predicates.add(cb.isFalse(root.<Boolean>get("deleted")));
+        }
+        if (!query.statuses().isEmpty()) {
+            predicates.add(root.get("status").in(query.statuses()));
+        }
+        if (!query.priorities().isEmpty()) {
+            predicates.add(root.get("priority").in(query.priorities()));
+        }
+        for (String term : query.titleTerms()) {
+            predicates.add(cb.like(cb.lower(root.<String>get("title")), containsPattern(term), '\\'));
+        }
+        for (String term : query.descriptionTerms()) {
+            predicates.add(cb.like(cb.lower(root.<String>get("description")), containsPattern(term), '\\'));
+        }
+        if (query.createdFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("createdAt"), query.createdFrom()));
+        }
+        if (query.createdTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.<LocalDateTime>get("createdAt"), query.createdTo()));
+        }
+        if (query.dueDateFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("dueDate"), query.dueDateFrom()));
+        }
+        if (query.dueDateTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.<LocalDateTime>get("dueDate"), query.dueDateTo()));
+        }
+        if (query.after() != null) {
+            predicates.add(afterCursorOf(query.after(), cb, root));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    /**
+     * 排在續讀位置之後的條件：key >= :sortKey AND (key > :sortKey OR (key = :sortKey AND id > :lastId))，遞減排序時反向。
+     * 多餘的 key >= :sortKey 讓資料庫以排序鍵的索引從該位置開始掃描，而不是從頭過濾。
+     * 排序鍵與 sortExpressionOf 使用相同的運算式；位置已由 TaskQuery 驗證，鍵可直接解析
+     */
+    private static Predicate afterCursorOf(TaskQueryCursor cursor, CriteriaBuilder cb, Root<TaskEntity> root) {
+        Expression<String> id = root.get("id");
+        boolean descending = cursor.descending();
+        Predicate idAfter = descending ? cb.lessThan(id, cursor.taskId()) : cb.greaterThan(id, cursor.taskId());
+        String key = cursor.sortKey();
+        return switch (cursor.sortField()) {
+            case TITLE -> keyAfter(cb, titleKeyOf(cb, root.get("title")),
+                key != null ? titleKeyOf(cb, cb.literal(key)) : null, descending, idAfter);
+            case STATUS -> keyAfter(cb, root.<TaskStatus>get("status"),
+                key != null ? cb.literal(TaskStatus.valueOf(key)) : null, descending, idAfter);
+            case PRIORITY -> keyAfter(cb, rankOf(cb, root.<Priority>get("priority"), Priority.values(), Priority::ordinal),
+                key != null ? cb.literal(Priority.valueOf(key).ordinal()) : null, descending, idAfter);
+            case CREATED_AT -> keyAfter(cb, root.<LocalDateTime>get("createdAt"),
+                key != null ? cb.literal(LocalDateTime.parse(key)) : null, descending, idAfter);
+            case UPDATED_AT -> keyAfter(cb, root.<LocalDateTime>get("updatedAt"),
+                key != null ? cb.literal(LocalDateTime.parse(key)) : null, descending, idAfter);
+        };
+    }
+
+    /**
+     * @param value 位置的排序鍵，null 時依記憶體實作的規則視為排在最前（非空欄位與一律設定的 updatedAt 不會出現）
+     */
+    private static <Y extends Comparable<? super Y>> Predicate keyAfter(CriteriaBuilder cb, Expression<? extends Y> key,
+                                                                       Expression<? extends Y> value, boolean descending,
+                                                                       Predicate idAfter) {
+        if (value == null) {
+            Predicate sameKey = cb.and(cb.isNull(key), idAfter);
+            return descending ? sameKey : cb.or(cb.isNotNull(key), sameKey);
+        }
+        Predicate from = descending ? cb.lessThanOrEqualTo(key, value) : cb.greaterThanOrEqualTo(key, value);
+        Predicate beyond = descending ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+        return cb.and(from, cb.or(beyond, cb.and(cb.equal(key, value), idAfter)));
+    }
+
+    /**
+     * 以 LIKE 比對包含查詢詞，跳脫查詢詞中的萬用字元
+     */
+    private static String containsPattern(String lowerCaseTerm) {
+        String escaped = lowerCaseTerm
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static Expression<?> sortExpressionOf(TaskQuery.SortField sortField, CriteriaBuilder cb,
+                                                  Root<TaskEntity> root) {
+        return switch (sortField) {
+            case TITLE -> titleKeyOf(cb, root.get("title"));
+            // 依名稱字母順序，與記憶體實作相同
+            case STATUS -> root.get("status");
+            case PRIORITY -> rankOf(cb, root.<Priority>get("priority"), Priority.values(), Priority::ordinal);
+            case CREATED_AT -> root.get("createdAt");
+            case UPDATED_AT -> root.get("updatedAt");
+        };
+    }
+
+    /**
+     * 標題的排序鍵：轉小寫後以 ucs_basic（Unicode 碼位）定序比較，與記憶體實作相同，不依資料庫的預設定序。
+     * 運算式須與 TaskSortKeyIndexMigration.TITLE_KEY 相同，才能使用其索引
+     */
+    private static Expression<String> titleKeyOf(CriteriaBuilder cb, Expression<String> title) {
+        return ((HibernateCriteriaBuilder) cb).collate(cb.lower(title), "ucs_basic");
+    }
+
+    /**
+     * 以 CASE 將列舉欄位對應到排序名次
+     * 比較值與名次都以常值寫入 SQL 而非綁定參數，運算式才會與 TaskSortKeyIndexMigration.PRIORITY_RANK 的索引相同
+     */
+    private static <E extends Enum<E>> Expression<Integer> rankOf(CriteriaBuilder cb, Expression<E> column,
+                                                                 E[] values, Function<E, Integer> rank) {
+        CriteriaBuilder.Case<Integer> ranked = cb.selectCase();
+        for (E value : values) {
+            ranked.when(cb.equal(column, cb.literal(value)), cb.literal(rank.apply(value)));
+        }
+        return ranked.otherwise(cb.literal(values.length));
+    }
+
     /**
      * 分頁查詢
+     * 以 OFFSET 跳過前面的資料，頁數越深掃描越多列；深層分頁請改用 {@link #findAllWithKeyset}
      */
+    @Transactional(readOnly = true)
     public List<Task> findAllWithPaging(int page, int size, String sortBy, String sortDirection) {
         logger.debug("Finding tasks with paging: page={}, size={}, sortBy={}, direction={}", 
                     page, size, sortBy, sortDirection);
@@ -430,9 +1257,98 @@ public class PostgreSQLTaskRepository implements TaskRepository {
         }
     }
 
+    /**
+     * Keyset（seek）分頁查詢
+     * 以 (排序鍵, id) 列值比較定位到上一頁最後一筆之後，搭配 TaskEntity 上的複合索引，
+     * 任何深度的頁面都只需讀取 size + 1 筆，成本與第一頁相同
+     *
+     * @param sortBy 排序欄位：title、status、priority、createdAt、updatedAt
+     * @param sortDirection ASC 或 DESC
+     * @param size 每頁筆數
+     * @param continuationToken 上一頁回傳的續頁標記，第一頁為 null
+     * @return 當前頁任務與下一頁的續頁標記
+     */
+    @Transactional(readOnly = true)
+    public PagedResult<Task> findAllWithKeyset(String sortBy, String sortDirection, int size,
+                                               String continuationToken) {
+        logger.debug("Finding tasks with keyset paging: sortBy={}, direction={}, size={}, continued={}",
+                    sortBy, sortDirection, size, continuationToken != null);
+        
+        String sortColumn = KEYSET_SORT_COLUMNS.get(sortBy);
+        if (sortColumn == null) {
+            throw new IllegalArgumentException("Keyset paging is not supported for sort field: " + sortBy);
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        boolean descending = "DESC".equalsIgnoreCase(sortDirection);
+        KeysetCursor cursor = continuationToken != null ? KeysetCursor.decode(continuationToken) : null;
+        if (cursor != null && (!cursor.sortBy().equals(sortBy) || cursor.descending() != descending)) {
+            throw new IllegalArgumentException("Continuation token was issued for a different sort order");
+        }
+        
+        try {
+            String direction = descending ? "DESC" : "ASC";
+            StringBuilder sql = new StringBuilder("SELECT * FROM tasks WHERE deleted = false");
+            if (cursor != null) {
+                sql.append(" AND (").append(sortColumn).append(", id) ")
+                   .append(descending ? "<" : ">").append(" (:sortKey, :lastId)");
+            }
+            sql.append(" ORDER BY ").append(sortColumn).append(' ').append(direction)
+               .append(", id ").append(direction);
+            
+            Query query = entityManager.createNativeQuery(sql.toString(), TaskEntity.class)
+                .setMaxResults(size + 1);
+            if (cursor != null) {
+                query.setParameter("sortKey", parseSortKey(sortBy, cursor.sortKey()));
+                query.setParameter("lastId", TaskIdJavaType.keyUuidOf(cursor.lastId()));
+            }
+            
+            @SuppressWarnings("unchecked")
+            List<TaskEntity> entities = query.getResultList();
+            boolean hasMore = entities.size() > size;
+            List<TaskEntity> pageEntities = hasMore ? entities.subList(0, size) : entities;
+            
+            String nextPageToken = null;
+            if (hasMore) {
+                TaskEntity last = pageEntities.get(pageEntities.size() - 1);
+                nextPageToken = new KeysetCursor(sortBy, descending, sortKeyOf(sortBy, last), last.getId()).encode();
+            }
+            
+            List<Task> tasks = pageEntities.stream()
+                .map(TaskEntity::toDomain)
+                .collect(Collectors.toList());
+            
+            logger.debug("Found {} tasks with keyset paging, hasMore={}", tasks.size(), hasMore);
+            return PagedResult.withContinuation(tasks, size, nextPageToken);
+        } catch (Exception e) {
+            logger.error("Failed to find tasks with keyset paging", e);
+            throw new RuntimeException("Failed to find tasks with keyset paging", e);
+        }
+    }
+
+    private static String sortKeyOf(String sortBy, TaskEntity entity) {
+        return switch (sortBy) {
+            case "title" -> entity.getTitle();
+            case "status" -> entity.getStatus().name();
+            case "priority" -> entity.getPriority().name();
+            case "createdAt" -> entity.getCreatedAt().toString();
+            case "updatedAt" -> entity.getUpdatedAt().toString();
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        };
+    }
+
+    private static Object parseSortKey(String sortBy, String sortKey) {
+        return switch (sortBy) {
+            case "createdAt", "updatedAt" -> LocalDateTime.parse(sortKey);
+            default -> sortKey;
+        };
+    }
+
     /**
      * 統計查詢
      */
+    @Transactional(readOnly = true)
     public List<Object[]> getTaskStatisticsByStatus() {
         logger.debug("Getting task statistics by status");
         
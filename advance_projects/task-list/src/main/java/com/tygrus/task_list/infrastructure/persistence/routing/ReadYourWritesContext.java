@@ -0,0 +1,82 @@
+package com.tygrus.task_list.infrastructure.persistence.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * 讀己之寫（read-your-writes）的執行緒狀態
+ *
+ * 執行緒在主庫上開過寫入交易後，後續的唯讀交易也改走主庫，避免讀到副本尚未同步的舊資料。
+ * 在請求範圍內（由 {@link ReadYourWritesFilter} 標示）黏著到請求結束；
+ * 請求範圍外（排程、背景工作）只在寫入後的一段時間內黏著，以免執行緒池中的執行緒永遠黏著主庫。
+ * 結果會被快取的讀取以 {@link #onPrimary} 包住，不論是否寫入過都走主庫。
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private ReadYourWritesContext() {
+    }
+
+    /**
+     * 開始請求範圍
+     */
+    public static void beginRequest() {
+        State state = STATE.get();
+        state.inRequest = true;
+        state.lastWriteNanos = 0L;
+        state.written = false;
+    }
+
+    /**
+     * 結束請求範圍並清除狀態
+     */
+    public static void endRequest() {
+        STATE.remove();
+    }
+
+    /**
+     * 記錄目前執行緒在主庫上寫入
+     */
+    public static void recordWrite() {
+        State state = STATE.get();
+        state.written = true;
+        state.lastWriteNanos = System.nanoTime();
+    }
+
+    /**
+     * 在主庫上執行讀取
+     * 供結果會被快取的讀取使用：副本落後時讀到的舊資料會以較新的寫入世代放入快取，直到下一次寫入前都不會失效
+     */
+    public static <T> T onPrimary(Supplier<T> reader) {
+        State state = STATE.get();
+        state.primaryScopes++;
+        try {
+            return reader.get();
+        } finally {
+            state.primaryScopes--;
+        }
+    }
+
+    /**
+     * 唯讀交易是否必須走主庫
+     *
+     * @param windowNanos 請求範圍外寫入後的黏著時間
+     */
+    public static boolean requiresPrimary(long windowNanos) {
+        State state = STATE.get();
+        if (state.primaryScopes > 0) {
+            return true;
+        }
+        if (!state.written) {
+            return false;
+        }
+        return state.inRequest || System.nanoTime() - state.lastWriteNanos < windowNanos;
+    }
+
+    private static final class State {
+        private boolean inRequest;
+        private boolean written;
+        private long lastWriteNanos;
+        private int primaryScopes;
+    }
+}
@@ -0,0 +1,26 @@
+package com.tygrus.task_list.infrastructure.persistence.routing;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import java.io.IOException;
+
+/**
+ * 為每個 HTTP 請求建立讀己之寫的範圍，請求結束時清除
+ */
+public class ReadYourWritesFilter implements Filter {
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        ReadYourWritesContext.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.endRequest();
+        }
+    }
+}
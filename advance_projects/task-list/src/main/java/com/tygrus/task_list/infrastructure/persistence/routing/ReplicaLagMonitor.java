@@ -0,0 +1,98 @@
+package com.tygrus.task_list.infrastructure.persistence.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 副本落後監控
+ *
+ * 定期量測每個副本的落後時間，只有落後不超過上限且可連線的副本才會接收唯讀流量。
+ * 路由時只讀取最近一次量測的結果（volatile 的不可變列表），不在取得連線的路徑上量測。
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final Map<String, DataSource> replicas;
+    private final ReplicaLagProbe probe;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private ScheduledExecutorService scheduler;
+
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, ReplicaLagProbe probe,
+                             Duration maxLag, Duration checkInterval) {
+        this.replicas = Map.copyOf(replicas);
+        this.probe = probe;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * 立即量測一次並開始定期量測
+     */
+    public synchronized void start() {
+        refresh();
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-lag-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMs = checkInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::refresh, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * 量測所有副本並更新可用清單
+     */
+    public void refresh() {
+        List<String> healthy = new ArrayList<>(replicas.size());
+        replicas.forEach((key, replica) -> {
+            try {
+                Duration lag = probe.lagOf(replica);
+                if (lag.compareTo(maxLag) <= 0) {
+                    healthy.add(key);
+                } else {
+                    logger.warn("Replica {} is {} ms behind primary, routing reads to primary", key, lag.toMillis());
+                }
+            } catch (Exception e) {
+                logger.warn("Replica {} lag check failed: {}", key, e.getMessage());
+            }
+        });
+        healthy.sort(null);
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    /**
+     * 受監控的副本 (鍵值 -> 資料來源)
+     */
+    public Map<String, DataSource> replicas() {
+        return replicas;
+    }
+
+    /**
+     * 目前可接收唯讀流量的副本
+     */
+    public List<String> healthyReplicas() {
+        return healthyReplicas;
+    }
+}
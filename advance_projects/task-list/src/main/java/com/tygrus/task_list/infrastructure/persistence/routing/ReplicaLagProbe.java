@@ -0,0 +1,32 @@
+package com.tygrus.task_list.infrastructure.persistence.routing;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * 量測副本落後主庫的時間
+ */
+@FunctionalInterface
+public interface ReplicaLagProbe {
+
+    /**
+     * PostgreSQL 串流複寫：以最後重播交易的時間估算落後量，非 standby 時視為 0
+     */
+    ReplicaLagProbe POSTGRESQL = replica -> {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT CASE WHEN pg_is_in_recovery() " +
+                 "THEN COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) " +
+                 "ELSE 0 END")) {
+            rs.next();
+            return Duration.ofMillis(Math.max(0L, (long) rs.getDouble(1)));
+        }
+    };
+
+    Duration lagOf(DataSource replica) throws SQLException;
+}
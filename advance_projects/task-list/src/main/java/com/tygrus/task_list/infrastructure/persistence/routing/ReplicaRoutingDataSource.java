@@ -0,0 +1,67 @@
+package com.tygrus.task_list.infrastructure.persistence.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 讀寫分離的路由資料來源
+ *
+ * readOnly 交易輪流分配給落後在上限內的副本；寫入交易、沒有可用副本、
+ * 目前執行緒剛寫入過（讀己之寫）、或在 {@link ReadYourWritesContext#onPrimary} 範圍內時走主庫。
+ * 路由依據交易的 readOnly 旗標，該旗標在交易開始後才設定，
+ * 因此必須包在 LazyConnectionDataSourceProxy 之後，讓連線延後到第一次執行語句時才取得。
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long stickinessNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * @param primary 主庫
+     * @param replicas 副本，鍵值需與 lagMonitor 使用的相同
+     * @param lagMonitor 副本落後監控
+     * @param stickiness 請求範圍外，寫入後唯讀交易繼續走主庫的時間
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReplicaLagMonitor lagMonitor, Duration stickiness) {
+        if (replicas.containsKey(PRIMARY)) {
+            throw new IllegalArgumentException("Replica key cannot be '" + PRIMARY + "'");
+        }
+        this.lagMonitor = lagMonitor;
+        this.stickinessNanos = stickiness.toNanos();
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWritesContext.recordWrite();
+            }
+            return PRIMARY;
+        }
+        if (ReadYourWritesContext.requiresPrimary(stickinessNanos)) {
+            return PRIMARY;
+        }
+        List<String> healthy = lagMonitor.healthyReplicas();
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.tygrus.task_list.infrastructure.persistence.sharding;
+
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.persistence.entity.TaskEntity;
+import com.tygrus.task_list.infrastructure.persistence.migration.TaskSortKeyIndexMigration;
+import com.tygrus.task_list.infrastructure.persistence.repository.JpaTaskRepository;
+import com.tygrus.task_list.infrastructure.persistence.repository.PostgreSQLTaskRepository;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 連到單一資料來源的任務分片
+ *
+ * 每個分片有自己的 EntityManagerFactory 與 JpaTransactionManager，
+ * 以交易代理包裝的 PostgreSQLTaskRepository 依方法上的 @Transactional 在該分片的資料庫開啟交易，
+ * 與主資料來源的交易互不相干；跨分片的寫入不是原子的。
+ * 分片不產生 outbox 變更流也不使用全文索引，變更流由 ShardedTaskRepository 發布；
+ * 排序鍵的運算式索引在建立 EntityManagerFactory 後建立，與主資料來源相同。
+ */
+public final class PostgreSQLTaskShard implements Closeable {
+
+    // 與 Spring Boot 的預設命名策略一致，實體上以屬性名稱宣告的索引欄位才能對應到資料表欄位
+    private static final Map<String, Object> DEFAULT_JPA_PROPERTIES = Map.of(
+        "hibernate.physical_naming_strategy",
+        "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy",
+        "hibernate.implicit_naming_strategy",
+        "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy"
+    );
+
+    private final String name;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TaskRepository repository;
+
+    private PostgreSQLTaskShard(String name, EntityManagerFactory entityManagerFactory, TaskRepository repository) {
+        this.name = name;
+        this.entityManagerFactory = entityManagerFactory;
+        this.repository = repository;
+    }
+
+    /**
+     * @param name 分片名稱，作為持久化單元名稱
+     * @param dataSource 分片的資料來源
+     * @param jpaProperties Hibernate 設定（方言、hbm2ddl 等），覆蓋預設的命名策略
+     */
+    public static PostgreSQLTaskShard create(String name, DataSource dataSource, Map<String, ?> jpaProperties) {
+        Map<String, Object> properties = new HashMap<>(DEFAULT_JPA_PROPERTIES);
+        properties.putAll(jpaProperties);
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setPersistenceUnitName("task-shard-" + name);
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(TaskEntity.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(properties);
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        try {
+            new TaskSortKeyIndexMigration(dataSource).migrate();
+        } catch (Exception e) {
+            entityManagerFactory.close();
+            throw new IllegalStateException("Failed to create sort key indexes on shard " + name, e);
+        }
+
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        JpaTaskRepository jpaTaskRepository = new JpaRepositoryFactory(entityManager)
+            .getRepository(JpaTaskRepository.class);
+        PostgreSQLTaskRepository target = new PostgreSQLTaskRepository(jpaTaskRepository);
+        target.setEntityManager(entityManager);
+
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(new TransactionInterceptor(
+            new JpaTransactionManager(entityManagerFactory), new AnnotationTransactionAttributeSource()));
+        return new PostgreSQLTaskShard(name, entityManagerFactory, (TaskRepository) proxyFactory.getProxy());
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * 交易代理，同時實作 ReconcilableTaskCounts 與 ArchivableTaskStore
+     */
+    public TaskRepository repository() {
+        return repository;
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+    }
+}
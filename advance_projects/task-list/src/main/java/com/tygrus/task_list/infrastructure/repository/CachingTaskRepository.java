@@ -0,0 +1,269 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskColumns;
+import com.tygrus.task_list.domain.model.TaskCounts;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
+import com.tygrus.task_list.domain.repository.TaskQuery;
+import com.tygrus.task_list.domain.repository.TaskQueryResult;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.TaskWriteEpochs;
+import com.tygrus.task_list.domain.repository.WriteDurability;
+import com.tygrus.task_list.infrastructure.cache.WTinyLfuCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 讀取穿透快取任務儲存庫
+ *
+ * 包裝任一 domain TaskRepository（通常為 PostgreSQLTaskRepository），以 {@link WTinyLfuCache}
+ * 快取單筆查詢的結果：
+ * - findById、existsById 命中時不存取資料來源；existsById 未命中時以 findById 載入，之後的 findById 即可命中
+ * - findByIds 先取快取，只以一次批次查詢載入未命中的部分
+ * - 所有寫入（save、saveAll、deleteById、樂觀鎖更新）完成後失效對應項目，寫入失敗也會失效，
+ *   因為資料來源可能已部分寫入；在外層交易內寫入時，交易結束後會再失效一次，
+ *   避免提交前其他讀取者載入的舊版本留在快取
+ *
+ * 載入前先取得該鍵的寫入世代，只有期間沒有寫入時才放入快取，
+ * 因此寫入完成後不會再讀到比它舊的版本。
+ * Task 為可變物件，快取保存的是獨立副本，每次命中回傳新的副本，呼叫端修改不影響快取內容。
+ * 清單與串流查詢直接交給資料來源，不經過快取。
+ */
+public class CachingTaskRepository implements TaskRepository {
+
+    private final TaskRepository delegate;
+    private final WTinyLfuCache<TaskId, Task> cache;
+
+    public CachingTaskRepository(TaskRepository delegate, long maximumSize) {
+        this.delegate = delegate;
+        this.cache = new WTinyLfuCache<>(maximumSize);
+    }
+
+    @Override
+    public Optional<Task> findById(TaskId taskId) {
+        if (taskId == null) {
+            return Optional.empty();
+        }
+        Task cached = cache.getIfPresent(taskId);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        long stamp = cache.stamp(taskId);
+        Optional<Task> loaded = delegate.findById(taskId);
+        loaded.ifPresent(task -> cache.putIfUnchanged(taskId, copyOf(task), stamp));
+        return loaded;
+    }
+
+    @Override
+    public boolean existsById(TaskId taskId) {
+        if (taskId == null) {
+            return false;
+        }
+        if (cache.getIfPresent(taskId) != null) {
+            return true;
+        }
+        long stamp = cache.stamp(taskId);
+        Optional<Task> loaded = delegate.findById(taskId);
+        loaded.ifPresent(task -> cache.putIfUnchanged(taskId, copyOf(task), stamp));
+        return loaded.isPresent();
+    }
+
+    /**
+     * 命中的任務直接回傳副本，未命中的任務以一次 findByIds 載入
+     */
+    @Override
+    public Map<TaskId, Task> findByIds(List<TaskId> taskIds) {
+        Map<TaskId, Task> found = new HashMap<>();
+        Map<TaskId, Long> misses = new LinkedHashMap<>();
+        for (TaskId taskId : taskIds) {
+            if (found.containsKey(taskId) || misses.containsKey(taskId)) {
+                continue;
+            }
+            Task cached = cache.getIfPresent(taskId);
+            if (cached != null) {
+                found.put(taskId, copyOf(cached));
+            } else {
+                misses.put(taskId, cache.stamp(taskId));
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<TaskId, Task> loaded = delegate.findByIds(new ArrayList<>(misses.keySet()));
+            loaded.forEach((taskId, task) -> {
+                Long stamp = misses.get(taskId);
+                if (stamp != null) {
+                    cache.putIfUnchanged(taskId, copyOf(task), stamp);
+                }
+                found.put(taskId, task);
+            });
+        }
+        return found;
+    }
+
+    @Override
+    public Map<TaskId, Boolean> existsByIds(List<TaskId> taskIds) {
+        Map<TaskId, Task> found = findByIds(taskIds);
+        Map<TaskId, Boolean> result = new HashMap<>();
+        for (TaskId taskId : taskIds) {
+            result.put(taskId, found.containsKey(taskId));
+        }
+        return result;
+    }
+
+    @Override
+    public Task save(Task task) {
+        try {
+            return delegate.save(task);
+        } finally {
+            invalidateAfterWrite(List.of(task.getId()));
+        }
+    }
+
+    @Override
+    public Task save(Task task, WriteDurability durability) {
+        try {
+            return delegate.save(task, durability);
+        } finally {
+            invalidateAfterWrite(List.of(task.getId()));
+        }
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        try {
+            return delegate.saveAll(tasks);
+        } finally {
+            invalidateAfterWrite(tasks.stream().map(Task::getId).toList());
+        }
+    }
+
+    @Override
+    public void deleteById(TaskId taskId) {
+        try {
+            delegate.deleteById(taskId);
+        } finally {
+            invalidateAfterWrite(List.of(taskId));
+        }
+    }
+
+    @Override
+    public Task saveWithOptimisticLock(Task task, Long expectedVersion) {
+        try {
+            return delegate.saveWithOptimisticLock(task, expectedVersion);
+        } finally {
+            invalidateAfterWrite(List.of(task.getId()));
+        }
+    }
+
+    @Override
+    public Map<TaskId, Task> saveAllWithOptimisticLock(List<Task> tasks) {
+        try {
+            return delegate.saveAllWithOptimisticLock(tasks);
+        } finally {
+            invalidateAfterWrite(tasks.stream().map(Task::getId).toList());
+        }
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public TaskColumns findAllAsColumns() {
+        return delegate.findAllAsColumns();
+    }
+
+    @Override
+    public <R> R streamAll(Function<? super Stream<Task>, ? extends R> reader) {
+        return delegate.streamAll(reader);
+    }
+
+    @Override
+    public <R> R streamAllIncludingArchived(Function<? super Stream<Task>, ? extends R> reader) {
+        return delegate.streamAllIncludingArchived(reader);
+    }
+
+    @Override
+    public TaskQueryResult query(TaskQuery query) {
+        return delegate.query(query);
+    }
+
+    @Override
+    public long forEachChunk(int chunkSize, Consumer<? super List<Task>> chunkConsumer) {
+        return delegate.forEachChunk(chunkSize, chunkConsumer);
+    }
+
+    @Override
+    public TaskChangeFeed changeFeed() {
+        return delegate.changeFeed();
+    }
+
+    @Override
+    public TaskWriteEpochs writeEpochs() {
+        return delegate.writeEpochs();
+    }
+
+    @Override
+    public TaskCounts counts() {
+        return delegate.counts();
+    }
+
+    /**
+     * 清空快取，供資料在儲存庫之外被修改（如批次 SQL、資料匯入）後使用
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 快取命中率等統計
+     */
+    public WTinyLfuCache.Stats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * 立即失效寫入的任務；在交易內時於交易結束後再失效一次。
+     * 提交前其他讀取者仍讀到舊版本，此時載入的結果在提交後才會被清除，
+     * 第二次失效同時推進寫入世代，讓跨越提交的載入不會放入快取
+     */
+    private void invalidateAfterWrite(Collection<TaskId> taskIds) {
+        taskIds.forEach(cache::invalidate);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    taskIds.forEach(cache::invalidate);
+                }
+            });
+        }
+    }
+
+    private static Task copyOf(Task task) {
+        return Task.restoreFromPersistence(
+            task.getId(),
+            task.getTitle(),
+            task.getDescription(),
+            task.getStatus(),
+            task.getPriority(),
+            task.getDueDate(),
+            task.getCreatedAt(),
+            task.getUpdatedAt(),
+            task.isDeleted(),
+            task.getDeletedAt(),
+            task.getDeletedBy(),
+            task.getVersion());
+    }
+}
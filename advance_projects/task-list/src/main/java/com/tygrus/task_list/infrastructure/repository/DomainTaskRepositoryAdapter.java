@@ -1,20 +1,32 @@
 package com.tygrus.task_list.infrastructure.repository;
 
 import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskColumns;
+import com.tygrus.task_list.domain.model.TaskCounts;
 import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
+import com.tygrus.task_list.domain.repository.TaskQuery;
+import com.tygrus.task_list.domain.repository.TaskQueryResult;
 import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.TaskWriteEpochs;
+import com.tygrus.task_list.infrastructure.repository.archive.ArchivableTaskStore;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Domain TaskRepository 適配器
  * 將 InMemoryTaskRepository 適配為 domain.repository.TaskRepository 介面
  */
 @Component
-public class DomainTaskRepositoryAdapter implements TaskRepository {
+public class DomainTaskRepositoryAdapter implements TaskRepository, ArchivableTaskStore {
     
     private final InMemoryTaskRepository inMemoryTaskRepository;
     
@@ -47,6 +59,36 @@ public class DomainTaskRepositoryAdapter implements TaskRepository {
         return inMemoryTaskRepository.findAll();
     }
     
+    @Override
+    public <R> R streamAll(Function<? super Stream<Task>, ? extends R> reader) {
+        return inMemoryTaskRepository.streamAll(reader);
+    }
+    
+    @Override
+    public TaskQueryResult query(TaskQuery query) {
+        return inMemoryTaskRepository.query(query);
+    }
+    
+    @Override
+    public TaskColumns findAllAsColumns() {
+        return inMemoryTaskRepository.findAllAsColumns();
+    }
+    
+    @Override
+    public TaskChangeFeed changeFeed() {
+        return inMemoryTaskRepository.changeFeed();
+    }
+    
+    @Override
+    public TaskCounts counts() {
+        return inMemoryTaskRepository.counts();
+    }
+    
+    @Override
+    public TaskWriteEpochs writeEpochs() {
+        return inMemoryTaskRepository.writeEpochs();
+    }
+    
     @Override
     public Map<TaskId, Task> findByIds(List<TaskId> taskIds) {
         return inMemoryTaskRepository.findByIds(taskIds);
@@ -66,4 +108,14 @@ public class DomainTaskRepositoryAdapter implements TaskRepository {
     public Task saveWithOptimisticLock(Task task, Long expectedVersion) {
         return inMemoryTaskRepository.saveWithOptimisticLock(task, expectedVersion);
     }
-}
\ No newline at end of file
+    
+    @Override
+    public List<Task> findArchivable(LocalDateTime cutoff, int limit) {
+        return inMemoryTaskRepository.findArchivable(cutoff, limit);
+    }
+    
+    @Override
+    public Set<TaskId> purgeArchived(Collection<TaskId> taskIds, LocalDateTime cutoff) {
+        return inMemoryTaskRepository.purgeArchived(taskIds, cutoff);
+    }
+}
@@ -0,0 +1,237 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.infrastructure.repository.wal.SnapshotStore;
+import com.tygrus.task_list.infrastructure.repository.wal.TaskRecordCodec;
+import com.tygrus.task_list.infrastructure.repository.wal.WalRecord;
+import com.tygrus.task_list.infrastructure.repository.wal.WriteAheadLog;
+import com.tygrus.task_list.infrastructure.repository.wal.WriteAheadLog.SyncMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 具持久化能力的記憶體內任務儲存庫
+ *
+ * 在 InMemoryTaskRepository 之上加入：
+ * - 預寫日誌：每次變更於同一任務的 compute 臨界區內取得 LSN，
+ *   寫入端在回傳前等待該 LSN 完成群組提交
+ * - 定期快照：以檢查點鎖取得一致的 LSN 後掃描全部任務寫入快照，並刪除已涵蓋的日誌分段
+ * - 啟動復原：載入最新快照後重播其後的日誌
+ *
+ * 日誌記錄都是完整狀態（而非差量），因此重播具冪等性，快照掃描期間的並行寫入不影響正確性。
+ */
+public class DurableTaskRepository extends InMemoryTaskRepository implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurableTaskRepository.class);
+
+    private final Path directory;
+    private final SyncMode syncMode;
+    private final long maxSegmentBytes;
+    private final Duration snapshotInterval;
+    private final SnapshotStore snapshotStore;
+
+    // 寫入端共用讀鎖；檢查點以寫鎖確保取得 LSN 時沒有進行中的寫入
+    private final ReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Long> lastAppendedLsn = new ThreadLocal<>();
+
+    private volatile WriteAheadLog wal;
+    private volatile boolean recovering;
+    private ScheduledExecutorService snapshotScheduler;
+
+    public DurableTaskRepository(Path directory, SyncMode syncMode, long maxSegmentBytes, Duration snapshotInterval) {
+        this.directory = directory;
+        this.syncMode = syncMode;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.snapshotInterval = snapshotInterval;
+        this.snapshotStore = new SnapshotStore(directory);
+    }
+
+    /**
+     * 自磁碟復原並開始接受寫入
+     */
+    public void open() throws IOException {
+        long startNanos = System.nanoTime();
+        recovering = true;
+        try {
+            Optional<SnapshotStore.Snapshot> snapshot = snapshotStore.loadLatest();
+            long snapshotLsn = snapshot.map(SnapshotStore.Snapshot::lsn).orElse(0L);
+            snapshot.ifPresent(s -> s.tasks().forEach(this::restore));
+
+            wal = WriteAheadLog.open(directory, syncMode, maxSegmentBytes);
+            long[] replayed = {0};
+            wal.replay(snapshotLsn, record -> {
+                applyRecord(record);
+                replayed[0]++;
+            });
+            wal.advanceTo(snapshotLsn);
+
+            logger.info("Recovered {} tasks (snapshotLsn={}, replayed {} WAL records) in {} ms",
+                count(), snapshotLsn, replayed[0], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } finally {
+            recovering = false;
+        }
+
+        if (!snapshotInterval.isZero() && !snapshotInterval.isNegative()) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "task-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long periodMillis = snapshotInterval.toMillis();
+            snapshotScheduler.scheduleWithFixedDelay(this::checkpointQuietly,
+                periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Task save(Task task) {
+        return durably(() -> super.save(task));
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> taskList) {
+        if (taskList == null) {
+            return new ArrayList<>();
+        }
+        // 整批只等待最後一個 LSN，讓群組提交發揮作用
+        return durably(() -> {
+            List<Task> savedTasks = new ArrayList<>(taskList.size());
+            for (Task task : taskList) {
+                savedTasks.add(super.save(task));
+            }
+            return savedTasks;
+        });
+    }
+
+    @Override
+    public Task saveWithOptimisticLock(Task task, Long expectedVersion) {
+        return durably(() -> super.saveWithOptimisticLock(task, expectedVersion));
+    }
+
+    @Override
+    public boolean deleteById(TaskId taskId) {
+        return durably(() -> super.deleteById(taskId));
+    }
+
+    @Override
+    public void clear() {
+        durably(() -> {
+            super.clear();
+            return null;
+        });
+    }
+
+    /**
+     * 寫入快照並刪除已被快照涵蓋的日誌分段
+     *
+     * @return 快照涵蓋到的 LSN
+     */
+    public long checkpoint() throws IOException {
+        long coveredLsn;
+        checkpointLock.writeLock().lock();
+        try {
+            coveredLsn = wal.lastAssignedLsn();
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+        // 確保快照涵蓋的記錄都已落盤，才能安全地刪除分段
+        wal.awaitDurable(coveredLsn);
+
+        snapshotStore.write(coveredLsn, findAll());
+        int deleted = wal.deleteSegmentsUpTo(coveredLsn);
+        logger.debug("Checkpoint at LSN {} removed {} WAL segments", coveredLsn, deleted);
+        return coveredLsn;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+            try {
+                snapshotScheduler.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    @Override
+    void onSnapshotChanged(TaskId taskId, Task current) {
+        if (recovering) {
+            return;
+        }
+        long lsn = current != null
+            ? wal.append(WalRecord.PUT, TaskRecordCodec.encode(current))
+            : wal.append(WalRecord.DELETE, taskId.getValue().getBytes(StandardCharsets.UTF_8));
+        lastAppendedLsn.set(lsn);
+    }
+
+    @Override
+    void onCleared() {
+        if (recovering) {
+            return;
+        }
+        lastAppendedLsn.set(wal.append(WalRecord.CLEAR, new byte[0]));
+    }
+
+    private <T> T durably(Supplier<T> mutation) {
+        if (wal == null) {
+            throw new IllegalStateException("DurableTaskRepository has not been opened");
+        }
+        T result;
+        checkpointLock.readLock().lock();
+        try {
+            lastAppendedLsn.remove();
+            result = mutation.get();
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+        Long lsn = lastAppendedLsn.get();
+        if (lsn != null) {
+            lastAppendedLsn.remove();
+            wal.awaitDurable(lsn);
+        }
+        return result;
+    }
+
+    private void applyRecord(WalRecord record) {
+        try {
+            switch (record.type()) {
+                case WalRecord.PUT -> restore(TaskRecordCodec.decode(record.payload()));
+                case WalRecord.DELETE -> restoreRemoval(TaskId.of(new String(record.payload(), StandardCharsets.UTF_8)));
+                case WalRecord.CLEAR -> super.clear();
+                default -> logger.warn("Ignoring unknown WAL record type {} at LSN {}", record.type(), record.lsn());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt WAL record at LSN " + record.lsn(), e);
+        }
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Periodic snapshot failed: {}", e.getMessage(), e);
+        }
+    }
+}
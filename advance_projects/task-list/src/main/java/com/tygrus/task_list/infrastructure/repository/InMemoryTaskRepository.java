@@ -1,33 +1,99 @@
 package com.tygrus.task_list.infrastructure.repository;
 
+import com.tygrus.task_list.domain.exception.OptimisticLockException;
 import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskChange;
+import com.tygrus.task_list.domain.model.TaskColumns;
+import com.tygrus.task_list.domain.model.TaskCounts;
 import com.tygrus.task_list.domain.model.TaskId;
 import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
+import com.tygrus.task_list.domain.repository.TaskQuery;
+import com.tygrus.task_list.domain.repository.TaskQueryResult;
+import com.tygrus.task_list.domain.repository.TaskWriteEpochs;
+import com.tygrus.task_list.infrastructure.repository.archive.ArchivableTaskStore;
+import com.tygrus.task_list.infrastructure.repository.changefeed.InMemoryTaskChangeFeed;
+import com.tygrus.task_list.infrastructure.repository.counter.ReconcilableTaskCounts;
+import com.tygrus.task_list.infrastructure.repository.counter.TaskCounters;
+import com.tygrus.task_list.infrastructure.repository.counter.TaskWriteEpochCounter;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 記憶體內任務儲存庫實作
  * 用於演示和測試目的
  * 實現了 infrastructure.repository.TaskRepository 接口，為調度器提供資料存取支援
+ * 
+ * 除主要的 ConcurrentHashMap 外，另維護兩個並行次要索引：
+ * - 狀態索引：每個 TaskStatus 對應一組 TaskId
+ * - 到期日索引：以 ConcurrentSkipListSet 依 (dueDate, taskId) 排序
+ * 索引於 save/deleteById 時更新，狀態與到期日查詢成本為 O(log n + k)
+ * 
+ * 儲存的是帶版本號的不可變快照：寫入時複製並遞增版本，讀取時回傳副本，
+ * 呼叫端對 Task 的原地修改不會影響已儲存的資料。save 回傳帶新版本號的副本，傳入的物件維持原版本，
+ * 之後以樂觀鎖更新時應使用回傳值。
+ * saveWithOptimisticLock 以 ConcurrentHashMap.compute 實作無全域鎖的 compare-and-set。
+ * 
+ * 每次寫入在同一個 compute 內發布到變更流，同一任務的變更序號與寫入順序一致；
+ * 自持久化媒體復原的資料不重新發布。
+ * 
+ * 未刪除任務的狀態與優先級計數同樣在 compute 內以 LongAdder 增量調整，{@link #counts()} 不掃描任務；
+ * {@link #reconcileCounters()} 以欄式資料重新計數並修正偏差。
+ * 寫入世代（{@link #writeEpochs()}）在同一處推進，供查詢結果快取判斷快取的頁面是否仍然有效。
+ * 
+ * 多版本並行控制：每次寫入在 compute 內把新快照放進持久化映射，以 CAS 發布新的 {@link TaskSnapshot}。
+ * {@link #snapshot()} 只讀取目前的引用，掃描期間的並行寫入不可見，寫入端也不必等待讀取端；
+ * findAll、streamAll、findByIds、existsByIds、count、findAllAsColumns 與沒有索引條件的 query
+ * 各自讀同一個時間點的版本，不會混合寫入前後的內容。
+ * {@link #counts()}、countByStatus 與走索引的查詢（findByStatus、到期日查詢、有狀態或到期日條件的 query）
+ * 讀取在 compute 內逐一更新的計數器與索引，不屬於任何一個快照版本：
+ * 每筆回傳的任務本身是已提交的版本，但結果整體可能同時包含並行寫入前後的任務。
  */
 @Repository
-public class InMemoryTaskRepository implements TaskRepository {
+public class InMemoryTaskRepository implements TaskRepository, ReconcilableTaskCounts, ArchivableTaskStore {
     
+    // 任務ID -> 不可變快照（只在 compute 內替換，永不外洩給呼叫端）
     private final Map<TaskId, Task> tasks = new ConcurrentHashMap<>();
     
+    // 目前發布的一致版本，與 tasks 內容相同但可整體讀取
+    private final AtomicReference<TaskSnapshot> current = new AtomicReference<>(TaskSnapshot.EMPTY);
+    
+    // 次要索引：狀態 -> 任務ID集合
+    private final Map<TaskStatus, Set<TaskId>> statusIndex = new EnumMap<>(TaskStatus.class);
+    
+    // 次要索引：(到期日, 任務ID)，依時間排序；每個任務一個項目，避免共用桶的競態
+    private final NavigableSet<DueDateEntry> dueDateIndex = new ConcurrentSkipListSet<>();
+    
+    private final InMemoryTaskChangeFeed changeFeed = new InMemoryTaskChangeFeed();
+    
+    private final TaskCounters counters = new TaskCounters();
+    
+    private final TaskWriteEpochCounter writeEpochs = new TaskWriteEpochCounter();
+    
+    public InMemoryTaskRepository() {
+        for (TaskStatus status : TaskStatus.values()) {
+            statusIndex.put(status, ConcurrentHashMap.newKeySet());
+        }
+    }
+    
     @Override
     public Task save(Task task) {
         if (task == null) {
             throw new IllegalArgumentException("Task cannot be null");
         }
         
-        tasks.put(task.getId(), task);
-        return task;
+        return copyOf(write(() -> tasks.compute(task.getId(), (id, existing) -> 
+            replace(existing, task))));
     }
     
     @Override
@@ -36,12 +102,132 @@ public class InMemoryTaskRepository implements TaskRepository {
             return Optional.empty();
         }
         
-        return Optional.ofNullable(tasks.get(taskId));
+        return Optional.ofNullable(tasks.get(taskId)).map(this::copyOf);
     }
     
+    /**
+     * 回傳可修改的新清單，呼叫端可自行排序或加入項目
+     */
     @Override
     public List<Task> findAll() {
-        return new ArrayList<>(tasks.values());
+        return snapshot().stream().collect(Collectors.toCollection(ArrayList::new));
+    }
+    
+    /**
+     * 走訪呼叫當下的一致版本，不建立中間清單
+     * 每筆在被讀取時才複製，走訪期間的並行寫入不可見
+     */
+    @Override
+    public <R> R streamAll(Function<? super Stream<Task>, ? extends R> reader) {
+        try (Stream<Task> stream = snapshot().stream()) {
+            return reader.apply(stream);
+        }
+    }
+    
+    /**
+     * 取得目前的一致版本，成本為一次引用讀取
+     * 快照持有期間的寫入不影響它，快照不再被引用後舊版本由 GC 回收
+     */
+    public TaskSnapshot snapshot() {
+        return current.get();
+    }
+    
+    /**
+     * 取得目前版本的欄式資料，不複製任何 Task 物件
+     * 由快照建立並隨快照保留，同一版本重複呼叫不重建
+     */
+    public TaskColumns findAllAsColumns() {
+        return snapshot().columns();
+    }
+    
+    /**
+     * 依查詢規格查詢，以次要索引縮小候選範圍
+     * - 可能符合的狀態不是全部時只走訪這些狀態的索引：狀態條件所選的狀態，依狀態排序續讀時再去掉排在續讀位置之前的狀態
+     * - 否則有到期日範圍時只走訪到期日索引的對應區段
+     * - 都沒有時掃描目前的一致版本
+     * 依狀態排序且不需計數時，依排序順序逐一走訪狀態索引，湊滿一頁即停止，不走訪後面的狀態。
+     * 候選以儲存的快照本身求值，只有回傳頁面中的任務才複製；
+     * 由索引取得的候選讀取各任務最新提交的版本，與 findByStatus 相同。
+     * 其他排序欄位沒有索引，續讀位置在走訪候選時過濾；堆積只保留一頁
+     */
+    public TaskQueryResult query(TaskQuery query) {
+        TaskQueryResult result = query.sortField() == TaskQuery.SortField.STATUS && !query.countTotal()
+            ? selectInStatusOrder(query)
+            : query.select(candidatesFor(query));
+        return new TaskQueryResult(result.tasks().stream().map(this::copyOf).toList(), result.totalMatches());
+    }
+    
+    /**
+     * 每個狀態內仍以有界堆積依任務ID排序，只取湊滿 offset + limit 筆所需的筆數
+     */
+    private TaskQueryResult selectInStatusOrder(TaskQuery query) {
+        Comparator<TaskStatus> byName = Comparator.comparing(TaskStatus::name);
+        List<TaskStatus> statuses = candidateStatusesOf(query).stream()
+            .sorted(query.descending() ? byName.reversed() : byName)
+            .toList();
+        long wanted = (long) query.offset() + query.limit();
+        List<Task> selected = new ArrayList<>();
+        for (TaskStatus status : statuses) {
+            if (selected.size() >= wanted) {
+                break;
+            }
+            TaskQuery inStatus = query.toBuilder()
+                .offset(0)
+                .limit((int) Math.min(wanted - selected.size(), TaskQuery.UNLIMITED))
+                .build();
+            // 只取目前狀態仍為此狀態的任務，並行變更中同時出現在兩個索引的任務只會取到一次
+            selected.addAll(inStatus.select(statusIndex.get(status).stream()
+                .map(tasks::get)
+                .filter(task -> task != null && task.getStatus() == status)).tasks());
+        }
+        List<Task> page = selected.size() > query.offset()
+            ? selected.subList(query.offset(), selected.size())
+            : List.of();
+        return new TaskQueryResult(page, TaskQueryResult.UNKNOWN_TOTAL);
+    }
+    
+    private Stream<Task> candidatesFor(TaskQuery query) {
+        Set<TaskStatus> statuses = candidateStatusesOf(query);
+        if (statuses.size() < TaskStatus.values().length) {
+            // 並行的狀態變更可能讓同一任務短暫出現在兩個索引中
+            return statuses.stream()
+                .flatMap(status -> statusIndex.get(status).stream())
+                .distinct()
+                .map(tasks::get)
+                .filter(Objects::nonNull);
+        }
+        if (query.hasDueDateRange()) {
+            NavigableSet<DueDateEntry> range = dueDateIndex;
+            if (query.dueDateFrom() != null) {
+                range = range.tailSet(DueDateEntry.lowerBound(query.dueDateFrom()), true);
+            }
+            if (query.dueDateTo() != null) {
+                range = range.headSet(DueDateEntry.lowerBound(query.dueDateTo().plusNanos(1)), false);
+            }
+            return range.stream()
+                .map(entry -> TaskId.of(entry.taskId()))
+                .distinct()
+                .map(tasks::get)
+                .filter(Objects::nonNull);
+        }
+        return snapshot().storedTasks();
+    }
+    
+    /**
+     * 可能符合查詢的狀態
+     * 狀態依名稱排序，依狀態排序續讀時，名稱排在續讀位置之前的狀態不會有符合的任務
+     */
+    private static Set<TaskStatus> candidateStatusesOf(TaskQuery query) {
+        Set<TaskStatus> statuses = query.statuses().isEmpty()
+            ? EnumSet.allOf(TaskStatus.class)
+            : EnumSet.copyOf(query.statuses());
+        if (query.sortField() == TaskQuery.SortField.STATUS && query.after() != null) {
+            String after = query.after().sortKey();
+            statuses.removeIf(status -> query.descending()
+                ? status.name().compareTo(after) > 0
+                : status.name().compareTo(after) < 0);
+        }
+        return statuses;
     }
     
     @Override
@@ -50,11 +236,14 @@ public class InMemoryTaskRepository implements TaskRepository {
             return new ArrayList<>();
         }
         
-        Set<TaskStatus> statusSet = Set.of(statuses);
+        Set<TaskStatus> statusSet = EnumSet.noneOf(TaskStatus.class);
+        statusSet.addAll(Arrays.asList(statuses));
         
-        return tasks.values().stream()
-            .filter(task -> statusSet.contains(task.getStatus()))
-            .collect(Collectors.toList());
+        List<Task> result = new ArrayList<>();
+        for (TaskStatus status : statusSet) {
+            collectTasks(statusIndex.get(status), result, task -> task.getStatus() == status);
+        }
+        return result;
     }
     
     @Override
@@ -63,11 +252,20 @@ public class InMemoryTaskRepository implements TaskRepository {
             return new ArrayList<>();
         }
         
-        return tasks.values().stream()
-            .filter(task -> task.getDueDate() != null)
-            .filter(task -> !task.getDueDate().isBefore(startTime) && !task.getDueDate().isAfter(endTime))
-            .filter(task -> task.getStatus() != TaskStatus.COMPLETED)
-            .collect(Collectors.toList());
+        if (startTime.isAfter(endTime)) {
+            return new ArrayList<>();
+        }
+        
+        // 以空字串作為 ID 下界，endTime 加 1 奈秒作為排他上界，涵蓋兩端點
+        Set<DueDateEntry> range = dueDateIndex.subSet(
+            DueDateEntry.lowerBound(startTime), true,
+            DueDateEntry.lowerBound(endTime.plusNanos(1)), false);
+        
+        List<Task> result = new ArrayList<>();
+        collectTasks(range, result, task -> task.getDueDate() != null
+            && !task.getDueDate().isBefore(startTime) && !task.getDueDate().isAfter(endTime)
+            && task.getStatus() != TaskStatus.COMPLETED);
+        return result;
     }
     
     @Override
@@ -76,12 +274,14 @@ public class InMemoryTaskRepository implements TaskRepository {
             return new ArrayList<>();
         }
         
-        return tasks.values().stream()
-            .filter(task -> task.getDueDate() != null)
-            .filter(task -> task.getDueDate().isBefore(currentTime))
-            .filter(task -> task.getStatus() != TaskStatus.COMPLETED)
-            .filter(task -> task.getStatus() != TaskStatus.CANCELLED)
-            .collect(Collectors.toList());
+        Set<DueDateEntry> overdue = dueDateIndex.headSet(DueDateEntry.lowerBound(currentTime), false);
+        
+        List<Task> result = new ArrayList<>();
+        collectTasks(overdue, result, task -> task.getDueDate() != null
+            && task.getDueDate().isBefore(currentTime)
+            && task.getStatus() != TaskStatus.COMPLETED
+            && task.getStatus() != TaskStatus.CANCELLED);
+        return result;
     }
     
     /**
@@ -93,7 +293,18 @@ public class InMemoryTaskRepository implements TaskRepository {
             return false;
         }
         
-        return tasks.remove(taskId) != null;
+        boolean[] removed = new boolean[1];
+        write(() -> tasks.computeIfPresent(taskId, (id, existing) -> {
+            onSnapshotChanged(id, null);
+            current.updateAndGet(snapshot -> snapshot.without(id));
+            reindex(id, existing, null);
+            counters.apply(existing, null);
+            writeEpochs.advance(existing, null);
+            changeFeed.publish(TaskChange.Type.DELETED, copyOf(existing));
+            removed[0] = true;
+            return null;
+        }));
+        return removed[0];
     }
     
     @Override
@@ -107,25 +318,268 @@ public class InMemoryTaskRepository implements TaskRepository {
     
     @Override
     public long count() {
-        return tasks.size();
+        return snapshot().size();
     }
     
+    /**
+     * 以狀態索引取得候選並如 findByStatus 重新檢查目前提交的狀態，不對應特定快照版本。
+     * 索引在 compute 內先於任務映射更新，只讀索引大小會把狀態正在變更的任務同時算進新舊兩個狀態
+     */
     @Override
     public long countByStatus(TaskStatus status) {
         if (status == null) {
             return 0;
         }
         
-        return tasks.values().stream()
-            .filter(task -> task.getStatus() == status)
-            .count();
+        long count = 0;
+        for (TaskId id : statusIndex.get(status)) {
+            Task snapshot = tasks.get(id);
+            if (snapshot != null && snapshot.getStatus() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * 此儲存庫的變更流，保留最近 {@value InMemoryTaskChangeFeed#DEFAULT_RETENTION} 筆變更
+     */
+    public TaskChangeFeed changeFeed() {
+        return changeFeed;
+    }
+    
+    /**
+     * 未刪除任務依狀態與優先級的計數，直接讀取計數器
+     * 計數器逐筆調整，不對應特定快照版本；需要與快照一致的計數時以 {@code TaskCounts.of(findAllAsColumns())} 計算
+     */
+    public TaskCounts counts() {
+        return counters.snapshot();
+    }
+    
+    /**
+     * 寫入世代，每次寫入在 compute 內、新版本發布之後推進
+     */
+    public TaskWriteEpochs writeEpochs() {
+        return writeEpochs;
+    }
+    
+    /**
+     * 以欄式資料重新計數並修正計數器的偏差
+     * 掃描期間有寫入進行時略過，留待下一次
+     * 
+     * @return 是否完成比對
+     */
+    @Override
+    public boolean reconcileCounters() {
+        return counters.reconcile(() -> TaskCounts.of(snapshot().columns()));
+    }
+    
+    /**
+     * 依 ID 順序查詢可封存的任務，掃描目前的一致版本
+     */
+    @Override
+    public List<Task> findArchivable(LocalDateTime cutoff, int limit) {
+        return snapshot().storedTasks()
+            .filter(snapshot -> ArchivableTaskStore.isArchivable(snapshot, cutoff))
+            .sorted(Comparator.comparing(snapshot -> snapshot.getId().getValue()))
+            .limit(limit)
+            .map(this::copyOf)
+            .toList();
+    }
+    
+    /**
+     * 移除仍符合封存條件的任務
+     * 與 deleteById 相同地觸發 onSnapshotChanged 與計數調整，但不發布到變更流
+     */
+    @Override
+    public Set<TaskId> purgeArchived(Collection<TaskId> taskIds, LocalDateTime cutoff) {
+        Set<TaskId> purged = new HashSet<>();
+        for (TaskId taskId : taskIds) {
+            Task remaining = write(() -> tasks.computeIfPresent(taskId, (id, existing) -> {
+                if (!ArchivableTaskStore.isArchivable(existing, cutoff)) {
+                    return existing;
+                }
+                onSnapshotChanged(id, null);
+                current.updateAndGet(snapshot -> snapshot.without(id));
+                reindex(id, existing, null);
+                counters.apply(existing, null);
+                writeEpochs.advance(existing, null);
+                return null;
+            }));
+            if (remaining == null) {
+                purged.add(taskId);
+            }
+        }
+        return purged;
     }
     
     /**
      * 清空所有任務 (僅用於測試)
      */
     public void clear() {
+        onCleared();
         tasks.clear();
+        current.updateAndGet(TaskSnapshot::cleared);
+        dueDateIndex.clear();
+        statusIndex.values().forEach(Set::clear);
+        counters.reset();
+        writeEpochs.advanceAll();
+    }
+    
+    /**
+     * 以新快照取代舊快照並同步索引
+     * 必須在 tasks.compute 內呼叫，以確保同一任務的寫入不會交錯
+     */
+    private Task replace(Task existing, Task task) {
+        long nextVersion = existing != null ? existing.getVersion() + 1 : 0L;
+        Task snapshot = snapshotOf(task, nextVersion);
+        onSnapshotChanged(task.getId(), snapshot);
+        current.updateAndGet(published -> published.with(task.getId(), snapshot));
+        reindex(task.getId(), existing, snapshot);
+        counters.apply(existing, snapshot);
+        writeEpochs.advance(existing, snapshot);
+        changeFeed.publish(TaskChange.typeOf(existing, snapshot), copyOf(snapshot));
+        return snapshot;
+    }
+    
+    /**
+     * 直接載入既有快照（保留版本號），不觸發 onSnapshotChanged
+     * 供子類別自持久化媒體復原時使用
+     */
+    void restore(Task snapshot) {
+        write(() -> tasks.compute(snapshot.getId(), (id, existing) -> {
+            Task restored = copyOf(snapshot);
+            current.updateAndGet(published -> published.with(id, restored));
+            reindex(id, existing, restored);
+            counters.apply(existing, restored);
+            writeEpochs.advance(existing, restored);
+            return restored;
+        }));
+    }
+    
+    /**
+     * 直接移除任務，不觸發 onSnapshotChanged
+     * 供子類別自持久化媒體復原時使用
+     */
+    void restoreRemoval(TaskId taskId) {
+        write(() -> tasks.computeIfPresent(taskId, (id, existing) -> {
+            current.updateAndGet(snapshot -> snapshot.without(id));
+            reindex(id, existing, null);
+            counters.apply(existing, null);
+            writeEpochs.advance(existing, null);
+            return null;
+        }));
+    }
+    
+    /**
+     * 快照即將被替換時的擴充點，於 compute 內以同一任務互斥的方式呼叫
+     * 拋出例外會中止該次寫入，儲存內容保持不變
+     * 
+     * @param taskId 任務ID
+     * @param current 新的快照，null 表示任務被移除
+     */
+    void onSnapshotChanged(TaskId taskId, Task current) {
+        // 預設不做任何事
+    }
+    
+    /**
+     * 清空所有任務前的擴充點
+     */
+    void onCleared() {
+        // 預設不做任何事
+    }
+    
+    /**
+     * 更新次要索引
+     * 
+     * @param taskId 任務ID
+     * @param previous 先前儲存的快照，null 表示新任務
+     * @param current 新的快照，null 表示自索引移除
+     */
+    private void reindex(TaskId taskId, Task previous, Task current) {
+        if (previous != null) {
+            if (current == null || previous.getStatus() != current.getStatus()) {
+                statusIndex.get(previous.getStatus()).remove(taskId);
+            }
+            if (previous.getDueDate() != null
+                    && (current == null || !previous.getDueDate().equals(current.getDueDate()))) {
+                dueDateIndex.remove(new DueDateEntry(previous.getDueDate(), taskId.getValue()));
+            }
+        }
+        
+        if (current != null) {
+            statusIndex.get(current.getStatus()).add(taskId);
+            if (current.getDueDate() != null) {
+                dueDateIndex.add(new DueDateEntry(current.getDueDate(), taskId.getValue()));
+            }
+        }
+    }
+    
+    /**
+     * 執行一次寫入並標記計數器的寫入區間，供校正判斷掃描期間是否有寫入
+     */
+    private <T> T write(Supplier<T> write) {
+        counters.beginWrite();
+        try {
+            return write.get();
+        } finally {
+            counters.endWrite();
+        }
+    }
+    
+    /**
+     * 依索引取回任務副本，並以快照內容再次驗證
+     * 索引與主資料並非對讀取端原子更新，因此索引結果需要複查
+     */
+    private void collectTasks(Set<TaskId> ids, List<Task> result, Predicate<Task> recheck) {
+        for (TaskId id : ids) {
+            Task snapshot = tasks.get(id);
+            if (snapshot != null && recheck.test(snapshot)) {
+                result.add(copyOf(snapshot));
+            }
+        }
+    }
+    
+    private void collectTasks(Collection<DueDateEntry> entries, List<Task> result, Predicate<Task> recheck) {
+        for (DueDateEntry entry : entries) {
+            Task snapshot = tasks.get(TaskId.of(entry.taskId()));
+            if (snapshot != null && recheck.test(snapshot)) {
+                result.add(copyOf(snapshot));
+            }
+        }
+    }
+    
+    /**
+     * 建立指定版本的不可變快照
+     */
+    private Task snapshotOf(Task task, long version) {
+        return Task.restoreFromPersistence(
+            task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+            task.getPriority(), task.getDueDate(), task.getCreatedAt(), task.getUpdatedAt(),
+            task.isDeleted(), task.getDeletedAt(), task.getDeletedBy(), version);
+    }
+    
+    /**
+     * 複製快照交給呼叫端，避免呼叫端原地修改已儲存的資料
+     */
+    private Task copyOf(Task snapshot) {
+        return snapshotOf(snapshot, snapshot.getVersion());
+    }
+    
+    /**
+     * 到期日索引項目，依 dueDate 再依 taskId 排序
+     */
+    private record DueDateEntry(LocalDateTime dueDate, String taskId) implements Comparable<DueDateEntry> {
+        
+        static DueDateEntry lowerBound(LocalDateTime dueDate) {
+            return new DueDateEntry(dueDate, "");
+        }
+        
+        @Override
+        public int compareTo(DueDateEntry other) {
+            int byDate = dueDate.compareTo(other.dueDate);
+            return byDate != 0 ? byDate : taskId.compareTo(other.taskId);
+        }
     }
     
     /**
@@ -148,18 +602,17 @@ public class InMemoryTaskRepository implements TaskRepository {
     
     /**
      * 批次查詢任務（用於 domain repository 支援）
+     * 所有 ID 在同一個一致版本上查詢
      */
     public Map<TaskId, Task> findByIds(List<TaskId> taskIds) {
         if (taskIds == null || taskIds.isEmpty()) {
             return new HashMap<>();
         }
         
+        TaskSnapshot snapshot = snapshot();
         Map<TaskId, Task> result = new HashMap<>();
         for (TaskId taskId : taskIds) {
-            Task task = tasks.get(taskId);
-            if (task != null) {
-                result.put(taskId, task);
-            }
+            snapshot.findById(taskId).ifPresent(task -> result.put(taskId, task));
         }
         return result;
     }
@@ -172,29 +625,38 @@ public class InMemoryTaskRepository implements TaskRepository {
             return new HashMap<>();
         }
         
+        TaskSnapshot snapshot = snapshot();
         Map<TaskId, Boolean> result = new HashMap<>();
         for (TaskId taskId : taskIds) {
-            result.put(taskId, tasks.containsKey(taskId));
+            result.put(taskId, snapshot.contains(taskId));
         }
         return result;
     }
     
     /**
      * 使用樂觀鎖更新任務（用於 domain repository 支援）
-     * 注意：此實作簡化了樂觀鎖邏輯，實際生產環境需要更複雜的版本控制
+     * 在 compute 內比對版本號後才替換快照，等同無鎖的 compare-and-set
+     * 
+     * @param task 要更新的任務
+     * @param expectedVersion 期望的版本號，null 表示不檢查
+     * @throws OptimisticLockException 當任務已不存在或版本不符時
      */
     public Task saveWithOptimisticLock(Task task, Long expectedVersion) {
         if (task == null) {
             throw new IllegalArgumentException("Task cannot be null");
         }
         
-        // 簡化版樂觀鎖：實際專案中需要在Task實體中維護version欄位
-        Task existingTask = tasks.get(task.getId());
-        if (existingTask != null && expectedVersion != null) {
-            // 這裡應該檢查版本號，簡化處理
-            // throw new OptimisticLockException("Version conflict");
-        }
-        
-        return save(task);
+        return copyOf(write(() -> tasks.compute(task.getId(), (id, existing) -> {
+            if (existing == null) {
+                throw new OptimisticLockException(
+                    String.format("Task %s no longer exists", id.getValue()));
+            }
+            if (expectedVersion != null && existing.getVersion() != expectedVersion) {
+                throw new OptimisticLockException(String.format(
+                    "Version conflict for task %s: expected %d but was %d",
+                    id.getValue(), expectedVersion, existing.getVersion()));
+            }
+            return replace(existing, task);
+        })));
     }
 }
\ No newline at end of file
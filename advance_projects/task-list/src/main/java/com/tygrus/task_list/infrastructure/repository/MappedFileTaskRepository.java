@@ -0,0 +1,587 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.exception.OptimisticLockException;
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskChange;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.TaskWriteEpochs;
+import com.tygrus.task_list.infrastructure.repository.changefeed.InMemoryTaskChangeFeed;
+import com.tygrus.task_list.infrastructure.repository.counter.TaskWriteEpochCounter;
+import com.tygrus.task_list.infrastructure.repository.mapped.MappedRegion;
+import com.tygrus.task_list.infrastructure.repository.mapped.MappedStringRegion;
+import com.tygrus.task_list.infrastructure.repository.mapped.TaskSlotIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 記憶體映射檔案任務儲存庫
+ *
+ * 任務以固定長度記錄存放在 tasks.rec，標題、描述等變長字串存放在 strings.dat，
+ * 兩者皆透過 MappedByteBuffer 映射，資料常駐於作業系統頁面快取而非 Java 堆積。
+ * 堆積上只保留 ID 雜湊索引與空槽位清單（皆為 int 陣列），啟動時掃描記錄重建。
+ *
+ * 寫入順序為先寫字串與欄位、最後寫入狀態位元組，行程中斷不會留下半筆新記錄；
+ * 主機斷電的保證需呼叫 {@link #flush()}。
+ * 已刪除或被取代的字串不回收，需要時可透過匯出再匯入壓縮。
+ * 變更流只保留在記憶體中，序號在每次開啟時自 1 重新開始。
+ */
+public class MappedFileTaskRepository implements TaskRepository, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedFileTaskRepository.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private static final int MAGIC = 0x5452454B; // "TREK"
+    private static final int FORMAT_VERSION = 1;
+
+    // 記錄與檔頭同為 128 位元組，記錄永遠不跨越區塊
+    private static final int RECORD_SIZE = 128;
+    private static final int HEADER_SIZE = RECORD_SIZE;
+    private static final int HEADER_SLOT_COUNT = 8;
+
+    private static final int OFF_STATE = 0;
+    private static final int OFF_STATUS = 1;
+    private static final int OFF_PRIORITY = 2;
+    private static final int OFF_FLAGS = 3;
+    private static final int OFF_ID_LEN = 4;
+    private static final int OFF_ID = 8;
+    private static final int OFF_TITLE = 16;
+    private static final int OFF_TITLE_LEN = 24;
+    private static final int OFF_DESCRIPTION_LEN = 28;
+    private static final int OFF_DESCRIPTION = 32;
+    private static final int OFF_DELETED_BY = 40;
+    private static final int OFF_DELETED_BY_LEN = 48;
+    private static final int OFF_DUE_NANO = 52;
+    private static final int OFF_DUE_SEC = 56;
+    private static final int OFF_CREATED_SEC = 64;
+    private static final int OFF_CREATED_NANO = 72;
+    private static final int OFF_UPDATED_NANO = 76;
+    private static final int OFF_UPDATED_SEC = 80;
+    private static final int OFF_DELETED_AT_SEC = 88;
+    private static final int OFF_DELETED_AT_NANO = 96;
+    private static final int OFF_VERSION = 104;
+
+    private static final byte STATE_FREE = 0;
+    private static final byte STATE_LIVE = 1;
+
+    private static final int FLAG_DELETED = 1;
+    private static final int FLAG_HAS_DUE = 1 << 1;
+    private static final int FLAG_HAS_CREATED = 1 << 2;
+    private static final int FLAG_HAS_UPDATED = 1 << 3;
+    private static final int FLAG_HAS_DELETED_AT = 1 << 4;
+
+    private static final int NULL_LENGTH = -1;
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final Path directory;
+    private final int chunkSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final InMemoryTaskChangeFeed changeFeed = new InMemoryTaskChangeFeed();
+    private final TaskWriteEpochCounter writeEpochs = new TaskWriteEpochCounter();
+
+    private MappedRegion records;
+    private MappedStringRegion strings;
+    private TaskSlotIndex index;
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+
+    public MappedFileTaskRepository(Path directory) {
+        this(directory, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param directory 資料目錄
+     * @param chunkSize 映射區塊大小，必須是 2 的次方且不小於記錄大小
+     */
+    public MappedFileTaskRepository(Path directory, int chunkSize) {
+        if (Integer.bitCount(chunkSize) != 1 || chunkSize < RECORD_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be a power of two >= " + RECORD_SIZE);
+        }
+        this.directory = directory;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 映射資料檔並重建索引
+     */
+    public void open() throws IOException {
+        long startNanos = System.nanoTime();
+        Files.createDirectories(directory);
+        lock.writeLock().lock();
+        try {
+            records = MappedRegion.open(directory.resolve("tasks.rec"), chunkSize);
+            strings = MappedStringRegion.open(directory.resolve("strings.dat"), chunkSize);
+
+            int magic = records.getInt(0);
+            if (magic == 0) {
+                records.putInt(0, MAGIC);
+                records.putInt(4, FORMAT_VERSION);
+            } else if (magic != MAGIC || records.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Not a task record file: " + directory.resolve("tasks.rec"));
+            }
+            slotCount = records.getInt(HEADER_SLOT_COUNT);
+
+            index = new TaskSlotIndex(slotCount);
+            for (int slot = 0; slot < slotCount; slot++) {
+                long position = positionOf(slot);
+                if (records.get(position + OFF_STATE) == STATE_LIVE) {
+                    index.put(hashOf(readId(position)), slot);
+                } else {
+                    pushFreeSlot(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Mapped {} tasks from {} in {} ms",
+            index.size(), directory, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    @Override
+    public Task save(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        lock.writeLock().lock();
+        try {
+            return write(task, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Task> findById(TaskId taskId) {
+        if (taskId == null) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            int slot = slotOf(taskId, utf8(taskId.getValue()));
+            return slot >= 0 ? Optional.of(readRecord(slot)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(TaskId taskId) {
+        if (taskId == null) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return slotOf(taskId, utf8(taskId.getValue())) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteById(TaskId taskId) {
+        if (taskId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            byte[] idBytes = utf8(taskId.getValue());
+            int slot = slotOf(taskId, idBytes);
+            if (slot >= 0) {
+                Task last = readRecord(slot);
+                records.put(positionOf(slot) + OFF_STATE, STATE_FREE);
+                index.remove(hashOf(idBytes), slot);
+                pushFreeSlot(slot);
+                changeFeed.publish(TaskChange.Type.DELETED, last);
+                writeEpochs.advance(last, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> findAll() {
+        lock.readLock().lock();
+        try {
+            List<Task> result = new ArrayList<>(index.size());
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (records.get(positionOf(slot) + OFF_STATE) == STATE_LIVE) {
+                    result.add(readRecord(slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 依槽位順序逐筆讀取，每筆只在讀取當下短暫持有讀鎖
+     * reader 內可以呼叫寫入方法；走訪期間的並行寫入可能可見也可能不可見
+     */
+    @Override
+    public <R> R streamAll(Function<? super Stream<Task>, ? extends R> reader) {
+        int slotLimit;
+        lock.readLock().lock();
+        try {
+            slotLimit = slotCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+        try (Stream<Task> stream = IntStream.range(0, slotLimit)
+                .mapToObj(this::readIfLive)
+                .filter(Objects::nonNull)) {
+            return reader.apply(stream);
+        }
+    }
+
+    @Override
+    public Map<TaskId, Task> findByIds(List<TaskId> taskIds) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        lock.readLock().lock();
+        try {
+            Map<TaskId, Task> result = new HashMap<>();
+            for (TaskId taskId : taskIds) {
+                if (taskId == null) {
+                    continue;
+                }
+                int slot = slotOf(taskId, utf8(taskId.getValue()));
+                if (slot >= 0) {
+                    result.put(taskId, readRecord(slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        if (tasks == null || tasks.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // 整批只取一次寫鎖
+        lock.writeLock().lock();
+        try {
+            List<Task> savedTasks = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                if (task != null) {
+                    savedTasks.add(write(task, null));
+                }
+            }
+            return savedTasks;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<TaskId, Boolean> existsByIds(List<TaskId> taskIds) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        lock.readLock().lock();
+        try {
+            Map<TaskId, Boolean> result = new HashMap<>();
+            for (TaskId taskId : taskIds) {
+                if (taskId != null) {
+                    result.put(taskId, slotOf(taskId, utf8(taskId.getValue())) >= 0);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Task saveWithOptimisticLock(Task task, Long expectedVersion) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        lock.writeLock().lock();
+        try {
+            return write(task, expectedVersion != null ? expectedVersion : Long.MIN_VALUE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public TaskChangeFeed changeFeed() {
+        return changeFeed;
+    }
+
+    /**
+     * 寫入世代，與變更流相同只保留在記憶體中，在寫鎖內寫入完成後推進
+     */
+    @Override
+    public TaskWriteEpochs writeEpochs() {
+        return writeEpochs;
+    }
+
+    /**
+     * 儲存的任務數
+     */
+    public int count() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 將映射頁面強制寫回磁碟
+     */
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            strings.force();
+            records.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (strings != null) {
+                strings.close();
+            }
+            if (records != null) {
+                records.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 寫入任務記錄，需持有寫鎖
+     *
+     * @param expectedVersion null 表示一般儲存；Long.MIN_VALUE 表示只要求任務存在
+     */
+    private Task write(Task task, Long expectedVersion) {
+        TaskId taskId = task.getId();
+        byte[] idBytes = utf8(taskId.getValue());
+        int slot = slotOf(taskId, idBytes);
+
+        if (expectedVersion != null) {
+            if (slot < 0) {
+                throw new OptimisticLockException(
+                    String.format("Task %s no longer exists", taskId.getValue()));
+            }
+            long currentVersion = records.getLong(positionOf(slot) + OFF_VERSION);
+            if (expectedVersion != Long.MIN_VALUE && currentVersion != expectedVersion) {
+                throw new OptimisticLockException(String.format(
+                    "Version conflict for task %s: expected %d but was %d",
+                    taskId.getValue(), expectedVersion, currentVersion));
+            }
+        }
+
+        try {
+            if (slot >= 0) {
+                long position = positionOf(slot);
+                long nextVersion = records.getLong(position + OFF_VERSION) + 1;
+                boolean wasDeleted = (records.get(position + OFF_FLAGS) & FLAG_DELETED) != 0;
+                TaskStatus previousStatus = STATUSES[records.get(position + OFF_STATUS)];
+                writeFields(position, task, nextVersion, true);
+                changeFeed.publish(task.isDeleted() && !wasDeleted ? TaskChange.Type.DELETED : TaskChange.Type.UPDATED,
+                    snapshotOf(task, nextVersion));
+                writeEpochs.advance(previousStatus, task.getStatus());
+                return snapshotOf(task, nextVersion);
+            }
+
+            slot = allocateSlot();
+            long position = positionOf(slot);
+            records.putInt(position + OFF_ID_LEN, idBytes.length);
+            records.putLong(position + OFF_ID, strings.append(idBytes));
+            writeFields(position, task, 0L, false);
+            // 狀態位元組最後寫入，之前的欄位才對重建索引可見
+            records.put(position + OFF_STATE, STATE_LIVE);
+            index.put(hashOf(idBytes), slot);
+            changeFeed.publish(TaskChange.typeOf(null, task), snapshotOf(task, 0L));
+            writeEpochs.advance(null, task.getStatus());
+            return snapshotOf(task, 0L);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write task " + taskId.getValue(), e);
+        }
+    }
+
+    private void writeFields(long position, Task task, long version, boolean existing) throws IOException {
+        writeString(position, OFF_TITLE, OFF_TITLE_LEN, task.getTitle(), existing);
+        writeString(position, OFF_DESCRIPTION, OFF_DESCRIPTION_LEN, task.getDescription(), existing);
+        writeString(position, OFF_DELETED_BY, OFF_DELETED_BY_LEN, task.getDeletedBy(), existing);
+
+        int flags = task.isDeleted() ? FLAG_DELETED : 0;
+        flags |= writeTime(position, OFF_DUE_SEC, OFF_DUE_NANO, task.getDueDate(), FLAG_HAS_DUE);
+        flags |= writeTime(position, OFF_CREATED_SEC, OFF_CREATED_NANO, task.getCreatedAt(), FLAG_HAS_CREATED);
+        flags |= writeTime(position, OFF_UPDATED_SEC, OFF_UPDATED_NANO, task.getUpdatedAt(), FLAG_HAS_UPDATED);
+        flags |= writeTime(position, OFF_DELETED_AT_SEC, OFF_DELETED_AT_NANO, task.getDeletedAt(), FLAG_HAS_DELETED_AT);
+
+        records.put(position + OFF_STATUS, (byte) task.getStatus().ordinal());
+        records.put(position + OFF_PRIORITY, (byte) task.getPriority().ordinal());
+        records.put(position + OFF_FLAGS, (byte) flags);
+        records.putLong(position + OFF_VERSION, version);
+    }
+
+    /**
+     * 寫入字串參照；內容未變時沿用原本的字串，避免字串區無謂成長
+     */
+    private void writeString(long position, int refOffset, int lengthOffset, String value,
+                             boolean existing) throws IOException {
+        if (value == null) {
+            records.putInt(position + lengthOffset, NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = utf8(value);
+        if (existing) {
+            int currentLength = records.getInt(position + lengthOffset);
+            if (currentLength != NULL_LENGTH
+                    && strings.contentEquals(records.getLong(position + refOffset), currentLength, bytes)) {
+                return;
+            }
+        }
+        records.putLong(position + refOffset, strings.append(bytes));
+        records.putInt(position + lengthOffset, bytes.length);
+    }
+
+    private int writeTime(long position, int secondsOffset, int nanosOffset, LocalDateTime value, int flag) {
+        if (value == null) {
+            return 0;
+        }
+        records.putLong(position + secondsOffset, value.toEpochSecond(ZoneOffset.UTC));
+        records.putInt(position + nanosOffset, value.getNano());
+        return flag;
+    }
+
+    private Task readRecord(int slot) {
+        long position = positionOf(slot);
+        int flags = records.get(position + OFF_FLAGS);
+        return Task.restoreFromPersistence(
+            TaskId.of(readId(position)),
+            readString(position, OFF_TITLE, OFF_TITLE_LEN),
+            readString(position, OFF_DESCRIPTION, OFF_DESCRIPTION_LEN),
+            STATUSES[records.get(position + OFF_STATUS)],
+            PRIORITIES[records.get(position + OFF_PRIORITY)],
+            readTime(position, OFF_DUE_SEC, OFF_DUE_NANO, flags, FLAG_HAS_DUE),
+            readTime(position, OFF_CREATED_SEC, OFF_CREATED_NANO, flags, FLAG_HAS_CREATED),
+            readTime(position, OFF_UPDATED_SEC, OFF_UPDATED_NANO, flags, FLAG_HAS_UPDATED),
+            (flags & FLAG_DELETED) != 0,
+            readTime(position, OFF_DELETED_AT_SEC, OFF_DELETED_AT_NANO, flags, FLAG_HAS_DELETED_AT),
+            readString(position, OFF_DELETED_BY, OFF_DELETED_BY_LEN),
+            records.getLong(position + OFF_VERSION));
+    }
+
+    private static Task snapshotOf(Task task, long version) {
+        return Task.restoreFromPersistence(task.getId(), task.getTitle(), task.getDescription(),
+            task.getStatus(), task.getPriority(), task.getDueDate(), task.getCreatedAt(),
+            task.getUpdatedAt(), task.isDeleted(), task.getDeletedAt(), task.getDeletedBy(), version);
+    }
+
+    private Task readIfLive(int slot) {
+        lock.readLock().lock();
+        try {
+            return records.get(positionOf(slot) + OFF_STATE) == STATE_LIVE ? readRecord(slot) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private String readId(long position) {
+        return strings.read(records.getLong(position + OFF_ID), records.getInt(position + OFF_ID_LEN));
+    }
+
+    private String readString(long position, int refOffset, int lengthOffset) {
+        int length = records.getInt(position + lengthOffset);
+        return length == NULL_LENGTH ? null : strings.read(records.getLong(position + refOffset), length);
+    }
+
+    private LocalDateTime readTime(long position, int secondsOffset, int nanosOffset, int flags, int flag) {
+        if ((flags & flag) == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(records.getLong(position + secondsOffset),
+            records.getInt(position + nanosOffset), ZoneOffset.UTC);
+    }
+
+    private int slotOf(TaskId taskId, byte[] idBytes) {
+        return index.find(hashOf(idBytes), slot -> {
+            long position = positionOf(slot);
+            return strings.contentEquals(records.getLong(position + OFF_ID),
+                records.getInt(position + OFF_ID_LEN), idBytes);
+        });
+    }
+
+    private int allocateSlot() throws IOException {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        int slot = slotCount;
+        records.ensureCapacity(positionOf(slot) + RECORD_SIZE);
+        slotCount++;
+        records.putInt(HEADER_SLOT_COUNT, slotCount);
+        return slot;
+    }
+
+    private void pushFreeSlot(int slot) {
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private static long positionOf(int slot) {
+        return HEADER_SIZE + (long) slot * RECORD_SIZE;
+    }
+
+    private static int hashOf(String id) {
+        return hashOf(utf8(id));
+    }
+
+    private static int hashOf(byte[] idBytes) {
+        // 索引以低位元定址，先乘黃金比例常數再折疊高位元
+        int hash = Arrays.hashCode(idBytes) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,323 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * TaskId 到不可變任務快照的持久化映射（hash array mapped trie）
+ *
+ * 每層以雜湊值的 5 個位元選擇 32 路分支，節點只存放實際存在的分支。
+ * put 與 remove 不修改原映射，只複製根到目標葉的路徑（至多 7 個節點），其餘節點與新版本共用；
+ * 舊版本在沒有任何引用後由 GC 回收。雜湊值完全相同的鍵放在同一個碰撞節點內線性比對。
+ */
+final class PersistentTaskMap {
+
+    static final PersistentTaskMap EMPTY = new PersistentTaskMap(null, 0);
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final Node root;
+    private final int size;
+
+    private PersistentTaskMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    Task get(TaskId taskId) {
+        return root != null ? root.get(0, taskId.hashCode(), taskId) : null;
+    }
+
+    PersistentTaskMap put(TaskId taskId, Task task) {
+        boolean[] added = new boolean[1];
+        Node base = root != null ? root : BitmapNode.EMPTY;
+        Node updated = base.put(0, taskId.hashCode(), taskId, task, added);
+        if (updated == root) {
+            return this;
+        }
+        return new PersistentTaskMap(updated, added[0] ? size + 1 : size);
+    }
+
+    PersistentTaskMap remove(TaskId taskId) {
+        if (root == null) {
+            return this;
+        }
+        Node updated = root.remove(0, taskId.hashCode(), taskId);
+        return updated == root ? this : new PersistentTaskMap(updated, size - 1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 依雜湊順序走訪所有快照，走訪的是建立串流當下的版本
+     */
+    Stream<Task> values() {
+        Spliterator<Task> spliterator = Spliterators.spliterator(new ValueIterator(root), size,
+            Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.DISTINCT);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private static int index(int hash, int shift) {
+        return (hash >>> shift) & MASK;
+    }
+
+    /**
+     * 節點內容以成對的 (鍵, 值) 存放；鍵為 null 時值為子節點
+     */
+    private abstract static class Node {
+
+        final Object[] array;
+
+        Node(Object[] array) {
+            this.array = array;
+        }
+
+        abstract Task get(int shift, int hash, TaskId key);
+
+        abstract Node put(int shift, int hash, TaskId key, Task value, boolean[] added);
+
+        /**
+         * @return 移除後的節點，鍵不存在時返回自己，節點變空時返回 null
+         */
+        abstract Node remove(int shift, int hash, TaskId key);
+    }
+
+    private static final class BitmapNode extends Node {
+
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+
+        BitmapNode(int bitmap, Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        @Override
+        Task get(int shift, int hash, TaskId key) {
+            int bit = 1 << index(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int slot = 2 * Integer.bitCount(bitmap & (bit - 1));
+            Object existingKey = array[slot];
+            Object existingValue = array[slot + 1];
+            if (existingKey == null) {
+                return ((Node) existingValue).get(shift + BITS, hash, key);
+            }
+            return key.equals(existingKey) ? (Task) existingValue : null;
+        }
+
+        @Override
+        Node put(int shift, int hash, TaskId key, Task value, boolean[] added) {
+            int bit = 1 << index(hash, shift);
+            int slot = 2 * Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] inserted = new Object[array.length + 2];
+                System.arraycopy(array, 0, inserted, 0, slot);
+                inserted[slot] = key;
+                inserted[slot + 1] = value;
+                System.arraycopy(array, slot, inserted, slot + 2, array.length - slot);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, inserted);
+            }
+            Object existingKey = array[slot];
+            Object existingValue = array[slot + 1];
+            if (existingKey == null) {
+                Node child = (Node) existingValue;
+                Node updated = child.put(shift + BITS, hash, key, value, added);
+                return updated == child ? this : with(slot, null, updated);
+            }
+            if (key.equals(existingKey)) {
+                return existingValue == value ? this : with(slot, existingKey, value);
+            }
+            added[0] = true;
+            Node split = split(shift + BITS, (TaskId) existingKey, (Task) existingValue, hash, key, value);
+            return with(slot, null, split);
+        }
+
+        @Override
+        Node remove(int shift, int hash, TaskId key) {
+            int bit = 1 << index(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int slot = 2 * Integer.bitCount(bitmap & (bit - 1));
+            Object existingKey = array[slot];
+            Object existingValue = array[slot + 1];
+            if (existingKey == null) {
+                Node child = (Node) existingValue;
+                Node updated = child.remove(shift + BITS, hash, key);
+                if (updated == child) {
+                    return this;
+                }
+                return updated != null ? with(slot, null, updated) : without(bit, slot);
+            }
+            return key.equals(existingKey) ? without(bit, slot) : this;
+        }
+
+        private BitmapNode with(int slot, Object key, Object value) {
+            Object[] copy = array.clone();
+            copy[slot] = key;
+            copy[slot + 1] = value;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        private BitmapNode without(int bit, int slot) {
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] removed = new Object[array.length - 2];
+            System.arraycopy(array, 0, removed, 0, slot);
+            System.arraycopy(array, slot + 2, removed, slot, array.length - slot - 2);
+            return new BitmapNode(bitmap & ~bit, removed);
+        }
+
+        /**
+         * 原本佔同一個分支的兩個鍵下推到新的子節點
+         */
+        private static Node split(int shift, TaskId key1, Task value1, int hash2, TaskId key2, Task value2) {
+            int hash1 = key1.hashCode();
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+            }
+            boolean[] ignored = new boolean[1];
+            return EMPTY.put(shift, hash1, key1, value1, ignored).put(shift, hash2, key2, value2, ignored);
+        }
+    }
+
+    private static final class CollisionNode extends Node {
+
+        private final int hash;
+
+        CollisionNode(int hash, Object[] array) {
+            super(array);
+            this.hash = hash;
+        }
+
+        @Override
+        Task get(int shift, int hash, TaskId key) {
+            int slot = find(key);
+            return slot >= 0 ? (Task) array[slot + 1] : null;
+        }
+
+        @Override
+        Node put(int shift, int hash, TaskId key, Task value, boolean[] added) {
+            if (hash != this.hash) {
+                // 雜湊前綴相同但完整雜湊不同的鍵：以點陣節點包住碰撞節點後再插入
+                return new BitmapNode(1 << index(this.hash, shift), new Object[] {null, this})
+                    .put(shift, hash, key, value, added);
+            }
+            int slot = find(key);
+            if (slot >= 0) {
+                if (array[slot + 1] == value) {
+                    return this;
+                }
+                Object[] copy = array.clone();
+                copy[slot + 1] = value;
+                return new CollisionNode(hash, copy);
+            }
+            Object[] appended = Arrays.copyOf(array, array.length + 2);
+            appended[array.length] = key;
+            appended[array.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode(hash, appended);
+        }
+
+        @Override
+        Node remove(int shift, int hash, TaskId key) {
+            int slot = find(key);
+            if (slot < 0) {
+                return this;
+            }
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] removed = new Object[array.length - 2];
+            System.arraycopy(array, 0, removed, 0, slot);
+            System.arraycopy(array, slot + 2, removed, slot, array.length - slot - 2);
+            return new CollisionNode(hash, removed);
+        }
+
+        private int find(TaskId key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 以顯式堆疊深度優先走訪，不建立中間集合
+     */
+    private static final class ValueIterator implements Iterator<Task> {
+
+        private Object[][] arrays = new Object[8][];
+        private int[] cursors = new int[8];
+        private int depth = -1;
+        private Task next;
+
+        ValueIterator(Node root) {
+            if (root != null) {
+                push(root.array);
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Task next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Task current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int cursor = cursors[depth];
+                if (cursor >= array.length) {
+                    arrays[depth--] = null;
+                    continue;
+                }
+                cursors[depth] = cursor + 2;
+                if (array[cursor] == null) {
+                    push(((Node) array[cursor + 1]).array);
+                } else {
+                    next = (Task) array[cursor + 1];
+                    return;
+                }
+            }
+            next = null;
+        }
+
+        private void push(Object[] array) {
+            if (++depth == arrays.length) {
+                arrays = Arrays.copyOf(arrays, depth * 2);
+                cursors = Arrays.copyOf(cursors, depth * 2);
+            }
+            arrays[depth] = array;
+            cursors[depth] = 0;
+        }
+    }
+}
@@ -0,0 +1,501 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskChange;
+import com.tygrus.task_list.domain.model.TaskColumns;
+import com.tygrus.task_list.domain.model.TaskCounts;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
+import com.tygrus.task_list.domain.repository.TaskQuery;
+import com.tygrus.task_list.domain.repository.TaskQueryResult;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.TaskWriteEpochs;
+import com.tygrus.task_list.infrastructure.repository.changefeed.InMemoryTaskChangeFeed;
+import com.tygrus.task_list.infrastructure.repository.sharding.ConsistentHashRing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 雜湊分片任務儲存庫
+ *
+ * 以一致性雜湊將每個 TaskId 路由到其中一個分片，分片可以是任何 domain TaskRepository
+ * （通常為 {@link com.tygrus.task_list.infrastructure.persistence.sharding.PostgreSQLTaskShard} 建立、
+ * 各自連到獨立資料來源與交易管理器的 PostgreSQLTaskRepository，由 TaskShardingConfig 組裝）。
+ * 單筆操作只觸及擁有者分片；跨分片操作（findAll、findByIds、saveAll、existsByIds）
+ * 先依擁有者分組，每個分片以一次批次呼叫處理自己的部分，各分片並行執行後再合併。
+ *
+ * 透過 {@link #addShard} 加入分片後立即切換到新的雜湊環，並在背景搬移擁有者改變的任務。
+ * 搬移期間讀取先查新擁有者、找不到再查舊擁有者；寫入先在同一把分段鎖內把任務搬到新擁有者再寫入，
+ * 因此不會有舊資料覆蓋新資料。搬移以新增方式寫入新分片，版本號會重新起算，
+ * 持有舊版本號的樂觀鎖更新會得到一次版本衝突。
+ *
+ * 變更流由路由層發布而非合併各分片的變更流，搬移造成的新增與移除不會出現在變更流中。
+ * 寫入與發布在同一把分段鎖內完成，同一任務的變更序號與寫入順序一致；
+ * 變更類型依寫入結果判斷：版本號為 0 視為新增，已軟刪除的任務視為刪除。
+ */
+public class ShardedTaskRepository implements TaskRepository, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedTaskRepository.class);
+
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private static final int MOVE_LOCK_STRIPES = 256;
+
+    private final ExecutorService executor;
+    private final ReentrantLock[] moveLocks = new ReentrantLock[MOVE_LOCK_STRIPES];
+    private final InMemoryTaskChangeFeed changeFeed = new InMemoryTaskChangeFeed();
+
+    private volatile ConsistentHashRing<TaskRepository> ring;
+    // 背景搬移期間保存加入分片前的環，搬移完成後為 null
+    private volatile ConsistentHashRing<TaskRepository> previousRing;
+
+    public ShardedTaskRepository(Map<String, TaskRepository> shards) {
+        this(shards, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ShardedTaskRepository(Map<String, TaskRepository> shards, int virtualNodes) {
+        this.ring = new ConsistentHashRing<>(shards, virtualNodes);
+        for (int i = 0; i < MOVE_LOCK_STRIPES; i++) {
+            moveLocks[i] = new ReentrantLock();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "task-shard-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Task save(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        return write(task.getId(), shard -> shard.save(task));
+    }
+
+    @Override
+    public Optional<Task> findById(TaskId taskId) {
+        if (taskId == null) {
+            return Optional.empty();
+        }
+        ConsistentHashRing<TaskRepository> previous = previousRing;
+        TaskRepository owner = ring.route(taskId.getValue());
+        Optional<Task> task = owner.findById(taskId);
+        if (task.isEmpty() && previous != null) {
+            TaskRepository previousOwner = previous.route(taskId.getValue());
+            if (previousOwner != owner) {
+                // 兩次查詢之間可能剛好被搬走，舊分片也找不到時再查一次新擁有者
+                Optional<Task> moving = previousOwner.findById(taskId);
+                return moving.isPresent() ? moving : owner.findById(taskId);
+            }
+        }
+        return task;
+    }
+
+    @Override
+    public boolean existsById(TaskId taskId) {
+        return findOwner(taskId).existsById(taskId);
+    }
+
+    @Override
+    public void deleteById(TaskId taskId) {
+        write(taskId, shard -> {
+            Optional<Task> last = shard.findById(taskId);
+            shard.deleteById(taskId);
+            last.ifPresent(task -> changeFeed.publish(TaskChange.Type.DELETED, task));
+            return null;
+        });
+    }
+
+    @Override
+    public Task saveWithOptimisticLock(Task task, Long expectedVersion) {
+        return write(task.getId(), shard -> shard.saveWithOptimisticLock(task, expectedVersion));
+    }
+
+    /**
+     * 各分片並行查詢後合併
+     * 搬移期間同一任務可能短暫存在於兩個分片，以擁有者的版本為準
+     */
+    @Override
+    public List<Task> findAll() {
+        ConsistentHashRing<TaskRepository> current = ring;
+        ConsistentHashRing<TaskRepository> previous = previousRing;
+        List<TaskRepository> shards = new ArrayList<>(current.nodes());
+        List<List<Task>> results = scatter(shards, TaskRepository::findAll);
+
+        if (previous == null) {
+            return results.stream().flatMap(List::stream).collect(Collectors.toList());
+        }
+        Map<TaskId, Task> merged = new LinkedHashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            for (Task task : results.get(i)) {
+                if (current.route(task.getId().getValue()) == shards.get(i)) {
+                    merged.put(task.getId(), task);
+                }
+            }
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            for (Task task : results.get(i)) {
+                if (previous.route(task.getId().getValue()) == shards.get(i)) {
+                    merged.putIfAbsent(task.getId(), task);
+                }
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * 各分片的計數相加
+     * 搬移期間同一任務可能同時計入兩個分片，改以合併後的 findAll 計數
+     */
+    @Override
+    public TaskCounts counts() {
+        if (previousRing != null) {
+            return TaskCounts.of(TaskColumns.of(findAll()));
+        }
+        List<TaskCounts> results = scatter(new ArrayList<>(ring.nodes()), TaskRepository::counts);
+        long[] statusCounts = new long[TaskStatus.values().length];
+        long[] priorityCounts = new long[Priority.values().length];
+        for (TaskCounts counts : results) {
+            for (TaskStatus status : TaskStatus.values()) {
+                statusCounts[status.ordinal()] += counts.countOf(status);
+            }
+            for (Priority priority : Priority.values()) {
+                priorityCounts[priority.ordinal()] += counts.countOf(priority);
+            }
+        }
+        return TaskCounts.of(statusCounts, priorityCounts);
+    }
+
+    /**
+     * 各分片並行執行只取前 offset + limit 筆的相同查詢，依查詢的排序合併後再取該頁
+     * 總筆數為各分片計數的和；搬移期間同一任務可能存在於兩個分片，改在合併後的 findAll 上求值
+     */
+    @Override
+    public TaskQueryResult query(TaskQuery query) {
+        if (previousRing != null) {
+            return query.select(findAll().stream());
+        }
+        TaskQuery firstRows = query.firstRows();
+        List<TaskQueryResult> results = scatter(new ArrayList<>(ring.nodes()), shard -> shard.query(firstRows));
+
+        List<Task> merged = new ArrayList<>();
+        long total = 0;
+        for (TaskQueryResult result : results) {
+            merged.addAll(result.tasks());
+            total += result.totalMatches();
+        }
+        merged.sort(query.comparator());
+        List<Task> page = merged.subList(Math.min(query.offset(), merged.size()),
+            (int) Math.min((long) query.offset() + query.limit(), merged.size()));
+        return new TaskQueryResult(page, query.countTotal() ? total : TaskQueryResult.UNKNOWN_TOTAL);
+    }
+
+    @Override
+    public Map<TaskId, Task> findByIds(List<TaskId> taskIds) {
+        Map<TaskId, Task> found = new HashMap<>();
+        for (Map<TaskId, Task> partial : scatterByOwner(ring, taskIds, TaskRepository::findByIds)) {
+            found.putAll(partial);
+        }
+
+        ConsistentHashRing<TaskRepository> previous = previousRing;
+        if (previous != null) {
+            List<TaskId> missing = taskIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .collect(Collectors.toList());
+            if (!missing.isEmpty()) {
+                for (Map<TaskId, Task> partial : scatterByOwner(previous, missing, TaskRepository::findByIds)) {
+                    partial.forEach(found::putIfAbsent);
+                }
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Map<TaskId, Boolean> existsByIds(List<TaskId> taskIds) {
+        Map<TaskId, Boolean> result = new HashMap<>();
+        for (Map<TaskId, Boolean> partial : scatterByOwner(ring, taskIds, TaskRepository::existsByIds)) {
+            result.putAll(partial);
+        }
+
+        ConsistentHashRing<TaskRepository> previous = previousRing;
+        if (previous != null) {
+            List<TaskId> missing = taskIds.stream()
+                .filter(id -> !Boolean.TRUE.equals(result.get(id)))
+                .collect(Collectors.toList());
+            if (!missing.isEmpty()) {
+                for (Map<TaskId, Boolean> partial : scatterByOwner(previous, missing, TaskRepository::existsByIds)) {
+                    partial.forEach((id, exists) -> result.merge(id, exists, Boolean::logicalOr));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 依擁有者分組後各分片並行 saveAll，回傳順序與輸入一致
+     * 搬移期間改為逐筆寫入，以便每筆都先完成搬移
+     * 依分段序號遞增取得涉及的分段鎖，與逐筆寫入互斥且不會死結
+     */
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        if (previousRing != null) {
+            return tasks.stream().map(this::save).collect(Collectors.toList());
+        }
+
+        TreeSet<Integer> stripes = new TreeSet<>();
+        tasks.forEach(task -> stripes.add(stripeOf(task.getId())));
+        List<ReentrantLock> held = new ArrayList<>(stripes.size());
+        try {
+            for (int stripe : stripes) {
+                moveLocks[stripe].lock();
+                held.add(moveLocks[stripe]);
+            }
+
+            Map<TaskRepository, List<Task>> groups = new IdentityHashMap<>();
+            for (Task task : tasks) {
+                groups.computeIfAbsent(ring.route(task.getId().getValue()), shard -> new ArrayList<>()).add(task);
+            }
+            List<TaskRepository> shards = new ArrayList<>(groups.keySet());
+            List<List<Task>> results = scatter(shards, shard -> shard.saveAll(groups.get(shard)));
+
+            Map<TaskId, Task> saved = new HashMap<>();
+            results.forEach(partial -> partial.forEach(task -> saved.put(task.getId(), publish(task))));
+            return tasks.stream().map(task -> saved.get(task.getId())).collect(Collectors.toList());
+        } finally {
+            held.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    @Override
+    public TaskChangeFeed changeFeed() {
+        return changeFeed;
+    }
+
+    /**
+     * 各分片寫入世代的和
+     * 分片只會加入不會移除，加入後和只增不減；搬移在新舊分片上的寫入同樣推進世代
+     */
+    @Override
+    public TaskWriteEpochs writeEpochs() {
+        return TaskWriteEpochs.sumOf(ring.nodes().stream().map(TaskRepository::writeEpochs).toList());
+    }
+
+    /**
+     * 加入分片並在背景搬移擁有者改變的任務
+     * 呼叫返回時新的雜湊環已生效；搬移完成前不可再加入分片
+     *
+     * @param name 分片名稱，決定其在雜湊環上的位置，需保持穩定
+     * @param shard 新分片
+     * @return 搬移完成時完成的 future，值為搬移的任務數
+     */
+    public synchronized CompletableFuture<Long> addShard(String name, TaskRepository shard) {
+        if (previousRing != null) {
+            throw new IllegalStateException("Rebalancing is already in progress");
+        }
+        ConsistentHashRing<TaskRepository> previous = ring;
+        previousRing = previous;
+        ring = previous.withNode(name, shard);
+        logger.info("Added shard {}, rebalancing {} existing shards in background", name, previous.nodes().size());
+
+        return CompletableFuture.supplyAsync(() -> rebalance(previous), executor)
+            .whenComplete((moved, error) -> {
+                synchronized (this) {
+                    previousRing = null;
+                }
+                if (error != null) {
+                    logger.error("Rebalancing after adding shard {} failed", name, error);
+                } else {
+                    logger.info("Rebalancing after adding shard {} moved {} tasks", name, moved);
+                }
+            });
+    }
+
+    /**
+     * 是否正在背景搬移
+     */
+    public boolean isRebalancing() {
+        return previousRing != null;
+    }
+
+    public int shardCount() {
+        return ring.nodes().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long rebalance(ConsistentHashRing<TaskRepository> previous) {
+        ConsistentHashRing<TaskRepository> current = ring;
+        long moved = 0;
+        for (TaskRepository source : previous.nodes()) {
+            // 先收集要搬移的 ID 再搬，避免在分片的讀取游標開啟期間寫入同一分片
+            List<TaskId> leaving = source.streamAll(tasks -> tasks
+                .map(Task::getId)
+                .filter(id -> current.route(id.getValue()) != source)
+                .collect(Collectors.toList()));
+            for (TaskId taskId : leaving) {
+                ReentrantLock lock = moveLockFor(taskId);
+                lock.lock();
+                try {
+                    if (migrate(taskId, source, current.route(taskId.getValue()))) {
+                        moved++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * 將任務由舊擁有者搬到新擁有者，呼叫端須持有該任務的分段鎖
+     * 新擁有者已有該任務時（搬移期間已被寫入）只移除舊副本
+     */
+    private static boolean migrate(TaskId taskId, TaskRepository from, TaskRepository to) {
+        Optional<Task> task = from.findById(taskId);
+        if (task.isEmpty()) {
+            return false;
+        }
+        if (!to.existsById(taskId)) {
+            to.save(task.get());
+        }
+        from.deleteById(taskId);
+        return true;
+    }
+
+    /**
+     * 單筆寫入：在分段鎖內寫入，結果為 Task 時一併發布變更；搬移期間先完成該任務的搬移，再寫入新擁有者
+     */
+    private <R> R write(TaskId taskId, Function<TaskRepository, R> operation) {
+        ReentrantLock lock = moveLockFor(taskId);
+        lock.lock();
+        try {
+            ConsistentHashRing<TaskRepository> previous = previousRing;
+            TaskRepository owner = ring.route(taskId.getValue());
+            if (previous != null) {
+                TaskRepository previousOwner = previous.route(taskId.getValue());
+                if (previousOwner != owner) {
+                    migrate(taskId, previousOwner, owner);
+                }
+            }
+            R result = operation.apply(owner);
+            if (result instanceof Task saved) {
+                publish(saved);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 發布寫入結果的副本，呼叫端修改回傳的 Task 不影響變更流內容
+     */
+    private Task publish(Task saved) {
+        TaskChange.Type type;
+        if (saved.isDeleted()) {
+            type = TaskChange.Type.DELETED;
+        } else {
+            type = saved.getVersion() == 0L ? TaskChange.Type.INSERTED : TaskChange.Type.UPDATED;
+        }
+        changeFeed.publish(type, Task.restoreFromPersistence(
+            saved.getId(), saved.getTitle(), saved.getDescription(), saved.getStatus(),
+            saved.getPriority(), saved.getDueDate(), saved.getCreatedAt(), saved.getUpdatedAt(),
+            saved.isDeleted(), saved.getDeletedAt(), saved.getDeletedBy(), saved.getVersion()));
+        return saved;
+    }
+
+    private TaskRepository findOwner(TaskId taskId) {
+        ConsistentHashRing<TaskRepository> previous = previousRing;
+        TaskRepository owner = ring.route(taskId.getValue());
+        if (previous != null && !owner.existsById(taskId)) {
+            return previous.route(taskId.getValue());
+        }
+        return owner;
+    }
+
+    private ReentrantLock moveLockFor(TaskId taskId) {
+        return moveLocks[stripeOf(taskId)];
+    }
+
+    private static int stripeOf(TaskId taskId) {
+        return Math.floorMod(taskId.getValue().hashCode(), MOVE_LOCK_STRIPES);
+    }
+
+    /**
+     * 依擁有者將 ID 分組，每個分片以一次批次呼叫處理自己的 ID
+     */
+    private <R> List<R> scatterByOwner(ConsistentHashRing<TaskRepository> targetRing, List<TaskId> taskIds,
+                                       BiFunction<TaskRepository, List<TaskId>, R> call) {
+        Map<TaskRepository, List<TaskId>> groups = new IdentityHashMap<>();
+        for (TaskId taskId : taskIds) {
+            groups.computeIfAbsent(targetRing.route(taskId.getValue()), shard -> new ArrayList<>()).add(taskId);
+        }
+        List<TaskRepository> shards = new ArrayList<>(groups.keySet());
+        return scatter(shards, shard -> call.apply(shard, groups.get(shard)));
+    }
+
+    /**
+     * 對多個分片並行呼叫並依分片順序收集結果；只有一個分片時直接在呼叫端執行緒執行
+     */
+    private <R> List<R> scatter(Collection<TaskRepository> shards, Function<TaskRepository, R> call) {
+        if (shards.size() == 1) {
+            return List.of(call.apply(shards.iterator().next()));
+        }
+        List<CompletableFuture<R>> futures = new ArrayList<>(shards.size());
+        for (TaskRepository shard : shards) {
+            Supplier<R> supplier = () -> call.apply(shard);
+            futures.add(CompletableFuture.supplyAsync(supplier, executor));
+        }
+        List<R> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<R> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+}
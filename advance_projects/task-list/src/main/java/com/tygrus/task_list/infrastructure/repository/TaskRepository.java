@@ -7,6 +7,8 @@ import com.tygrus.task_list.domain.model.TaskStatus;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * 任務儲存庫介面
@@ -18,7 +20,7 @@ public interface TaskRepository {
      * 儲存任務
      * 
      * @param task 要儲存的任務
-     * @return 儲存後的任務
+     * @return 儲存後的任務，包含新的版本號；實作可能回傳副本而不更新傳入的物件
      */
     Task save(Task task);
     
@@ -33,10 +35,20 @@ public interface TaskRepository {
     /**
      * 查找所有任務
      * 
-     * @return 所有任務列表
+     * @return 所有任務列表，呼叫端可修改
      */
     List<Task> findAll();
     
+    /**
+     * 以串流逐筆讀取所有任務，串流只在 reader 執行期間有效
+     * 
+     * @param reader 消費串流並產生結果的函式
+     * @return reader 的結果
+     */
+    default <R> R streamAll(Function<? super Stream<Task>, ? extends R> reader) {
+        return reader.apply(findAll().stream());
+    }
+    
     /**
      * 根據狀態查找任務
      * 
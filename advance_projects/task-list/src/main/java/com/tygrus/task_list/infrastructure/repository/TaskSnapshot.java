@@ -0,0 +1,102 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskColumns;
+import com.tygrus.task_list.domain.model.TaskId;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * InMemoryTaskRepository 某一時間點的一致版本
+ *
+ * 由 {@link InMemoryTaskRepository#snapshot()} 取得，取得成本為一次引用讀取。
+ * 快照持有當時的持久化映射根節點，之後的寫入建立新版本而不修改它，
+ * 因此在快照上的任意次讀取與掃描都看到同一組任務，寫入端也不需等待讀取端。
+ * 快照不需關閉：不再被引用後，只屬於它的舊任務版本由 GC 回收。
+ *
+ * 讀取回傳副本，呼叫端的原地修改不影響快照與儲存庫。
+ * 欄式資料在第一次需要時由快照本身建立並保留，不另外維護一份與任務映射並行的列資料。
+ */
+public final class TaskSnapshot {
+
+    static final TaskSnapshot EMPTY = new TaskSnapshot(PersistentTaskMap.EMPTY, 0L);
+
+    private final PersistentTaskMap tasks;
+    private final long version;
+
+    // 第一次呼叫 columns() 時建立；快照不可變，並行建立的結果相同，不需加鎖
+    private volatile TaskColumns columns;
+
+    private TaskSnapshot(PersistentTaskMap tasks, long version) {
+        this.tasks = tasks;
+        this.version = version;
+    }
+
+    /**
+     * 已提交的寫入次數，較新的快照版本較大
+     */
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    public Optional<Task> findById(TaskId taskId) {
+        if (taskId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(tasks.get(taskId)).map(TaskSnapshot::copyOf);
+    }
+
+    public boolean contains(TaskId taskId) {
+        return taskId != null && tasks.get(taskId) != null;
+    }
+
+    /**
+     * 串流快照中的所有任務，每筆在被讀取時才複製
+     */
+    public Stream<Task> stream() {
+        return tasks.values().map(TaskSnapshot::copyOf);
+    }
+
+    /**
+     * 此版本的欄式資料，不複製任何 Task 物件
+     */
+    public TaskColumns columns() {
+        TaskColumns built = columns;
+        if (built == null) {
+            built = TaskColumns.of(storedTasks().toList());
+            columns = built;
+        }
+        return built;
+    }
+
+    /**
+     * 走訪儲存的快照本身，不複製；只供儲存庫內部篩選後再複製
+     */
+    Stream<Task> storedTasks() {
+        return tasks.values();
+    }
+
+    TaskSnapshot with(TaskId taskId, Task task) {
+        return new TaskSnapshot(tasks.put(taskId, task), version + 1);
+    }
+
+    TaskSnapshot without(TaskId taskId) {
+        return new TaskSnapshot(tasks.remove(taskId), version + 1);
+    }
+
+    TaskSnapshot cleared() {
+        return new TaskSnapshot(PersistentTaskMap.EMPTY, version + 1);
+    }
+
+    private static Task copyOf(Task task) {
+        return Task.restoreFromPersistence(
+            task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+            task.getPriority(), task.getDueDate(), task.getCreatedAt(), task.getUpdatedAt(),
+            task.isDeleted(), task.getDeletedAt(), task.getDeletedBy(), task.getVersion());
+    }
+}
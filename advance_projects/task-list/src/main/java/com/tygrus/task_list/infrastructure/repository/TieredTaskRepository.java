@@ -0,0 +1,248 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.exception.OptimisticLockException;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskColumns;
+import com.tygrus.task_list.domain.model.TaskCounts;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
+import com.tygrus.task_list.domain.repository.TaskQuery;
+import com.tygrus.task_list.domain.repository.TaskQueryResult;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.TaskWriteEpochs;
+import com.tygrus.task_list.domain.repository.WriteDurability;
+import com.tygrus.task_list.infrastructure.repository.archive.TaskArchive;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 分層任務儲存庫
+ *
+ * 熱資料層為任一 domain TaskRepository（通常為 PostgreSQLTaskRepository），冷資料層為 {@link TaskArchive}：
+ * - findById、existsById、findByIds、existsByIds 先查熱資料層，找不到再查封存庫；封存時已軟刪除的任務不回傳
+ * - streamAllIncludingArchived 依序串流熱資料層與封存庫，供匯出讀取完整歷史
+ * - findAll、streamAll、計數、變更流與寫入世代只涵蓋熱資料層，日常清單不必解壓封存區段
+ * - query 預設交給熱資料層執行，要求包含封存時才與 streamAllIncludingArchived 相同地串流兩層
+ * - 寫入一律寫到熱資料層，成功後若任務仍有封存副本則取代之；沒有副本時只多一次記憶體內的布隆過濾器檢查
+ * - 對只存在於封存庫的任務做樂觀鎖更新時，封存副本的版本相符即寫回熱資料層
+ * - deleteById 也會取代封存副本，只存在於封存庫的任務因此被移除
+ */
+public class TieredTaskRepository implements TaskRepository {
+
+    private static final int REHYDRATE_LOCK_STRIPES = 64;
+
+    private final TaskRepository hot;
+    private final TaskArchive archive;
+    private final Object[] rehydrateLocks = new Object[REHYDRATE_LOCK_STRIPES];
+
+    public TieredTaskRepository(TaskRepository hot, TaskArchive archive) {
+        this.hot = hot;
+        this.archive = archive;
+        for (int i = 0; i < rehydrateLocks.length; i++) {
+            rehydrateLocks[i] = new Object();
+        }
+    }
+
+    @Override
+    public Optional<Task> findById(TaskId taskId) {
+        if (taskId == null) {
+            return Optional.empty();
+        }
+        Optional<Task> task = hot.findById(taskId);
+        return task.isPresent() ? task : findArchived(taskId);
+    }
+
+    @Override
+    public boolean existsById(TaskId taskId) {
+        if (taskId == null) {
+            return false;
+        }
+        return hot.existsById(taskId) || findArchived(taskId).isPresent();
+    }
+
+    /**
+     * 熱資料層找不到的 ID 才查詢封存庫
+     */
+    @Override
+    public Map<TaskId, Task> findByIds(List<TaskId> taskIds) {
+        Map<TaskId, Task> found = new HashMap<>(hot.findByIds(taskIds));
+        List<TaskId> missing = taskIds.stream().filter(taskId -> !found.containsKey(taskId)).toList();
+        if (!missing.isEmpty()) {
+            archive.findAll(missing).forEach((taskId, task) -> {
+                if (!task.isDeleted()) {
+                    found.put(taskId, task);
+                }
+            });
+        }
+        return found;
+    }
+
+    @Override
+    public Map<TaskId, Boolean> existsByIds(List<TaskId> taskIds) {
+        Map<TaskId, Boolean> result = new HashMap<>(hot.existsByIds(taskIds));
+        List<TaskId> missing = taskIds.stream()
+            .filter(taskId -> !Boolean.TRUE.equals(result.get(taskId)))
+            .toList();
+        if (!missing.isEmpty()) {
+            Map<TaskId, Task> archived = archive.findAll(missing);
+            for (TaskId taskId : missing) {
+                Task task = archived.get(taskId);
+                result.put(taskId, task != null && !task.isDeleted());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Task save(Task task) {
+        Task saved = hot.save(task);
+        archive.supersede(task.getId());
+        return saved;
+    }
+
+    @Override
+    public Task save(Task task, WriteDurability durability) {
+        Task saved = hot.save(task, durability);
+        archive.supersede(task.getId());
+        return saved;
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        List<Task> saved = hot.saveAll(tasks);
+        tasks.forEach(task -> archive.supersede(task.getId()));
+        return saved;
+    }
+
+    @Override
+    public void deleteById(TaskId taskId) {
+        hot.deleteById(taskId);
+        archive.supersede(taskId);
+    }
+
+    @Override
+    public Task saveWithOptimisticLock(Task task, Long expectedVersion) {
+        try {
+            Task saved = hot.saveWithOptimisticLock(task, expectedVersion);
+            archive.supersede(task.getId());
+            return saved;
+        } catch (OptimisticLockException e) {
+            if (!archive.mightContain(task.getId())) {
+                throw e;
+            }
+            return rehydrate(task, expectedVersion).orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * 以熱資料層的批次更新為主，不在熱資料層的任務逐筆嘗試自封存庫寫回
+     */
+    @Override
+    public Map<TaskId, Task> saveAllWithOptimisticLock(List<Task> tasks) {
+        Map<TaskId, Task> saved = new LinkedHashMap<>(hot.saveAllWithOptimisticLock(tasks));
+        for (Task task : tasks) {
+            if (saved.containsKey(task.getId())) {
+                archive.supersede(task.getId());
+            } else if (archive.mightContain(task.getId())) {
+                rehydrate(task, task.getVersion()).ifPresent(rehydrated -> saved.put(task.getId(), rehydrated));
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return hot.findAll();
+    }
+
+    @Override
+    public TaskColumns findAllAsColumns() {
+        return hot.findAllAsColumns();
+    }
+
+    @Override
+    public <R> R streamAll(Function<? super Stream<Task>, ? extends R> reader) {
+        return hot.streamAll(reader);
+    }
+
+    /**
+     * 先串流熱資料層，再依區段順序串流封存庫中未刪除的任務
+     */
+    @Override
+    public <R> R streamAllIncludingArchived(Function<? super Stream<Task>, ? extends R> reader) {
+        return hot.streamAll(hotTasks -> archive.stream(archived ->
+            reader.apply(Stream.concat(hotTasks, archived.filter(task -> !task.isDeleted())))));
+    }
+
+    /**
+     * 只查熱資料層時交給熱資料層執行；包含封存時串流兩層後求值
+     * 封存中已刪除的任務也交給查詢規格判斷，includeDeleted 時一併回傳
+     */
+    @Override
+    public TaskQueryResult query(TaskQuery query) {
+        if (!query.includeArchived()) {
+            return hot.query(query);
+        }
+        return hot.streamAll(hotTasks -> archive.stream(archived ->
+            query.select(Stream.concat(hotTasks, archived))));
+    }
+
+    @Override
+    public long forEachChunk(int chunkSize, Consumer<? super List<Task>> chunkConsumer) {
+        return hot.forEachChunk(chunkSize, chunkConsumer);
+    }
+
+    @Override
+    public TaskCounts counts() {
+        return hot.counts();
+    }
+
+    @Override
+    public TaskChangeFeed changeFeed() {
+        return hot.changeFeed();
+    }
+
+    @Override
+    public TaskWriteEpochs writeEpochs() {
+        return hot.writeEpochs();
+    }
+
+    public TaskArchive getArchive() {
+        return archive;
+    }
+
+    private Optional<Task> findArchived(TaskId taskId) {
+        if (!archive.mightContain(taskId)) {
+            return Optional.empty();
+        }
+        return archive.find(taskId).filter(task -> !task.isDeleted());
+    }
+
+    /**
+     * 任務不在熱資料層且封存副本的版本相符時，將更新寫回熱資料層並取代封存副本
+     * 同一 ID 的寫回以條帶鎖序列化，避免兩個並行更新都通過版本比對
+     */
+    private Optional<Task> rehydrate(Task task, Long expectedVersion) {
+        TaskId taskId = task.getId();
+        synchronized (rehydrateLocks[Math.floorMod(taskId.hashCode(), rehydrateLocks.length)]) {
+            if (hot.existsById(taskId)) {
+                return Optional.empty();
+            }
+            Optional<Task> archived = findArchived(taskId);
+            if (archived.isEmpty()
+                    || (expectedVersion != null && archived.get().getVersion() != expectedVersion)) {
+                return Optional.empty();
+            }
+            Task saved = hot.save(task);
+            archive.supersede(taskId);
+            return Optional.of(saved);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskColumns;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.AsyncTaskRepository;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 以虛擬執行緒執行的非同步任務儲存庫
+ *
+ * 每個操作在獨立的虛擬執行緒上呼叫同步的 domain TaskRepository，等待 I/O 時只會停放虛擬執行緒，
+ * 同時送出數千個操作也不會耗盡平台執行緒。
+ * 同時執行的操作數以號誌限制為連線池大小：超出的操作在取得許可前停放，
+ * 不會向連線池索取連線而逾時；JDBC 驅動的 synchronized 區塊會把虛擬執行緒固定在載體執行緒上，
+ * 限制同時執行數也讓被固定的載體執行緒不超過連線數。
+ */
+public class VirtualThreadTaskRepository implements AsyncTaskRepository, Closeable {
+
+    private final TaskRepository delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final ExecutorService executor;
+
+    public VirtualThreadTaskRepository(TaskRepository delegate, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive");
+        }
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-repo-", 0).factory());
+    }
+
+    @Override
+    public CompletableFuture<Task> save(Task task) {
+        return submit(() -> delegate.save(task));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Task>> findById(TaskId taskId) {
+        return submit(() -> delegate.findById(taskId));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsById(TaskId taskId) {
+        return submit(() -> delegate.existsById(taskId));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteById(TaskId taskId) {
+        return submit(() -> {
+            delegate.deleteById(taskId);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Task>> findAll() {
+        return submit(delegate::findAll);
+    }
+
+    @Override
+    public CompletableFuture<TaskColumns> findAllAsColumns() {
+        return submit(delegate::findAllAsColumns);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> streamAll(Function<? super Stream<Task>, ? extends R> reader) {
+        return submit(() -> delegate.streamAll(reader));
+    }
+
+    @Override
+    public CompletableFuture<Long> forEachChunk(int chunkSize, Consumer<? super List<Task>> chunkConsumer) {
+        return submit(() -> delegate.forEachChunk(chunkSize, chunkConsumer));
+    }
+
+    @Override
+    public CompletableFuture<Map<TaskId, Task>> findByIds(List<TaskId> taskIds) {
+        return submit(() -> delegate.findByIds(taskIds));
+    }
+
+    @Override
+    public CompletableFuture<List<Task>> saveAll(List<Task> tasks) {
+        return submit(() -> delegate.saveAll(tasks));
+    }
+
+    @Override
+    public CompletableFuture<Map<TaskId, Boolean>> existsByIds(List<TaskId> taskIds) {
+        return submit(() -> delegate.existsByIds(taskIds));
+    }
+
+    @Override
+    public CompletableFuture<Task> saveWithOptimisticLock(Task task, Long expectedVersion) {
+        return submit(() -> delegate.saveWithOptimisticLock(task, expectedVersion));
+    }
+
+    @Override
+    public CompletableFuture<Map<TaskId, Task>> saveAllWithOptimisticLock(List<Task> tasks) {
+        return submit(() -> delegate.saveAllWithOptimisticLock(tasks));
+    }
+
+    /**
+     * 正在執行的操作數
+     */
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * 等待許可的操作數（估計值）
+     */
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * 停止接受新操作並等待進行中的操作完成
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> run(operation, future));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private <T> void run(Supplier<T> operation, CompletableFuture<T> future) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return;
+        }
+        // 先釋放許可再完成 future，後續階段在此執行緒上執行時不占用許可
+        T result;
+        try {
+            result = operation.get();
+        } catch (Throwable t) {
+            permits.release();
+            future.completeExceptionally(t);
+            return;
+        }
+        permits.release();
+        future.complete(result);
+    }
+}
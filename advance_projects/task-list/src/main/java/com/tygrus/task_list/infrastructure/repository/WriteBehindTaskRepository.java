@@ -0,0 +1,482 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskColumns;
+import com.tygrus.task_list.domain.model.TaskCounts;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
+import com.tygrus.task_list.domain.repository.TaskQuery;
+import com.tygrus.task_list.domain.repository.TaskQueryResult;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.TaskWriteEpochs;
+import com.tygrus.task_list.domain.repository.WriteDurability;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 寫入緩衝（write-behind）任務儲存庫
+ *
+ * 包裝任一 domain TaskRepository（通常為 PostgreSQLTaskRepository），save 與 saveAll 先寫入記憶體緩衝：
+ * - 同一 TaskId 在寫入資料來源前的多次更新合併為一筆，只寫入最後的內容
+ * - 緩衝達到批次大小或距上次寫入超過間隔時，以 saveAll 分批寫入資料來源；寫入由單一鎖序列化，
+ *   同一任務的寫入順序不會顛倒
+ * - 每次寫入可選擇完成保證：ASYNC 進入緩衝即返回；SYNC 觸發寫入並等待，並行的 SYNC 寫入合併為同一批
+ * - findById、existsById、findByIds、existsByIds 先讀緩衝，讀得到自己剛寫入的內容
+ * - 清單、串流、計數等全量讀取、寫入世代、deleteById 與樂觀鎖更新先寫入整個緩衝再交給資料來源
+ *
+ * 寫入資料來源失敗時，SYNC 呼叫端收到例外，緩衝內容保留待下次重試（期間有更新的任務以新內容為準）。
+ * ASYNC 寫入在寫入資料來源前程序中止會遺失；緩衝超過上限時寫入端同步寫入，限制記憶體用量。
+ * ASYNC 回傳的任務版本號仍是寫入前的版本。
+ */
+public class WriteBehindTaskRepository implements TaskRepository, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindTaskRepository.class);
+
+    private final TaskRepository delegate;
+    private final WriteDurability defaultDurability;
+    private final int maxBatchSize;
+    private final int maxPending;
+
+    // 尚未寫入的最新內容，每個任務一筆
+    private final Map<TaskId, PendingWrite> pending = new ConcurrentHashMap<>();
+    // 已取出正在寫入的內容，寫入完成前仍供讀取
+    private final Map<TaskId, PendingWrite> inFlight = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService flusher;
+    private volatile boolean closed;
+
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushedTasks = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    /**
+     * @param delegate 資料來源
+     * @param defaultDurability save(task) 與 saveAll 使用的完成保證
+     * @param maxBatchSize 每次 saveAll 的筆數，緩衝達到此數量時立即寫入
+     * @param maxPending 緩衝上限，超過時寫入端同步寫入
+     * @param flushInterval 定期寫入的間隔
+     */
+    public WriteBehindTaskRepository(TaskRepository delegate, WriteDurability defaultDurability,
+                                     int maxBatchSize, int maxPending, Duration flushInterval) {
+        if (maxBatchSize <= 0 || maxPending < maxBatchSize) {
+            throw new IllegalArgumentException("Batch size must be positive and not exceed the pending limit");
+        }
+        this.delegate = delegate;
+        this.defaultDurability = defaultDurability;
+        this.maxBatchSize = maxBatchSize;
+        this.maxPending = maxPending;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Task save(Task task) {
+        return save(task, defaultDurability);
+    }
+
+    @Override
+    public Task save(Task task, WriteDurability durability) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        if (closed) {
+            return delegate.save(task);
+        }
+        PendingWrite write = enqueue(task);
+        if (durability == WriteDurability.SYNC) {
+            flush();
+            return await(write);
+        }
+        afterEnqueue();
+        return copyOf(task);
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        if (closed) {
+            return delegate.saveAll(tasks);
+        }
+        List<PendingWrite> writes = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            writes.add(enqueue(task));
+        }
+        if (defaultDurability == WriteDurability.SYNC) {
+            flush();
+            return writes.stream().map(WriteBehindTaskRepository::await).toList();
+        }
+        afterEnqueue();
+        return tasks.stream().map(WriteBehindTaskRepository::copyOf).toList();
+    }
+
+    @Override
+    public Optional<Task> findById(TaskId taskId) {
+        if (taskId == null) {
+            return Optional.empty();
+        }
+        PendingWrite write = buffered(taskId);
+        if (write != null && !write.task.isDeleted()) {
+            return Optional.of(copyOf(write.task));
+        }
+        if (write != null) {
+            // 軟刪除在各資料來源的可見性不同，寫入後交給資料來源判斷
+            flush();
+        }
+        return delegate.findById(taskId);
+    }
+
+    @Override
+    public boolean existsById(TaskId taskId) {
+        if (taskId == null) {
+            return false;
+        }
+        PendingWrite write = buffered(taskId);
+        if (write != null && !write.task.isDeleted()) {
+            return true;
+        }
+        if (write != null) {
+            flush();
+        }
+        return delegate.existsById(taskId);
+    }
+
+    @Override
+    public Map<TaskId, Task> findByIds(List<TaskId> taskIds) {
+        Map<TaskId, Task> found = new HashMap<>();
+        List<TaskId> misses = new ArrayList<>();
+        for (TaskId taskId : taskIds) {
+            PendingWrite write = buffered(taskId);
+            if (write == null) {
+                misses.add(taskId);
+            } else if (!write.task.isDeleted()) {
+                found.put(taskId, copyOf(write.task));
+            } else {
+                flush();
+                misses.add(taskId);
+            }
+        }
+        if (!misses.isEmpty()) {
+            found.putAll(delegate.findByIds(misses));
+        }
+        return found;
+    }
+
+    @Override
+    public Map<TaskId, Boolean> existsByIds(List<TaskId> taskIds) {
+        Map<TaskId, Task> found = findByIds(taskIds);
+        Map<TaskId, Boolean> result = new HashMap<>();
+        for (TaskId taskId : taskIds) {
+            result.put(taskId, found.containsKey(taskId));
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteById(TaskId taskId) {
+        flush();
+        delegate.deleteById(taskId);
+    }
+
+    @Override
+    public Task saveWithOptimisticLock(Task task, Long expectedVersion) {
+        flush();
+        return delegate.saveWithOptimisticLock(task, expectedVersion);
+    }
+
+    @Override
+    public Map<TaskId, Task> saveAllWithOptimisticLock(List<Task> tasks) {
+        flush();
+        return delegate.saveAllWithOptimisticLock(tasks);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        flush();
+        return delegate.findAll();
+    }
+
+    @Override
+    public TaskColumns findAllAsColumns() {
+        flush();
+        return delegate.findAllAsColumns();
+    }
+
+    @Override
+    public <R> R streamAll(Function<? super Stream<Task>, ? extends R> reader) {
+        flush();
+        return delegate.streamAll(reader);
+    }
+
+    @Override
+    public <R> R streamAllIncludingArchived(Function<? super Stream<Task>, ? extends R> reader) {
+        flush();
+        return delegate.streamAllIncludingArchived(reader);
+    }
+
+    @Override
+    public TaskQueryResult query(TaskQuery query) {
+        flush();
+        return delegate.query(query);
+    }
+
+    @Override
+    public long forEachChunk(int chunkSize, Consumer<? super List<Task>> chunkConsumer) {
+        flush();
+        return delegate.forEachChunk(chunkSize, chunkConsumer);
+    }
+
+    @Override
+    public TaskCounts counts() {
+        flush();
+        return delegate.counts();
+    }
+
+    /**
+     * 資料來源的變更流，緩衝中的寫入在寫入資料來源後才發布
+     */
+    @Override
+    public TaskChangeFeed changeFeed() {
+        return delegate.changeFeed();
+    }
+
+    /**
+     * 先寫入整個緩衝再取得資料來源的寫入世代，已接受的寫入都反映在世代中
+     */
+    @Override
+    public TaskWriteEpochs writeEpochs() {
+        flush();
+        return delegate.writeEpochs();
+    }
+
+    /**
+     * 將緩衝中的所有寫入寫入資料來源，返回時呼叫前的寫入都已寫入
+     * 任一批寫入失敗時拋出例外，未寫入的內容留在緩衝
+     */
+    public void flush() {
+        if (pending.isEmpty() && inFlight.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            // 只寫入呼叫前已進入緩衝的項目，持續的寫入流量不會讓呼叫端無限等待
+            long upTo = sequence.get();
+            List<PendingWrite> batch;
+            while (!(batch = drain(upTo)).isEmpty()) {
+                writeBatch(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 停止定期寫入並寫入剩餘的緩衝，之後的寫入直接交給資料來源
+     */
+    @Override
+    public void close() {
+        closed = true;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    public Stats getStats() {
+        return new Stats(writes.sum(), coalesced.sum(), flushes.sum(), flushedTasks.sum(),
+            failedFlushes.sum(), pending.size());
+    }
+
+    /**
+     * 寫入緩衝統計
+     *
+     * @param writes 接受的寫入次數
+     * @param coalesced 被同一任務較新寫入合併掉的次數
+     * @param flushes 呼叫資料來源 saveAll 的次數
+     * @param flushedTasks 寫入資料來源的任務筆數
+     * @param failedFlushes 失敗的 saveAll 次數
+     * @param pending 目前緩衝中的任務數
+     */
+    public record Stats(long writes, long coalesced, long flushes, long flushedTasks,
+                        long failedFlushes, int pending) {
+
+        /**
+         * 每次寫入資料來源平均涵蓋的寫入次數，無寫入時為 1
+         */
+        public double coalescingRatio() {
+            return flushedTasks == 0 ? 1.0 : (double) (flushedTasks + coalesced) / flushedTasks;
+        }
+    }
+
+    private PendingWrite enqueue(Task task) {
+        Task snapshot = copyOf(task);
+        writes.increment();
+        return pending.compute(task.getId(), (id, existing) -> {
+            if (existing != null) {
+                // 尚未取出的緩衝項目就地更新，等待中的 SYNC 呼叫端一併取得最新的寫入結果
+                existing.task = snapshot;
+                coalesced.increment();
+                return existing;
+            }
+            return new PendingWrite(snapshot, sequence.incrementAndGet());
+        });
+    }
+
+    /**
+     * ASYNC 寫入後依緩衝大小決定：達批次大小交給背景寫入，超過上限則在呼叫端同步寫入
+     */
+    private void afterEnqueue() {
+        int size = pending.size();
+        if (size >= maxPending) {
+            flush();
+        } else if (size >= maxBatchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Write-behind flush failed, {} tasks remain buffered: {}", pending.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 取出至多一批緩衝項目並移到 inFlight；必須持有 flushLock
+     * 先放入 inFlight 再自 pending 移除，讀取端在任何時刻都看得到未寫入的內容
+     */
+    private List<PendingWrite> drain(long upTo) {
+        List<PendingWrite> batch = new ArrayList<>(Math.min(maxBatchSize, pending.size()));
+        Iterator<Map.Entry<TaskId, PendingWrite>> entries = pending.entrySet().iterator();
+        while (entries.hasNext() && batch.size() < maxBatchSize) {
+            Map.Entry<TaskId, PendingWrite> entry = entries.next();
+            PendingWrite write = entry.getValue();
+            if (write.sequence > upTo) {
+                continue;
+            }
+            inFlight.put(entry.getKey(), write);
+            if (pending.remove(entry.getKey(), write)) {
+                batch.add(write);
+            } else {
+                inFlight.remove(entry.getKey(), write);
+            }
+        }
+        return batch;
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Task> tasks = batch.stream().map(write -> write.task).toList();
+        List<Task> saved;
+        try {
+            saved = delegate.saveAll(tasks);
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            for (PendingWrite write : batch) {
+                TaskId taskId = write.task.getId();
+                // 期間已有較新的寫入時以新內容為準
+                pending.putIfAbsent(taskId, new PendingWrite(write.task, sequence.incrementAndGet()));
+                inFlight.remove(taskId, write);
+                write.result.completeExceptionally(e);
+            }
+            throw e;
+        }
+        flushes.increment();
+        flushedTasks.add(batch.size());
+
+        Map<TaskId, Task> savedById = new HashMap<>();
+        for (Task task : saved) {
+            savedById.put(task.getId(), task);
+        }
+        for (PendingWrite write : batch) {
+            TaskId taskId = write.task.getId();
+            inFlight.remove(taskId, write);
+            write.result.complete(savedById.getOrDefault(taskId, write.task));
+        }
+    }
+
+    private PendingWrite buffered(TaskId taskId) {
+        PendingWrite write = pending.get(taskId);
+        return write != null ? write : inFlight.get(taskId);
+    }
+
+    private static Task await(PendingWrite write) {
+        try {
+            return copyOf(write.result.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Task copyOf(Task task) {
+        return Task.restoreFromPersistence(
+            task.getId(),
+            task.getTitle(),
+            task.getDescription(),
+            task.getStatus(),
+            task.getPriority(),
+            task.getDueDate(),
+            task.getCreatedAt(),
+            task.getUpdatedAt(),
+            task.isDeleted(),
+            task.getDeletedAt(),
+            task.getDeletedBy(),
+            task.getVersion());
+    }
+
+    /**
+     * 一個任務的待寫入內容；取出寫入前可被同一任務的新寫入就地取代
+     */
+    private static final class PendingWrite {
+
+        volatile Task task;
+        final long sequence;
+        final CompletableFuture<Task> result = new CompletableFuture<>();
+
+        PendingWrite(Task task, long sequence) {
+            this.task = task;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.tygrus.task_list.infrastructure.repository.archive;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 可將舊任務移出的熱資料儲存庫
+ *
+ * 可封存的任務：已軟刪除且 deletedAt 早於截止時間，或未刪除、狀態為 COMPLETED 且 updatedAt 早於截止時間。
+ * 由 {@link TaskArchiver} 先讀出、寫入封存庫，再以 {@link #purgeArchived} 移除。
+ */
+public interface ArchivableTaskStore {
+
+    /**
+     * 依 ID 順序查詢可封存的任務
+     *
+     * @param cutoff 截止時間
+     * @param limit 最多筆數
+     */
+    List<Task> findArchivable(LocalDateTime cutoff, int limit);
+
+    /**
+     * 物理移除已封存的任務
+     * 只移除仍符合封存條件的任務：讀出之後又被修改的任務保留在熱資料層。
+     * 移除不發布到變更流，因為任務只是換了存放位置。
+     *
+     * @param taskIds 已寫入封存庫的任務
+     * @param cutoff 讀出時使用的截止時間
+     * @return 實際移除的任務 ID
+     */
+    Set<TaskId> purgeArchived(Collection<TaskId> taskIds, LocalDateTime cutoff);
+
+    /**
+     * 任務在截止時間下是否可封存
+     */
+    static boolean isArchivable(Task task, LocalDateTime cutoff) {
+        if (task.isDeleted()) {
+            return task.getDeletedAt() != null && task.getDeletedAt().isBefore(cutoff);
+        }
+        return task.getStatus() == TaskStatus.COMPLETED
+            && task.getUpdatedAt() != null && task.getUpdatedAt().isBefore(cutoff);
+    }
+}
@@ -0,0 +1,381 @@
+package com.tygrus.task_list.infrastructure.repository.archive;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.infrastructure.repository.wal.TaskRecordCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 不可變的封存區段檔案
+ *
+ * 格式：[int MAGIC][int 格式版本][區塊...][索引][long 索引位置][long 索引 CRC32][int MAGIC]
+ * - 任務依 ID 字串排序，每 {@value #RECORDS_PER_BLOCK} 筆以 Deflate 壓縮為一個區塊：
+ *   [int 筆數][int 原始長度][int 壓縮長度][long 原始資料 CRC32][壓縮資料]
+ * - 索引為稀疏索引（每個區塊的第一個 ID、位置與長度）、最大 ID、總筆數與 ID 布隆過濾器
+ *
+ * 查詢先以布隆過濾器排除，再二分搜尋稀疏索引，只讀取並解壓一個區塊。
+ * 寫入時先寫暫存檔並 force() 後以原子搬移命名為 segment-{序號}.seg，磁碟上的正式區段必定完整。
+ * 讀取以 FileChannel 的指定位置讀取進行，可由多執行緒共用。
+ */
+public final class ArchiveSegment implements Closeable {
+
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final int MAGIC = 0x54415243; // "TARC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_LENGTH = Integer.BYTES * 2;
+    private static final int BLOCK_HEADER_LENGTH = Integer.BYTES * 3 + Long.BYTES;
+    private static final int TRAILER_LENGTH = Long.BYTES * 2 + Integer.BYTES;
+    static final int RECORDS_PER_BLOCK = 64;
+
+    private final Path path;
+    private final long sequence;
+    private final FileChannel channel;
+    private final String[] firstKeys;
+    private final long[] blockOffsets;
+    private final int[] blockLengths;
+    private final String lastKey;
+    private final int recordCount;
+    private final BloomFilter bloomFilter;
+
+    private ArchiveSegment(Path path, long sequence, FileChannel channel, String[] firstKeys,
+                           long[] blockOffsets, int[] blockLengths, String lastKey,
+                           int recordCount, BloomFilter bloomFilter) {
+        this.path = path;
+        this.sequence = sequence;
+        this.channel = channel;
+        this.firstKeys = firstKeys;
+        this.blockOffsets = blockOffsets;
+        this.blockLengths = blockLengths;
+        this.lastKey = lastKey;
+        this.recordCount = recordCount;
+        this.bloomFilter = bloomFilter;
+    }
+
+    /**
+     * 將任務寫成新的區段並開啟
+     *
+     * @param directory 區段目錄
+     * @param sequence 區段序號，較新的區段序號較大
+     * @param tasks 要寫入的任務，ID 不可重複
+     */
+    public static ArchiveSegment write(Path directory, long sequence, Collection<Task> tasks) throws IOException {
+        if (tasks.isEmpty()) {
+            throw new IllegalArgumentException("Archive segment requires at least one task");
+        }
+        List<Task> sorted = new ArrayList<>(tasks);
+        sorted.sort(Comparator.comparing(task -> task.getId().getValue()));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getId().equals(sorted.get(i - 1).getId())) {
+                throw new IllegalArgumentException("Duplicate task in archive segment: " + sorted.get(i).getId());
+            }
+        }
+
+        Files.createDirectories(directory);
+        String fileName = fileName(sequence);
+        Path target = directory.resolve(fileName);
+        Path temp = directory.resolve(fileName + ".tmp");
+
+        int blockCount = (sorted.size() + RECORDS_PER_BLOCK - 1) / RECORDS_PER_BLOCK;
+        BloomFilter bloomFilter = BloomFilter.create(sorted.size());
+        Deflater deflater = new Deflater();
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            long position = HEADER_LENGTH;
+
+            ByteArrayOutputStream footerBuffer = new ByteArrayOutputStream();
+            DataOutputStream footer = new DataOutputStream(footerBuffer);
+            footer.writeInt(blockCount);
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(RECORDS_PER_BLOCK * 256);
+            byte[] compressed = new byte[0];
+            for (int block = 0; block < blockCount; block++) {
+                List<Task> records = sorted.subList(block * RECORDS_PER_BLOCK,
+                    Math.min(sorted.size(), (block + 1) * RECORDS_PER_BLOCK));
+                raw.reset();
+                DataOutputStream recordOut = new DataOutputStream(raw);
+                for (Task task : records) {
+                    TaskRecordCodec.write(recordOut, task);
+                    bloomFilter.add(task.getId().getValue());
+                }
+                byte[] uncompressed = raw.toByteArray();
+                CRC32 crc = new CRC32();
+                crc.update(uncompressed);
+
+                deflater.reset();
+                deflater.setInput(uncompressed);
+                deflater.finish();
+                if (compressed.length < uncompressed.length + 64) {
+                    compressed = new byte[uncompressed.length + 64];
+                }
+                int compressedLength = 0;
+                while (!deflater.finished()) {
+                    if (compressedLength == compressed.length) {
+                        compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                    }
+                    compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+                }
+
+                out.writeInt(records.size());
+                out.writeInt(uncompressed.length);
+                out.writeInt(compressedLength);
+                out.writeLong(crc.getValue());
+                out.write(compressed, 0, compressedLength);
+
+                int blockLength = BLOCK_HEADER_LENGTH + compressedLength;
+                footer.writeUTF(records.get(0).getId().getValue());
+                footer.writeLong(position);
+                footer.writeInt(blockLength);
+                position += blockLength;
+            }
+            footer.writeUTF(sorted.get(sorted.size() - 1).getId().getValue());
+            footer.writeInt(sorted.size());
+            bloomFilter.write(footer);
+
+            byte[] footerBytes = footerBuffer.toByteArray();
+            CRC32 footerCrc = new CRC32();
+            footerCrc.update(footerBytes);
+            out.write(footerBytes);
+            out.writeLong(position);
+            out.writeLong(footerCrc.getValue());
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+        } finally {
+            deflater.end();
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return open(target);
+    }
+
+    /**
+     * 開啟既有區段，讀入稀疏索引與布隆過濾器
+     */
+    public static ArchiveSegment open(Path path) throws IOException {
+        long sequence = sequenceOf(path);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_LENGTH + TRAILER_LENGTH) {
+                throw new IOException("Archive segment too short: " + path.getFileName());
+            }
+            ByteBuffer header = readFully(channel, 0, HEADER_LENGTH);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not an archive segment: " + path.getFileName());
+            }
+            int formatVersion = header.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported archive segment format version " + formatVersion);
+            }
+
+            ByteBuffer trailer = readFully(channel, size - TRAILER_LENGTH, TRAILER_LENGTH);
+            long footerOffset = trailer.getLong();
+            long footerChecksum = trailer.getLong();
+            if (trailer.getInt() != MAGIC || footerOffset < HEADER_LENGTH || footerOffset > size - TRAILER_LENGTH) {
+                throw new IOException("Corrupt archive segment trailer: " + path.getFileName());
+            }
+            byte[] footerBytes = new byte[(int) (size - TRAILER_LENGTH - footerOffset)];
+            readFully(channel, footerOffset, footerBytes.length).get(footerBytes);
+            CRC32 crc = new CRC32();
+            crc.update(footerBytes);
+            if (crc.getValue() != footerChecksum) {
+                throw new IOException("Archive segment index checksum mismatch: " + path.getFileName());
+            }
+
+            DataInputStream footer = new DataInputStream(new ByteArrayInputStream(footerBytes));
+            int blockCount = footer.readInt();
+            String[] firstKeys = new String[blockCount];
+            long[] blockOffsets = new long[blockCount];
+            int[] blockLengths = new int[blockCount];
+            for (int block = 0; block < blockCount; block++) {
+                firstKeys[block] = footer.readUTF();
+                blockOffsets[block] = footer.readLong();
+                blockLengths[block] = footer.readInt();
+            }
+            String lastKey = footer.readUTF();
+            int recordCount = footer.readInt();
+            BloomFilter bloomFilter = BloomFilter.read(footer);
+            return new ArchiveSegment(path, sequence, channel, firstKeys, blockOffsets, blockLengths,
+                lastKey, recordCount, bloomFilter);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public int recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * 任務是否可能在此區段中，回傳 false 時必定不在
+     */
+    public boolean mightContain(TaskId taskId) {
+        String key = taskId.getValue();
+        return key.compareTo(firstKeys[0]) >= 0 && key.compareTo(lastKey) <= 0
+            && bloomFilter.mightContain(key);
+    }
+
+    /**
+     * 以 ID 查詢區段中的任務，最多讀取一個區塊
+     */
+    public Optional<Task> find(TaskId taskId) throws IOException {
+        if (!mightContain(taskId)) {
+            return Optional.empty();
+        }
+        int block = blockOf(taskId.getValue());
+        for (Task task : readBlock(block)) {
+            if (task.getId().equals(taskId)) {
+                return Optional.of(task);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 依 ID 順序逐區塊讀取所有任務，一次只解壓一個區塊
+     */
+    public Stream<Task> stream() {
+        return IntStream.range(0, firstKeys.length)
+            .mapToObj(block -> {
+                try {
+                    return readBlock(block);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read archive segment " + path.getFileName(), e);
+                }
+            })
+            .flatMap(List::stream);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * 第一個 ID 不大於 key 的最後一個區塊
+     */
+    private int blockOf(String key) {
+        int low = 0;
+        int high = firstKeys.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (firstKeys[mid].compareTo(key) <= 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private List<Task> readBlock(int block) throws IOException {
+        ByteBuffer buffer = readFully(channel, blockOffsets[block], blockLengths[block]);
+        int count = buffer.getInt();
+        int uncompressedLength = buffer.getInt();
+        int compressedLength = buffer.getInt();
+        long checksum = buffer.getLong();
+        if (compressedLength != blockLengths[block] - BLOCK_HEADER_LENGTH) {
+            throw new IOException("Corrupt archive block " + block + " in " + path.getFileName());
+        }
+
+        byte[] uncompressed = new byte[uncompressedLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.array(), buffer.position(), compressedLength);
+            int inflated = 0;
+            while (inflated < uncompressedLength && !inflater.finished()) {
+                int n = inflater.inflate(uncompressed, inflated, uncompressedLength - inflated);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != uncompressedLength) {
+                throw new IOException("Truncated archive block " + block + " in " + path.getFileName());
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive block " + block + " in " + path.getFileName(), e);
+        } finally {
+            inflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(uncompressed);
+        if (crc.getValue() != checksum) {
+            throw new IOException("Archive block checksum mismatch in " + path.getFileName());
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(uncompressed));
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(TaskRecordCodec.read(in));
+        }
+        return tasks;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new EOFException("Unexpected end of archive segment");
+            }
+        }
+        return buffer.flip();
+    }
+
+    static String fileName(long sequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX);
+    }
+
+    static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
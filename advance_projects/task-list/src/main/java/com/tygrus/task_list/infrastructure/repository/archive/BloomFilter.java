@@ -0,0 +1,85 @@
+package com.tygrus.task_list.infrastructure.repository.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 封存區段的任務 ID 布隆過濾器
+ *
+ * 每個鍵約 10 個位元、7 個雜湊函式，誤判率約 1%；不存在的 ID 多數不需讀取區段即可排除。
+ * 雜湊以 64 位元 FNV-1a 計算後用雙重雜湊推得各位置，與 JVM 的 hashCode 無關，寫入檔案後可跨版本讀取。
+ * 建立後只讀，可由多執行緒共用。
+ */
+final class BloomFilter {
+
+    private static final int BITS_PER_KEY = 10;
+    private static final int HASH_COUNT = 7;
+
+    private final long[] words;
+    private final long bitCount;
+
+    private BloomFilter(long[] words) {
+        this.words = words;
+        this.bitCount = (long) words.length * Long.SIZE;
+    }
+
+    static BloomFilter create(int expectedKeys) {
+        long bits = Math.max(Long.SIZE, (long) expectedKeys * BITS_PER_KEY);
+        return new BloomFilter(new long[(int) ((bits + Long.SIZE - 1) / Long.SIZE)]);
+    }
+
+    void add(String key) {
+        long hash = hash(key);
+        long step = (hash >>> 32) | 1;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        long step = (hash >>> 32) | 1;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    static BloomFilter read(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length <= 0) {
+            throw new IOException("Invalid bloom filter length " + length);
+        }
+        long[] words = new long[length];
+        for (int i = 0; i < length; i++) {
+            words[i] = in.readLong();
+        }
+        return new BloomFilter(words);
+    }
+
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        // 混合高低位元，讓雙重雜湊的兩個分量都分布均勻
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
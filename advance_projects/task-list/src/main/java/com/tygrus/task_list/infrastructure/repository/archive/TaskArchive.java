@@ -0,0 +1,290 @@
+package com.tygrus.task_list.infrastructure.repository.archive;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 任務封存庫（冷資料層）
+ *
+ * 由一個目錄中的多個不可變 {@link ArchiveSegment} 組成，每次封存寫成一個新區段，序號遞增。
+ * 封存後又被修改或刪除的任務以「取代記錄」隱藏舊副本：superseded.log 每行記錄
+ * 「區段序號 任務ID」，序號不大於記錄值的區段中的該任務視為已失效，之後再次封存的副本（序號較大）仍然有效。
+ * 取代記錄在回傳前 force() 到磁碟，重新開啟後仍然有效。
+ *
+ * 讀取不加鎖：區段清單為不可變快照，查詢由新到舊逐一以布隆過濾器排除。
+ * 封存與取代記錄以單一寫入鎖序列化。區段不做合併，失效副本只是被跳過。
+ */
+public class TaskArchive implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchive.class);
+
+    private static final String SUPERSEDED_LOG = "superseded.log";
+
+    private final Path directory;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<TaskId, Long> superseded = new ConcurrentHashMap<>();
+
+    /** 由舊到新排列的區段，整體替換 */
+    private volatile List<ArchiveSegment> segments = List.of();
+    private FileChannel supersededLog;
+    private long nextSequence = 1;
+
+    public TaskArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * 開啟目錄中的區段與取代記錄
+     * 無法讀取的區段記錄警告後略過，檔案保留供人工檢查；其序號不會被重複使用
+     */
+    public void open() throws IOException {
+        writeLock.lock();
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.toList();
+            }
+            List<ArchiveSegment> opened = new ArrayList<>();
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                } else if (ArchiveSegment.isSegment(file)) {
+                    nextSequence = Math.max(nextSequence, ArchiveSegment.sequenceOf(file) + 1);
+                    try {
+                        opened.add(ArchiveSegment.open(file));
+                    } catch (IOException | RuntimeException e) {
+                        logger.warn("Skipping unreadable archive segment {}: {}", name, e.getMessage());
+                    }
+                }
+            }
+            opened.sort(Comparator.comparingLong(ArchiveSegment::sequence));
+            segments = List.copyOf(opened);
+            loadSupersededLog();
+            logger.info("Opened task archive {} with {} segments", directory, opened.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            for (ArchiveSegment segment : segments) {
+                segment.close();
+            }
+            segments = List.of();
+            if (supersededLog != null) {
+                supersededLog.close();
+                supersededLog = null;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 將任務寫成新的區段
+     * 任務若已存在於較舊的區段，舊副本會被取代
+     *
+     * @return 新區段
+     */
+    public ArchiveSegment append(Collection<Task> tasks) throws IOException {
+        writeLock.lock();
+        try {
+            List<ArchiveSegment> previous = segments;
+            ArchiveSegment segment = ArchiveSegment.write(directory, nextSequence++, tasks);
+            List<ArchiveSegment> updated = new ArrayList<>(previous);
+            updated.add(segment);
+            segments = List.copyOf(updated);
+
+            if (!previous.isEmpty()) {
+                long previousSequence = previous.get(previous.size() - 1).sequence();
+                for (Task task : tasks) {
+                    if (findIn(previous, task.getId()).isPresent()) {
+                        appendSuperseded(task.getId(), previousSequence);
+                    }
+                }
+            }
+            logger.info("Archived {} tasks into {}", segment.recordCount(), segment.path().getFileName());
+            return segment;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 以 ID 查詢封存的任務（包含封存時已軟刪除的任務）
+     */
+    public Optional<Task> find(TaskId taskId) {
+        if (taskId == null) {
+            return Optional.empty();
+        }
+        return findIn(segments, taskId);
+    }
+
+    /**
+     * 批次查詢封存的任務，未封存的 ID 不在結果中
+     */
+    public Map<TaskId, Task> findAll(Collection<TaskId> taskIds) {
+        List<ArchiveSegment> current = segments;
+        Map<TaskId, Task> found = new HashMap<>();
+        if (current.isEmpty()) {
+            return found;
+        }
+        for (TaskId taskId : taskIds) {
+            if (taskId != null && !found.containsKey(taskId)) {
+                findIn(current, taskId).ifPresent(task -> found.put(taskId, task));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 任務是否可能仍有有效的封存副本，回傳 false 時必定沒有
+     * 只檢查記憶體中的布隆過濾器，不讀取區段，適合在每次寫入前呼叫
+     */
+    public boolean mightContain(TaskId taskId) {
+        long hiddenUpTo = superseded.getOrDefault(taskId, 0L);
+        List<ArchiveSegment> current = segments;
+        for (int i = current.size() - 1; i >= 0; i--) {
+            ArchiveSegment segment = current.get(i);
+            if (segment.sequence() <= hiddenUpTo) {
+                return false;
+            }
+            if (segment.mightContain(taskId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 使任務目前的封存副本失效，供熱資料層已有較新版本或任務被刪除時呼叫
+     *
+     * @return 是否有副本被取代
+     */
+    public boolean supersede(TaskId taskId) {
+        if (!mightContain(taskId)) {
+            return false;
+        }
+        writeLock.lock();
+        try {
+            List<ArchiveSegment> current = segments;
+            if (findIn(current, taskId).isEmpty()) {
+                return false;
+            }
+            appendSuperseded(taskId, current.get(current.size() - 1).sequence());
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record superseded archive entry " + taskId, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 以串流依區段順序讀取所有有效的封存任務（包含封存時已軟刪除的任務），一次只解壓一個區塊
+     */
+    public <R> R stream(Function<? super Stream<Task>, ? extends R> reader) {
+        List<ArchiveSegment> current = segments;
+        Stream<Task> tasks = current.stream()
+            .flatMap(segment -> segment.stream()
+                .filter(task -> superseded.getOrDefault(task.getId(), 0L) < segment.sequence()));
+        return reader.apply(tasks);
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * 區段中的記錄總數，包含已被取代的副本
+     */
+    public long recordCount() {
+        return segments.stream().mapToLong(ArchiveSegment::recordCount).sum();
+    }
+
+    private Optional<Task> findIn(List<ArchiveSegment> current, TaskId taskId) {
+        long hiddenUpTo = superseded.getOrDefault(taskId, 0L);
+        for (int i = current.size() - 1; i >= 0; i--) {
+            ArchiveSegment segment = current.get(i);
+            if (segment.sequence() <= hiddenUpTo) {
+                break;
+            }
+            try {
+                Optional<Task> task = segment.find(taskId);
+                if (task.isPresent()) {
+                    return task;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read archive segment " + segment.path().getFileName(), e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void appendSuperseded(TaskId taskId, long sequence) throws IOException {
+        byte[] line = (sequence + " " + taskId.getValue() + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            supersededLog.write(buffer);
+        }
+        supersededLog.force(false);
+        superseded.merge(taskId, sequence, Math::max);
+    }
+
+    /**
+     * 載入取代記錄；最後一行若未寫完（寫入中斷）則截斷
+     */
+    private void loadSupersededLog() throws IOException {
+        Path logPath = directory.resolve(SUPERSEDED_LOG);
+        superseded.clear();
+        long validLength = 0;
+        if (Files.exists(logPath)) {
+            byte[] content = Files.readAllBytes(logPath);
+            int lineStart = 0;
+            for (int i = 0; i < content.length; i++) {
+                if (content[i] != '\n') {
+                    continue;
+                }
+                String line = new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8);
+                int separator = line.indexOf(' ');
+                if (separator > 0) {
+                    superseded.merge(TaskId.of(line.substring(separator + 1)),
+                        Long.parseLong(line.substring(0, separator)), Math::max);
+                }
+                lineStart = i + 1;
+            }
+            validLength = lineStart;
+        }
+        supersededLog = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        supersededLog.truncate(validLength);
+        supersededLog.position(validLength);
+    }
+}
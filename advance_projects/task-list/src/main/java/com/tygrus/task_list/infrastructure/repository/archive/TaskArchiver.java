@@ -0,0 +1,75 @@
+package com.tygrus.task_list.infrastructure.repository.archive;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 將熱資料層中的舊任務移入封存庫
+ *
+ * 每批依序：讀出可封存的任務 → 寫成新區段（force 後才繼續）→ 自熱資料層移除仍符合條件的任務。
+ * 讀出後又被修改而未移除的任務，其封存副本立即被取代，讀取時只會看到熱資料層的版本。
+ * 寫入區段後、移除前中斷時，任務同時存在兩層；下次執行會再次封存並取代舊副本。
+ */
+public class TaskArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchiver.class);
+
+    private final ArchivableTaskStore store;
+    private final TaskArchive archive;
+    private final Duration retention;
+    private final int batchSize;
+
+    public TaskArchiver(ArchivableTaskStore store, TaskArchive archive, Duration retention, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.store = store;
+        this.archive = archive;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 封存完成或刪除超過保留期間的任務
+     *
+     * @return 移出熱資料層的任務數
+     */
+    public synchronized int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int archived = 0;
+        while (true) {
+            List<Task> batch = store.findArchivable(cutoff, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                archive.append(batch);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write archive segment", e);
+            }
+            Set<TaskId> purged = store.purgeArchived(batch.stream().map(Task::getId).toList(), cutoff);
+            for (Task task : batch) {
+                if (!purged.contains(task.getId())) {
+                    archive.supersede(task.getId());
+                }
+            }
+            archived += purged.size();
+            if (batch.size() < batchSize || purged.isEmpty()) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            logger.info("Archived {} tasks completed or deleted before {}", archived, cutoff);
+        }
+        return archived;
+    }
+}
@@ -0,0 +1,257 @@
+package com.tygrus.task_list.infrastructure.repository.changefeed;
+
+import com.tygrus.task_list.domain.exception.ChangeFeedTruncatedException;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskChange;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 記憶體內的變更流
+ *
+ * 以環狀陣列保留最近 retention 筆變更，超出時覆蓋最舊的一筆。
+ * 變更可由 {@link #publish} 自行編號，或由 {@link #append} 帶入外部序號（例如 outbox 資料表的 ID，可能不連續）。
+ * 每個訂閱在各自的虛擬執行緒上從保留範圍拉取變更，沒有新變更時在條件變數上等待，
+ * 慢的訂閱者不會拖慢寫入端；落後超出保留範圍時改由 {@link #readEvicted} 補讀，
+ * 預設無法補讀，訂閱結束。
+ */
+public class InMemoryTaskChangeFeed implements TaskChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryTaskChangeFeed.class);
+
+    public static final int DEFAULT_RETENTION = 10_000;
+
+    private static final int DELIVERY_BATCH_SIZE = 256;
+
+    private final TaskChange[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+
+    // 以下欄位由 lock 保護
+    private int head;
+    private int size;
+    private long latestSequence;
+    // 已被覆蓋的最大序號，要求的序號小於等於它即表示有變更遺失
+    private long evictedSequence;
+
+    public InMemoryTaskChangeFeed() {
+        this(DEFAULT_RETENTION);
+    }
+
+    public InMemoryTaskChangeFeed(int retention) {
+        if (retention <= 0) {
+            throw new IllegalArgumentException("Retention must be positive");
+        }
+        this.ring = new TaskChange[retention];
+    }
+
+    /**
+     * 以下一個序號發布變更
+     */
+    public TaskChange publish(TaskChange.Type type, Task task) {
+        lock.lock();
+        try {
+            TaskChange change = new TaskChange(latestSequence + 1, type, task.getId(), task, Instant.now());
+            store(change);
+            return change;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 附加已編號的變更，序號必須大於目前最新的序號
+     */
+    public void append(TaskChange change) {
+        lock.lock();
+        try {
+            if (change.sequence() <= latestSequence) {
+                throw new IllegalArgumentException(String.format(
+                    "Sequence %d is not after latest sequence %d", change.sequence(), latestSequence));
+            }
+            store(change);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long latestSequence() {
+        lock.lock();
+        try {
+            return latestSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<TaskChange> read(long fromSequence, int maxChanges) {
+        lock.lock();
+        try {
+            return readLocked(fromSequence, maxChanges);
+        } catch (ChangeFeedTruncatedException e) {
+            // 補讀可能涉及 I/O，在鎖外進行
+        } finally {
+            lock.unlock();
+        }
+        return readEvicted(fromSequence, maxChanges);
+    }
+
+    /**
+     * 讀取已被移出保留範圍的變更，在鎖外呼叫
+     * 子類別可由持久化的來源補讀；回傳的變更序號需小於等於 {@link #latestSequence()}
+     *
+     * @throws ChangeFeedTruncatedException 無法補讀時
+     */
+    protected List<TaskChange> readEvicted(long fromSequence, int maxChanges) {
+        lock.lock();
+        try {
+            return readLocked(fromSequence, maxChanges);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Subscription subscribe(long fromSequence, Consumer<TaskChange> listener) {
+        FeedSubscription subscription = new FeedSubscription(fromSequence, listener);
+        Thread.ofVirtual()
+            .name("task-change-feed-" + subscriptionCount.incrementAndGet())
+            .start(subscription::run);
+        return subscription;
+    }
+
+    private void store(TaskChange change) {
+        if (size == ring.length) {
+            evictedSequence = ring[head].sequence();
+            ring[head] = change;
+            head = (head + 1) % ring.length;
+        } else {
+            ring[(head + size) % ring.length] = change;
+            size++;
+        }
+        latestSequence = change.sequence();
+        appended.signalAll();
+    }
+
+    private List<TaskChange> readLocked(long fromSequence, int maxChanges) {
+        if (fromSequence <= evictedSequence) {
+            throw new ChangeFeedTruncatedException(fromSequence, size > 0 ? ring[head].sequence() : latestSequence + 1);
+        }
+        if (size == 0 || fromSequence > latestSequence) {
+            return Collections.emptyList();
+        }
+        // 序號單調遞增，以二分搜尋找到第一筆 >= fromSequence 的位置
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ring[(head + mid) % ring.length].sequence() < fromSequence) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int count = Math.min(maxChanges, size - low);
+        List<TaskChange> changes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            changes.add(ring[(head + low + i) % ring.length]);
+        }
+        return changes;
+    }
+
+    private final class FeedSubscription implements Subscription {
+
+        private final Consumer<TaskChange> listener;
+        private volatile long position;
+        private volatile boolean active = true;
+
+        FeedSubscription(long fromSequence, Consumer<TaskChange> listener) {
+            this.listener = listener;
+            this.position = fromSequence - 1;
+        }
+
+        void run() {
+            while (active) {
+                List<TaskChange> batch;
+                try {
+                    batch = nextBatch();
+                } catch (ChangeFeedTruncatedException e) {
+                    logger.warn("Change feed subscription fell behind retention and was closed: {}", e.getMessage());
+                    active = false;
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    active = false;
+                    return;
+                }
+
+                for (TaskChange change : batch) {
+                    if (!active) {
+                        return;
+                    }
+                    try {
+                        listener.accept(change);
+                    } catch (Exception e) {
+                        logger.error("Change feed listener failed at sequence {}", change.sequence(), e);
+                    }
+                    position = change.sequence();
+                }
+            }
+        }
+
+        /**
+         * 取得下一批變更；沒有新變更時等待後回傳空清單
+         */
+        private List<TaskChange> nextBatch() throws InterruptedException {
+            lock.lock();
+            try {
+                List<TaskChange> batch = readLocked(position + 1, DELIVERY_BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    // 逾時後重新檢查 active，避免 close 與等待之間的競態
+                    appended.await(1, TimeUnit.SECONDS);
+                }
+                return batch;
+            } catch (ChangeFeedTruncatedException e) {
+                // 在鎖外補讀
+            } finally {
+                lock.unlock();
+            }
+            return readEvicted(position + 1, DELIVERY_BATCH_SIZE);
+        }
+
+        @Override
+        public long position() {
+            return position;
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public void close() {
+            active = false;
+            lock.lock();
+            try {
+                appended.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
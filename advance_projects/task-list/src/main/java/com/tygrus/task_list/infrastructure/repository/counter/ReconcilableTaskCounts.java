@@ -0,0 +1,15 @@
+package com.tygrus.task_list.infrastructure.repository.counter;
+
+/**
+ * 以 {@link TaskCounters} 增量維護計數、並能與資料來源比對校正的儲存庫
+ * 由 {@link com.tygrus.task_list.infrastructure.scheduler.TaskCounterReconciliationScheduler} 定期呼叫
+ */
+public interface ReconcilableTaskCounts {
+
+    /**
+     * 以資料來源重新計數並修正計數器的偏差
+     *
+     * @return 是否完成比對；掃描期間有寫入進行時回傳 false，留待下一次
+     */
+    boolean reconcileCounters();
+}
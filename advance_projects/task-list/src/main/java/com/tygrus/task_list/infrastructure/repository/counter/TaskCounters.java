@@ -0,0 +1,154 @@
+package com.tygrus.task_list.infrastructure.repository.counter;
+
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskCounts;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 依狀態與優先級增量維護的未刪除任務計數器
+ *
+ * 每個狀態與優先級各一個 LongAdder，寫入時以寫入前後的任務調整，讀取只需加總各 LongAdder 的分段，
+ * 不掃描任務也不與寫入端爭用同一個快取行。
+ *
+ * 寫入端以 {@link #beginWrite()}/{@link #endWrite()} 包住整個寫入（含 {@link #apply}），
+ * 讓 {@link #reconcile} 判斷掃描來源期間是否有寫入進行：有的話計數與掃描結果無法對齊，
+ * 該次校正略過，留待下一次。校正以差值加回計數器，與並行的 apply 可交換。
+ */
+public class TaskCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskCounters.class);
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final LongAdder[] byStatus = newAdders(STATUSES.length);
+    private final LongAdder[] byPriority = newAdders(PRIORITIES.length);
+
+    private final LongAdder writesBegun = new LongAdder();
+    private final LongAdder writesEnded = new LongAdder();
+    private final LongAdder corrections = new LongAdder();
+
+    /**
+     * 寫入開始，必須與 {@link #endWrite()} 成對呼叫
+     */
+    public void beginWrite() {
+        writesBegun.increment();
+    }
+
+    /**
+     * 寫入結束（成功或失敗），寫入結果必須已對讀取端可見
+     */
+    public void endWrite() {
+        writesEnded.increment();
+    }
+
+    /**
+     * 以單一任務寫入前後的狀態調整計數，已刪除的任務不列入
+     *
+     * @param previous 寫入前的任務，null 表示新增
+     * @param current 寫入後的任務，null 表示移除
+     */
+    public void apply(Task previous, Task current) {
+        if (previous != null && !previous.isDeleted()) {
+            byStatus[previous.getStatus().ordinal()].decrement();
+            byPriority[previous.getPriority().ordinal()].decrement();
+        }
+        if (current != null && !current.isDeleted()) {
+            byStatus[current.getStatus().ordinal()].increment();
+            byPriority[current.getPriority().ordinal()].increment();
+        }
+    }
+
+    /**
+     * 以一批任務寫入前後的計數差調整計數
+     */
+    public void apply(TaskCounts before, TaskCounts after) {
+        for (TaskStatus status : STATUSES) {
+            byStatus[status.ordinal()].add(after.countOf(status) - before.countOf(status));
+        }
+        for (Priority priority : PRIORITIES) {
+            byPriority[priority.ordinal()].add(after.countOf(priority) - before.countOf(priority));
+        }
+    }
+
+    public long countOf(TaskStatus status) {
+        return byStatus[status.ordinal()].sum();
+    }
+
+    public long countOf(Priority priority) {
+        return byPriority[priority.ordinal()].sum();
+    }
+
+    public TaskCounts snapshot() {
+        return TaskCounts.of(sums(byStatus), sums(byPriority));
+    }
+
+    /**
+     * 歸零，呼叫端需確保沒有並行寫入
+     */
+    public void reset() {
+        for (LongAdder adder : byStatus) {
+            adder.reset();
+        }
+        for (LongAdder adder : byPriority) {
+            adder.reset();
+        }
+    }
+
+    /**
+     * 與資料來源比對並修正偏差
+     * 掃描前後都沒有進行中的寫入時才修正，否則略過
+     *
+     * @param source 以資料來源實際計數的函式
+     * @return 是否完成比對（不論有無偏差）
+     */
+    public boolean reconcile(Supplier<TaskCounts> source) {
+        long ended = writesEnded.sum();
+        long begun = writesBegun.sum();
+        if (begun != ended) {
+            logger.debug("Skipping counter reconciliation: {} writes in flight", begun - ended);
+            return false;
+        }
+        TaskCounts counted = snapshot();
+        TaskCounts actual = source.get();
+        if (writesBegun.sum() != begun) {
+            logger.debug("Skipping counter reconciliation: writes happened during the scan");
+            return false;
+        }
+        if (!counted.equals(actual)) {
+            logger.warn("Task counters drifted from source, correcting: counted {} actual {}", counted, actual);
+            apply(counted, actual);
+            corrections.increment();
+        }
+        return true;
+    }
+
+    /**
+     * 校正發現偏差的次數
+     */
+    public long corrections() {
+        return corrections.sum();
+    }
+
+    private static LongAdder[] newAdders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+}
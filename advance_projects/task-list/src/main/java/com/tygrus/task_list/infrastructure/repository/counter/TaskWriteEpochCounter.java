@@ -0,0 +1,88 @@
+package com.tygrus.task_list.infrastructure.repository.counter;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskCounts;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskWriteEpochs;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 以 LongAdder 維護的寫入世代
+ *
+ * 與 {@link TaskCounters} 在同樣的位置推進：寫入結果對讀取端可見之後才呼叫 advance，
+ * 因此讀到新世代的讀取端必定也讀得到該次寫入。已刪除的任務同樣推進其狀態的世代，
+ * 軟刪除讓任務離開原狀態的查詢結果。
+ */
+public class TaskWriteEpochCounter implements TaskWriteEpochs {
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final LongAdder global = new LongAdder();
+    private final LongAdder[] byStatus = new LongAdder[STATUSES.length];
+
+    public TaskWriteEpochCounter() {
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 單一任務寫入後推進全域世代與寫入前後所屬狀態的世代
+     *
+     * @param previous 寫入前的任務，null 表示新增
+     * @param current 寫入後的任務，null 表示移除
+     */
+    public void advance(Task previous, Task current) {
+        advance(previous != null ? previous.getStatus() : null, current != null ? current.getStatus() : null);
+    }
+
+    /**
+     * 單一任務寫入後推進全域世代與寫入前後狀態的世代，供不必還原整個任務就能讀到狀態的實作使用
+     *
+     * @param previous 寫入前的狀態，null 表示新增
+     * @param current 寫入後的狀態，null 表示移除
+     */
+    public void advance(TaskStatus previous, TaskStatus current) {
+        global.increment();
+        if (previous != null) {
+            byStatus[previous.ordinal()].increment();
+        }
+        if (current != null && current != previous) {
+            byStatus[current.ordinal()].increment();
+        }
+    }
+
+    /**
+     * 一批任務寫入後推進全域世代，以及寫入前或寫入後有未刪除任務的狀態的世代
+     * 只影響已刪除任務的寫入不會改變任何查詢結果，只推進全域世代
+     */
+    public void advance(TaskCounts before, TaskCounts after) {
+        global.increment();
+        for (TaskStatus status : STATUSES) {
+            if (before.countOf(status) > 0 || after.countOf(status) > 0) {
+                byStatus[status.ordinal()].increment();
+            }
+        }
+    }
+
+    /**
+     * 推進所有世代，供清空、或無法得知受影響範圍的寫入（如校正發現其他來源的寫入）使用
+     */
+    public void advanceAll() {
+        global.increment();
+        for (LongAdder adder : byStatus) {
+            adder.increment();
+        }
+    }
+
+    @Override
+    public long global() {
+        return global.sum();
+    }
+
+    @Override
+    public long of(TaskStatus status) {
+        return byStatus[status.ordinal()].sum();
+    }
+}
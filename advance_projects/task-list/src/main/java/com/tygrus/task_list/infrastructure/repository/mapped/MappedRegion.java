@@ -0,0 +1,125 @@
+package com.tygrus.task_list.infrastructure.repository.mapped;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分塊映射的檔案區域
+ *
+ * 單一 MappedByteBuffer 上限為 2GB，因此以固定大小（2 的次方）的區塊映射整個檔案，
+ * 以 long 位址存取。呼叫端須保證單一欄位不跨越區塊邊界。
+ * 只使用絕對位置的讀寫，讀取端可並行；擴充區塊須由呼叫端以互斥方式進行。
+ */
+public final class MappedRegion implements Closeable {
+
+    private final FileChannel channel;
+    private final int chunkShift;
+    private final long chunkMask;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+
+    private MappedRegion(FileChannel channel, int chunkSize) {
+        this.channel = channel;
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        this.chunkMask = chunkSize - 1L;
+    }
+
+    /**
+     * 開啟檔案並映射既有內容
+     *
+     * @param file 檔案路徑，不存在時建立
+     * @param chunkSize 區塊大小，必須是 2 的次方
+     */
+    public static MappedRegion open(Path file, int chunkSize) throws IOException {
+        if (Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("Chunk size must be a power of two: " + chunkSize);
+        }
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedRegion region = new MappedRegion(channel, chunkSize);
+        region.ensureCapacity(Math.max(channel.size(), 1));
+        return region;
+    }
+
+    /**
+     * 確保可存取到指定位元組數，不足時映射新區塊（會延伸檔案長度）
+     */
+    public void ensureCapacity(long bytes) throws IOException {
+        while (capacity() < bytes) {
+            long position = (long) chunks.size() << chunkShift;
+            chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, position, chunkMask + 1));
+        }
+    }
+
+    public long capacity() {
+        return (long) chunks.size() << chunkShift;
+    }
+
+    public int chunkSize() {
+        return (int) (chunkMask + 1);
+    }
+
+    public byte get(long position) {
+        return chunk(position).get(offset(position));
+    }
+
+    public void put(long position, byte value) {
+        chunk(position).put(offset(position), value);
+    }
+
+    public int getInt(long position) {
+        return chunk(position).getInt(offset(position));
+    }
+
+    public void putInt(long position, int value) {
+        chunk(position).putInt(offset(position), value);
+    }
+
+    public long getLong(long position) {
+        return chunk(position).getLong(offset(position));
+    }
+
+    public void putLong(long position, long value) {
+        chunk(position).putLong(offset(position), value);
+    }
+
+    public void getBytes(long position, byte[] destination) {
+        chunk(position).get(offset(position), destination);
+    }
+
+    public void putBytes(long position, byte[] source) {
+        chunk(position).put(offset(position), source);
+    }
+
+    /**
+     * 將已修改的頁面寫回磁碟
+     */
+    public void force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    /**
+     * 強制落盤後關閉檔案；映射本身在緩衝區被回收時才解除
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        chunks.clear();
+        channel.close();
+    }
+
+    private MappedByteBuffer chunk(long position) {
+        return chunks.get((int) (position >>> chunkShift));
+    }
+
+    private int offset(long position) {
+        return (int) (position & chunkMask);
+    }
+}
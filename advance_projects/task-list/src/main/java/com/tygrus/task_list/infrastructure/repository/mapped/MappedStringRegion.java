@@ -0,0 +1,100 @@
+package com.tygrus.task_list.infrastructure.repository.mapped;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * 映射檔案中的附加式字串區
+ *
+ * 字串以 UTF-8 連續寫入，呼叫端以 (位移, 長度) 參照。
+ * 單一字串不跨越區塊邊界；剩餘空間不足時跳到下一個區塊開頭。
+ * 檔頭格式：[int MAGIC][int 格式版本][long 下一個寫入位移]
+ */
+public final class MappedStringRegion implements Closeable {
+
+    private static final int MAGIC = 0x54535452; // "TSTR"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int NEXT_OFFSET_POSITION = 8;
+
+    private final MappedRegion region;
+    private long nextOffset;
+
+    private MappedStringRegion(MappedRegion region, long nextOffset) {
+        this.region = region;
+        this.nextOffset = nextOffset;
+    }
+
+    public static MappedStringRegion open(Path file, int chunkSize) throws IOException {
+        MappedRegion region = MappedRegion.open(file, chunkSize);
+        int magic = region.getInt(0);
+        if (magic == 0) {
+            region.putInt(0, MAGIC);
+            region.putInt(4, FORMAT_VERSION);
+            region.putLong(NEXT_OFFSET_POSITION, HEADER_SIZE);
+        } else if (magic != MAGIC || region.getInt(4) != FORMAT_VERSION) {
+            region.close();
+            throw new IOException("Not a task string region: " + file);
+        }
+        return new MappedStringRegion(region, region.getLong(NEXT_OFFSET_POSITION));
+    }
+
+    /**
+     * 附加字串
+     *
+     * @return 字串的位移
+     */
+    public long append(byte[] utf8) throws IOException {
+        if (utf8.length > region.chunkSize()) {
+            throw new IllegalArgumentException("String of " + utf8.length + " bytes exceeds chunk size");
+        }
+        long offset = nextOffset;
+        long chunkRemaining = region.chunkSize() - (offset & (region.chunkSize() - 1));
+        if (utf8.length > chunkRemaining) {
+            offset += chunkRemaining;
+        }
+        region.ensureCapacity(offset + utf8.length);
+        region.putBytes(offset, utf8);
+        nextOffset = offset + utf8.length;
+        region.putLong(NEXT_OFFSET_POSITION, nextOffset);
+        return offset;
+    }
+
+    public String read(long offset, int length) {
+        return new String(readBytes(offset, length), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 比較指定位置的字串與給定內容是否相同，避免解碼成 String
+     */
+    public boolean contentEquals(long offset, int length, byte[] expected) {
+        return length == expected.length && Arrays.equals(readBytes(offset, length), expected);
+    }
+
+    /**
+     * 已使用的位元組數（含已不再被參照的舊字串）
+     */
+    public long usedBytes() {
+        return nextOffset;
+    }
+
+    public void force() {
+        region.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        region.close();
+    }
+
+    private byte[] readBytes(long offset, int length) {
+        byte[] bytes = new byte[length];
+        if (length > 0) {
+            region.getBytes(offset, bytes);
+        }
+        return bytes;
+    }
+}
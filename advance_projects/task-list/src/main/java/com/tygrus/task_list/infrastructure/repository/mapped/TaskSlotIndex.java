@@ -0,0 +1,115 @@
+package com.tygrus.task_list.infrastructure.repository.mapped;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * 任務ID雜湊 -> 記錄槽位 的開放定址索引
+ *
+ * 只由兩個 int 陣列組成，數千萬筆也只有兩個堆積物件，不產生每筆項目的 GC 負擔。
+ * 索引本身不保存 ID，比對交由呼叫端讀取映射記錄完成。
+ * 採線性探測與反向位移刪除，不需要墓碑。非執行緒安全，由呼叫端加鎖。
+ */
+public final class TaskSlotIndex {
+
+    private static final int EMPTY = 0;
+
+    private int[] hashes;
+    // 槽位 + 1；0 表示空
+    private int[] slots;
+    private int size;
+
+    public TaskSlotIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.hashes = new int[capacity];
+        this.slots = new int[capacity];
+    }
+
+    /**
+     * 查詢符合的槽位
+     *
+     * @param hash ID 雜湊值
+     * @param matches 判斷槽位中的記錄是否為目標 ID
+     * @return 槽位，找不到時回傳 -1
+     */
+    public int find(int hash, IntPredicate matches) {
+        int mask = slots.length - 1;
+        for (int i = hash & mask; slots[i] != EMPTY; i = (i + 1) & mask) {
+            if (hashes[i] == hash && matches.test(slots[i] - 1)) {
+                return slots[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 加入項目，呼叫端須確認 ID 尚未存在
+     */
+    public void put(int hash, int slot) {
+        if ((size + 1) * 2 > slots.length) {
+            resize(slots.length * 2);
+        }
+        insert(hashes, slots, hash, slot + 1);
+        size++;
+    }
+
+    /**
+     * 移除指向指定槽位的項目
+     */
+    public boolean remove(int hash, int slot) {
+        int mask = slots.length - 1;
+        int i = hash & mask;
+        while (slots[i] != slot + 1) {
+            if (slots[i] == EMPTY) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        // 反向位移：把後續探測鏈中可前移的項目補進空位
+        int gap = i;
+        for (int j = (gap + 1) & mask; slots[j] != EMPTY; j = (j + 1) & mask) {
+            int home = hashes[j] & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                hashes[gap] = hashes[j];
+                slots[gap] = slots[j];
+                gap = j;
+            }
+        }
+        hashes[gap] = 0;
+        slots[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(hashes, 0);
+        Arrays.fill(slots, EMPTY);
+        size = 0;
+    }
+
+    private void resize(int newCapacity) {
+        int[] newHashes = new int[newCapacity];
+        int[] newSlots = new int[newCapacity];
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != EMPTY) {
+                insert(newHashes, newSlots, hashes[i], slots[i]);
+            }
+        }
+        hashes = newHashes;
+        slots = newSlots;
+    }
+
+    private static void insert(int[] hashes, int[] slots, int hash, int encodedSlot) {
+        int mask = slots.length - 1;
+        int i = hash & mask;
+        while (slots[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        hashes[i] = hash;
+        slots[i] = encodedSlot;
+    }
+}
@@ -0,0 +1,106 @@
+package com.tygrus.task_list.infrastructure.repository.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 一致性雜湊環
+ *
+ * 每個節點依名稱在環上放置多個虛擬節點，鍵值順時針找到的第一個虛擬節點即為擁有者。
+ * 新增節點時只有落在新虛擬節點前方區段的鍵會改變擁有者（約 1/N），其餘鍵不受影響。
+ * 環建立後不可變，新增節點會產生新的環，可安全地在多執行緒間共享。
+ *
+ * @param <N> 節點型別
+ */
+public final class ConsistentHashRing<N> {
+
+    private final Map<String, N> nodes;
+    private final int virtualNodes;
+    // 依雜湊值排序的虛擬節點位置，與 owners 一一對應
+    private final long[] points;
+    private final Object[] owners;
+
+    public ConsistentHashRing(Map<String, N> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("Ring requires at least one node");
+        }
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual node count must be positive");
+        }
+        this.nodes = Collections.unmodifiableMap(new LinkedHashMap<>(nodes));
+        this.virtualNodes = virtualNodes;
+
+        int count = nodes.size() * virtualNodes;
+        long[][] entries = new long[count][];
+        Object[] byIndex = nodes.values().toArray();
+        int i = 0;
+        int nodeIndex = 0;
+        for (String name : nodes.keySet()) {
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[i++] = new long[] {hash(name + "#" + v), nodeIndex};
+            }
+            nodeIndex++;
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+
+        this.points = new long[count];
+        this.owners = new Object[count];
+        for (int j = 0; j < count; j++) {
+            points[j] = entries[j][0];
+            owners[j] = byIndex[(int) entries[j][1]];
+        }
+    }
+
+    /**
+     * 加入節點後的新環，原環不變
+     */
+    public ConsistentHashRing<N> withNode(String name, N node) {
+        if (nodes.containsKey(name)) {
+            throw new IllegalArgumentException("Node already exists: " + name);
+        }
+        Map<String, N> expanded = new LinkedHashMap<>(nodes);
+        expanded.put(name, node);
+        return new ConsistentHashRing<>(expanded, virtualNodes);
+    }
+
+    /**
+     * 查詢鍵值的擁有節點
+     */
+    @SuppressWarnings("unchecked")
+    public N route(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return (N) owners[index == points.length ? 0 : index];
+    }
+
+    public Collection<N> nodes() {
+        return nodes.values();
+    }
+
+    public Map<String, N> nodesByName() {
+        return nodes;
+    }
+
+    /**
+     * 64 位元 FNV-1a 加上 murmur3 的 fmix64 收尾，讓相近的字串也能均勻分佈在環上
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,168 @@
+package com.tygrus.task_list.infrastructure.repository.wal;
+
+import com.tygrus.task_list.domain.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 任務快照檔案管理
+ *
+ * 快照格式：[int MAGIC][int 格式版本][long 涵蓋LSN][int 筆數][任務記錄...][long CRC32]
+ * 先寫入暫存檔並 force() 後以原子搬移命名為 snapshot-{LSN}.snap，
+ * 因此任何時刻磁碟上的正式快照都是完整的。
+ */
+public class SnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotStore.class);
+
+    private static final int MAGIC = 0x54534E50; // "TSNP"
+    private static final int FORMAT_VERSION = 1;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private final Path directory;
+
+    public SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * 載入的快照內容
+     *
+     * @param lsn 快照涵蓋到的日誌序號
+     * @param tasks 快照中的任務
+     */
+    public record Snapshot(long lsn, List<Task> tasks) {
+    }
+
+    /**
+     * 寫入新快照並移除較舊的快照
+     *
+     * @param lsn 快照涵蓋到的日誌序號
+     * @param tasks 要寫入的任務
+     * @return 快照檔案路徑
+     */
+    public Path write(long lsn, Collection<Task> tasks) throws IOException {
+        Files.createDirectories(directory);
+        String fileName = String.format("%s%020d%s", SNAPSHOT_PREFIX, lsn, SNAPSHOT_SUFFIX);
+        Path target = directory.resolve(fileName);
+        Path temp = directory.resolve(fileName + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CheckedOutputStream checked = new CheckedOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(lsn);
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                TaskRecordCodec.write(out, task);
+            }
+            long checksum = checked.getChecksum().getValue();
+            out.writeLong(checksum);
+            out.flush();
+            channel.force(true);
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        deleteOlderThan(lsn);
+        logger.info("Wrote snapshot {} with {} tasks", fileName, tasks.size());
+        return target;
+    }
+
+    /**
+     * 載入最新且校驗正確的快照
+     * 最新快照毀損時退回較舊的快照
+     */
+    public Optional<Snapshot> loadLatest() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Optional.empty();
+        }
+        List<Path> snapshots = listSnapshots();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Path path = snapshots.get(i);
+            try {
+                return Optional.of(read(path));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Skipping unreadable snapshot {}: {}", path.getFileName(), e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Snapshot read(Path path) throws IOException {
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(path), 64 * 1024)) {
+            CheckedInputStream checked = new CheckedInputStream(raw, new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a task snapshot");
+            }
+            int formatVersion = in.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format version " + formatVersion);
+            }
+            long lsn = in.readLong();
+            int count = in.readInt();
+            List<Task> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tasks.add(TaskRecordCodec.read(in));
+            }
+            long actualChecksum = checked.getChecksum().getValue();
+            if (in.readLong() != actualChecksum) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+            return new Snapshot(lsn, tasks);
+        }
+    }
+
+    private void deleteOlderThan(long lsn) throws IOException {
+        for (Path path : listSnapshots()) {
+            if (lsnOf(path) < lsn) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(path -> {
+                    String name = path.getFileName().toString();
+                    return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                })
+                .sorted(Comparator.comparingLong(SnapshotStore::lsnOf))
+                .toList();
+        }
+    }
+
+    private static long lsnOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.tygrus.task_list.infrastructure.repository.wal;
+
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Task 二進位編碼器
+ *
+ * 供預寫日誌與快照檔案使用的緊湊格式：
+ * 字串以 modified UTF-8 儲存，時間以 UTC epoch 秒加奈秒儲存，可為 null 的欄位前置存在旗標
+ */
+public final class TaskRecordCodec {
+
+    private TaskRecordCodec() {
+    }
+
+    /**
+     * 將任務編碼為位元組陣列
+     */
+    public static byte[] encode(Task task) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            write(out, task);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode task " + task.getId(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 自位元組陣列解碼任務
+     */
+    public static Task decode(byte[] bytes) throws IOException {
+        return read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    public static void write(DataOutput out, Task task) throws IOException {
+        out.writeUTF(task.getId().getValue());
+        out.writeUTF(task.getTitle());
+        writeNullableString(out, task.getDescription());
+        out.writeUTF(task.getStatus().name());
+        out.writeUTF(task.getPriority().name());
+        writeNullableTime(out, task.getDueDate());
+        writeNullableTime(out, task.getCreatedAt());
+        writeNullableTime(out, task.getUpdatedAt());
+        out.writeBoolean(task.isDeleted());
+        writeNullableTime(out, task.getDeletedAt());
+        writeNullableString(out, task.getDeletedBy());
+        out.writeLong(task.getVersion());
+    }
+
+    public static Task read(DataInput in) throws IOException {
+        TaskId id = TaskId.of(in.readUTF());
+        String title = in.readUTF();
+        String description = readNullableString(in);
+        TaskStatus status = TaskStatus.valueOf(in.readUTF());
+        Priority priority = Priority.valueOf(in.readUTF());
+        LocalDateTime dueDate = readNullableTime(in);
+        LocalDateTime createdAt = readNullableTime(in);
+        LocalDateTime updatedAt = readNullableTime(in);
+        boolean deleted = in.readBoolean();
+        LocalDateTime deletedAt = readNullableTime(in);
+        String deletedBy = readNullableString(in);
+        long version = in.readLong();
+
+        return Task.restoreFromPersistence(id, title, description, status, priority, dueDate,
+            createdAt, updatedAt, deleted, deletedAt, deletedBy, version);
+    }
+
+    private static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullableTime(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readNullableTime(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long epochSecond = in.readLong();
+        int nano = in.readInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+}
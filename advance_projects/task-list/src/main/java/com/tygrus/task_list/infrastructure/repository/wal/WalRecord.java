@@ -0,0 +1,20 @@
+package com.tygrus.task_list.infrastructure.repository.wal;
+
+/**
+ * 預寫日誌中的單筆記錄
+ *
+ * @param lsn 單調遞增的日誌序號
+ * @param type 記錄類型，見 {@link #PUT}、{@link #DELETE}、{@link #CLEAR}
+ * @param payload 記錄內容
+ */
+public record WalRecord(long lsn, byte type, byte[] payload) {
+
+    /** 寫入完整的任務快照 */
+    public static final byte PUT = 1;
+
+    /** 移除任務，payload 為任務ID */
+    public static final byte DELETE = 2;
+
+    /** 清空所有任務，無 payload */
+    public static final byte CLEAR = 3;
+}
@@ -0,0 +1,394 @@
+package com.tygrus.task_list.infrastructure.repository.wal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 分段輪替、群組提交的預寫日誌
+ *
+ * 呼叫端以 append 取得日誌序號 (LSN) 後由單一寫入執行緒批次寫入 FileChannel，
+ * 依 SyncMode 決定每筆或每批呼叫一次 force()，再以 awaitDurable 等待持久化完成。
+ *
+ * 磁碟格式：[int 長度][int CRC32][long LSN][byte 類型][payload]，
+ * CRC 涵蓋 LSN、類型與 payload，復原時遇到第一筆毀損記錄即截斷。
+ * 檔名為 wal-{起始LSN}.log，超過 maxSegmentBytes 時輪替新檔。
+ */
+public class WriteAheadLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int MAX_BATCH_RECORDS = 1024;
+
+    /**
+     * 持久化策略
+     */
+    public enum SyncMode {
+        /** 每筆記錄寫入後立即 force()，最安全但吞吐量最低 */
+        PER_WRITE,
+        /** 每批記錄寫入後 force() 一次（群組提交） */
+        PER_BATCH,
+        /** 只寫入作業系統頁面快取，由 OS 決定何時落盤 */
+        OS_MANAGED
+    }
+
+    private final Path directory;
+    private final SyncMode syncMode;
+    private final long maxSegmentBytes;
+
+    private final BlockingQueue<WalRecord> pending = new LinkedBlockingQueue<>();
+    private final Object appendLock = new Object();
+    private final Object durableMonitor = new Object();
+    private final Thread writerThread;
+
+    private long lastAssignedLsn;
+    private volatile long durableLsn;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    // 以下欄位僅由寫入執行緒存取
+    private FileChannel activeSegment;
+    private long activeSegmentBytes;
+
+    private WriteAheadLog(Path directory, SyncMode syncMode, long maxSegmentBytes, long lastLsn) {
+        this.directory = directory;
+        this.syncMode = syncMode;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.lastAssignedLsn = lastLsn;
+        this.durableLsn = lastLsn;
+        this.writerThread = new Thread(this::runWriter, "task-wal-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    /**
+     * 開啟日誌目錄
+     * 掃描既有分段、截斷尾端毀損的記錄，並啟動寫入執行緒
+     */
+    public static WriteAheadLog open(Path directory, SyncMode syncMode, long maxSegmentBytes) throws IOException {
+        Files.createDirectories(directory);
+
+        long lastLsn = 0;
+        for (Path segment : listSegments(directory)) {
+            long[] last = {lastLsn};
+            long validBytes = readSegment(segment, record -> last[0] = record.lsn());
+            if (validBytes == 0) {
+                // 建立後尚未寫入任何完整記錄即中斷的分段，移除以免與新分段撞名
+                Files.delete(segment);
+                continue;
+            }
+            if (validBytes < Files.size(segment)) {
+                logger.warn("Truncating torn WAL segment {} at {} bytes", segment.getFileName(), validBytes);
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                    channel.truncate(validBytes);
+                }
+            }
+            lastLsn = last[0];
+        }
+
+        WriteAheadLog log = new WriteAheadLog(directory, syncMode, maxSegmentBytes, lastLsn);
+        log.writerThread.start();
+        logger.info("Opened WAL at {} (lastLsn={}, syncMode={})", directory, lastLsn, syncMode);
+        return log;
+    }
+
+    /**
+     * 附加一筆記錄並回傳其 LSN
+     * LSN 的分配與入列在同一臨界區內完成，因此寫入順序與 LSN 順序一致
+     */
+    public long append(byte type, byte[] payload) {
+        synchronized (appendLock) {
+            ensureWritable();
+            long lsn = ++lastAssignedLsn;
+            pending.add(new WalRecord(lsn, type, payload));
+            return lsn;
+        }
+    }
+
+    /**
+     * 等待指定 LSN 以前的記錄全部寫入完成
+     *
+     * @throws UncheckedIOException 當寫入執行緒發生 I/O 錯誤或日誌已關閉時
+     */
+    public void awaitDurable(long lsn) {
+        if (durableLsn >= lsn) {
+            return;
+        }
+        synchronized (durableMonitor) {
+            while (durableLsn < lsn) {
+                if (failure != null) {
+                    throw new UncheckedIOException("WAL write failed", failure);
+                }
+                if (!writerThread.isAlive()) {
+                    throw new UncheckedIOException(new IOException("WAL is closed"));
+                }
+                try {
+                    durableMonitor.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new InterruptedIOException("Interrupted while awaiting WAL sync"));
+                }
+            }
+        }
+    }
+
+    /**
+     * 確保後續分配的 LSN 大於指定值（例如快照所涵蓋的 LSN）
+     */
+    public void advanceTo(long lsn) {
+        synchronized (appendLock) {
+            if (lastAssignedLsn < lsn) {
+                lastAssignedLsn = lsn;
+                durableLsn = Math.max(durableLsn, lsn);
+            }
+        }
+    }
+
+    /**
+     * 最後一筆已分配的 LSN
+     */
+    public long lastAssignedLsn() {
+        synchronized (appendLock) {
+            return lastAssignedLsn;
+        }
+    }
+
+    /**
+     * 依序重播 LSN 大於 afterLsn 的所有記錄
+     */
+    public void replay(long afterLsn, Consumer<WalRecord> consumer) throws IOException {
+        for (Path segment : listSegments(directory)) {
+            readSegment(segment, record -> {
+                if (record.lsn() > afterLsn) {
+                    consumer.accept(record);
+                }
+            });
+        }
+    }
+
+    /**
+     * 刪除內容完全被 coveredLsn 涵蓋的分段
+     * 只刪除已有後繼分段的檔案，因此不會碰到正在寫入的分段
+     *
+     * @return 刪除的分段數
+     */
+    public int deleteSegmentsUpTo(long coveredLsn) throws IOException {
+        List<Path> segments = listSegments(directory);
+        int deleted = 0;
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long nextStartLsn = startLsnOf(segments.get(i + 1));
+            if (nextStartLsn > coveredLsn + 1) {
+                break;
+            }
+            Files.deleteIfExists(segments.get(i));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    /**
+     * 關閉日誌，等待佇列中的記錄寫完後停止寫入執行緒
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            closed = true;
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing WAL");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void ensureWritable() {
+        if (closed) {
+            throw new IllegalStateException("WAL is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("WAL is in failed state", failure);
+        }
+    }
+
+    private void runWriter() {
+        List<WalRecord> batch = new ArrayList<>(MAX_BATCH_RECORDS);
+        try {
+            while (true) {
+                WalRecord first = pending.poll(50, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed && pending.isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch, MAX_BATCH_RECORDS - 1);
+
+                writeBatch(batch);
+                markDurable(batch.get(batch.size() - 1).lsn());
+                batch.clear();
+            }
+        } catch (IOException e) {
+            logger.error("WAL writer failed, rejecting further writes", e);
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new InterruptedIOException("WAL writer interrupted");
+        } finally {
+            closeActiveSegment();
+            synchronized (durableMonitor) {
+                durableMonitor.notifyAll();
+            }
+        }
+    }
+
+    private void writeBatch(List<WalRecord> batch) throws IOException {
+        for (WalRecord record : batch) {
+            ByteBuffer buffer = encode(record);
+            if (activeSegment == null || activeSegmentBytes + buffer.remaining() > maxSegmentBytes) {
+                rotate(record.lsn());
+            }
+            while (buffer.hasRemaining()) {
+                activeSegmentBytes += activeSegment.write(buffer);
+            }
+            if (syncMode == SyncMode.PER_WRITE) {
+                activeSegment.force(false);
+            }
+        }
+        if (syncMode == SyncMode.PER_BATCH) {
+            activeSegment.force(false);
+        }
+    }
+
+    private void rotate(long startLsn) throws IOException {
+        if (activeSegment != null) {
+            activeSegment.force(false);
+            activeSegment.close();
+        }
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, startLsn, SEGMENT_SUFFIX));
+        activeSegment = FileChannel.open(segment,
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        activeSegmentBytes = 0;
+        logger.debug("Rotated WAL to segment {}", segment.getFileName());
+    }
+
+    private void closeActiveSegment() {
+        if (activeSegment == null) {
+            return;
+        }
+        try {
+            activeSegment.force(false);
+            activeSegment.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close WAL segment: {}", e.getMessage());
+        }
+        activeSegment = null;
+    }
+
+    private void markDurable(long lsn) {
+        synchronized (durableMonitor) {
+            durableLsn = lsn;
+            durableMonitor.notifyAll();
+        }
+    }
+
+    private static ByteBuffer encode(WalRecord record) {
+        int bodyLength = Long.BYTES + 1 + record.payload().length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+        buffer.putInt(bodyLength);
+        buffer.putInt(0); // CRC 佔位
+        buffer.putLong(record.lsn());
+        buffer.put(record.type());
+        buffer.put(record.payload());
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_BYTES, bodyLength);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        return buffer.flip();
+    }
+
+    /**
+     * 讀取分段中所有完整且校驗正確的記錄
+     *
+     * @return 有效資料的位元組數
+     */
+    private static long readSegment(Path segment, Consumer<WalRecord> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+            while (position + HEADER_BYTES <= size) {
+                header.clear();
+                channel.read(header, position);
+                header.flip();
+                int bodyLength = header.getInt();
+                int expectedCrc = header.getInt();
+                if (bodyLength < Long.BYTES + 1 || position + HEADER_BYTES + bodyLength > size) {
+                    break;
+                }
+
+                ByteBuffer body = ByteBuffer.allocate(bodyLength);
+                while (body.hasRemaining()) {
+                    if (channel.read(body, position + HEADER_BYTES + body.position()) < 0) {
+                        break;
+                    }
+                }
+                CRC32 crc = new CRC32();
+                crc.update(body.array(), 0, bodyLength);
+                if ((int) crc.getValue() != expectedCrc) {
+                    break;
+                }
+
+                body.flip();
+                long lsn = body.getLong();
+                byte type = body.get();
+                byte[] payload = new byte[body.remaining()];
+                body.get(payload);
+                consumer.accept(new WalRecord(lsn, type, payload));
+                position += HEADER_BYTES + bodyLength;
+            }
+            return position;
+        }
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(path -> {
+                    String name = path.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                })
+                .sorted()
+                .toList();
+        }
+    }
+
+    private static long startLsnOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,36 @@
+package com.tygrus.task_list.infrastructure.scheduler;
+
+import com.tygrus.task_list.infrastructure.repository.archive.TaskArchiver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 任務封存調度器
+ * 定期把完成或刪除超過保留期間的任務移出熱資料層，寫入壓縮的封存區段
+ */
+@Component
+@ConditionalOnProperty(name = "task.archive.enabled", havingValue = "true")
+public class TaskArchiveScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchiveScheduler.class);
+
+    private final TaskArchiver archiver;
+
+    public TaskArchiveScheduler(TaskArchiver archiver) {
+        this.archiver = archiver;
+    }
+
+    @Scheduled(initialDelayString = "${task.archive.interval-ms:3600000}",
+               fixedDelayString = "${task.archive.interval-ms:3600000}")
+    public void archive() {
+        try {
+            int archived = archiver.archive();
+            logger.debug("Archive run moved {} tasks", archived);
+        } catch (Exception e) {
+            logger.error("Task archive run failed", e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.tygrus.task_list.infrastructure.scheduler;
+
+import com.tygrus.task_list.infrastructure.repository.counter.ReconcilableTaskCounts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 任務計數器校正調度器
+ * 定期以各儲存庫的資料來源重新計數，修正增量維護的狀態與優先級計數器
+ * 計數器在寫入時即時調整，校正只用來修正漏算（如其他應用程式實例或直接 SQL 的寫入）
+ */
+@Component
+@ConditionalOnProperty(name = "task.counters.reconcile-enabled", havingValue = "true", matchIfMissing = true)
+public class TaskCounterReconciliationScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskCounterReconciliationScheduler.class);
+
+    private final List<ReconcilableTaskCounts> repositories;
+
+    public TaskCounterReconciliationScheduler(List<ReconcilableTaskCounts> repositories) {
+        this.repositories = repositories;
+    }
+
+    @Scheduled(initialDelayString = "${task.counters.reconcile-interval-ms:300000}",
+               fixedDelayString = "${task.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        for (ReconcilableTaskCounts repository : repositories) {
+            try {
+                if (!repository.reconcileCounters()) {
+                    logger.debug("Counter reconciliation of {} skipped due to concurrent writes",
+                        repository.getClass().getSimpleName());
+                }
+            } catch (Exception e) {
+                logger.error("Counter reconciliation of {} failed", repository.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
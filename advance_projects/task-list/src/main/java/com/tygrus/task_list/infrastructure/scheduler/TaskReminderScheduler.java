@@ -140,14 +140,15 @@ public class TaskReminderScheduler {
         logger.info("Starting weekly summary generation...");
         
         try {
-            List<Task> allTasks = taskRepository.findAll();
-            logger.debug("Found {} tasks for weekly summary", allTasks.size());
+            // 逐筆串流處理，不一次載入全部任務
+            long processed = taskRepository.streamAll(tasks -> tasks
+                .mapToLong(task -> {
+                    processWeeklySummary(task);
+                    return 1L;
+                })
+                .sum());
             
-            for (Task task : allTasks) {
-                processWeeklySummary(task);
-            }
-            
-            logger.info("Completed weekly summary generation - processed {} tasks", allTasks.size());
+            logger.info("Completed weekly summary generation - processed {} tasks", processed);
             
         } catch (Exception e) {
             logger.error("Error during weekly summary generation: {}", e.getMessage(), e);
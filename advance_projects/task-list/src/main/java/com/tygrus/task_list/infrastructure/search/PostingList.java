@@ -0,0 +1,103 @@
+package com.tygrus.task_list.infrastructure.search;
+
+import java.util.Arrays;
+
+/**
+ * 壓縮的遞增文件編號清單
+ *
+ * 編號以與前一筆的差值存放，每個差值以 7 位元一組的變長整數編碼，
+ * 密集的清單每筆約 1 位元組。文件編號只會遞增配置，新增永遠附加在尾端。
+ * 非執行緒安全，由 {@link TaskTextIndex} 的鎖保護。
+ */
+final class PostingList {
+
+    private byte[] bytes = new byte[4];
+    private int length;
+    private int count;
+    private int last = -1;
+
+    /**
+     * 附加文件編號，必須大於目前最後一筆
+     */
+    void add(int doc) {
+        if (doc <= last) {
+            throw new IllegalArgumentException("Document " + doc + " is not after " + last);
+        }
+        int delta = doc - last;
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        while ((delta & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        bytes[length++] = (byte) delta;
+        last = doc;
+        count++;
+    }
+
+    int count() {
+        return count;
+    }
+
+    /**
+     * 壓縮後的位元組數
+     */
+    int sizeInBytes() {
+        return length;
+    }
+
+    /**
+     * 保留同時出現在 candidates 前 size 筆中的編號，結果寫回 candidates 並回傳新的筆數
+     * candidates 必須遞增；兩者皆依序走訪一次
+     */
+    int retainAll(int[] candidates, int size) {
+        int kept = 0;
+        int position = 0;
+        int doc = -1;
+        int remaining = count;
+        for (int i = 0; i < size; i++) {
+            int candidate = candidates[i];
+            while (doc < candidate && remaining > 0) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[position++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                doc += delta;
+                remaining--;
+            }
+            if (doc == candidate) {
+                candidates[kept++] = candidate;
+            } else if (doc < candidate) {
+                break;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * 解碼為遞增的 int 陣列
+     */
+    int[] toArray() {
+        int[] docs = new int[count];
+        int position = 0;
+        int doc = -1;
+        for (int i = 0; i < count; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            doc += delta;
+            docs[i] = doc;
+        }
+        return docs;
+    }
+}
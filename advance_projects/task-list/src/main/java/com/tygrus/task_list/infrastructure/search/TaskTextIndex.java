@@ -0,0 +1,373 @@
+package com.tygrus.task_list.infrastructure.search;
+
+import com.tygrus.task_list.domain.exception.ChangeFeedTruncatedException;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskChange;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 任務標題與描述的倒排索引
+ *
+ * 以 {@link TextTokenizer} 切出的 gram 為鍵，值為包含該 gram 的文件編號（{@link PostingList}）。
+ * 多個查詢詞（以空白分隔）為 AND：所有詞的 gram 清單取交集後，依任務ID 批次載入並以子字串比對確認，
+ * 結果與逐筆 contains 相同，但只需讀取候選任務。
+ *
+ * 索引於第一次查詢時以 streamAll 建立，之後每次查詢前讀取來源儲存庫的變更流增量更新：
+ * 任務的標題或描述改變時配置新的文件編號並將舊編號標為失效，清單因此永遠只在尾端附加；
+ * 失效編號超過一半時重新編號並壓縮所有清單。變更流落後超出保留範圍時重新建立。
+ */
+public class TaskTextIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskTextIndex.class);
+
+    private static final int CHANGE_BATCH_SIZE = 1000;
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int MIN_COMPACTION_DEAD_DOCS = 1024;
+
+    private final TaskRepository source;
+    private final boolean indexDescriptions;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 以下欄位由 lock 保護
+    private final Map<String, PostingList> titlePostings = new HashMap<>();
+    private final Map<String, PostingList> descriptionPostings = new HashMap<>();
+    private final Map<TaskId, Integer> docOf = new HashMap<>();
+    private TaskId[] taskIdOf = new TaskId[1024];
+    // 文件內容的 64 位元雜湊，內容未改變的更新不重新索引
+    private long[] textHashOf = new long[1024];
+    private final BitSet deadDocs = new BitSet();
+    private int nextDoc;
+    private int deadCount;
+    private volatile boolean built;
+    private volatile long position;
+
+    public TaskTextIndex(TaskRepository source) {
+        this(source, true);
+    }
+
+    /**
+     * @param source 被索引的任務儲存庫，需提供變更流
+     * @param indexDescriptions 是否索引描述；不索引時描述查詢只能掃描
+     */
+    public TaskTextIndex(TaskRepository source, boolean indexDescriptions) {
+        this.source = source;
+        this.indexDescriptions = indexDescriptions;
+    }
+
+    /**
+     * 查詢標題與描述都包含所有查詢詞的任務
+     *
+     * @param titleQuery 標題查詢，null 或空白表示不限制
+     * @param descriptionQuery 描述查詢，null 或空白表示不限制
+     * @return 符合的任務；索引無法回答（查詢詞都太短）時為 empty
+     */
+    public Optional<List<Task>> search(String titleQuery, String descriptionQuery) {
+        List<String> titleTerms = TextTokenizer.terms(titleQuery);
+        List<String> descriptionTerms = TextTokenizer.terms(descriptionQuery);
+        if (titleTerms.isEmpty() && descriptionTerms.isEmpty()) {
+            return Optional.empty();
+        }
+        refresh();
+
+        List<TaskId> candidates;
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            boolean titleIndexed = collectPostings(titlePostings, titleTerms, lists);
+            boolean descriptionIndexed = indexDescriptions
+                && collectPostings(descriptionPostings, descriptionTerms, lists);
+            if (!titleIndexed && !descriptionIndexed) {
+                return Optional.empty();
+            }
+            candidates = intersect(lists);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Task> matches = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += LOAD_BATCH_SIZE) {
+            List<TaskId> batch = candidates.subList(from, Math.min(from + LOAD_BATCH_SIZE, candidates.size()));
+            for (Task task : source.findByIds(batch).values()) {
+                if (!task.isDeleted()
+                        && containsAll(task.getTitle(), titleTerms)
+                        && containsAll(task.getDescription(), descriptionTerms)) {
+                    matches.add(task);
+                }
+            }
+        }
+        return Optional.of(matches);
+    }
+
+    /**
+     * 文字是否包含查詢中以空白分隔的每個詞（不分大小寫），供無法使用索引時的掃描比對
+     */
+    public static boolean containsAllTerms(String text, String query) {
+        return containsAll(text, TextTokenizer.terms(query));
+    }
+
+    /**
+     * 查詢以空白切分並轉小寫後的詞，與索引及 {@link #containsAllTerms} 使用相同的切分規則
+     */
+    public static List<String> queryTerms(String query) {
+        return TextTokenizer.terms(query);
+    }
+
+    /**
+     * 建立索引或套用尚未處理的變更
+     */
+    public void refresh() {
+        TaskChangeFeed feed = source.changeFeed();
+        if (built && feed.latestSequence() <= position) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                rebuild(feed);
+            }
+            catchUp(feed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 目前索引中的任務數
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docOf.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rebuild(TaskChangeFeed feed) {
+        long startNanos = System.nanoTime();
+        clear();
+        // 先記下序號再掃描，掃描期間的寫入會在 catchUp 時重新套用
+        position = feed.latestSequence();
+        source.streamAll(tasks -> {
+            tasks.forEach(this::upsert);
+            return null;
+        });
+        built = true;
+        logger.info("Built text index for {} tasks ({} title grams, {} description grams) in {} ms",
+            docOf.size(), titlePostings.size(), descriptionPostings.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    private void catchUp(TaskChangeFeed feed) {
+        List<TaskChange> changes;
+        do {
+            try {
+                changes = feed.read(position + 1, CHANGE_BATCH_SIZE);
+            } catch (ChangeFeedTruncatedException e) {
+                logger.warn("Text index fell behind the change feed, rebuilding: {}", e.getMessage());
+                rebuild(feed);
+                changes = feed.read(position + 1, CHANGE_BATCH_SIZE);
+            }
+            for (TaskChange change : changes) {
+                if (change.type() == TaskChange.Type.DELETED) {
+                    remove(change.taskId());
+                } else {
+                    upsert(change.task());
+                }
+                position = change.sequence();
+            }
+        } while (changes.size() == CHANGE_BATCH_SIZE);
+
+        if (deadCount >= MIN_COMPACTION_DEAD_DOCS && deadCount > docOf.size()) {
+            compact();
+        }
+    }
+
+    private void upsert(Task task) {
+        if (task.isDeleted()) {
+            remove(task.getId());
+            return;
+        }
+        long textHash = textHash(task.getTitle(), indexDescriptions ? task.getDescription() : null);
+        Integer existing = docOf.get(task.getId());
+        if (existing != null) {
+            if (textHashOf[existing] == textHash) {
+                return;
+            }
+            markDead(existing);
+        }
+
+        int doc = nextDoc++;
+        if (doc == taskIdOf.length) {
+            taskIdOf = Arrays.copyOf(taskIdOf, doc * 2);
+            textHashOf = Arrays.copyOf(textHashOf, doc * 2);
+        }
+        taskIdOf[doc] = task.getId();
+        textHashOf[doc] = textHash;
+        docOf.put(task.getId(), doc);
+        addPostings(titlePostings, task.getTitle(), doc);
+        if (indexDescriptions) {
+            addPostings(descriptionPostings, task.getDescription(), doc);
+        }
+    }
+
+    /**
+     * FNV-1a 64 位元雜湊，兩個欄位之間以 null 區隔，避免短字串容易碰撞的 String.hashCode
+     */
+    private static long textHash(String title, String description) {
+        long hash = 0xcbf29ce484222325L;
+        for (String text : new String[] {title, description}) {
+            if (text != null) {
+                for (int i = 0; i < text.length(); i++) {
+                    hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+                }
+            }
+            hash = (hash ^ 0xFFFF) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private void remove(TaskId taskId) {
+        Integer existing = docOf.remove(taskId);
+        if (existing != null) {
+            markDead(existing);
+        }
+    }
+
+    private void markDead(int doc) {
+        deadDocs.set(doc);
+        taskIdOf[doc] = null;
+        deadCount++;
+    }
+
+    private static void addPostings(Map<String, PostingList> postings, String text, int doc) {
+        for (String gram : TextTokenizer.documentGrams(text)) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(doc);
+        }
+    }
+
+    /**
+     * 去除失效編號並將有效文件重新依序編號
+     */
+    private void compact() {
+        long startNanos = System.nanoTime();
+        int[] renumbered = new int[nextDoc];
+        int liveCount = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (deadDocs.get(doc)) {
+                renumbered[doc] = -1;
+            } else {
+                renumbered[doc] = liveCount;
+                taskIdOf[liveCount] = taskIdOf[doc];
+                textHashOf[liveCount] = textHashOf[doc];
+                liveCount++;
+            }
+        }
+        Arrays.fill(taskIdOf, liveCount, nextDoc, null);
+        compactPostings(titlePostings, renumbered);
+        compactPostings(descriptionPostings, renumbered);
+        for (int doc = 0; doc < liveCount; doc++) {
+            docOf.put(taskIdOf[doc], doc);
+        }
+        logger.debug("Compacted text index from {} to {} documents in {} ms", nextDoc, liveCount,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        nextDoc = liveCount;
+        deadDocs.clear();
+        deadCount = 0;
+    }
+
+    private static void compactPostings(Map<String, PostingList> postings, int[] renumbered) {
+        postings.replaceAll((gram, list) -> {
+            PostingList compacted = new PostingList();
+            for (int doc : list.toArray()) {
+                if (renumbered[doc] >= 0) {
+                    compacted.add(renumbered[doc]);
+                }
+            }
+            return compacted;
+        });
+        postings.values().removeIf(list -> list.count() == 0);
+    }
+
+    /**
+     * 收集查詢詞的 gram 清單
+     *
+     * @return 是否有任何詞可以用索引篩選；有 gram 不存在時加入空清單使交集為空
+     */
+    private static boolean collectPostings(Map<String, PostingList> postings, Collection<String> terms,
+                                           List<PostingList> lists) {
+        boolean indexed = false;
+        for (String term : terms) {
+            Set<String> grams = TextTokenizer.queryGrams(term);
+            for (String gram : grams) {
+                lists.add(postings.getOrDefault(gram, new PostingList()));
+                indexed = true;
+            }
+        }
+        return indexed;
+    }
+
+    /**
+     * 由最短的清單開始依序取交集，排除失效編號
+     */
+    private List<TaskId> intersect(List<PostingList> lists) {
+        lists.sort(Comparator.comparingInt(PostingList::count));
+        int[] docs = lists.get(0).toArray();
+        int size = docs.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            size = lists.get(i).retainAll(docs, size);
+        }
+        List<TaskId> taskIds = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (!deadDocs.get(docs[i])) {
+                taskIds.add(taskIdOf[docs[i]]);
+            }
+        }
+        return taskIds;
+    }
+
+    private static boolean containsAll(String text, List<String> terms) {
+        if (terms.isEmpty()) {
+            return true;
+        }
+        if (text == null) {
+            return false;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        for (String term : terms) {
+            if (!normalized.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void clear() {
+        titlePostings.clear();
+        descriptionPostings.clear();
+        docOf.clear();
+        Arrays.fill(taskIdOf, null);
+        deadDocs.clear();
+        nextDoc = 0;
+        deadCount = 0;
+    }
+}
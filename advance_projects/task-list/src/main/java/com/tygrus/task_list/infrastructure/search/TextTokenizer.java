@@ -0,0 +1,121 @@
+package com.tygrus.task_list.infrastructure.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 中英混合文字的 n-gram 切分
+ *
+ * 文字轉小寫後依字元類別切成連續片段，標點與空白為分隔：
+ * - 中日韓文字片段：索引每個單字與相鄰兩字（bigram），查詢時兩字以上只用 bigram，單字查詢用單字
+ * - 其他字母與數字片段：索引相鄰三字（trigram），不足三字的查詢片段無法以索引篩選
+ * gram 只在同一片段內產生，查詢詞是文件的子字串時，查詢詞的 gram 必定都出現在文件中，
+ * 因此索引結果只會多不會少，呼叫端再以子字串比對確認。
+ */
+final class TextTokenizer {
+
+    private static final int LATIN_GRAM = 3;
+
+    private static final int SEPARATOR = 0;
+    private static final int CJK = 1;
+    private static final int WORD = 2;
+
+    private TextTokenizer() {
+    }
+
+    /**
+     * 以空白切分查詢詞並轉小寫，各詞之間為 AND
+     */
+    static List<String> terms(String query) {
+        if (query == null) {
+            return Collections.emptyList();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : query.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * 文件文字的所有 gram
+     */
+    static Set<String> documentGrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (text != null) {
+            forEachRun(text.toLowerCase(Locale.ROOT), (run, cjk) -> {
+                if (cjk) {
+                    addGrams(run, 1, grams);
+                    addGrams(run, 2, grams);
+                } else {
+                    addGrams(run, LATIN_GRAM, grams);
+                }
+            });
+        }
+        return grams;
+    }
+
+    /**
+     * 查詢詞的 gram；空集合表示此詞無法以索引篩選
+     */
+    static Set<String> queryGrams(String term) {
+        Set<String> grams = new LinkedHashSet<>();
+        forEachRun(term, (run, cjk) -> {
+            if (cjk) {
+                addGrams(run, run.length == 1 ? 1 : 2, grams);
+            } else {
+                addGrams(run, LATIN_GRAM, grams);
+            }
+        });
+        return grams;
+    }
+
+    private static void addGrams(int[] run, int size, Set<String> grams) {
+        for (int i = 0; i + size <= run.length; i++) {
+            grams.add(new String(run, i, size));
+        }
+    }
+
+    /**
+     * 依字元類別切出連續片段（以 code point 表示，正確處理補充平面的漢字）
+     */
+    private static void forEachRun(String text, RunConsumer consumer) {
+        int[] codePoints = text.codePoints().toArray();
+        int start = 0;
+        while (start < codePoints.length) {
+            int type = typeOf(codePoints[start]);
+            int end = start + 1;
+            while (end < codePoints.length && typeOf(codePoints[end]) == type) {
+                end++;
+            }
+            if (type != SEPARATOR) {
+                int[] run = new int[end - start];
+                System.arraycopy(codePoints, start, run, 0, run.length);
+                consumer.accept(run, type == CJK);
+            }
+            start = end;
+        }
+    }
+
+    private static int typeOf(int codePoint) {
+        if (!Character.isLetterOrDigit(codePoint)) {
+            return SEPARATOR;
+        }
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return switch (script) {
+            case HAN, HIRAGANA, KATAKANA, HANGUL -> CJK;
+            default -> WORD;
+        };
+    }
+
+    @FunctionalInterface
+    private interface RunConsumer {
+        void accept(int[] run, boolean cjk);
+    }
+}
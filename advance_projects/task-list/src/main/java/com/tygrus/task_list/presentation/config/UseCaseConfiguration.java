@@ -1,8 +1,12 @@
 package com.tygrus.task_list.presentation.config;
 
+import com.tygrus.task_list.application.query.TaskQueryResultCache;
 import com.tygrus.task_list.application.usecase.*;
+import com.tygrus.task_list.domain.repository.AsyncTaskRepository;
 import com.tygrus.task_list.domain.repository.TaskRepository;
 import com.tygrus.task_list.infrastructure.cache.StatisticsCache;
+import com.tygrus.task_list.infrastructure.search.TaskTextIndex;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -26,8 +30,11 @@ public class UseCaseConfiguration {
     }
     
     @Bean
-    public QueryTaskListUseCase queryTaskListUseCase(TaskRepository taskRepository) {
-        return new QueryTaskListUseCase(taskRepository);
+    public QueryTaskListUseCase queryTaskListUseCase(
+            TaskRepository taskRepository,
+            ObjectProvider<TaskTextIndex> textIndex,
+            ObjectProvider<TaskQueryResultCache> resultCache) {
+        return new QueryTaskListUseCase(taskRepository, textIndex.getIfAvailable(), resultCache.getIfAvailable());
     }
     
     @Bean
@@ -43,7 +50,8 @@ public class UseCaseConfiguration {
     @Bean
     public TaskStatisticsUseCase taskStatisticsUseCase(
             TaskRepository taskRepository,
+            AsyncTaskRepository asyncTaskRepository,
             StatisticsCache statisticsCache) {
-        return new TaskStatisticsUseCase(taskRepository, statisticsCache);
+        return new TaskStatisticsUseCase(taskRepository, asyncTaskRepository, statisticsCache);
     }
 }
\ No newline at end of file
@@ -3,7 +3,9 @@ package com.tygrus.task_list.presentation.controller;
 import com.tygrus.task_list.application.dto.*;
 import com.tygrus.task_list.application.usecase.QueryTaskListUseCase;
 import com.tygrus.task_list.application.usecase.UpdateTaskStatusUseCase;
+import com.tygrus.task_list.domain.model.TaskCounts;
 import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.WriteDurability;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -64,14 +66,12 @@ public class TaskBoardController {
         model.addAttribute("tasksByStatus", tasksByStatus);
         model.addAttribute("statuses", TaskStatus.values());
         
-        // 統計數據
-        model.addAttribute("totalTasks", allTasks.size());
-        model.addAttribute("pendingCount", 
-            tasksByStatus.getOrDefault(TaskStatus.PENDING, List.of()).size());
-        model.addAttribute("inProgressCount", 
-            tasksByStatus.getOrDefault(TaskStatus.IN_PROGRESS, List.of()).size());
-        model.addAttribute("completedCount", 
-            tasksByStatus.getOrDefault(TaskStatus.COMPLETED, List.of()).size());
+        // 統計數據：讀取儲存庫的計數器，涵蓋所有任務而非只有上面載入的部分
+        TaskCounts counts = queryTaskListUseCase.countTasks();
+        model.addAttribute("totalTasks", counts.total());
+        model.addAttribute("pendingCount", counts.countOf(TaskStatus.PENDING));
+        model.addAttribute("inProgressCount", counts.countOf(TaskStatus.IN_PROGRESS));
+        model.addAttribute("completedCount", counts.countOf(TaskStatus.COMPLETED));
         
         return "tasks/board";
     }
@@ -97,6 +97,7 @@ public class TaskBoardController {
                 .newStatus(newStatus)
                 .reason("看板拖放更新")
                 .updatedBy("user")
+                .durability(WriteDurability.ASYNC)
                 .build();
             
             updateTaskStatusUseCase.execute(request);
@@ -50,6 +50,7 @@ public class TaskViewController {
     
     /**
      * 顯示任務列表主頁
+     * 帶 pageToken（上一頁的 nextPageToken）時從該位置之後讀取，忽略 page
      */
     @GetMapping
     public String listTasks(
@@ -60,6 +61,7 @@ public class TaskViewController {
             @RequestParam(value = "title", required = false) String titleContains,
             @RequestParam(value = "sortField", defaultValue = "CREATED_AT") TaskQueryRequest.TaskSortField sortField,
             @RequestParam(value = "sortDirection", defaultValue = "DESC") TaskQueryRequest.SortDirection sortDirection,
+            @RequestParam(value = "pageToken", required = false) String pageToken,
             Model model) {
         
         // 建構查詢請求
@@ -71,6 +73,7 @@ public class TaskViewController {
             .titleContains(titleContains)
             .sortField(sortField)
             .sortDirection(sortDirection)
+            .continuationToken(pageToken)
             .build();
         
         // 執行查詢
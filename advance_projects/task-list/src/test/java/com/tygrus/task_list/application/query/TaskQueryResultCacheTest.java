@@ -0,0 +1,209 @@
+package com.tygrus.task_list.application.query;
+
+import com.tygrus.task_list.application.dto.PagedResult;
+import com.tygrus.task_list.application.dto.TaskDTO;
+import com.tygrus.task_list.application.dto.TaskQueryRequest;
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.persistence.routing.ReadYourWritesContext;
+import com.tygrus.task_list.infrastructure.repository.DomainTaskRepositoryAdapter;
+import com.tygrus.task_list.infrastructure.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * TaskQueryResultCache 測試
+ *
+ * 測試重點：
+ * - 正規化後相同的請求共用快取的頁面，不重新查詢
+ * - 寫入所選狀態的任務使頁面失效，其他狀態的寫入不影響；不過濾狀態的頁面任何寫入都會失效
+ * - 儲存庫不維護寫入世代時每次都查詢
+ * - 要放入快取的查詢走主庫
+ * - 命中率與估計記憶體用量
+ */
+@DisplayName("TaskQueryResultCache 測試")
+class TaskQueryResultCacheTest {
+
+    private TaskRepository repository;
+    private TaskQueryResultCache cache;
+    private AtomicInteger loads;
+    private Function<TaskQueryRequest, PagedResult<TaskDTO>> loader;
+
+    @BeforeEach
+    void setUp() {
+        repository = new DomainTaskRepositoryAdapter(new InMemoryTaskRepository());
+        cache = new TaskQueryResultCache(repository);
+        loads = new AtomicInteger();
+        loader = request -> {
+            loads.incrementAndGet();
+            List<TaskDTO> content = repository.findAll().stream()
+                .filter(task -> !request.hasStatusFilter() || request.getStatusFilter().contains(task.getStatus()))
+                .map(TaskDTO::fromTask)
+                .toList();
+            return PagedResult.of(content, request.getPage(), request.getPageSize(), content.size());
+        };
+    }
+
+    private static Task task(String id, TaskStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        return Task.restoreFromPersistence(TaskId.of(id), "任務 " + id, "描述 " + id, status, Priority.MEDIUM,
+            null, now, now, false, null, null);
+    }
+
+    private static TaskQueryRequest byStatus(TaskStatus... statuses) {
+        return TaskQueryRequest.builder().statusFilter(statuses).build();
+    }
+
+    @Nested
+    @DisplayName("命中測試")
+    class HitTests {
+
+        @Test
+        @DisplayName("應該回傳快取的頁面 - 當請求只有條件順序或大小寫不同時")
+        void shouldServeNormalizedRequestFromCache() {
+            // Arrange
+            repository.save(task("task-1", TaskStatus.TODO));
+            TaskQueryRequest first = TaskQueryRequest.builder()
+                .statusFilter(TaskStatus.TODO, TaskStatus.PENDING).titleContains("Weekly Report").build();
+            TaskQueryRequest second = TaskQueryRequest.builder()
+                .statusFilter(TaskStatus.PENDING, TaskStatus.TODO).titleContains("report weekly").build();
+
+            // Act
+            PagedResult<TaskDTO> loaded = cache.get(first, loader);
+            PagedResult<TaskDTO> cached = cache.get(second, loader);
+
+            // Assert
+            assertThat(cached).isSameAs(loaded);
+            assertThat(loads).hasValue(1);
+            assertThat(cache.getStats().hitCount()).isEqualTo(1);
+            assertThat(cache.getStats().hitRate()).isEqualTo(0.5);
+        }
+
+        @Test
+        @DisplayName("應該分開快取 - 當頁碼或每頁筆數不同時")
+        void shouldCachePagesSeparately() {
+            // Act
+            cache.get(TaskQueryRequest.allTasks(0, 10), loader);
+            cache.get(TaskQueryRequest.allTasks(1, 10), loader);
+            cache.get(TaskQueryRequest.allTasks(0, 20), loader);
+
+            // Assert
+            assertThat(loads).hasValue(3);
+            assertThat(cache.getStats().size()).isEqualTo(3);
+        }
+    }
+
+    @Nested
+    @DisplayName("寫入世代失效測試")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("應該重新查詢 - 當所選狀態的任務被寫入時")
+        void shouldReload_whenSelectedStatusIsWritten() {
+            // Arrange
+            repository.save(task("task-1", TaskStatus.TODO));
+            cache.get(byStatus(TaskStatus.TODO), loader);
+
+            // Act：任務離開 TODO
+            repository.save(task("task-1", TaskStatus.IN_PROGRESS));
+            PagedResult<TaskDTO> reloaded = cache.get(byStatus(TaskStatus.TODO), loader);
+
+            // Assert
+            assertThat(reloaded.getContent()).isEmpty();
+            assertThat(loads).hasValue(2);
+            assertThat(cache.getStats().invalidationCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("應該保留頁面 - 當只有其他狀態的任務被寫入時")
+        void shouldKeepPage_whenOnlyOtherStatusesAreWritten() {
+            // Arrange
+            repository.save(task("task-1", TaskStatus.TODO));
+            repository.save(task("task-2", TaskStatus.COMPLETED));
+            cache.get(byStatus(TaskStatus.TODO), loader);
+
+            // Act
+            repository.save(task("task-2", TaskStatus.CANCELLED));
+            repository.save(task("task-3", TaskStatus.PENDING));
+            repository.deleteById(TaskId.of("task-3"));
+            cache.get(byStatus(TaskStatus.TODO), loader);
+
+            // Assert
+            assertThat(loads).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("應該重新查詢 - 當不過濾狀態且任何任務被寫入時")
+        void shouldReloadUnfilteredPage_onAnyWrite() {
+            // Arrange
+            cache.get(TaskQueryRequest.allTasks(), loader);
+
+            // Act
+            repository.save(task("task-1", TaskStatus.CANCELLED));
+            PagedResult<TaskDTO> reloaded = cache.get(TaskQueryRequest.allTasks(), loader);
+
+            // Assert
+            assertThat(reloaded.getContent()).extracting(TaskDTO::getId).containsExactly("task-1");
+            assertThat(loads).hasValue(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("路由測試")
+    class RoutingTests {
+
+        @Test
+        @DisplayName("應該在主庫上載入 - 當結果要放入快取時")
+        void shouldLoadOnPrimary_whenFillingCache() {
+            // Arrange
+            List<Boolean> onPrimary = new ArrayList<>();
+            Function<TaskQueryRequest, PagedResult<TaskDTO>> routedLoader = request -> {
+                onPrimary.add(ReadYourWritesContext.requiresPrimary(0L));
+                return loader.apply(request);
+            };
+
+            // Act
+            cache.get(TaskQueryRequest.allTasks(), routedLoader);
+
+            // Assert
+            assertThat(onPrimary).containsExactly(true);
+            assertThat(ReadYourWritesContext.requiresPrimary(0L)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("統計測試")
+    class StatsTests {
+
+        @Test
+        @DisplayName("應該估計快取內容的記憶體用量 - 依頁面內容增加")
+        void shouldEstimateMemoryFootprint() {
+            // Arrange
+            for (int i = 0; i < 10; i++) {
+                repository.save(task("task-" + i, TaskStatus.TODO));
+            }
+
+            // Act
+            cache.get(byStatus(TaskStatus.PENDING), loader);
+            long emptyPage = cache.getStats().estimatedBytes();
+            cache.get(byStatus(TaskStatus.TODO), loader);
+
+            // Assert
+            assertThat(emptyPage).isPositive();
+            assertThat(cache.getStats().estimatedBytes()).isGreaterThan(emptyPage * 2);
+        }
+    }
+}
@@ -2,7 +2,11 @@ package com.tygrus.task_list.application.usecase;
 
 import com.tygrus.task_list.application.dto.*;
 import com.tygrus.task_list.domain.model.*;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
 import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.TaskWriteEpochs;
+import com.tygrus.task_list.infrastructure.repository.changefeed.InMemoryTaskChangeFeed;
+import com.tygrus.task_list.infrastructure.repository.counter.TaskWriteEpochCounter;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -162,10 +166,14 @@ class BatchUpdateTasksUseCaseSimpleTest {
      */
     private static class InMemoryTaskRepository implements TaskRepository {
         private final Map<String, Task> tasks = new ConcurrentHashMap<>();
+        private final InMemoryTaskChangeFeed changeFeed = new InMemoryTaskChangeFeed();
+        private final TaskWriteEpochCounter writeEpochs = new TaskWriteEpochCounter();
         
         @Override
         public Task save(Task task) {
-            tasks.put(task.getId().getValue(), task);
+            Task previous = tasks.put(task.getId().getValue(), task);
+            changeFeed.publish(TaskChange.typeOf(previous, task), task);
+            writeEpochs.advance(previous, task);
             return task;
         }
         
@@ -181,7 +189,21 @@ class BatchUpdateTasksUseCaseSimpleTest {
         
         @Override
         public void deleteById(TaskId taskId) {
-            tasks.remove(taskId.getValue());
+            Task removed = tasks.remove(taskId.getValue());
+            if (removed != null) {
+                changeFeed.publish(TaskChange.Type.DELETED, removed);
+                writeEpochs.advance(removed, null);
+            }
+        }
+        
+        @Override
+        public TaskChangeFeed changeFeed() {
+            return changeFeed;
+        }
+        
+        @Override
+        public TaskWriteEpochs writeEpochs() {
+            return writeEpochs;
         }
         
         @Override
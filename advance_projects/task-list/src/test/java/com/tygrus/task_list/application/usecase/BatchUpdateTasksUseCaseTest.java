@@ -8,6 +8,7 @@ import com.tygrus.task_list.domain.exception.IllegalStatusTransitionException;
 import com.tygrus.task_list.domain.exception.OptimisticLockException;
 import com.tygrus.task_list.domain.model.*;
 import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.repository.VirtualThreadTaskRepository;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +25,7 @@ import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -82,7 +84,7 @@ class BatchUpdateTasksUseCaseTest {
         
         // 驗證Repository互動
         verify(taskRepository, times(3)).findById(any(TaskId.class));
-        verify(taskRepository, times(3)).save(any(Task.class));
+        verify(taskRepository, times(3)).saveWithOptimisticLock(any(Task.class), anyLong());
     }
 
     @Test
@@ -132,7 +134,7 @@ class BatchUpdateTasksUseCaseTest {
         when(taskRepository.findById(any(TaskId.class))).thenReturn(Optional.of(task));
         
         // 第一次和第二次調用拋出OptimisticLockException，第三次成功
-        when(taskRepository.save(any(Task.class)))
+        when(taskRepository.saveWithOptimisticLock(any(Task.class), anyLong()))
             .thenThrow(new OptimisticLockException("Version conflict"))
             .thenThrow(new OptimisticLockException("Version conflict"))
             .thenReturn(task);
@@ -147,7 +149,7 @@ class BatchUpdateTasksUseCaseTest {
         assertTrue(result.getRetryCount() > 0);
         
         // 驗證重試次數
-        verify(taskRepository, times(3)).save(any(Task.class));
+        verify(taskRepository, times(3)).saveWithOptimisticLock(any(Task.class), anyLong());
     }
 
     @Test
@@ -165,7 +167,7 @@ class BatchUpdateTasksUseCaseTest {
         when(taskRepository.findById(any(TaskId.class))).thenReturn(Optional.of(task));
         
         // 所有嘗試都失敗
-        when(taskRepository.save(any(Task.class)))
+        when(taskRepository.saveWithOptimisticLock(any(Task.class), anyLong()))
             .thenThrow(new OptimisticLockException("Persistent conflict"));
 
         // When: 執行批次更新
@@ -359,13 +361,128 @@ class BatchUpdateTasksUseCaseTest {
         assertFalse(error.isBusinessRuleViolation());
     }
 
+    @Test
+    void testBulkModeUsesSetBasedOperations() {
+        // Given: 批次模式，混合成功、不存在與不合法轉換
+        List<String> taskIds = Arrays.asList("task-1", "task-2", "task-3", "task-4");
+        BatchUpdateTaskRequest request = BatchUpdateTaskRequest.builder()
+            .taskIds(taskIds)
+            .newStatus(TaskStatus.IN_PROGRESS)
+            .updatedBy("test-user")
+            .batchSize(4)
+            .executionMode(BatchUpdateTaskRequest.ExecutionMode.BULK)
+            .build();
+
+        Task task1 = createTestTask("task-1", TaskStatus.PENDING);
+        Task task2 = createTestTask("task-2", TaskStatus.PENDING);
+        // CANCELLED 為終態，不能轉換到 IN_PROGRESS
+        Task task4 = createTestTaskWithStatus("task-4", TaskStatus.CANCELLED);
+        Map<TaskId, Task> found = new HashMap<>();
+        found.put(task1.getId(), task1);
+        found.put(task2.getId(), task2);
+        found.put(task4.getId(), task4);
+        when(taskRepository.findByIds(anyList())).thenReturn(found);
+        when(taskRepository.saveAllWithOptimisticLock(List.of(task1, task2)))
+            .thenReturn(Map.of(task1.getId(), task1, task2.getId(), task2));
+
+        // When: 執行批次更新
+        BatchOperationResult result = useCase.execute(request);
+
+        // Then: 一次查詢、一次寫入，錯誤逐筆回報
+        assertEquals(2, result.getSuccessCount());
+        assertEquals(2, result.getFailureCount());
+        verify(taskRepository, times(1)).findByIds(anyList());
+        verify(taskRepository, times(1)).saveAllWithOptimisticLock(anyList());
+        verify(taskRepository, never()).findById(any(TaskId.class));
+        
+        BatchOperationError invalidTransition = result.getErrors().stream()
+            .filter(error -> error.getTaskId().equals("task-4"))
+            .findFirst()
+            .orElseThrow();
+        assertTrue(invalidTransition.isBusinessRuleViolation());
+        assertTrue(result.getErrors().stream().anyMatch(error -> error.getTaskId().equals("task-3")));
+    }
+
+    @Test
+    void testBulkModeRetriesConflictedTasks() {
+        // Given: 第一輪版本衝突，重新載入後成功
+        BatchUpdateTaskRequest request = BatchUpdateTaskRequest.builder()
+            .taskIds(Arrays.asList("task-1"))
+            .newStatus(TaskStatus.IN_PROGRESS)
+            .updatedBy("test-user")
+            .maxRetries(1)
+            .executionMode(BatchUpdateTaskRequest.ExecutionMode.BULK)
+            .build();
+
+        Task firstLoad = createTestTask("task-1", TaskStatus.PENDING);
+        Task secondLoad = createTestTask("task-1", TaskStatus.PENDING);
+        when(taskRepository.findByIds(anyList()))
+            .thenReturn(Map.of(firstLoad.getId(), firstLoad))
+            .thenReturn(Map.of(secondLoad.getId(), secondLoad));
+        when(taskRepository.saveAllWithOptimisticLock(anyList()))
+            .thenReturn(Map.of())
+            .thenReturn(Map.of(secondLoad.getId(), secondLoad));
+
+        // When: 執行批次更新
+        BatchOperationResult result = useCase.execute(request);
+
+        // Then: 重試一次後成功
+        assertEquals(1, result.getSuccessCount());
+        assertEquals(0, result.getFailureCount());
+        assertEquals(1, result.getRetryCount());
+        verify(taskRepository, times(2)).findByIds(anyList());
+    }
+
     // Helper methods
 
+    @Test
+    void testExecuteAsyncRetriesConflictsWithoutBlocking() throws Exception {
+        // Given: 經由虛擬執行緒儲存庫執行，task-2 第一次寫入版本衝突
+        List<String> taskIds = Arrays.asList("task-1", "task-2", "task-3");
+        BatchUpdateTaskRequest request = BatchUpdateTaskRequest.builder()
+            .taskIds(taskIds)
+            .newStatus(TaskStatus.IN_PROGRESS)
+            .updatedBy("test-user")
+            .maxRetries(2)
+            .build();
+        for (String taskId : Arrays.asList("task-1", "task-3")) {
+            when(taskRepository.findById(TaskId.of(taskId)))
+                .thenReturn(Optional.of(createTestTask(taskId, TaskStatus.PENDING)));
+        }
+        Task conflicted = createTestTask("task-2", TaskStatus.PENDING);
+        when(taskRepository.findById(TaskId.of("task-2")))
+            .thenReturn(Optional.of(conflicted))
+            .thenReturn(Optional.of(createTestTask("task-2", TaskStatus.PENDING)));
+        when(taskRepository.saveWithOptimisticLock(any(Task.class), anyLong()))
+            .thenAnswer(invocation -> {
+                Task task = invocation.getArgument(0);
+                if (task == conflicted) {
+                    throw new OptimisticLockException("Version conflict for task-2");
+                }
+                return task;
+            });
+
+        try (VirtualThreadTaskRepository asyncRepository = new VirtualThreadTaskRepository(taskRepository, 2)) {
+            BatchUpdateTasksUseCase asyncUseCase = new BatchUpdateTasksUseCase(taskRepository, asyncRepository);
+
+            // When: 非同步執行批次更新
+            BatchOperationResult result = asyncUseCase.executeAsync(request).get(10, TimeUnit.SECONDS);
+            asyncUseCase.shutdown();
+
+            // Then: 全部成功，衝突的任務重試一次
+            assertEquals(3, result.getSuccessCount());
+            assertEquals(0, result.getFailureCount());
+            assertEquals(1, result.getRetryCount());
+            verify(taskRepository, times(2)).findById(TaskId.of("task-2"));
+        }
+    }
+
+
     private void setupSuccessfulTasks(List<String> taskIds) {
         for (String taskId : taskIds) {
             Task task = createTestTask(taskId, TaskStatus.PENDING);
             when(taskRepository.findById(TaskId.of(taskId))).thenReturn(Optional.of(task));
-            when(taskRepository.save(eq(task))).thenReturn(task);
+            when(taskRepository.saveWithOptimisticLock(eq(task), anyLong())).thenReturn(task);
         }
     }
 
@@ -375,8 +492,8 @@ class BatchUpdateTasksUseCaseTest {
         Task task2 = createTestTask("task-2", TaskStatus.PENDING);
         when(taskRepository.findById(TaskId.of("task-1"))).thenReturn(Optional.of(task1));
         when(taskRepository.findById(TaskId.of("task-2"))).thenReturn(Optional.of(task2));
-        when(taskRepository.save(eq(task1))).thenReturn(task1);
-        when(taskRepository.save(eq(task2))).thenReturn(task2);
+        when(taskRepository.saveWithOptimisticLock(eq(task1), anyLong())).thenReturn(task1);
+        when(taskRepository.saveWithOptimisticLock(eq(task2), anyLong())).thenReturn(task2);
         
         // task-3 不存在
         when(taskRepository.findById(TaskId.of("task-3"))).thenReturn(Optional.empty());
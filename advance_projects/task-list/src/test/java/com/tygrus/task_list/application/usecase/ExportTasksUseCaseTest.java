@@ -8,6 +8,7 @@ import com.tygrus.task_list.domain.model.Priority;
 import com.tygrus.task_list.domain.model.Task;
 import com.tygrus.task_list.domain.model.TaskId;
 import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskQuery;
 import com.tygrus.task_list.domain.repository.TaskRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -98,7 +99,7 @@ class ExportTasksUseCaseTest {
             ExportTasksRequest request = new ExportTasksRequest(ExportFormat.CSV, "test.csv");
             byte[] expectedContent = "test,csv,content".getBytes();
             
-            when(taskRepository.findAll()).thenReturn(sampleTasks);
+            stubQuery(sampleTasks);
             when(csvExporter.export(anyList(), anyString())).thenReturn(expectedContent);
 
             // When
@@ -112,7 +113,7 @@ class ExportTasksUseCaseTest {
             assertThat(result.getMimeType()).isEqualTo("text/csv");
             assertThat(result.getExportedCount()).isEqualTo(2);
             
-            verify(taskRepository).findAll();
+            verify(taskRepository).query(any());
             verify(csvExporter).export(sampleTasks, "test.csv");
         }
 
@@ -123,7 +124,7 @@ class ExportTasksUseCaseTest {
             ExportTasksRequest request = new ExportTasksRequest(ExportFormat.JSON, "test.json");
             byte[] expectedContent = "{\"tasks\":[]}".getBytes();
             
-            when(taskRepository.findAll()).thenReturn(sampleTasks);
+            stubQuery(sampleTasks);
             when(jsonExporter.export(anyList(), anyString())).thenReturn(expectedContent);
 
             // When
@@ -137,7 +138,7 @@ class ExportTasksUseCaseTest {
             assertThat(result.getMimeType()).isEqualTo("application/json");
             assertThat(result.getExportedCount()).isEqualTo(2);
             
-            verify(taskRepository).findAll();
+            verify(taskRepository).query(any());
             verify(jsonExporter).export(sampleTasks, "test.json");
         }
 
@@ -169,7 +170,7 @@ class ExportTasksUseCaseTest {
             request.setFormat(ExportFormat.CSV);
             byte[] expectedContent = "test,content".getBytes();
             
-            when(taskRepository.findAll()).thenReturn(sampleTasks);
+            stubQuery(sampleTasks);
             when(csvExporter.export(anyList(), anyString())).thenReturn(expectedContent);
 
             // When
@@ -189,7 +190,7 @@ class ExportTasksUseCaseTest {
             ExportTasksRequest request = new ExportTasksRequest(ExportFormat.CSV, "test");
             byte[] expectedContent = "test,content".getBytes();
             
-            when(taskRepository.findAll()).thenReturn(sampleTasks);
+            stubQuery(sampleTasks);
             when(csvExporter.export(anyList(), anyString())).thenReturn(expectedContent);
 
             // When
@@ -214,7 +215,7 @@ class ExportTasksUseCaseTest {
             request.setStatusFilter(Arrays.asList(TaskStatus.TODO, TaskStatus.IN_PROGRESS));
             byte[] expectedContent = "filtered,content".getBytes();
             
-            when(taskRepository.findAll()).thenReturn(sampleTasks);
+            stubQuery(sampleTasks);
             when(csvExporter.export(anyList(), anyString())).thenReturn(expectedContent);
 
             // When
@@ -234,7 +235,7 @@ class ExportTasksUseCaseTest {
             request.setTitleFilter("Task 1");
             byte[] expectedContent = "filtered,content".getBytes();
             
-            when(taskRepository.findAll()).thenReturn(sampleTasks);
+            stubQuery(sampleTasks);
             when(csvExporter.export(anyList(), anyString())).thenReturn(expectedContent);
 
             // When
@@ -245,6 +246,25 @@ class ExportTasksUseCaseTest {
             assertThat(result.isSuccess()).isTrue();
             verify(csvExporter).export(anyList(), eq("test.csv"));
         }
+
+        @Test
+        @DisplayName("應該只在要求時匯出已刪除的任務")
+        void shouldExportDeletedTasksOnlyWhenRequested() throws Exception {
+            // Given
+            sampleTasks.get(1).markAsDeleted("tester", "測試");
+            ExportTasksRequest request = new ExportTasksRequest(ExportFormat.CSV, "test.csv");
+            stubQuery(sampleTasks);
+            when(csvExporter.export(anyList(), anyString())).thenReturn("content".getBytes());
+
+            // When
+            ExportResult withoutDeleted = exportTasksUseCase.exportTasks(request);
+            request.setIncludeDeleted(true);
+            ExportResult withDeleted = exportTasksUseCase.exportTasks(request);
+
+            // Then
+            assertThat(withoutDeleted.getExportedCount()).isEqualTo(1);
+            assertThat(withDeleted.getExportedCount()).isEqualTo(2);
+        }
     }
 
     @Nested
@@ -265,7 +285,7 @@ class ExportTasksUseCaseTest {
             // Given
             ExportTasksRequest request = new ExportTasksRequest(ExportFormat.CSV, "test.csv");
             
-            when(taskRepository.findAll()).thenReturn(sampleTasks);
+            stubQuery(sampleTasks);
             when(csvExporter.export(anyList(), anyString())).thenThrow(new RuntimeException("Export failed"));
 
             // When
@@ -307,4 +327,9 @@ class ExportTasksUseCaseTest {
             assertThat(supportedFormats).contains(ExportFormat.CSV, ExportFormat.JSON);
         }
     }
-}
\ No newline at end of file
+
+    private void stubQuery(List<Task> tasks) {
+        when(taskRepository.query(any())).thenAnswer(invocation ->
+            invocation.<TaskQuery>getArgument(0).select(tasks.stream()));
+    }
+}
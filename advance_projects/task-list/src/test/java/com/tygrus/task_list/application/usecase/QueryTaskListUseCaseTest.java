@@ -8,8 +8,14 @@ import com.tygrus.task_list.application.dto.TaskQueryRequest;
 import com.tygrus.task_list.application.dto.TaskQueryRequest.TaskSortField;
 import com.tygrus.task_list.application.dto.TaskQueryRequest.SortDirection;
 import com.tygrus.task_list.application.dto.PagedResult;
+import com.tygrus.task_list.application.query.TaskQueryResultCache;
 import com.tygrus.task_list.domain.model.*;
+import com.tygrus.task_list.domain.repository.TaskQuery;
 import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.repository.DomainTaskRepositoryAdapter;
+import com.tygrus.task_list.infrastructure.repository.InMemoryTaskRepository;
+import com.tygrus.task_list.infrastructure.search.TaskTextIndex;
+import com.tygrus.task_list.infrastructure.repository.counter.TaskWriteEpochCounter;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -24,6 +30,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * QueryTaskListUseCase測試
@@ -62,7 +69,7 @@ class QueryTaskListUseCaseTest {
     @DisplayName("應該返回所有任務 - 當無過濾條件時")
     void shouldReturnAllTasks_whenNoFilters() {
         // Arrange
-        when(taskRepository.findAll()).thenReturn(sampleTasks);
+        stubQuery(sampleTasks);
         TaskQueryRequest request = TaskQueryRequest.allTasks();
 
         // Act
@@ -75,14 +82,14 @@ class QueryTaskListUseCaseTest {
         assertThat(result.getPageInfo().getPage()).isEqualTo(0);
         assertThat(result.isFirst()).isTrue();
         assertThat(result.isLast()).isTrue();
-        verify(taskRepository).findAll();
+        verify(taskRepository).query(any());
     }
 
     @Test
     @DisplayName("應該返回空結果 - 當沒有任務時")
     void shouldReturnEmptyResult_whenNoTasksExist() {
         // Arrange
-        when(taskRepository.findAll()).thenReturn(Collections.emptyList());
+        stubQuery(Collections.emptyList());
         TaskQueryRequest request = TaskQueryRequest.allTasks();
 
         // Act
@@ -92,14 +99,14 @@ class QueryTaskListUseCaseTest {
         assertThat(result.getContent()).isEmpty();
         assertThat(result.getTotalElements()).isEqualTo(0);
         assertThat(result.getTotalPages()).isEqualTo(0);
-        verify(taskRepository).findAll();
+        verify(taskRepository).query(any());
     }
 
     @Test
     @DisplayName("應該過濾特定狀態的任務")
     void shouldFilterTasksByStatus() {
         // Arrange
-        when(taskRepository.findAll()).thenReturn(sampleTasks);
+        stubQuery(sampleTasks);
         TaskQueryRequest request = TaskQueryRequest.builder()
             .statusFilter(TaskStatus.PENDING)
             .build();
@@ -117,7 +124,7 @@ class QueryTaskListUseCaseTest {
     @DisplayName("應該過濾高優先級任務")
     void shouldFilterHighPriorityTasks() {
         // Arrange
-        when(taskRepository.findAll()).thenReturn(sampleTasks);
+        stubQuery(sampleTasks);
         TaskQueryRequest request = TaskQueryRequest.builder()
             .priorityFilter(Priority.HIGH)
             .build();
@@ -134,7 +141,7 @@ class QueryTaskListUseCaseTest {
     @DisplayName("應該按標題升序排序")
     void shouldSortByTitleAscending() {
         // Arrange
-        when(taskRepository.findAll()).thenReturn(sampleTasks);
+        stubQuery(sampleTasks);
         TaskQueryRequest request = TaskQueryRequest.builder()
             .sortBy(TaskSortField.TITLE, SortDirection.ASC)
             .build();
@@ -152,7 +159,7 @@ class QueryTaskListUseCaseTest {
     @DisplayName("應該正確分頁 - 第一頁")
     void shouldPaginateCorrectly_firstPage() {
         // Arrange
-        when(taskRepository.findAll()).thenReturn(sampleTasks);
+        stubQuery(sampleTasks);
         TaskQueryRequest request = TaskQueryRequest.builder()
             .page(0)
             .pageSize(2)
@@ -174,7 +181,7 @@ class QueryTaskListUseCaseTest {
     @DisplayName("應該處理負數頁碼")
     void shouldHandleNegativePageNumber() {
         // Arrange
-        when(taskRepository.findAll()).thenReturn(sampleTasks);
+        stubQuery(sampleTasks);
         TaskQueryRequest request = TaskQueryRequest.builder()
             .page(-1)
             .build();
@@ -186,6 +193,109 @@ class QueryTaskListUseCaseTest {
         assertThat(result.getPageInfo().getPage()).isEqualTo(0); // 應該被修正為0
     }
 
+    @Test
+    @DisplayName("應該不重新查詢儲存庫 - 當配置查詢結果快取且期間沒有寫入時")
+    void shouldServeRepeatedRequestFromResultCache() {
+        // Arrange
+        stubQuery(sampleTasks);
+        TaskWriteEpochCounter epochs = new TaskWriteEpochCounter();
+        when(taskRepository.writeEpochs()).thenReturn(epochs);
+        QueryTaskListUseCase cached = new QueryTaskListUseCase(taskRepository, null,
+            new TaskQueryResultCache(taskRepository));
+        TaskQueryRequest request = TaskQueryRequest.builder()
+            .statusFilter(TaskStatus.PENDING)
+            .build();
+
+        // Act
+        PagedResult<TaskDTO> first = cached.execute(request);
+        PagedResult<TaskDTO> second = cached.execute(request);
+        epochs.advance(null, TaskStatus.COMPLETED);
+        cached.execute(request);
+        epochs.advance(TaskStatus.PENDING, TaskStatus.IN_PROGRESS);
+        cached.execute(request);
+
+        // Assert：只有 PENDING 的寫入使快取失效
+        assertThat(second).isSameAs(first);
+        assertThat(first.getContent()).extracting(TaskDTO::getTitle).containsExactly("Task A");
+        verify(taskRepository, times(2)).query(any());
+    }
+
+    @Test
+    @DisplayName("應該以續頁標記讀取下一頁 - 當請求帶上一頁的 nextPageToken 時")
+    void shouldContinueFromNextPageToken() {
+        // Arrange
+        stubQuery(sampleTasks);
+        TaskQueryRequest firstRequest = TaskQueryRequest.builder()
+            .sortBy(TaskSortField.TITLE, SortDirection.ASC)
+            .pageSize(2)
+            .build();
+
+        // Act
+        PagedResult<TaskDTO> first = queryTaskListUseCase.execute(firstRequest);
+        PagedResult<TaskDTO> second = queryTaskListUseCase.execute(TaskQueryRequest.builder()
+            .sortBy(TaskSortField.TITLE, SortDirection.ASC)
+            .pageSize(2)
+            .continuationToken(first.getNextPageToken())
+            .build());
+
+        // Assert
+        assertThat(first.getContent()).extracting(TaskDTO::getTitle).containsExactly("Task A", "Task B");
+        assertThat(first.getNextPageToken()).isNotNull();
+        assertThat(second.getContent()).extracting(TaskDTO::getTitle).containsExactly("Task C");
+        assertThat(second.getNextPageToken()).isNull();
+        assertThat(second.isLast()).isTrue();
+    }
+
+    @Test
+    @DisplayName("應該拒絕續頁標記 - 當排序條件與取得標記時不同")
+    void shouldRejectToken_whenSortOrderDiffers() {
+        // Arrange
+        stubQuery(sampleTasks);
+        String token = queryTaskListUseCase.execute(TaskQueryRequest.builder()
+            .sortBy(TaskSortField.TITLE, SortDirection.ASC)
+            .pageSize(1)
+            .build()).getNextPageToken();
+        TaskQueryRequest request = TaskQueryRequest.builder()
+            .sortBy(TaskSortField.TITLE, SortDirection.DESC)
+            .continuationToken(token)
+            .build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> queryTaskListUseCase.execute(request))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("different sort order");
+    }
+
+    @Test
+    @DisplayName("應該與儲存庫查詢得到相同頁面 - 當由文字索引取得候選任務時")
+    void shouldMatchRepositoryQuery_whenUsingTextIndex() {
+        // Arrange
+        TaskRepository repository = new DomainTaskRepositoryAdapter(new InMemoryTaskRepository());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 20; i++) {
+            repository.save(createTask("Report " + (i % 4), "週報 " + i, TaskStatus.PENDING,
+                Priority.values()[i % Priority.values().length], now.minusHours(i)));
+        }
+        repository.save(createTask("Deploy", "部署", TaskStatus.PENDING, Priority.HIGH, now));
+        TaskQueryRequest request = TaskQueryRequest.builder()
+            .titleContains("report")
+            .sortBy(TaskSortField.PRIORITY, SortDirection.DESC)
+            .page(1)
+            .pageSize(5)
+            .build();
+
+        // Act
+        PagedResult<TaskDTO> indexed = new QueryTaskListUseCase(repository, new TaskTextIndex(repository))
+            .execute(request);
+        PagedResult<TaskDTO> queried = new QueryTaskListUseCase(repository).execute(request);
+
+        // Assert
+        assertThat(indexed.getContent()).extracting(TaskDTO::getId)
+            .containsExactlyElementsOf(queried.getContent().stream().map(TaskDTO::getId).toList());
+        assertThat(indexed.getPageInfo().getTotalElements()).isEqualTo(20);
+        assertThat(indexed.getNextPageToken()).isEqualTo(queried.getNextPageToken());
+    }
+
     // 測試資料建立輔助方法
     private Task createTask(String title, String description, TaskStatus status, 
                            Priority priority, LocalDateTime createdAt) {
@@ -211,4 +321,9 @@ class QueryTaskListUseCaseTest {
         
         return task;
     }
-}
\ No newline at end of file
+
+    private void stubQuery(List<Task> tasks) {
+        when(taskRepository.query(any())).thenAnswer(invocation ->
+            invocation.<TaskQuery>getArgument(0).select(tasks.stream()));
+    }
+}
@@ -200,7 +200,30 @@ class TaskStatisticsUseCaseTest {
         assertEquals(now.minusDays(2).toLocalDate(), report.getPeriodStart().toLocalDate());
         assertEquals(now.minusDays(1).toLocalDate(), report.getPeriodEnd().toLocalDate());
     }
-    
+
+    @Test
+    @DisplayName("測試只指定一端的時間範圍")
+    void testOpenEndedTimeRange() {
+        // Given
+        LocalDateTime boundary = LocalDateTime.now().minusDays(5).minusHours(12);
+        StatisticsRequest sinceRequest = StatisticsRequest.builder()
+            .timeRange(boundary, null)
+            .build();
+        StatisticsRequest untilRequest = StatisticsRequest.builder()
+            .timeRange(null, boundary)
+            .build();
+
+        // When
+        StatisticsReport sinceReport = taskStatisticsUseCase.generateReport(sinceRequest);
+        StatisticsReport untilReport = taskStatisticsUseCase.generateReport(untilRequest);
+
+        // Then - 未指定的一端不設限
+        assertEquals(6, sinceReport.getTotalTasks());
+        assertNull(sinceReport.getPeriodEnd());
+        assertEquals(4, untilReport.getTotalTasks());
+        assertNull(untilReport.getPeriodStart());
+    }
+
     @Test
     @DisplayName("測試記憶體優化設定")
     void testMemoryOptimization() {
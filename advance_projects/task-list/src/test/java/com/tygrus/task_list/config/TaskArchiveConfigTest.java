@@ -0,0 +1,118 @@
+package com.tygrus.task_list.config;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.repository.DomainTaskRepositoryAdapter;
+import com.tygrus.task_list.infrastructure.repository.InMemoryTaskRepository;
+import com.tygrus.task_list.infrastructure.repository.TieredTaskRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * TaskArchiveConfig 測試
+ * 分層儲存庫包裝的熱資料層必須是已建立交易代理的原儲存庫，熱資料層的讀寫才會在交易內執行
+ */
+@DisplayName("TaskArchiveConfig 測試")
+class TaskArchiveConfigTest {
+
+    @TempDir
+    Path archiveDirectory;
+
+    @Test
+    @DisplayName("分層儲存庫應該包裝交易代理而非原始儲存庫")
+    void shouldWrapTransactionalProxy() {
+        // 先註冊封存配置，順序相同時後處理器會排在交易代理的自動建立器之前
+        new ApplicationContextRunner()
+            .withPropertyValues("task.archive.enabled=true", "task.archive.directory=" + archiveDirectory)
+            .withUserConfiguration(TaskArchiveConfig.class, TransactionalRepositoryConfig.class)
+            .run(context -> {
+                TaskRepository repository = context.getBean(TaskRepository.class);
+                TaskArchiveConfig.TieredTaskRepositoryPostProcessor postProcessor =
+                    context.getBean(TaskArchiveConfig.TieredTaskRepositoryPostProcessor.class);
+                CountingTransactionManager transactionManager = context.getBean(CountingTransactionManager.class);
+
+                assertThat(repository).isInstanceOf(TieredTaskRepository.class);
+                assertThat(AopUtils.isAopProxy(postProcessor.getHotStore())).isTrue();
+
+                repository.save(Task.builder().id(TaskId.of("task-1")).title("任務").build());
+                assertThat(repository.findById(TaskId.of("task-1"))).isPresent();
+                assertThat(transactionManager.begun.get()).isEqualTo(2);
+            });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableTransactionManagement
+    static class TransactionalRepositoryConfig {
+
+        @Bean
+        CountingTransactionManager transactionManager() {
+            return new CountingTransactionManager();
+        }
+
+        @Bean(TaskArchiveConfig.TIERED_REPOSITORY_BEAN)
+        TaskRepository postgresqlTaskRepository() {
+            return new TransactionalTaskRepository();
+        }
+    }
+
+    /**
+     * 類別層級的 @Transactional 只套用在本類別宣告的方法
+     */
+    @Transactional
+    static class TransactionalTaskRepository extends DomainTaskRepositoryAdapter {
+
+        TransactionalTaskRepository() {
+            super(new InMemoryTaskRepository());
+        }
+
+        @Override
+        public Task save(Task task) {
+            return super.save(task);
+        }
+
+        @Override
+        public Optional<Task> findById(TaskId taskId) {
+            return super.findById(taskId);
+        }
+    }
+
+    static class CountingTransactionManager extends AbstractPlatformTransactionManager {
+
+        final AtomicInteger begun = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            begun.incrementAndGet();
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -241,4 +241,62 @@ class TaskIdTest {
             assertThat(thirdHashCode).isEqualTo(firstHashCode);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("時間排序與緊湊表示測試")
+    class TimeOrderedTests {
+
+        @Test
+        @DisplayName("generate()應該產生依時間遞增的UUIDv7")
+        void shouldGenerateMonotonicVersion7Uuids() {
+            // Arrange
+            TaskId previous = TaskId.generate();
+
+            for (int i = 0; i < 10_000; i++) {
+                // Act
+                TaskId next = TaskId.generate();
+
+                // Assert
+                assertThat(next.getValue()).isGreaterThan(previous.getValue());
+                previous = next;
+            }
+            assertThat(previous.toUuid()).hasValueSatisfying(uuid -> {
+                assertThat(uuid.version()).isEqualTo(7);
+                assertThat(uuid.variant()).isEqualTo(2);
+            });
+        }
+
+        @Test
+        @DisplayName("標準格式UUID應該以兩個long保存且與字串建立的TaskId相等")
+        void shouldStoreCanonicalUuidCompactly() {
+            // Arrange
+            TaskId generated = TaskId.generate();
+
+            // Act
+            TaskId parsed = TaskId.of(generated.getValue());
+
+            // Assert
+            assertThat(parsed.isCompact()).isTrue();
+            assertThat(parsed).isEqualTo(generated);
+            assertThat(parsed.hashCode()).isEqualTo(generated.hashCode());
+            assertThat(parsed.getMostSignificantBits()).isEqualTo(generated.getMostSignificantBits());
+        }
+
+        @Test
+        @DisplayName("非標準格式應該保留原字串")
+        void shouldKeepNonCanonicalValueAsIs() {
+            // Arrange
+            String upperCaseUuid = TaskId.generate().getValue().toUpperCase();
+
+            // Act
+            TaskId legacy = TaskId.of("task-1");
+            TaskId upperCase = TaskId.of(upperCaseUuid);
+
+            // Assert
+            assertThat(legacy.isCompact()).isFalse();
+            assertThat(legacy.getValue()).isEqualTo("task-1");
+            assertThat(upperCase.isCompact()).isFalse();
+            assertThat(upperCase.getValue()).isEqualTo(upperCaseUuid);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.tygrus.task_list.domain.repository;
+
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * TaskQueryPlan 測試
+ *
+ * 測試重點：
+ * - 只有分頁、時間範圍端點或續讀位置不同的查詢共用快取的計畫
+ * - 過濾條件依估計的通過比例與成本排序，文字比對在最後
+ * - 以基本型別鍵排序的結果與依欄位值比較的結果相同
+ */
+@DisplayName("TaskQueryPlan 測試")
+class TaskQueryPlanTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    @Nested
+    @DisplayName("計畫快取測試")
+    class PlanCacheTests {
+
+        @Test
+        @DisplayName("應該共用計畫 - 當查詢只有分頁與時間範圍端點不同時")
+        void shouldReusePlan_whenOnlyPagingAndBoundsDiffer() {
+            // Arrange
+            TaskQuery first = TaskQuery.builder()
+                .statuses(Set.of(TaskStatus.PENDING))
+                .titleTerms(List.of("Report"))
+                .createdBetween(BASE, null)
+                .sortBy(TaskQuery.SortField.CREATED_AT, false)
+                .limit(20)
+                .build();
+            TaskQuery second = first.toBuilder()
+                .titleTerms(List.of("REPORT"))
+                .createdBetween(BASE.plusDays(7), null)
+                .offset(40)
+                .build();
+            TaskQuery other = first.toBuilder().statuses(Set.of(TaskStatus.COMPLETED)).build();
+
+            // Act & Assert
+            assertThat(second.plan()).isSameAs(first.plan());
+            assertThat(other.plan()).isNotSameAs(first.plan());
+        }
+
+        @Test
+        @DisplayName("應該共用計畫 - 當查詢只有續讀位置不同時")
+        void shouldReusePlan_whenOnlyCursorDiffers() {
+            // Arrange
+            Task a = createTask("task-a", "Alpha", TaskStatus.PENDING, Priority.LOW, BASE);
+            Task b = createTask("task-b", "Beta", TaskStatus.PENDING, Priority.LOW, BASE.plusHours(1));
+            TaskQuery query = TaskQuery.builder().sortBy(TaskQuery.SortField.CREATED_AT, false).build();
+
+            // Act
+            TaskQuery afterA = query.toBuilder()
+                .after(TaskQueryCursor.after(a, TaskQuery.SortField.CREATED_AT, false)).build();
+            TaskQuery afterB = query.toBuilder()
+                .after(TaskQueryCursor.after(b, TaskQuery.SortField.CREATED_AT, false)).build();
+
+            // Assert
+            assertThat(afterB.plan()).isSameAs(afterA.plan());
+            assertThat(afterA.matches(b)).isTrue();
+            assertThat(afterB.matches(b)).isFalse();
+        }
+
+        @Test
+        @DisplayName("快取的計畫數不應該超過上限")
+        void shouldBoundCachedPlans() {
+            // Act
+            for (int i = 0; i < TaskQueryPlan.MAXIMUM_PLANS * 2; i++) {
+                TaskQuery.builder().titleTerms(List.of("term-" + i)).build();
+            }
+
+            // Assert
+            assertThat(TaskQueryPlan.cachedPlans()).isLessThanOrEqualTo(TaskQueryPlan.MAXIMUM_PLANS);
+        }
+    }
+
+    @Nested
+    @DisplayName("過濾順序測試")
+    class FilterOrderTests {
+
+        @Test
+        @DisplayName("應該先檢查較少任務通過且較便宜的條件，最後才比對文字")
+        void shouldCheckSelectiveCheapFiltersFirst() {
+            // Arrange：只選一種狀態比選三種優先級排除更多
+            TaskQuery query = TaskQuery.builder()
+                .descriptionTerms(List.of("release"))
+                .priorities(Set.of(Priority.LOW, Priority.MEDIUM, Priority.HIGH))
+                .statuses(Set.of(TaskStatus.PENDING))
+                .titleTerms(List.of("weekly"))
+                .build();
+
+            // Act
+            String description = query.plan().describe();
+
+            // Assert
+            assertThat(description.indexOf("status")).isLessThan(description.indexOf("priority"));
+            assertThat(description.indexOf("priority")).isLessThan(description.indexOf("title"));
+            assertThat(description.indexOf("title")).isLessThan(description.indexOf("description"));
+        }
+
+        @Test
+        @DisplayName("過濾結果不應該受檢查順序影響")
+        void shouldMatchSameTasksRegardlessOfOrder() {
+            // Arrange
+            Task match = createTask("task-1", "Weekly report", TaskStatus.PENDING, Priority.HIGH, BASE);
+            Task wrongStatus = createTask("task-2", "Weekly report", TaskStatus.COMPLETED, Priority.HIGH, BASE);
+            Task wrongTitle = createTask("task-3", "Monthly report", TaskStatus.PENDING, Priority.HIGH, BASE);
+            Task tooEarly = createTask("task-4", "Weekly report", TaskStatus.PENDING, Priority.HIGH,
+                BASE.minusDays(1));
+            Task deleted = createTask("task-5", "Weekly report", TaskStatus.PENDING, Priority.HIGH, BASE);
+            deleted.markAsDeleted("tester", "測試");
+            TaskQuery query = TaskQuery.builder()
+                .statuses(Set.of(TaskStatus.PENDING))
+                .titleTerms(List.of("WEEKLY"))
+                .createdBetween(BASE, null)
+                .build();
+
+            // Act & Assert
+            assertThat(query.matches(match)).isTrue();
+            assertThat(query.matches(wrongStatus)).isFalse();
+            assertThat(query.matches(wrongTitle)).isFalse();
+            assertThat(query.matches(tooEarly)).isFalse();
+            assertThat(query.matches(deleted)).isFalse();
+            assertThat(query.toBuilder().includeDeleted(true).build().matches(deleted)).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("排序測試")
+    class SortTests {
+
+        @Test
+        @DisplayName("以基本型別鍵排序的結果應該與依欄位值比較相同")
+        void shouldOrderLikeFieldComparison() {
+            // Arrange
+            Random random = new Random(42);
+            List<Task> tasks = new ArrayList<>();
+            TaskStatus[] statuses = TaskStatus.values();
+            Priority[] priorities = Priority.values();
+            for (int i = 0; i < 500; i++) {
+                LocalDateTime createdAt = random.nextInt(10) == 0 ? null : BASE.plusSeconds(random.nextInt(1000));
+                tasks.add(createTask(String.format("task-%04d", i), "任務 " + random.nextInt(100),
+                    statuses[random.nextInt(statuses.length)], priorities[random.nextInt(priorities.length)],
+                    createdAt));
+            }
+            Comparator<Task> byId = Comparator.comparing(task -> task.getId().getValue());
+            Comparator<Task> byCreatedAt = Comparator.comparing(Task::getCreatedAt,
+                Comparator.nullsFirst(Comparator.naturalOrder()));
+            Comparator<Task> byStatusName = Comparator.comparing(task -> task.getStatus().name());
+            Comparator<Task> byPriority = Comparator.comparing(Task::getPriority);
+
+            // Act & Assert
+            assertSameOrder(tasks, TaskQuery.SortField.CREATED_AT, false, byCreatedAt.thenComparing(byId));
+            assertSameOrder(tasks, TaskQuery.SortField.CREATED_AT, true, byCreatedAt.thenComparing(byId).reversed());
+            assertSameOrder(tasks, TaskQuery.SortField.STATUS, false, byStatusName.thenComparing(byId));
+            assertSameOrder(tasks, TaskQuery.SortField.PRIORITY, true, byPriority.thenComparing(byId).reversed());
+        }
+
+        private void assertSameOrder(List<Task> tasks, TaskQuery.SortField sortField, boolean descending,
+                                     Comparator<Task> expected) {
+            TaskQuery query = TaskQuery.builder().sortBy(sortField, descending).build();
+            List<Task> actual = new ArrayList<>(tasks);
+            actual.sort(query.comparator());
+            List<Task> reference = new ArrayList<>(tasks);
+            reference.sort(expected);
+            assertThat(actual).as("%s %s", sortField, descending ? "DESC" : "ASC").containsExactlyElementsOf(reference);
+        }
+    }
+
+    private static Task createTask(String id, String title, TaskStatus status, Priority priority,
+                                   LocalDateTime createdAt) {
+        return Task.restoreFromPersistence(TaskId.of(id), title, "描述", status, priority,
+            null, createdAt, createdAt, false, null, null);
+    }
+}
@@ -0,0 +1,87 @@
+package com.tygrus.task_list.domain.repository;
+
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * TopKSelector 與 TaskQuery.select 測試
+ *
+ * 測試重點：
+ * - 掃描期間堆積只保留前 offset + limit 筆，陣列也不超過這個大小
+ * - 選出的頁面與完整排序後切出的頁面相同，總筆數仍計算所有符合條件的任務
+ */
+@DisplayName("TopKSelector 測試")
+class TopKSelectorTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    @Test
+    @DisplayName("select 掃描期間應該只在堆積保留 offset + limit 筆")
+    void shouldKeepOnlyOffsetPlusLimitRowsWhileScanning() {
+        // Arrange
+        List<Task> tasks = createTasks(10_000);
+        TaskQuery query = TaskQuery.builder()
+            .sortBy(TaskQuery.SortField.CREATED_AT, true)
+            .offset(40)
+            .limit(20)
+            .build();
+        TopKSelector selector = query.topKSelector();
+        AtomicInteger largestHeap = new AtomicInteger();
+
+        // Act
+        TaskQueryResult result = query.select(
+            tasks.stream().peek(task -> largestHeap.accumulateAndGet(selector.size(), Math::max)), selector);
+
+        // Assert
+        assertThat(largestHeap.get()).isEqualTo(60);
+        assertThat(selector.capacity()).isLessThanOrEqualTo(60);
+        List<Task> expected = new ArrayList<>(tasks);
+        expected.sort(query.comparator());
+        assertThat(result.tasks()).containsExactlyElementsOf(expected.subList(40, 60));
+        assertThat(result.totalMatches()).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("應該依排序取出保留的任務 - 當符合的任務少於保留筆數時")
+    void shouldDrainSorted_whenFewerThanLimit() {
+        // Arrange
+        List<Task> tasks = createTasks(5);
+        TaskQuery query = TaskQuery.builder().sortBy(TaskQuery.SortField.PRIORITY, false).limit(100).build();
+        TopKSelector selector = query.topKSelector();
+
+        // Act
+        tasks.forEach(selector::offer);
+        Task[] drained = selector.drainSorted();
+
+        // Assert
+        List<Task> expected = new ArrayList<>(tasks);
+        expected.sort(query.comparator());
+        assertThat(drained).containsExactlyElementsOf(expected);
+        assertThat(selector.size()).isZero();
+    }
+
+    private static List<Task> createTasks(int count) {
+        Random random = new Random(7);
+        Priority[] priorities = Priority.values();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime createdAt = BASE.plusSeconds(random.nextInt(count));
+            tasks.add(Task.restoreFromPersistence(TaskId.of(String.format("task-%05d", i)), "任務 " + i, null,
+                TaskStatus.PENDING, priorities[random.nextInt(priorities.length)], null, createdAt, createdAt,
+                false, null, null));
+        }
+        return tasks;
+    }
+}
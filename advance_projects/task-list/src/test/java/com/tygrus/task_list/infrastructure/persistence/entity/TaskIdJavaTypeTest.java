@@ -0,0 +1,99 @@
+package com.tygrus.task_list.infrastructure.persistence.entity;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.persistence.sharding.PostgreSQLTaskShard;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * TaskIdJavaType 測試
+ *
+ * 測試重點：
+ * - UUID 格式的 ID 即為主鍵，無損轉換
+ * - 舊格式的 ID 以名稱式 UUID 為主鍵，原值經 legacy 欄位還原
+ * - 資料庫欄位為 uuid 型別，舊格式與 UUID 格式的任務都能讀回
+ */
+@DisplayName("TaskIdJavaType 測試")
+class TaskIdJavaTypeTest {
+
+    private static final String UUID_ID = "0190f1c2-7a3b-7c4d-8e5f-6a7b8c9d0e1f";
+
+    private final TaskIdJavaType javaType = new TaskIdJavaType();
+
+    @Nested
+    @DisplayName("轉換測試")
+    class ConversionTests {
+
+        @Test
+        @DisplayName("UUID 格式的 ID 應該以本身為主鍵並還原為相同字串")
+        void shouldKeyUuidIdsByThemselves() {
+            // Act
+            UUID key = javaType.unwrap(UUID_ID, UUID.class, null);
+
+            // Assert
+            assertThat(key).isEqualTo(UUID.fromString(UUID_ID));
+            assertThat(javaType.wrap(key, null)).isEqualTo(UUID_ID);
+            assertThat(TaskIdJavaType.keyOf(UUID_ID)).isEqualTo(UUID_ID);
+            assertThat(TaskIdJavaType.legacyIdOf(UUID_ID)).isNull();
+        }
+
+        @Test
+        @DisplayName("舊格式的 ID 應該以名稱式 UUID 為主鍵並以 legacy 欄位還原")
+        void shouldKeyLegacyIdsByNameBasedUuid() {
+            // Arrange
+            String legacy = "task-0000000001";
+            UUID key = UUID.nameUUIDFromBytes(legacy.getBytes(StandardCharsets.UTF_8));
+
+            // Act & Assert
+            assertThat(javaType.unwrap(legacy, UUID.class, null)).isEqualTo(key);
+            assertThat(javaType.areEqual(legacy, key.toString())).isTrue();
+            assertThat(javaType.extractHashCode(legacy)).isEqualTo(javaType.extractHashCode(key.toString()));
+            assertThat(TaskIdJavaType.restore(key.toString(), TaskIdJavaType.legacyIdOf(legacy))).isEqualTo(legacy);
+        }
+    }
+
+    @Nested
+    @DisplayName("資料表映射測試")
+    class MappingTests {
+
+        @Test
+        @DisplayName("任務ID 欄位應該為 uuid 且舊格式的任務可以讀回")
+        void shouldMapIdToUuidColumn() {
+            // Arrange
+            DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:task-id-mapping;DB_CLOSE_DELAY=-1", "sa", "");
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+            try (PostgreSQLTaskShard shard = PostgreSQLTaskShard.create("mapping", dataSource,
+                    Map.of("hibernate.hbm2ddl.auto", "create-drop"))) {
+                TaskRepository repository = shard.repository();
+
+                // Act
+                repository.save(Task.builder().id(TaskId.of("task-1")).title("舊格式任務").build());
+                repository.save(Task.builder().id(TaskId.of(UUID_ID)).title("UUID 任務").build());
+
+                // Assert
+                assertThat(jdbc.queryForObject("SELECT data_type FROM information_schema.columns " +
+                    "WHERE table_name = 'TASKS' AND column_name = 'ID'", String.class)).isEqualTo("UUID");
+                assertThat(jdbc.queryForList("SELECT legacy_id FROM tasks", String.class))
+                    .containsExactlyInAnyOrder("task-1", null);
+                assertThat(repository.findById(TaskId.of("task-1"))).get()
+                    .extracting(Task::getTitle).isEqualTo("舊格式任務");
+                assertThat(repository.findById(TaskId.of(UUID_ID))).get()
+                    .extracting(Task::getTitle).isEqualTo("UUID 任務");
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.tygrus.task_list.infrastructure.persistence.migration;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.persistence.sharding.PostgreSQLTaskShard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * TaskIdColumnMigration 整合測試
+ * 在 PostgreSQL 上建立舊版 varchar(36) 的 tasks 資料表，遷移後以實體映射讀回 UUID 與舊格式的任務
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("TaskIdColumnMigration 整合測試")
+class TaskIdColumnMigrationIntegrationTest {
+
+    private static final String UUID_ID = "0190f1c2-7a3b-7c4d-8e5f-6a7b8c9d0e1f";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP TABLE IF EXISTS tasks");
+        jdbc.execute("CREATE TABLE tasks (id varchar(36) PRIMARY KEY, title varchar(255) NOT NULL, " +
+            "description varchar(2000), status varchar(20) NOT NULL, priority varchar(20) NOT NULL, " +
+            "due_date timestamp, created_at timestamp NOT NULL, updated_at timestamp, deleted boolean NOT NULL, " +
+            "deleted_at timestamp, version bigint, attachment_count integer NOT NULL)");
+        insertTask(UUID_ID, "UUID 任務");
+        insertTask("task-1", "舊格式任務");
+    }
+
+    @Test
+    @DisplayName("應該把 varchar 任務ID 轉為 uuid 主鍵並保留舊格式的原值")
+    void shouldConvertVarcharIdsToBinaryKeys() throws Exception {
+        // When
+        int migrated = new TaskIdColumnMigration(dataSource).migrate();
+
+        // Then
+        assertThat(migrated).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT data_type FROM information_schema.columns " +
+            "WHERE table_name = 'tasks' AND column_name = 'id'", String.class)).isEqualTo("uuid");
+        try (PostgreSQLTaskShard shard = PostgreSQLTaskShard.create("migrated", dataSource,
+                Map.of("hibernate.hbm2ddl.auto", "update"))) {
+            TaskRepository repository = shard.repository();
+            assertThat(repository.findById(TaskId.of(UUID_ID))).get().extracting(Task::getTitle).isEqualTo("UUID 任務");
+            assertThat(repository.findById(TaskId.of("task-1"))).get().extracting(Task::getTitle).isEqualTo("舊格式任務");
+        }
+    }
+
+    @Test
+    @DisplayName("已轉換的欄位應該略過，遷移可以重複執行")
+    void shouldSkipConvertedColumns() throws Exception {
+        // Given
+        TaskIdColumnMigration migration = new TaskIdColumnMigration(dataSource);
+        migration.migrate();
+
+        // When & Then
+        assertThat(migration.migrate()).isZero();
+        assertThat(jdbc.queryForObject("SELECT legacy_id FROM tasks WHERE legacy_id IS NOT NULL", String.class))
+            .isEqualTo("task-1");
+    }
+
+    private void insertTask(String id, String title) {
+        jdbc.update("INSERT INTO tasks (id, title, status, priority, created_at, updated_at, deleted, version, " +
+            "attachment_count) VALUES (?, ?, 'PENDING', 'MEDIUM', now(), now(), false, 0, 0)", id, title);
+    }
+}
@@ -0,0 +1,92 @@
+package com.tygrus.task_list.infrastructure.persistence.migration;
+
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.TaskQuery;
+import com.tygrus.task_list.domain.repository.TaskQueryCursor;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.persistence.sharding.PostgreSQLTaskShard;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * TaskSortKeyIndexMigration 測試
+ * 索引的運算式須與 Hibernate 為 PostgreSQLTaskRepository 產生的排序鍵完全相同，PostgreSQL 才會使用索引。
+ * 以 PostgreSQL 方言在 H2 的 PostgreSQL 相容模式上執行查詢，攔截產生的 SQL 比對運算式
+ */
+@DisplayName("TaskSortKeyIndexMigration 測試")
+class TaskSortKeyIndexMigrationTest {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+    private DataSource dataSource;
+    private PostgreSQLTaskShard shard;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:task-sort-keys;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        // H2 不支援運算式中的 COLLATE，比對後移除才能執行
+        StatementInspector inspector = sql -> {
+            statements.add(sql);
+            return sql.replace(" collate ucs_basic", "");
+        };
+        shard = PostgreSQLTaskShard.create("sort-keys", dataSource, Map.of(
+            "hibernate.hbm2ddl.auto", "create-drop",
+            "hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect",
+            "hibernate.session_factory.statement_inspector", inspector));
+    }
+
+    @AfterEach
+    void tearDown() {
+        shard.close();
+    }
+
+    @Test
+    @DisplayName("依標題與優先級續讀的 SQL 應該使用與索引相同的運算式")
+    void shouldRenderSortKeysLikeIndexExpressions() {
+        // Given - 只需要續讀位置，不需要寫入資料
+        TaskRepository repository = shard.repository();
+        Task task = Task.builder().id(TaskId.of("task-1")).title("任務").priority(Priority.HIGH).build();
+
+        // When
+        String byTitle = resumedQuerySql(repository, task, TaskQuery.SortField.TITLE);
+        String byPriority = resumedQuerySql(repository, task, TaskQuery.SortField.PRIORITY);
+
+        // Then
+        assertThat(byTitle).contains("(" + TaskSortKeyIndexMigration.TITLE_KEY + ")>=");
+        assertThat(byTitle).contains("order by (" + TaskSortKeyIndexMigration.TITLE_KEY + "),id");
+        assertThat(byPriority).contains(TaskSortKeyIndexMigration.PRIORITY_RANK + ">=" + Priority.HIGH.ordinal());
+        assertThat(byPriority).contains("order by " + TaskSortKeyIndexMigration.PRIORITY_RANK + ",id");
+    }
+
+    @Test
+    @DisplayName("非 PostgreSQL 資料庫應該略過")
+    void shouldSkip_whenNotPostgreSQL() throws Exception {
+        assertThat(new TaskSortKeyIndexMigration(dataSource).migrate()).isZero();
+    }
+
+    /**
+     * @return 去掉資料表別名的查詢 SQL
+     */
+    private String resumedQuerySql(TaskRepository repository, Task after, TaskQuery.SortField sortField) {
+        statements.clear();
+        repository.query(TaskQuery.builder()
+            .sortBy(sortField, false)
+            .limit(10)
+            .after(TaskQueryCursor.after(after, sortField, false))
+            .build());
+        return statements.get(0).replace("te1_0.", "");
+    }
+}
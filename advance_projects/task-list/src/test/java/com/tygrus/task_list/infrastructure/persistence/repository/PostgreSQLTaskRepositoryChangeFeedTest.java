@@ -0,0 +1,84 @@
+package com.tygrus.task_list.infrastructure.persistence.repository;
+
+import com.tygrus.task_list.domain.exception.OptimisticLockException;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskChange;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.persistence.sharding.PostgreSQLTaskShard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * PostgreSQLTaskRepository 未啟用 outbox 時的變更流測試
+ * 以 H2 記憶體資料庫上的交易代理呼叫，確認寫入在提交後才發布，回滾的寫入不發布
+ */
+@DisplayName("PostgreSQLTaskRepository 記憶體變更流測試")
+class PostgreSQLTaskRepositoryChangeFeedTest {
+
+    private PostgreSQLTaskShard shard;
+    private TaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        shard = PostgreSQLTaskShard.create("change-feed",
+            new DriverManagerDataSource("jdbc:h2:mem:task-change-feed;DB_CLOSE_DELAY=-1", "sa", ""),
+            Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        repository = shard.repository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        shard.close();
+    }
+
+    @Test
+    @DisplayName("應該在提交後依序發布新增、更新與刪除")
+    void shouldPublishCommittedWrites() {
+        // Given
+        TaskChangeFeed feed = repository.changeFeed();
+        Task saved = repository.save(Task.builder().id(TaskId.of("task-1")).title("任務").build());
+
+        // When
+        Task current = repository.findById(saved.getId()).orElseThrow();
+        current.updateStatus(TaskStatus.IN_PROGRESS);
+        repository.saveWithOptimisticLock(current, current.getVersion());
+        repository.deleteById(saved.getId());
+
+        // Then
+        List<TaskChange> changes = feed.read(1, 10);
+        assertThat(changes).extracting(TaskChange::type)
+            .containsExactly(TaskChange.Type.INSERTED, TaskChange.Type.UPDATED, TaskChange.Type.DELETED);
+        assertThat(changes).extracting(change -> change.task().getStatus())
+            .containsExactly(TaskStatus.PENDING, TaskStatus.IN_PROGRESS, TaskStatus.IN_PROGRESS);
+        assertThat(changes.get(2).task().isDeleted()).isTrue();
+        assertThat(changes).extracting(TaskChange::taskId).containsOnly(saved.getId());
+    }
+
+    @Test
+    @DisplayName("回滾的寫入不應該發布")
+    void shouldNotPublishRolledBackWrite() {
+        // Given
+        Task saved = repository.save(Task.builder().id(TaskId.of("task-1")).title("任務").build());
+        Task current = repository.findById(saved.getId()).orElseThrow();
+        repository.saveWithOptimisticLock(current, current.getVersion());
+        long latest = repository.changeFeed().latestSequence();
+
+        // When - 以過期的版本更新
+        assertThatThrownBy(() -> repository.saveWithOptimisticLock(current, current.getVersion()))
+            .isInstanceOf(OptimisticLockException.class);
+
+        // Then
+        assertThat(repository.changeFeed().latestSequence()).isEqualTo(latest);
+    }
+}
@@ -1,8 +1,15 @@
 package com.tygrus.task_list.infrastructure.persistence.repository;
 
+import com.tygrus.task_list.application.dto.PagedResult;
+import com.tygrus.task_list.domain.exception.OptimisticLockException;
 import com.tygrus.task_list.domain.model.Task;
 import com.tygrus.task_list.domain.model.TaskId;
 import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskQuery;
+import com.tygrus.task_list.domain.repository.TaskQueryCursor;
+import com.tygrus.task_list.domain.repository.TaskQueryResult;
+import com.tygrus.task_list.infrastructure.persistence.migration.TaskSortKeyIndexMigration;
+import com.tygrus.task_list.infrastructure.repository.InMemoryTaskRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,6 +19,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -19,8 +27,10 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -48,6 +58,9 @@ class PostgreSQLTaskRepositoryIntegrationTest {
     @Autowired
     private PostgreSQLTaskRepository repository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Task sampleTask1;
     private Task sampleTask2;
     private Task sampleTask3;
@@ -244,6 +257,17 @@ class PostgreSQLTaskRepositoryIntegrationTest {
     @DisplayName("進階查詢功能測試")
     class AdvancedQueryTest {
 
+        @Test
+        @DisplayName("應該原樣拋出讀取函式自身的例外 - 當串流讀取的 reader 失敗時")
+        void shouldPropagateReaderException_whenStreaming() {
+            // When & Then
+            assertThatThrownBy(() -> repository.streamAll(tasks -> {
+                throw new IllegalArgumentException("reader failed");
+            }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("reader failed");
+        }
+
         @Test
         @DisplayName("應該能夠查找過期的任務")
         void shouldFindOverdueTasks() {
@@ -291,6 +315,136 @@ class PostgreSQLTaskRepositoryIntegrationTest {
             
             logger.info("查找到 {} 個即將到期的任務", tasksDueSoon.size());
         }
+
+        @Test
+        @DisplayName("應該在資料庫中執行查詢規格的過濾、排序與分頁")
+        void shouldPushQueryDownToDatabase() {
+            // When
+            TaskQueryResult firstPage = repository.query(TaskQuery.builder()
+                .statuses(List.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS))
+                .sortBy(TaskQuery.SortField.STATUS, false)
+                .limit(1)
+                .build());
+            TaskQueryResult byTitle = repository.query(TaskQuery.builder()
+                .titleTerms(List.of("postgresql"))
+                .createdBetween(LocalDateTime.now().minusDays(1), null)
+                .build());
+            
+            // Then
+            assertThat(firstPage.tasks()).extracting(Task::getId).containsExactly(sampleTask1.getId());
+            assertThat(firstPage.totalMatches()).isEqualTo(2);
+            assertThat(byTitle.tasks()).extracting(Task::getId).containsExactly(sampleTask1.getId());
+            assertThat(byTitle.totalMatches()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("應該與記憶體實作以相同定序排序標題")
+        void shouldSortTitlesLikeInMemoryRepository() {
+            // Given
+            LocalDateTime now = LocalDateTime.now();
+            for (String title : List.of("Zulu", "alpha", "_beta", "Éclair")) {
+                repository.save(Task.restoreFromPersistence(TaskId.generate(), title, null,
+                    TaskStatus.PENDING, null, now));
+            }
+            InMemoryTaskRepository inMemory = new InMemoryTaskRepository();
+            repository.findAll().forEach(inMemory::save);
+            TaskQuery query = TaskQuery.builder().sortBy(TaskQuery.SortField.TITLE, false).build();
+
+            // When
+            List<String> titles = repository.query(query).tasks().stream().map(Task::getTitle).toList();
+
+            // Then
+            assertThat(titles).containsSubsequence("_beta", "alpha", "Zulu", "Éclair");
+            assertThat(titles).containsExactlyElementsOf(
+                inMemory.query(query).tasks().stream().map(Task::getTitle).toList());
+        }
+
+        @Test
+        @DisplayName("應該與記憶體實作以相同規則處理已軟刪除的任務")
+        void shouldTreatSoftDeletedTasksLikeInMemoryRepository() {
+            // Given
+            repository.deleteById(sampleTask1.getId());
+            TaskQuery query = TaskQuery.builder().sortBy(TaskQuery.SortField.TITLE, false).build();
+            TaskQuery withDeleted = query.toBuilder().includeDeleted(true).build();
+            InMemoryTaskRepository inMemory = new InMemoryTaskRepository();
+            repository.query(withDeleted).tasks().forEach(inMemory::save);
+
+            // When
+            List<TaskId> active = repository.query(query).tasks().stream().map(Task::getId).toList();
+            List<TaskId> all = repository.query(withDeleted).tasks().stream().map(Task::getId).toList();
+
+            // Then
+            assertThat(active).doesNotContain(sampleTask1.getId()).hasSize(2);
+            assertThat(all).contains(sampleTask1.getId()).hasSize(3);
+            assertThat(inMemory.query(query).tasks()).extracting(Task::getId).containsExactlyElementsOf(active);
+            assertThat(inMemory.query(withDeleted).tasks()).extracting(Task::getId).containsExactlyElementsOf(all);
+        }
+
+        @Test
+        @DisplayName("應該以續讀位置在資料庫中從上一頁最後一筆之後讀取")
+        void shouldResumeQueryAfterCursor() {
+            // Given
+            TaskQuery byStatus = TaskQuery.builder()
+                .sortBy(TaskQuery.SortField.STATUS, true)
+                .limit(1)
+                .countTotal(false)
+                .build();
+            List<TaskId> expected = repository.query(byStatus.toBuilder().limit(TaskQuery.UNLIMITED).build())
+                .tasks().stream().map(Task::getId).toList();
+
+            // When
+            List<TaskId> walked = new ArrayList<>();
+            List<Task> page = repository.query(byStatus).tasks();
+            while (!page.isEmpty()) {
+                walked.add(page.get(0).getId());
+                TaskQueryCursor cursor = TaskQueryCursor.after(page.get(0), TaskQuery.SortField.STATUS, true);
+                page = repository.query(byStatus.toBuilder().after(cursor).build()).tasks();
+            }
+
+            // Then
+            assertThat(expected).hasSizeGreaterThanOrEqualTo(2);
+            assertThat(walked).containsExactlyElementsOf(expected);
+        }
+
+        @Test
+        @DisplayName("續讀頁未滿時總筆數仍應包含續讀位置之前的任務")
+        void shouldCountAllMatches_whenResumedPageIsNotFull() {
+            // Given
+            TaskQuery byPriority = TaskQuery.builder()
+                .sortBy(TaskQuery.SortField.PRIORITY, false)
+                .limit(10)
+                .build();
+            Task first = repository.query(byPriority.toBuilder().limit(1).build()).tasks().get(0);
+            TaskQueryCursor cursor = TaskQueryCursor.after(first, TaskQuery.SortField.PRIORITY, false);
+
+            // When
+            TaskQueryResult resumed = repository.query(byPriority.toBuilder().after(cursor).build());
+
+            // Then
+            assertThat(resumed.tasks()).hasSize(2);
+            assertThat(resumed.totalMatches()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("應該以排序鍵的運算式索引定位標題與優先級的續讀位置")
+        void shouldUseSortKeyIndexes_whenResumingTitleAndPriorityOrder() {
+            // Given
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+            // When
+            String titlePlan = explain("SELECT id FROM tasks WHERE (" + TaskSortKeyIndexMigration.TITLE_KEY
+                + ") >= 'a' ORDER BY (" + TaskSortKeyIndexMigration.TITLE_KEY + "), id LIMIT 10");
+            String priorityPlan = explain("SELECT id FROM tasks WHERE " + TaskSortKeyIndexMigration.PRIORITY_RANK
+                + " >= 1 ORDER BY " + TaskSortKeyIndexMigration.PRIORITY_RANK + ", id LIMIT 10");
+
+            // Then
+            assertThat(titlePlan).contains("idx_task_title_key_id");
+            assertThat(priorityPlan).contains("idx_task_priority_rank_id");
+        }
+
+        private String explain(String sql) {
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+        }
     }
 
     @Nested
@@ -353,6 +507,46 @@ class PostgreSQLTaskRepositoryIntegrationTest {
             
             logger.info("成功批次更新 {} 個任務狀態", updatedCount);
         }
+
+        @Test
+        @DisplayName("樂觀鎖更新應該遞增版本號並拒絕過期版本")
+        void shouldUpdateWithOptimisticLockAndRejectStaleVersion() {
+            // Given
+            Task task = repository.findById(TaskId.of("domain-task-2")).orElseThrow();
+            long loadedVersion = task.getVersion();
+            task.updateStatus(TaskStatus.IN_PROGRESS);
+            
+            // When
+            Task saved = repository.saveWithOptimisticLock(task, loadedVersion);
+            
+            // Then
+            assertThat(saved.getVersion()).isEqualTo(loadedVersion + 1);
+            assertThat(repository.findById(task.getId()).orElseThrow().getStatus())
+                .isEqualTo(TaskStatus.IN_PROGRESS);
+            assertThatThrownBy(() -> repository.saveWithOptimisticLock(task, loadedVersion))
+                .isInstanceOf(OptimisticLockException.class);
+        }
+
+        @Test
+        @DisplayName("批次樂觀鎖更新應該只寫入版本相符的任務")
+        void shouldBatchUpdateOnlyTasksWithMatchingVersion() {
+            // Given
+            Task current = repository.findById(TaskId.of("domain-task-1")).orElseThrow();
+            Task stale = repository.findById(TaskId.of("domain-task-2")).orElseThrow();
+            repository.saveWithOptimisticLock(stale, stale.getVersion());
+            current.updateStatus(TaskStatus.COMPLETED);
+            stale.updateStatus(TaskStatus.IN_PROGRESS);
+            
+            // When
+            Map<TaskId, Task> saved = repository.saveAllWithOptimisticLock(List.of(current, stale));
+            
+            // Then
+            assertThat(saved).containsOnlyKeys(current.getId());
+            assertThat(repository.findById(current.getId()).orElseThrow().getStatus())
+                .isEqualTo(TaskStatus.COMPLETED);
+            assertThat(repository.findById(stale.getId()).orElseThrow().getStatus())
+                .isEqualTo(TaskStatus.PENDING);
+        }
     }
 
     @Nested
@@ -389,6 +583,50 @@ class PostgreSQLTaskRepositoryIntegrationTest {
             logger.info("分頁查詢結果: 第1頁 {} 個任務，第2頁 {} 個任務", 
                        firstPage.size(), secondPage.size());
         }
+
+        @Test
+        @DisplayName("應該能夠以續頁標記進行 keyset 分頁")
+        void shouldSupportKeysetPagination() {
+            // Given - 新增更多測試資料
+            for (int i = 4; i <= 10; i++) {
+                Task task = Task.restoreFromPersistence(
+                    TaskId.of("keyset-task-" + i),
+                    "Keyset 任務 " + i,
+                    "測試 keyset 分頁的任務 " + i,
+                    TaskStatus.PENDING,
+                    LocalDateTime.now().plusDays(i),
+                    LocalDateTime.now()
+                );
+                repository.save(task);
+            }
+            
+            // When - 逐頁讀取直到沒有續頁標記
+            List<Task> allTasks = new ArrayList<>();
+            PagedResult<Task> page = repository.findAllWithKeyset("title", "ASC", 4, null);
+            allTasks.addAll(page.getContent());
+            while (page.getNextPageToken() != null) {
+                page = repository.findAllWithKeyset("title", "ASC", 4, page.getNextPageToken());
+                allTasks.addAll(page.getContent());
+            }
+            
+            // Then - 不重複、不遺漏
+            assertThat(allTasks).hasSize(10);
+            assertThat(allTasks).extracting(Task::getId).doesNotHaveDuplicates();
+            assertThat(page.isLast()).isTrue();
+        }
+
+        @Test
+        @DisplayName("續頁標記與排序條件不符時應該拒絕")
+        void shouldRejectTokenForDifferentSortOrder() {
+            // Given
+            PagedResult<Task> firstPage = repository.findAllWithKeyset("createdAt", "DESC", 1, null);
+            
+            // When & Then
+            assertThat(firstPage.getNextPageToken()).isNotNull();
+            assertThatThrownBy(() ->
+                repository.findAllWithKeyset("createdAt", "ASC", 1, firstPage.getNextPageToken()))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
     }
 
     @Nested
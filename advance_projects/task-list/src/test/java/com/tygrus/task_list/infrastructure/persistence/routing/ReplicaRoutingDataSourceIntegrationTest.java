@@ -0,0 +1,153 @@
+package com.tygrus.task_list.infrastructure.persistence.routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * ReplicaRoutingDataSource 整合測試
+ * 以兩個獨立的 H2 記憶體資料庫分別作為主庫與副本，各自存放不同的標記資料，
+ * 由查到的標記判斷交易實際使用的資料庫
+ */
+@DisplayName("ReplicaRoutingDataSource 整合測試")
+class ReplicaRoutingDataSourceIntegrationTest {
+
+    private final AtomicReference<Duration> replicaLag = new AtomicReference<>(Duration.ZERO);
+
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("primary");
+        DataSource replica = h2("replica");
+
+        lagMonitor = new ReplicaLagMonitor(Map.of("replica-0", replica), dataSource -> replicaLag.get(),
+            Duration.ofSeconds(5), Duration.ofMinutes(1));
+        lagMonitor.refresh();
+
+        DataSource routing = new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica), lagMonitor, Duration.ofSeconds(5)));
+        jdbcTemplate = new JdbcTemplate(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        ReadYourWritesContext.beginRequest();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.endRequest();
+        lagMonitor.stop();
+    }
+
+    @Nested
+    @DisplayName("交易路由測試")
+    class RoutingTest {
+
+        @Test
+        @DisplayName("唯讀交易應該路由到副本")
+        void shouldRouteReadOnlyTransactionToReplica() {
+            // When
+            String node = readOnlyTransaction.execute(status -> currentNode());
+
+            // Then
+            assertThat(node).isEqualTo("replica");
+        }
+
+        @Test
+        @DisplayName("寫入交易應該路由到主庫")
+        void shouldRouteWriteTransactionToPrimary() {
+            // When
+            String node = writeTransaction.execute(status -> currentNode());
+
+            // Then
+            assertThat(node).isEqualTo("primary");
+        }
+    }
+
+    @Nested
+    @DisplayName("落後與讀己之寫測試")
+    class FallbackTest {
+
+        @Test
+        @DisplayName("副本落後超過上限時唯讀交易應該改走主庫")
+        void shouldFallBackToPrimary_whenReplicaLagsBehind() {
+            // Given
+            replicaLag.set(Duration.ofSeconds(30));
+            lagMonitor.refresh();
+
+            // When
+            String node = readOnlyTransaction.execute(status -> currentNode());
+
+            // Then
+            assertThat(lagMonitor.healthyReplicas()).isEmpty();
+            assertThat(node).isEqualTo("primary");
+        }
+
+        @Test
+        @DisplayName("同一請求寫入後的唯讀交易應該讀取主庫")
+        void shouldReadFromPrimary_afterWriteInSameRequest() {
+            // Given
+            writeTransaction.executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO tasks_written (id) VALUES ('task-1')"));
+
+            // When
+            Integer visible = readOnlyTransaction.execute(status ->
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks_written WHERE id = 'task-1'", Integer.class));
+
+            // Then
+            assertThat(visible).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("新的請求應該重新路由到副本")
+        void shouldRouteToReplicaAgain_inNextRequest() {
+            // Given
+            writeTransaction.executeWithoutResult(status -> currentNode());
+            ReadYourWritesContext.endRequest();
+            ReadYourWritesContext.beginRequest();
+
+            // When
+            String node = readOnlyTransaction.execute(status -> currentNode());
+
+            // Then
+            assertThat(node).isEqualTo("replica");
+        }
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP TABLE IF EXISTS node");
+        jdbc.execute("DROP TABLE IF EXISTS tasks_written");
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.execute("CREATE TABLE tasks_written (id VARCHAR(36))");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
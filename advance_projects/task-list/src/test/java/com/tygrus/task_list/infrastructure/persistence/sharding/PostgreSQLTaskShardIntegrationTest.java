@@ -0,0 +1,135 @@
+package com.tygrus.task_list.infrastructure.persistence.sharding;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.repository.ShardedTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * PostgreSQLTaskShard 整合測試
+ * 以多個獨立的 H2 記憶體資料庫作為分片，每個分片有自己的 EntityManagerFactory 與交易管理器，
+ * 直接以 JDBC 查詢各資料庫確認任務實際寫入的位置
+ */
+@DisplayName("PostgreSQLTaskShard 整合測試")
+class PostgreSQLTaskShardIntegrationTest {
+
+    private final List<PostgreSQLTaskShard> opened = new ArrayList<>();
+    private final Map<String, JdbcTemplate> databases = new LinkedHashMap<>();
+    private ShardedTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, TaskRepository> shards = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            PostgreSQLTaskShard shard = openShard("shard-" + i);
+            shards.put(shard.name(), shard.repository());
+        }
+        repository = new ShardedTaskRepository(shards);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        opened.forEach(PostgreSQLTaskShard::close);
+    }
+
+    @Test
+    @DisplayName("應該將每個任務只寫入擁有者分片的資料庫")
+    void shouldWriteEachTaskToOwnerDatabase() {
+        // Given
+        List<Task> tasks = createTasks(200);
+
+        // When
+        repository.saveAll(tasks);
+
+        // Then
+        assertThat(databases.values()).allSatisfy(jdbc -> assertThat(activeRows(jdbc)).isPositive());
+        assertThat(databases.values().stream().mapToLong(this::activeRows).sum()).isEqualTo(200);
+        assertThat(repository.findAll()).hasSize(200);
+        assertThat(repository.findByIds(ids(tasks))).hasSize(200);
+        assertThat(repository.findById(tasks.get(42).getId())).get()
+            .extracting(Task::getTitle).isEqualTo("任務42");
+    }
+
+    @Test
+    @DisplayName("樂觀鎖更新應該在擁有者分片的交易內提交")
+    void shouldCommitOptimisticUpdateOnOwnerShard() {
+        // Given
+        Task saved = repository.save(createTasks(1).get(0));
+        Task current = repository.findById(saved.getId()).orElseThrow();
+        current.updateStatus(TaskStatus.IN_PROGRESS);
+
+        // When
+        repository.saveWithOptimisticLock(current, current.getVersion());
+
+        // Then
+        List<String> statuses = databases.values().stream()
+            .flatMap(jdbc -> jdbc.queryForList("SELECT status FROM tasks", String.class).stream())
+            .toList();
+        assertThat(statuses).containsExactly("IN_PROGRESS");
+        assertThat(repository.counts().countOf(TaskStatus.IN_PROGRESS)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("加入分片後應該把部分任務搬到新資料庫")
+    void shouldMoveTasksToNewDatabase_whenShardAdded() throws Exception {
+        // Given
+        List<Task> tasks = createTasks(300);
+        repository.saveAll(tasks);
+        PostgreSQLTaskShard added = openShard("shard-3");
+
+        // When
+        long moved = repository.addShard(added.name(), added.repository()).get(30, TimeUnit.SECONDS);
+
+        // Then - 搬離的任務在舊分片留下軟刪除的資料列
+        assertThat(moved).isEqualTo(activeRows(databases.get("shard-3"))).isBetween(30L, 150L);
+        assertThat(databases.values().stream().mapToLong(this::activeRows).sum()).isEqualTo(300);
+        assertThat(repository.findAll()).hasSize(300);
+        assertThat(repository.findByIds(ids(tasks))).hasSize(300);
+    }
+
+    private PostgreSQLTaskShard openShard(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:task-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        PostgreSQLTaskShard shard = PostgreSQLTaskShard.create(name, dataSource,
+            Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        opened.add(shard);
+        databases.put(name, new JdbcTemplate(dataSource));
+        return shard;
+    }
+
+    private long activeRows(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM tasks WHERE deleted = false", Long.class);
+    }
+
+    private static List<Task> createTasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(Task.builder()
+                .id(TaskId.of("task-" + i))
+                .title("任務" + i)
+                .build());
+        }
+        return tasks;
+    }
+
+    private static List<TaskId> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+}
@@ -0,0 +1,226 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * CachingTaskRepository 測試
+ *
+ * 以記憶體儲存庫的 spy 作為資料來源，測試重點：
+ * - 命中時不存取資料來源，findByIds 只批次載入未命中的任務
+ * - 寫入後失效，載入期間發生的寫入不會讓舊版本留在快取
+ * - 在外層交易內寫入時，提交前載入的舊版本在交易結束後被清除
+ * - 容量上限與命中統計
+ */
+@DisplayName("CachingTaskRepository 測試")
+class CachingTaskRepositoryTest {
+
+    private TaskRepository delegate;
+    private CachingTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = spy(new DomainTaskRepositoryAdapter(new InMemoryTaskRepository()));
+        repository = new CachingTaskRepository(delegate, 100);
+    }
+
+    @Nested
+    @DisplayName("讀取穿透測試")
+    class ReadThroughTest {
+
+        @Test
+        @DisplayName("重複查詢同一任務應該只存取資料來源一次")
+        void shouldLoadOnce_whenFindingSameTaskRepeatedly() {
+            // Arrange
+            Task task = delegate.save(createTask("task-1"));
+
+            // Act
+            repository.existsById(task.getId());
+            Optional<Task> first = repository.findById(task.getId());
+            Optional<Task> second = repository.findById(task.getId());
+
+            // Assert
+            assertThat(first).isPresent();
+            assertThat(second).isPresent();
+            verify(delegate, times(1)).findById(task.getId());
+            assertThat(repository.getStats().hitCount()).isEqualTo(2);
+            assertThat(repository.getStats().missCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("findByIds應該只批次載入未命中的任務")
+        void shouldBatchLoadOnlyMisses() {
+            // Arrange
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                tasks.add(delegate.save(createTask("task-" + i)));
+            }
+            repository.findById(tasks.get(0).getId());
+            repository.findById(tasks.get(1).getId());
+            List<TaskId> ids = tasks.stream().map(Task::getId).toList();
+
+            // Act
+            Map<TaskId, Task> found = repository.findByIds(ids);
+
+            // Assert
+            assertThat(found).containsOnlyKeys(ids);
+            verify(delegate).findByIds(List.of(tasks.get(2).getId(), tasks.get(3).getId()));
+        }
+
+        @Test
+        @DisplayName("修改查到的任務不應該影響快取內容")
+        void shouldReturnIndependentCopies() {
+            // Arrange
+            Task task = delegate.save(createTask("task-1"));
+            repository.findById(task.getId());
+
+            // Act
+            repository.findById(task.getId()).orElseThrow().updateStatus(TaskStatus.IN_PROGRESS);
+
+            // Assert
+            assertThat(repository.findById(task.getId()).orElseThrow().getStatus()).isEqualTo(TaskStatus.PENDING);
+        }
+    }
+
+    @Nested
+    @DisplayName("失效與一致性測試")
+    class InvalidationTest {
+
+        @Test
+        @DisplayName("保存後應該讀到新版本")
+        void shouldReadNewVersion_afterSave() {
+            // Arrange
+            Task task = delegate.save(createTask("task-1"));
+            Task cached = repository.findById(task.getId()).orElseThrow();
+
+            // Act
+            cached.updateStatus(TaskStatus.IN_PROGRESS);
+            Task saved = repository.save(cached);
+
+            // Assert
+            Task reloaded = repository.findById(task.getId()).orElseThrow();
+            assertThat(reloaded.getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+            assertThat(reloaded.getVersion()).isEqualTo(saved.getVersion());
+        }
+
+        @Test
+        @DisplayName("刪除後應該查不到任務")
+        void shouldMiss_afterDelete() {
+            // Arrange
+            Task task = delegate.save(createTask("task-1"));
+            repository.findById(task.getId());
+
+            // Act
+            repository.deleteById(task.getId());
+
+            // Assert
+            assertThat(repository.findById(task.getId())).isEmpty();
+            assertThat(repository.existsById(task.getId())).isFalse();
+        }
+
+        @Test
+        @DisplayName("載入期間完成的寫入不應該讓舊版本留在快取")
+        void shouldDiscardLoad_whenWriteCompletesDuringLoad() throws Exception {
+            // Arrange - 讓第一次載入讀到舊版本後暫停，期間完成一次寫入
+            Task task = delegate.save(createTask("task-1"));
+            CountDownLatch loaded = new CountDownLatch(1);
+            CountDownLatch written = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                Object stale = invocation.callRealMethod();
+                loaded.countDown();
+                written.await(5, TimeUnit.SECONDS);
+                return stale;
+            }).doCallRealMethod().when(delegate).findById(any());
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+
+            // Act
+            Future<Optional<Task>> slowRead = executor.submit(() -> repository.findById(task.getId()));
+            loaded.await(5, TimeUnit.SECONDS);
+            Task current = delegate.findById(task.getId()).orElseThrow();
+            current.updateStatus(TaskStatus.IN_PROGRESS);
+            Task saved = repository.save(current);
+            written.countDown();
+            slowRead.get(5, TimeUnit.SECONDS);
+            executor.shutdown();
+
+            // Assert
+            Task reloaded = repository.findById(task.getId()).orElseThrow();
+            assertThat(reloaded.getVersion()).isEqualTo(saved.getVersion());
+            assertThat(reloaded.getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+        }
+        @Test
+        @DisplayName("外層交易提交前載入的舊版本應該在提交後被清除")
+        void shouldInvalidateAgain_afterEnclosingTransactionCommits() {
+            // Arrange
+            Task task = delegate.save(createTask("task-1"));
+            Task committed = delegate.findById(task.getId()).orElseThrow();
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // Act - 交易內寫入，提交前其他讀取者仍讀到已提交的舊版本
+                Task current = delegate.findById(task.getId()).orElseThrow();
+                current.updateStatus(TaskStatus.IN_PROGRESS);
+                repository.save(current);
+                doReturn(Optional.of(committed)).when(delegate).findById(task.getId());
+                assertThat(repository.findById(task.getId()).orElseThrow().getStatus())
+                    .isEqualTo(TaskStatus.PENDING);
+
+                doCallRealMethod().when(delegate).findById(task.getId());
+                TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            // Assert
+            assertThat(repository.findById(task.getId()).orElseThrow().getStatus())
+                .isEqualTo(TaskStatus.IN_PROGRESS);
+        }
+    }
+
+    @Test
+    @DisplayName("快取項目數不應該超過容量上限")
+    void shouldBoundCacheSize() {
+        // Arrange
+        for (int i = 0; i < 300; i++) {
+            delegate.save(createTask("task-" + i));
+        }
+
+        // Act
+        for (int i = 0; i < 300; i++) {
+            repository.findById(TaskId.of("task-" + i));
+        }
+
+        // Assert
+        assertThat(repository.getStats().size()).isLessThanOrEqualTo(100);
+        assertThat(repository.getStats().evictionCount()).isGreaterThanOrEqualTo(200);
+    }
+
+    private static Task createTask(String id) {
+        return Task.builder()
+            .id(TaskId.of(id))
+            .title("任務 " + id)
+            .build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.infrastructure.repository.wal.WriteAheadLog.SyncMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * DurableTaskRepository 測試
+ *
+ * 測試重點：
+ * - 關閉後重新開啟可由日誌復原全部變更
+ * - 檢查點後由快照加上剩餘日誌復原，並移除已涵蓋的日誌分段
+ */
+@DisplayName("DurableTaskRepository 測試")
+class DurableTaskRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private DurableTaskRepository repository;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (repository != null) {
+            repository.close();
+        }
+    }
+
+    @Test
+    @DisplayName("應該在重新開啟後由日誌復原儲存、更新與刪除")
+    void shouldRecoverFromWal_whenReopened() throws IOException {
+        // Arrange
+        repository = open();
+        Task kept = repository.save(createTask("保留任務"));
+        Task removed = repository.save(createTask("刪除任務"));
+        kept.updateStatus(TaskStatus.IN_PROGRESS);
+        repository.save(kept);
+        repository.deleteById(removed.getId());
+        repository.close();
+
+        // Act
+        repository = open();
+
+        // Assert
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(repository.findById(kept.getId())).get()
+            .satisfies(task -> {
+                assertThat(task.getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+                assertThat(task.getVersion()).isEqualTo(1L);
+            });
+        assertThat(repository.findById(removed.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("應該在檢查點後由快照與剩餘日誌復原並刪除已涵蓋的分段")
+    void shouldRecoverFromSnapshotAndTail_afterCheckpoint() throws IOException {
+        // Arrange
+        repository = open();
+        for (int i = 0; i < 100; i++) {
+            repository.save(createTask("任務" + i));
+        }
+        long segmentsBefore = countFiles("wal-");
+        repository.checkpoint();
+        Task afterCheckpoint = repository.save(createTask("檢查點後任務"));
+        repository.close();
+
+        // Act
+        repository = open();
+
+        // Assert
+        assertThat(countFiles("snapshot-")).isEqualTo(1);
+        assertThat(countFiles("wal-")).isLessThan(segmentsBefore);
+        assertThat(repository.count()).isEqualTo(101);
+        assertThat(repository.findById(afterCheckpoint.getId())).isPresent();
+    }
+
+    private DurableTaskRepository open() throws IOException {
+        DurableTaskRepository durable = new DurableTaskRepository(directory, SyncMode.PER_BATCH, 4096, Duration.ZERO);
+        durable.open();
+        return durable;
+    }
+
+    private long countFiles(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    private Task createTask(String title) {
+        return Task.builder()
+            .id(TaskId.generate())
+            .title(title)
+            .dueDate(LocalDateTime.now().plusDays(1))
+            .build();
+    }
+}
@@ -0,0 +1,652 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.exception.OptimisticLockException;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskColumns;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskQuery;
+import com.tygrus.task_list.domain.repository.TaskQueryCursor;
+import com.tygrus.task_list.domain.repository.TaskQueryResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * InMemoryTaskRepository 測試
+ *
+ * 測試重點：
+ * - 狀態索引與到期日索引在 save/deleteById 後保持一致
+ * - 範圍查詢的邊界處理
+ * - 版本號與樂觀鎖衝突偵測
+ * - 多版本快照不受之後的寫入影響，並行掃描只看到完整寫入過的前綴
+ * - 查詢規格以索引取得候選，結果與在串流上求值相同
+ */
+@DisplayName("InMemoryTaskRepository 測試")
+class InMemoryTaskRepositoryTest {
+
+    private InMemoryTaskRepository repository;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTaskRepository();
+        now = LocalDateTime.now();
+    }
+
+    @Nested
+    @DisplayName("次要索引測試")
+    class SecondaryIndexTests {
+
+        @Test
+        @DisplayName("應該在狀態變更並儲存後更新狀態索引")
+        void shouldUpdateStatusIndex_whenTaskStatusChangesAndIsSaved() {
+            // Arrange
+            Task task = repository.save(createTask("任務A", now.plusHours(1)));
+            repository.save(createTask("任務B", now.plusHours(2)));
+
+            // Act
+            task.updateStatus(TaskStatus.IN_PROGRESS);
+            repository.save(task);
+
+            // Assert
+            assertThat(repository.countByStatus(TaskStatus.PENDING)).isEqualTo(1);
+            assertThat(repository.countByStatus(TaskStatus.IN_PROGRESS)).isEqualTo(1);
+            assertThat(repository.findByStatus(TaskStatus.IN_PROGRESS)).containsExactly(task);
+        }
+
+        @Test
+        @DisplayName("應該包含時間範圍兩端點的到期任務")
+        void shouldIncludeBoundaries_whenFindingTasksWithDueDateBetween() {
+            // Arrange
+            Task atStart = repository.save(createTask("起點", now));
+            Task atEnd = repository.save(createTask("終點", now.plusHours(24)));
+            repository.save(createTask("範圍外", now.plusHours(25)));
+            repository.save(createTask("無到期日", null));
+
+            // Act
+            List<Task> result = repository.findTasksWithDueDateBetween(now, now.plusHours(24));
+
+            // Assert
+            assertThat(result).containsExactlyInAnyOrder(atStart, atEnd);
+        }
+
+        @Test
+        @DisplayName("應該排除已完成和已取消的逾期任務")
+        void shouldExcludeCompletedAndCancelledTasks_whenFindingOverdueTasks() {
+            // Arrange
+            Task overdue = repository.save(createTask("逾期", now.minusDays(1)));
+            Task cancelled = createTask("已取消", now.minusDays(2));
+            cancelled.updateStatus(TaskStatus.CANCELLED);
+            repository.save(cancelled);
+            repository.save(createTask("未到期", now.plusDays(1)));
+
+            // Act
+            List<Task> result = repository.findOverdueTasks(now);
+
+            // Assert
+            assertThat(result).containsExactly(overdue);
+        }
+
+        @Test
+        @DisplayName("應該在刪除後從所有索引移除任務")
+        void shouldRemoveFromAllIndexes_whenTaskIsDeleted() {
+            // Arrange
+            Task task = repository.save(createTask("待刪除", now.minusHours(1)));
+
+            // Act
+            boolean deleted = repository.deleteById(task.getId());
+
+            // Assert
+            assertThat(deleted).isTrue();
+            assertThat(repository.countByStatus(TaskStatus.PENDING)).isZero();
+            assertThat(repository.findOverdueTasks(now)).isEmpty();
+            assertThat(repository.findByStatus(TaskStatus.PENDING)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("應該與 findByStatus 計算相同的任務 - 當狀態變更與計數並行時")
+        void shouldCountLikeFindByStatus_whenStatusChangesConcurrently() {
+            // Arrange
+            int taskCount = 200;
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < taskCount; i++) {
+                tasks.add(repository.save(Task.builder().id(TaskId.of("task-" + i)).title("任務 " + i).build()));
+            }
+
+            // Act：逐一改為進行中，同時反覆計數；計數只算已提交為該狀態的任務
+            CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+                for (Task task : tasks) {
+                    task.updateStatus(TaskStatus.IN_PROGRESS);
+                    repository.save(task);
+                }
+            });
+            List<Long> totals = new ArrayList<>();
+            while (!writer.isDone()) {
+                totals.add(repository.countByStatus(TaskStatus.IN_PROGRESS));
+            }
+            writer.join();
+
+            // Assert
+            assertThat(totals).allSatisfy(total -> assertThat(total).isBetween(0L, (long) taskCount));
+            assertThat(totals).isSorted();
+            assertThat(repository.countByStatus(TaskStatus.IN_PROGRESS))
+                .isEqualTo(repository.findByStatus(TaskStatus.IN_PROGRESS).size())
+                .isEqualTo(taskCount);
+            assertThat(repository.countByStatus(TaskStatus.PENDING)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("欄式快照測試")
+    class ColumnarSnapshotTests {
+
+        @Test
+        @DisplayName("應該在更新與刪除後保持欄式資料與任務一致")
+        void shouldKeepColumnsConsistent_afterUpdatesAndDeletes() {
+            // Arrange
+            Task first = repository.save(createTask("任務A", now.plusHours(1)));
+            repository.save(createTask("任務B", null));
+            Task third = repository.save(createTask("任務C", now.minusHours(1)));
+
+            // Act
+            third.updateStatus(TaskStatus.CANCELLED);
+            repository.save(third);
+            repository.deleteById(first.getId());
+            TaskColumns columns = repository.findAllAsColumns();
+
+            // Assert
+            assertThat(columns.size()).isEqualTo(2);
+            List<TaskStatus> statuses = new ArrayList<>();
+            List<Long> dueDates = new ArrayList<>();
+            for (int i = 0; i < columns.size(); i++) {
+                statuses.add(columns.status(i));
+                dueDates.add(columns.dueDateMillis(i));
+                assertThat(columns.isDeleted(i)).isFalse();
+            }
+            assertThat(statuses).containsExactlyInAnyOrder(TaskStatus.PENDING, TaskStatus.CANCELLED);
+            assertThat(dueDates).containsExactlyInAnyOrder(
+                TaskColumns.NO_TIME, TaskColumns.toEpochMillis(now.minusHours(1)));
+        }
+
+        @Test
+        @DisplayName("應該以快照版本建立欄式資料 - 當取得快照後有寫入時")
+        void shouldBuildColumnsFromSnapshot_whenWritesFollow() {
+            // Arrange
+            Task first = repository.save(createTask("任務A", null));
+            TaskSnapshot before = repository.snapshot();
+
+            // Act
+            first.updateStatus(TaskStatus.IN_PROGRESS);
+            repository.save(first);
+            repository.save(createTask("任務B", null));
+
+            // Assert
+            assertThat(before.columns().size()).isEqualTo(1);
+            assertThat(before.columns().status(0)).isEqualTo(TaskStatus.PENDING);
+            assertThat(before.columns()).isSameAs(before.columns());
+            assertThat(repository.findAllAsColumns().size()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("串流讀取測試")
+    class StreamingTests {
+
+        @Test
+        @DisplayName("應該串流所有任務且修改串流中的任務不影響儲存內容")
+        void shouldStreamCopies_whenStreamingAllTasks() {
+            // Arrange
+            repository.save(createTask("任務A", now.plusHours(1)));
+            repository.save(createTask("任務B", now.plusHours(2)));
+
+            // Act
+            long streamed = repository.streamAll(tasks -> tasks
+                .peek(task -> task.updateStatus(TaskStatus.IN_PROGRESS))
+                .mapToLong(task -> 1L)
+                .sum());
+
+            // Assert
+            assertThat(streamed).isEqualTo(2);
+            assertThat(repository.countByStatus(TaskStatus.PENDING)).isEqualTo(2);
+            assertThat(repository.findAll()).extracting(Task::getStatus).containsOnly(TaskStatus.PENDING);
+        }
+    }
+
+    @Nested
+    @DisplayName("多版本快照測試")
+    class SnapshotTests {
+
+        @Test
+        @DisplayName("應該保持快照內容不變 - 當取得快照後有寫入與刪除時")
+        void shouldKeepSnapshotContents_whenWritesFollow() {
+            // Arrange
+            Task first = repository.save(createTask("任務A", null));
+            Task second = repository.save(createTask("任務B", null));
+            TaskSnapshot before = repository.snapshot();
+
+            // Act
+            first.updateStatus(TaskStatus.IN_PROGRESS);
+            repository.save(first);
+            repository.deleteById(second.getId());
+            repository.save(createTask("任務C", null));
+            TaskSnapshot after = repository.snapshot();
+
+            // Assert
+            assertThat(before.size()).isEqualTo(2);
+            assertThat(before.findById(first.getId())).get()
+                .extracting(Task::getStatus).isEqualTo(TaskStatus.PENDING);
+            assertThat(before.contains(second.getId())).isTrue();
+            assertThat(after.size()).isEqualTo(2);
+            assertThat(after.findById(first.getId())).get()
+                .extracting(Task::getStatus).isEqualTo(TaskStatus.IN_PROGRESS);
+            assertThat(after.contains(second.getId())).isFalse();
+            assertThat(after.version()).isGreaterThan(before.version());
+        }
+
+        @Test
+        @DisplayName("應該與一般映射內容一致 - 當隨機新增、更新與刪除大量任務時")
+        void shouldMatchReferenceMap_whenApplyingRandomWrites() {
+            // Arrange
+            Random random = new Random(42);
+            List<TaskId> ids = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                ids.add(TaskId.of("task-" + i));
+            }
+            Map<TaskId, String> expected = new HashMap<>();
+
+            // Act
+            for (int i = 0; i < 20000; i++) {
+                TaskId id = ids.get(random.nextInt(ids.size()));
+                if (random.nextInt(4) == 0) {
+                    repository.deleteById(id);
+                    expected.remove(id);
+                } else {
+                    String title = "任務 " + i;
+                    repository.save(Task.builder().id(id).title(title).build());
+                    expected.put(id, title);
+                }
+            }
+            TaskSnapshot snapshot = repository.snapshot();
+
+            // Assert
+            assertThat(snapshot.size()).isEqualTo(expected.size());
+            assertThat(repository.count()).isEqualTo(expected.size());
+            Map<TaskId, String> actual = new HashMap<>();
+            snapshot.stream().forEach(task -> actual.put(task.getId(), task.getTitle()));
+            assertThat(actual).isEqualTo(expected);
+            for (TaskId id : ids) {
+                assertThat(snapshot.contains(id)).isEqualTo(expected.containsKey(id));
+            }
+        }
+
+        @Test
+        @DisplayName("應該只看到依序寫入的前綴 - 當掃描與寫入並行時")
+        void shouldSeeConsistentPrefix_whenScanningDuringWrites() {
+            // Arrange
+            int taskCount = 500;
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < taskCount; i++) {
+                tasks.add(repository.save(Task.builder().id(TaskId.of("task-" + i)).title("任務 " + i).build()));
+            }
+
+            // Act：依編號順序逐一改為進行中，同時反覆掃描
+            CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+                for (Task task : tasks) {
+                    task.updateStatus(TaskStatus.IN_PROGRESS);
+                    repository.save(task);
+                }
+            });
+            List<String> violations = new ArrayList<>();
+            while (!writer.isDone()) {
+                boolean[] inProgress = new boolean[taskCount];
+                repository.streamAll(stream -> {
+                    stream.filter(task -> task.getStatus() == TaskStatus.IN_PROGRESS)
+                        .forEach(task -> inProgress[Integer.parseInt(task.getId().getValue().substring(5))] = true);
+                    return null;
+                });
+                for (int i = 1; i < taskCount; i++) {
+                    if (inProgress[i] && !inProgress[i - 1]) {
+                        violations.add("task-" + i);
+                    }
+                }
+            }
+            writer.join();
+
+            // Assert
+            assertThat(violations).isEmpty();
+            assertThat(repository.countByStatus(TaskStatus.IN_PROGRESS)).isEqualTo(taskCount);
+        }
+    }
+
+    @Nested
+    @DisplayName("查詢規格測試")
+    class QueryTests {
+
+        @Test
+        @DisplayName("應該以狀態索引過濾、排序並分頁，同時回傳總筆數")
+        void shouldFilterSortAndPage_whenQueryingByStatus() {
+            // Arrange
+            repository.save(createTask("Alpha", null));
+            repository.save(createTask("Bravo", null));
+            repository.save(createTask("charlie", null));
+            Task started = createTask("Delta", null);
+            started.updateStatus(TaskStatus.IN_PROGRESS);
+            repository.save(started);
+            TaskQuery query = TaskQuery.builder()
+                .statuses(List.of(TaskStatus.PENDING))
+                .sortBy(TaskQuery.SortField.TITLE, true)
+                .offset(1)
+                .limit(2)
+                .build();
+
+            // Act
+            TaskQueryResult result = repository.query(query);
+
+            // Assert
+            assertThat(result.tasks()).extracting(Task::getTitle).containsExactly("Bravo", "Alpha");
+            assertThat(result.totalMatches()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("應該以到期日索引查詢包含兩端點的範圍並比對標題查詢詞")
+        void shouldUseDueDateRange_whenQueryingWithoutStatusFilter() {
+            // Arrange
+            Task atStart = repository.save(createTask("週報 草稿", now));
+            repository.save(createTask("週報 定稿", now.plusHours(25)));
+            repository.save(createTask("月報 草稿", now.plusHours(1)));
+            repository.save(createTask("週報 草稿 無到期日", null));
+            TaskQuery query = TaskQuery.builder()
+                .dueDateBetween(now, now.plusHours(24))
+                .titleTerms(List.of("草稿", "週報"))
+                .build();
+
+            // Act
+            TaskQueryResult result = repository.query(query);
+
+            // Assert
+            assertThat(result.tasks()).containsExactly(atStart);
+            assertThat(result.totalMatches()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("應該與在串流上求值的結果相同")
+        void shouldMatchStreamEvaluation_whenQueryingRandomTasks() {
+            // Arrange
+            Random random = new Random(23);
+            TaskStatus[] statuses = {TaskStatus.PENDING, TaskStatus.IN_PROGRESS, TaskStatus.CANCELLED};
+            for (int i = 0; i < 200; i++) {
+                Task task = createTask("任務 " + random.nextInt(50), now.plusHours(random.nextInt(100)));
+                TaskStatus status = statuses[random.nextInt(statuses.length)];
+                if (status != TaskStatus.PENDING) {
+                    task.updateStatus(status);
+                }
+                repository.save(task);
+            }
+            TaskQuery query = TaskQuery.builder()
+                .statuses(List.of(TaskStatus.PENDING, TaskStatus.CANCELLED))
+                .dueDateBetween(now.plusHours(10), now.plusHours(80))
+                .sortBy(TaskQuery.SortField.TITLE, false)
+                .offset(5)
+                .limit(10)
+                .build();
+
+            // Act
+            TaskQueryResult indexed = repository.query(query);
+            TaskQueryResult scanned = repository.streamAll(query::select);
+
+            // Assert
+            assertThat(indexed.totalMatches()).isEqualTo(scanned.totalMatches());
+            assertThat(indexed.tasks()).extracting(Task::getTitle)
+                .containsExactlyElementsOf(scanned.tasks().stream().map(Task::getTitle).toList());
+        }
+
+        @Test
+        @DisplayName("應該依轉小寫後的碼位排序標題 - 與資料庫實作的定序相同")
+        void shouldSortTitlesByLowerCaseCodePoint() {
+            // Arrange
+            repository.save(createTask("Zulu", null));
+            repository.save(createTask("alpha", null));
+            repository.save(createTask("_beta", null));
+            repository.save(createTask("Éclair", null));
+            TaskQuery query = TaskQuery.builder().sortBy(TaskQuery.SortField.TITLE, false).build();
+
+            // Act
+            TaskQueryResult result = repository.query(query);
+
+            // Assert：'_' (U+005F) 在小寫字母之前，'é' (U+00E9) 在 ASCII 之後
+            assertThat(result.tasks()).extracting(Task::getTitle)
+                .containsExactly("_beta", "alpha", "Zulu", "Éclair");
+        }
+
+        @Test
+        @DisplayName("應該預設排除已軟刪除的任務 - 不論是否走索引")
+        void shouldExcludeSoftDeletedTasks_unlessIncludeDeleted() {
+            // Arrange
+            Task kept = repository.save(createTask("保留", now.plusHours(1)));
+            Task removed = createTask("已刪除", now.plusHours(2));
+            removed.markAsDeleted("tester", "測試");
+            repository.save(removed);
+            TaskQuery byStatus = TaskQuery.builder().statuses(List.of(TaskStatus.PENDING)).build();
+            TaskQuery byDueDate = TaskQuery.builder().dueDateBetween(now, now.plusHours(3)).build();
+            TaskQuery scanAll = TaskQuery.builder().build();
+
+            // Act & Assert
+            for (TaskQuery query : List.of(byStatus, byDueDate, scanAll)) {
+                TaskQuery withDeleted = query.toBuilder().includeDeleted(true).build();
+                assertThat(repository.query(query).tasks()).extracting(Task::getId)
+                    .containsExactly(kept.getId());
+                assertThat(repository.query(withDeleted).tasks()).extracting(Task::getId)
+                    .containsExactlyInAnyOrder(kept.getId(), removed.getId());
+                assertThat(repository.query(query).totalMatches())
+                    .isEqualTo(repository.streamAll(query::select).totalMatches());
+            }
+        }
+
+        @Test
+        @DisplayName("應該以續讀位置逐頁讀完所有任務 - 當讀取期間在目前位置之前插入任務時")
+        void shouldWalkAllTasksByCursor_whenTasksAreInsertedBefore() {
+            // Arrange：標題大量重複，鍵相同時依任務ID排序
+            for (int i = 0; i < 50; i++) {
+                repository.save(createTask("任務 " + i % 5, null));
+            }
+            TaskQuery firstPage = TaskQuery.builder()
+                .sortBy(TaskQuery.SortField.TITLE, false)
+                .limit(7)
+                .countTotal(false)
+                .build();
+            List<TaskId> expected = repository.query(firstPage.toBuilder().limit(TaskQuery.UNLIMITED).build())
+                .tasks().stream().map(Task::getId).toList();
+
+            // Act
+            List<TaskId> walked = new ArrayList<>();
+            TaskQuery query = firstPage;
+            List<Task> page = repository.query(query).tasks();
+            while (!page.isEmpty()) {
+                page.forEach(task -> walked.add(task.getId()));
+                if (walked.size() == 21) {
+                    // 「任務 0」排在目前位置之前，不影響之後的頁面
+                    repository.save(createTask("任務 0", null));
+                    repository.save(createTask("任務 0", null));
+                }
+                String token = TaskQueryCursor.after(page.get(page.size() - 1), TaskQuery.SortField.TITLE, false).encode();
+                query = firstPage.toBuilder().after(TaskQueryCursor.decode(token)).build();
+                page = repository.query(query).tasks();
+            }
+
+            // Assert
+            assertThat(walked).containsExactlyElementsOf(expected);
+        }
+
+        @Test
+        @DisplayName("應該依狀態順序走訪狀態索引續讀 - 結果與在串流上求值相同")
+        void shouldWalkStatusIndexesInOrder_whenResumingStatusOrder() {
+            // Arrange
+            Random random = new Random(31);
+            TaskStatus[] statuses = {TaskStatus.PENDING, TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED,
+                TaskStatus.CANCELLED};
+            for (int i = 0; i < 120; i++) {
+                Task task = createTask("任務 " + i, null);
+                TaskStatus status = statuses[random.nextInt(statuses.length)];
+                if (status == TaskStatus.COMPLETED) {
+                    task.updateStatus(TaskStatus.IN_PROGRESS);
+                }
+                if (status != TaskStatus.PENDING) {
+                    task.updateStatus(status);
+                }
+                repository.save(task);
+            }
+
+            for (boolean descending : List.of(false, true)) {
+                TaskQuery firstPage = TaskQuery.builder()
+                    .statuses(List.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS, TaskStatus.CANCELLED))
+                    .sortBy(TaskQuery.SortField.STATUS, descending)
+                    .offset(2)
+                    .limit(9)
+                    .countTotal(false)
+                    .build();
+
+                // Act
+                List<TaskId> walked = new ArrayList<>();
+                List<TaskId> scanned = new ArrayList<>();
+                TaskQuery query = firstPage;
+                List<Task> page = repository.query(query).tasks();
+                while (!page.isEmpty()) {
+                    repository.streamAll(query::select).tasks().forEach(task -> scanned.add(task.getId()));
+                    page.forEach(task -> walked.add(task.getId()));
+                    TaskQueryCursor cursor = TaskQueryCursor.after(page.get(page.size() - 1),
+                        TaskQuery.SortField.STATUS, descending);
+                    query = firstPage.toBuilder().after(cursor).build();
+                    page = repository.query(query).tasks();
+                }
+
+                // Assert
+                assertThat(repository.streamAll(query::select).tasks()).isEmpty();
+                assertThat(walked).isNotEmpty().containsExactlyElementsOf(scanned);
+            }
+        }
+
+        @Test
+        @DisplayName("應該拒絕續讀位置 - 當排序方向與位置不同時")
+        void shouldRejectCursor_whenSortOrderDiffers() {
+            // Arrange
+            Task task = repository.save(createTask("任務", null));
+            TaskQueryCursor cursor = TaskQueryCursor.after(task, TaskQuery.SortField.TITLE, false);
+
+            // Act & Assert
+            assertThatThrownBy(() -> TaskQuery.builder().sortBy(TaskQuery.SortField.TITLE, true).after(cursor).build())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("different sort order");
+        }
+    }
+
+    @Nested
+    @DisplayName("樂觀鎖測試")
+    class OptimisticLockTests {
+
+        @Test
+        @DisplayName("應該在每次儲存後遞增版本號")
+        void shouldIncrementVersion_whenTaskIsSaved() {
+            // Arrange
+            Task saved = repository.save(createTask("版本", null));
+
+            // Act
+            Task updated = repository.saveWithOptimisticLock(saved, saved.getVersion());
+
+            // Assert
+            assertThat(saved.getVersion()).isZero();
+            assertThat(updated.getVersion()).isEqualTo(1);
+            assertThat(repository.findById(saved.getId())).get()
+                .extracting(Task::getVersion).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("應該拋出OptimisticLockException - 當期望版本已過期時")
+        void shouldThrowOptimisticLockException_whenExpectedVersionIsStale() {
+            // Arrange
+            Task saved = repository.save(createTask("衝突", null));
+            Task first = repository.findById(saved.getId()).orElseThrow();
+            Task second = repository.findById(saved.getId()).orElseThrow();
+            first.updateStatus(TaskStatus.IN_PROGRESS);
+            repository.saveWithOptimisticLock(first, first.getVersion());
+
+            // Act & Assert
+            second.updateStatus(TaskStatus.CANCELLED);
+            assertThatThrownBy(() -> repository.saveWithOptimisticLock(second, second.getVersion()))
+                .isInstanceOf(OptimisticLockException.class);
+            assertThat(repository.findById(saved.getId())).get()
+                .extracting(Task::getStatus).isEqualTo(TaskStatus.IN_PROGRESS);
+        }
+
+        @Test
+        @DisplayName("應該回傳帶新版本號的副本 - 傳入的物件維持原版本")
+        void shouldReturnSavedCopyWithNewVersion() {
+            // Arrange
+            Task task = repository.save(createTask("副本", null));
+
+            // Act
+            Task saved = repository.save(task);
+
+            // Assert：以回傳值的版本號更新成功，傳入物件的版本已過期
+            assertThat(task.getVersion()).isZero();
+            assertThat(saved.getVersion()).isEqualTo(1);
+            assertThatThrownBy(() -> repository.saveWithOptimisticLock(task, task.getVersion()))
+                .isInstanceOf(OptimisticLockException.class);
+            assertThat(repository.saveWithOptimisticLock(saved, saved.getVersion()).getVersion()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("應該回傳可修改的清單 - 當查詢所有任務時")
+        void shouldReturnMutableList_whenFindingAll() {
+            // Arrange
+            repository.save(createTask("B", null));
+            repository.save(createTask("A", null));
+
+            // Act
+            List<Task> all = repository.findAll();
+            all.sort(Comparator.comparing(Task::getTitle));
+            all.add(createTask("C", null));
+
+            // Assert
+            assertThat(all).extracting(Task::getTitle).containsExactly("A", "B", "C");
+            assertThat(repository.findAll()).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("應該不受呼叫端原地修改影響 - 當任務尚未儲存時")
+        void shouldNotExposeStoredSnapshot_whenCallerMutatesLoadedTask() {
+            // Arrange
+            Task saved = repository.save(createTask("快照", null));
+            Task loaded = repository.findById(saved.getId()).orElseThrow();
+
+            // Act
+            loaded.updateStatus(TaskStatus.IN_PROGRESS);
+
+            // Assert
+            assertThat(repository.countByStatus(TaskStatus.PENDING)).isEqualTo(1);
+            assertThat(repository.findById(saved.getId())).get()
+                .extracting(Task::getStatus).isEqualTo(TaskStatus.PENDING);
+        }
+    }
+
+    private Task createTask(String title, LocalDateTime dueDate) {
+        return Task.builder()
+            .id(TaskId.generate())
+            .title(title)
+            .dueDate(dueDate)
+            .createdAt(now.minusDays(3))
+            .build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.exception.OptimisticLockException;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * MappedFileTaskRepository 測試
+ *
+ * 測試重點：
+ * - 跨多個映射區塊的批次寫入與查詢
+ * - 重新開啟後由檔案重建索引，刪除的槽位可重複使用
+ * - 樂觀鎖版本檢查
+ */
+@DisplayName("MappedFileTaskRepository 測試")
+class MappedFileTaskRepositoryTest {
+
+    // 小區塊讓少量任務也會跨越區塊邊界
+    private static final int CHUNK_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private MappedFileTaskRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("應該在重新開啟後保留所有欄位並排除已刪除任務")
+    void shouldRestoreAllFields_whenReopened() throws IOException {
+        // Arrange
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(createTask("任務" + i, i % 2 == 0 ? "描述" + i : null));
+        }
+        repository.saveAll(tasks);
+        Task updated = repository.findById(tasks.get(1).getId()).orElseThrow();
+        updated.updateStatus(TaskStatus.IN_PROGRESS);
+        repository.save(updated);
+        repository.deleteById(tasks.get(0).getId());
+        repository.close();
+
+        // Act
+        repository = open();
+
+        // Assert
+        assertThat(repository.count()).isEqualTo(199);
+        assertThat(repository.findAll()).hasSize(199);
+        assertThat(repository.findById(tasks.get(0).getId())).isEmpty();
+        Task restored = repository.findById(tasks.get(1).getId()).orElseThrow();
+        assertThat(restored.getTitle()).isEqualTo("任務1");
+        assertThat(restored.getDescription()).isNull();
+        assertThat(restored.getStatus()).isEqualTo(TaskStatus.IN_PROGRESS);
+        assertThat(restored.getDueDate()).isEqualTo(tasks.get(1).getDueDate());
+        assertThat(restored.getVersion()).isEqualTo(1L);
+        assertThat(repository.findByIds(List.of(tasks.get(2).getId(), tasks.get(0).getId())))
+            .containsOnlyKeys(tasks.get(2).getId());
+    }
+
+    @Test
+    @DisplayName("應該在版本不符時拋出樂觀鎖例外")
+    void shouldThrowOptimisticLockException_whenVersionMismatch() {
+        // Arrange
+        Task saved = repository.save(createTask("任務", null));
+        repository.saveWithOptimisticLock(saved, 0L);
+
+        // Act & Assert
+        assertThatThrownBy(() -> repository.saveWithOptimisticLock(saved, 0L))
+            .isInstanceOf(OptimisticLockException.class);
+        assertThatThrownBy(() -> repository.saveWithOptimisticLock(createTask("不存在", null), 0L))
+            .isInstanceOf(OptimisticLockException.class);
+    }
+
+    private MappedFileTaskRepository open() throws IOException {
+        MappedFileTaskRepository mapped = new MappedFileTaskRepository(directory, CHUNK_SIZE);
+        mapped.open();
+        return mapped;
+    }
+
+    private Task createTask(String title, String description) {
+        return Task.builder()
+            .id(TaskId.generate())
+            .title(title)
+            .description(description)
+            .dueDate(LocalDateTime.now().plusDays(1))
+            .build();
+    }
+}
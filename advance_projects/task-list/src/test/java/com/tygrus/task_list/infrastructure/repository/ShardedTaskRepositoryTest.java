@@ -0,0 +1,130 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * ShardedTaskRepository 測試
+ *
+ * 以多個記憶體儲存庫作為分片，測試重點：
+ * - 依 TaskId 路由，每個任務只存在於一個分片
+ * - 跨分片的批次查詢與保存
+ * - 加入分片後背景搬移，搬移期間與完成後都能讀寫所有任務
+ */
+@DisplayName("ShardedTaskRepository 測試")
+class ShardedTaskRepositoryTest {
+
+    private Map<String, TaskRepository> shards;
+    private ShardedTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        shards = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            shards.put("shard-" + i, newShard());
+        }
+        repository = new ShardedTaskRepository(shards);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("應該將每個任務只保存在一個分片並能跨分片查詢")
+    void shouldRouteEachTaskToSingleShard() {
+        // Arrange
+        List<Task> tasks = createTasks(300);
+
+        // Act
+        List<Task> saved = repository.saveAll(tasks);
+
+        // Assert
+        assertThat(saved).extracting(Task::getId).containsExactlyElementsOf(ids(tasks));
+        assertThat(shards.values()).allSatisfy(shard -> assertThat(shard.findAll()).isNotEmpty());
+        assertThat(shards.values().stream().mapToInt(shard -> shard.findAll().size()).sum()).isEqualTo(300);
+        assertThat(repository.findAll()).hasSize(300);
+        assertThat(repository.findByIds(ids(tasks))).hasSize(300);
+        assertThat(repository.existsByIds(List.of(tasks.get(0).getId(), TaskId.of("missing"))))
+            .containsEntry(tasks.get(0).getId(), true)
+            .containsEntry(TaskId.of("missing"), false);
+    }
+
+    @Test
+    @DisplayName("應該在加入分片後搬移部分任務且不遺失資料")
+    void shouldRebalanceTasks_whenShardAdded() throws Exception {
+        // Arrange
+        List<Task> tasks = createTasks(600);
+        repository.saveAll(tasks);
+        TaskRepository newShard = newShard();
+
+        // Act
+        long moved = repository.addShard("shard-3", newShard).get(10, TimeUnit.SECONDS);
+
+        // Assert - 一致性雜湊只搬移約 1/4 的任務
+        assertThat(moved).isEqualTo(newShard.findAll().size()).isBetween(60L, 300L);
+        assertThat(repository.isRebalancing()).isFalse();
+        assertThat(repository.findAll()).hasSize(600);
+        assertThat(shards.values().stream().mapToInt(shard -> shard.findAll().size()).sum() + moved)
+            .isEqualTo(600);
+        assertThat(repository.findByIds(ids(tasks))).hasSize(600);
+    }
+
+    @Test
+    @DisplayName("搬移期間的寫入應該先完成搬移再寫入新擁有者")
+    void shouldApplyWritesOnNewOwner_whileRebalancing() throws Exception {
+        // Arrange
+        List<Task> tasks = createTasks(200);
+        repository.saveAll(tasks);
+
+        // Act
+        var rebalancing = repository.addShard("shard-3", newShard());
+        for (Task task : tasks.subList(0, 50)) {
+            Task current = repository.findById(task.getId()).orElseThrow();
+            current.updateStatus(TaskStatus.IN_PROGRESS);
+            repository.save(current);
+        }
+        rebalancing.get(10, TimeUnit.SECONDS);
+
+        // Assert
+        List<Task> all = repository.findAll();
+        assertThat(all).hasSize(200);
+        assertThat(all).extracting(Task::getId).doesNotHaveDuplicates();
+        assertThat(repository.findByIds(ids(tasks.subList(0, 50))).values())
+            .allSatisfy(task -> assertThat(task.getStatus()).isEqualTo(TaskStatus.IN_PROGRESS));
+    }
+
+    private static TaskRepository newShard() {
+        return new DomainTaskRepositoryAdapter(new InMemoryTaskRepository());
+    }
+
+    private static List<Task> createTasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(Task.builder()
+                .id(TaskId.of("task-" + i))
+                .title("任務" + i)
+                .build());
+        }
+        return tasks;
+    }
+
+    private static List<TaskId> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+}
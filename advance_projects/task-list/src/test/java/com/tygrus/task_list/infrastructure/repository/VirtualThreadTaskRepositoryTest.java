@@ -0,0 +1,107 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.exception.OptimisticLockException;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * VirtualThreadTaskRepository 測試
+ *
+ * 測試重點：
+ * - 操作結果與例外經由 future 傳回
+ * - 大量同時送出的操作中，實際執行的數量不超過並行上限
+ */
+@DisplayName("VirtualThreadTaskRepository 測試")
+class VirtualThreadTaskRepositoryTest {
+
+    private VirtualThreadTaskRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("應該以future回傳操作結果")
+    void shouldCompleteWithResult() throws Exception {
+        // Arrange
+        TaskRepository delegate = new DomainTaskRepositoryAdapter(new InMemoryTaskRepository());
+        repository = new VirtualThreadTaskRepository(delegate, 4);
+        Task task = Task.builder().id(TaskId.of("task-1")).title("任務").build();
+
+        // Act
+        Task saved = repository.save(task).get(5, TimeUnit.SECONDS);
+        Optional<Task> found = repository.findById(task.getId()).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(saved.getId()).isEqualTo(task.getId());
+        assertThat(found).isPresent();
+    }
+
+    @Test
+    @DisplayName("應該以原始例外完成失敗的操作")
+    void shouldCompleteExceptionallyWithOriginalException() {
+        // Arrange
+        TaskRepository delegate = new DomainTaskRepositoryAdapter(new InMemoryTaskRepository()) {
+            @Override
+            public Task saveWithOptimisticLock(Task task, Long expectedVersion) {
+                throw new OptimisticLockException("Version conflict");
+            }
+        };
+        repository = new VirtualThreadTaskRepository(delegate, 4);
+        Task task = Task.builder().id(TaskId.of("task-1")).title("任務").build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> repository.saveWithOptimisticLock(task, 0L).get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(OptimisticLockException.class);
+    }
+
+    @Test
+    @DisplayName("同時執行的操作數不應該超過並行上限")
+    void shouldLimitConcurrentOperations() throws Exception {
+        // Arrange - 每次查詢停頓 5ms 並記錄同時執行的數量
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        TaskRepository delegate = new DomainTaskRepositoryAdapter(new InMemoryTaskRepository()) {
+            @Override
+            public boolean existsById(TaskId taskId) {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                return false;
+            }
+        };
+        repository = new VirtualThreadTaskRepository(delegate, 8);
+
+        // Act - 一次送出 2000 個操作
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            futures.add(repository.existsById(TaskId.of("task-" + i)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(peak.get()).isBetween(2, 8);
+        assertThat(repository.getActiveCount()).isZero();
+    }
+}
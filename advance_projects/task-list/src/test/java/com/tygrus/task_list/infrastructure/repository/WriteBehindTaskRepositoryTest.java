@@ -0,0 +1,168 @@
+package com.tygrus.task_list.infrastructure.repository;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.domain.repository.WriteDurability;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * WriteBehindTaskRepository 測試
+ *
+ * 以記憶體儲存庫的 spy 作為資料來源，測試重點：
+ * - ASYNC 寫入在緩衝中合併，寫入資料來源的次數遠少於寫入次數
+ * - 緩衝中的寫入對 findById 立即可見，全量讀取前先寫入緩衝
+ * - SYNC 寫入返回時已寫入資料來源；寫入失敗時內容保留待重試
+ */
+@DisplayName("WriteBehindTaskRepository 測試")
+class WriteBehindTaskRepositoryTest {
+
+    private TaskRepository delegate;
+    private WriteBehindTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = spy(new DomainTaskRepositoryAdapter(new InMemoryTaskRepository()));
+        // 間隔足夠長，測試中的寫入只由明確的 flush 或批次大小觸發
+        repository = new WriteBehindTaskRepository(delegate, WriteDurability.ASYNC, 50, 1000, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Nested
+    @DisplayName("合併寫入測試")
+    class CoalescingTest {
+
+        @Test
+        @DisplayName("同一任務的連續更新應該合併為一次寫入")
+        void shouldCoalesceUpdatesToSameTask() {
+            // Arrange
+            TaskStatus[] statuses = {TaskStatus.IN_PROGRESS, TaskStatus.PENDING, TaskStatus.IN_PROGRESS};
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                tasks.add(createTask("task-" + i));
+            }
+
+            // Act
+            for (TaskStatus status : statuses) {
+                for (Task task : tasks) {
+                    task.updateStatus(status);
+                    repository.save(task, WriteDurability.ASYNC);
+                }
+            }
+            repository.flush();
+
+            // Assert
+            verify(delegate, times(1)).saveAll(anyList());
+            verify(delegate, never()).save(any(Task.class));
+            assertThat(delegate.findAll()).hasSize(10)
+                .allMatch(task -> task.getStatus() == TaskStatus.IN_PROGRESS);
+            WriteBehindTaskRepository.Stats stats = repository.getStats();
+            assertThat(stats.writes()).isEqualTo(30);
+            assertThat(stats.flushedTasks()).isEqualTo(10);
+            assertThat(stats.coalescingRatio()).isEqualTo(3.0);
+        }
+
+        @Test
+        @DisplayName("並行的 SYNC 寫入應該返回時已寫入資料來源")
+        void shouldPersistSyncWritesBeforeReturning() {
+            // Act
+            List<CompletableFuture<Task>> writers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Task task = createTask("task-" + i);
+                writers.add(CompletableFuture.supplyAsync(() -> repository.save(task, WriteDurability.SYNC)));
+            }
+            CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new)).join();
+
+            // Assert
+            for (int i = 0; i < 8; i++) {
+                assertThat(delegate.existsById(TaskId.of("task-" + i))).isTrue();
+            }
+            assertThat(repository.getStats().pending()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("讀取自己的寫入測試")
+    class ReadYourWritesTest {
+
+        @Test
+        @DisplayName("緩衝中的寫入應該對單筆查詢立即可見")
+        void shouldReadBufferedWrites() {
+            // Arrange
+            Task task = createTask("task-1");
+
+            // Act
+            repository.save(task);
+
+            // Assert
+            assertThat(delegate.findById(task.getId())).isEmpty();
+            assertThat(repository.findById(task.getId())).isPresent();
+            assertThat(repository.existsById(task.getId())).isTrue();
+            assertThat(repository.findByIds(List.of(task.getId()))).containsKey(task.getId());
+        }
+
+        @Test
+        @DisplayName("全量讀取前應該先寫入緩衝")
+        void shouldFlushBeforeScans() {
+            // Arrange
+            repository.save(createTask("task-1"));
+            repository.save(createTask("task-2"));
+
+            // Act
+            List<Task> all = repository.findAll();
+
+            // Assert
+            assertThat(all).hasSize(2);
+            assertThat(repository.counts().total()).isEqualTo(2);
+            assertThat(repository.getStats().pending()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("寫入失敗測試")
+    class FailureTest {
+
+        @Test
+        @DisplayName("寫入失敗時 SYNC 呼叫端應該收到例外，內容保留到下次寫入")
+        void shouldKeepBufferedWritesOnFailure() {
+            // Arrange
+            Task task = createTask("task-1");
+            doThrow(new RuntimeException("database unavailable")).doCallRealMethod()
+                .when(delegate).saveAll(anyList());
+
+            // Act & Assert
+            assertThatThrownBy(() -> repository.save(task, WriteDurability.SYNC))
+                .hasMessageContaining("database unavailable");
+            assertThat(repository.findById(task.getId())).isPresent();
+
+            repository.flush();
+            assertThat(delegate.findById(task.getId())).isPresent();
+            assertThat(repository.getStats().failedFlushes()).isEqualTo(1);
+        }
+    }
+
+    private static Task createTask(String id) {
+        return Task.builder()
+            .id(TaskId.of(id))
+            .title("任務 " + id)
+            .build();
+    }
+}
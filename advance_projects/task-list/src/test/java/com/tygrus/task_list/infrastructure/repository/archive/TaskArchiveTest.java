@@ -0,0 +1,236 @@
+package com.tygrus.task_list.infrastructure.repository.archive;
+
+import com.tygrus.task_list.domain.exception.OptimisticLockException;
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.infrastructure.repository.DomainTaskRepositoryAdapter;
+import com.tygrus.task_list.infrastructure.repository.InMemoryTaskRepository;
+import com.tygrus.task_list.infrastructure.repository.TieredTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 任務封存測試
+ *
+ * 測試重點：
+ * - 區段以稀疏索引與布隆過濾器查詢，重新開啟後內容不變
+ * - 封存只移出完成或刪除超過保留期間的任務
+ * - TieredTaskRepository 的單筆查詢與匯出串流讀取兩層，寫入與刪除取代封存副本
+ */
+@DisplayName("任務封存測試")
+class TaskArchiveTest {
+
+    private static final Duration RETENTION = Duration.ofDays(90);
+
+    @TempDir
+    Path directory;
+
+    private TaskArchive archive;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        archive = new TaskArchive(directory);
+        archive.open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        archive.close();
+    }
+
+    private static Task task(String id, TaskStatus status, int daysAgo) {
+        LocalDateTime time = LocalDateTime.now().minusDays(daysAgo);
+        return Task.restoreFromPersistence(TaskId.of(id), "任務 " + id, "描述 " + id, status, Priority.MEDIUM,
+            null, time, time, false, null, null);
+    }
+
+    private static Task deletedTask(String id, int daysAgo) {
+        LocalDateTime time = LocalDateTime.now().minusDays(daysAgo);
+        return Task.restoreFromPersistence(TaskId.of(id), "任務 " + id, null, TaskStatus.TODO, Priority.LOW,
+            null, time, time, true, time, "tester");
+    }
+
+    @Nested
+    @DisplayName("封存區段")
+    class SegmentTest {
+
+        @Test
+        @DisplayName("應該能查詢區段中的每一筆任務並依 ID 順序串流")
+        void shouldFindEveryTask() throws IOException {
+            // Arrange
+            List<Task> tasks = IntStream.range(0, 500)
+                .mapToObj(i -> task("task-" + (i * 7919 % 500), TaskStatus.COMPLETED, 100))
+                .toList();
+
+            // Act
+            archive.append(tasks);
+
+            // Assert
+            for (Task task : tasks) {
+                assertThat(archive.find(task.getId())).get()
+                    .extracting(Task::getTitle).isEqualTo(task.getTitle());
+            }
+            assertThat(archive.find(TaskId.of("missing"))).isEmpty();
+            List<String> streamed = archive.stream(stream -> stream.map(task -> task.getId().getValue()).toList());
+            assertThat(streamed).hasSize(500).isSorted();
+        }
+
+        @Test
+        @DisplayName("重新開啟後區段與取代記錄仍然有效")
+        void shouldSurviveReopen() throws IOException {
+            // Arrange
+            archive.append(List.of(task("task-1", TaskStatus.COMPLETED, 100), task("task-2", TaskStatus.COMPLETED, 100)));
+            archive.supersede(TaskId.of("task-1"));
+
+            // Act
+            archive.close();
+            archive = new TaskArchive(directory);
+            archive.open();
+
+            // Assert
+            assertThat(archive.segmentCount()).isEqualTo(1);
+            assertThat(archive.find(TaskId.of("task-1"))).isEmpty();
+            assertThat(archive.find(TaskId.of("task-2"))).isPresent();
+        }
+
+        @Test
+        @DisplayName("再次封存同一任務時應該取代較舊的副本")
+        void shouldSupersedeOlderCopies() throws IOException {
+            // Arrange
+            archive.append(List.of(task("task-1", TaskStatus.COMPLETED, 200)));
+            Task newer = task("task-1", TaskStatus.COMPLETED, 100);
+
+            // Act
+            archive.append(List.of(newer));
+
+            // Assert
+            assertThat(archive.find(TaskId.of("task-1"))).get()
+                .extracting(Task::getUpdatedAt).isEqualTo(newer.getUpdatedAt());
+            long archived = archive.stream(Stream::count);
+            assertThat(archived).isEqualTo(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("分層儲存庫")
+    class TieredRepositoryTest {
+
+        private InMemoryTaskRepository inMemory;
+        private DomainTaskRepositoryAdapter hot;
+        private TieredTaskRepository repository;
+        private TaskArchiver archiver;
+
+        @BeforeEach
+        void setUp() {
+            inMemory = new InMemoryTaskRepository();
+            hot = new DomainTaskRepositoryAdapter(inMemory);
+            repository = new TieredTaskRepository(hot, archive);
+            archiver = new TaskArchiver(hot, archive, RETENTION, 2);
+            hot.save(task("old-completed-1", TaskStatus.COMPLETED, 120));
+            hot.save(task("old-completed-2", TaskStatus.COMPLETED, 100));
+            hot.save(task("old-completed-3", TaskStatus.COMPLETED, 95));
+            hot.save(deletedTask("old-deleted", 120));
+            hot.save(task("recent-completed", TaskStatus.COMPLETED, 10));
+            hot.save(task("old-in-progress", TaskStatus.IN_PROGRESS, 120));
+        }
+
+        @Test
+        @DisplayName("應該只移出完成或刪除超過保留期間的任務")
+        void shouldArchiveOnlyExpiredTasks() {
+            // Act
+            int archived = archiver.archive();
+
+            // Assert
+            assertThat(archived).isEqualTo(4);
+            assertThat(inMemory.findAll()).extracting(task -> task.getId().getValue())
+                .containsExactlyInAnyOrder("recent-completed", "old-in-progress");
+            assertThat(archive.segmentCount()).isEqualTo(2);
+            assertThat(repository.counts().total()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("單筆與批次查詢應該透明讀取封存庫，但不回傳已刪除的任務")
+        void shouldReadAcrossTiers() {
+            // Arrange
+            archiver.archive();
+
+            // Act & Assert
+            assertThat(repository.findById(TaskId.of("old-completed-1"))).isPresent();
+            assertThat(repository.existsById(TaskId.of("old-completed-2"))).isTrue();
+            assertThat(repository.findById(TaskId.of("old-deleted"))).isEmpty();
+            assertThat(repository.findByIds(List.of(
+                TaskId.of("old-completed-3"), TaskId.of("recent-completed"), TaskId.of("old-deleted"))))
+                .containsOnlyKeys(TaskId.of("old-completed-3"), TaskId.of("recent-completed"));
+            assertThat(repository.findAll()).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("匯出串流應該包含熱資料與封存的未刪除任務")
+        void shouldStreamBothTiersForExport() {
+            // Arrange
+            archiver.archive();
+
+            // Act
+            List<String> exported = repository.streamAllIncludingArchived(stream -> stream
+                .map(task -> task.getId().getValue())
+                .collect(Collectors.toList()));
+
+            // Assert
+            assertThat(exported).containsExactlyInAnyOrder(
+                "recent-completed", "old-in-progress", "old-completed-1", "old-completed-2", "old-completed-3");
+        }
+
+        @Test
+        @DisplayName("更新或刪除封存的任務應該取代封存副本")
+        void shouldSupersedeOnWrite() {
+            // Arrange
+            archiver.archive();
+            Task reopened = repository.findById(TaskId.of("old-completed-1")).orElseThrow();
+            reopened.updateStatus(TaskStatus.IN_PROGRESS);
+
+            // Act
+            repository.save(reopened);
+            repository.deleteById(TaskId.of("old-completed-2"));
+
+            // Assert
+            assertThat(repository.findById(TaskId.of("old-completed-1"))).get()
+                .extracting(Task::getStatus).isEqualTo(TaskStatus.IN_PROGRESS);
+            assertThat(archive.find(TaskId.of("old-completed-1"))).isEmpty();
+            assertThat(repository.findById(TaskId.of("old-completed-2"))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("樂觀鎖更新封存的任務時版本相符才寫回熱資料層")
+        void shouldRehydrateOnOptimisticUpdate() {
+            // Arrange
+            archiver.archive();
+            Task archived = repository.findById(TaskId.of("old-completed-3")).orElseThrow();
+            long version = archived.getVersion();
+
+            // Act & Assert
+            assertThatThrownBy(() -> repository.saveWithOptimisticLock(archived, version + 1))
+                .isInstanceOf(OptimisticLockException.class);
+            Task saved = repository.saveWithOptimisticLock(archived, version);
+            assertThat(saved.getId()).isEqualTo(archived.getId());
+            assertThat(inMemory.existsById(archived.getId())).isTrue();
+            assertThat(archive.find(archived.getId())).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.tygrus.task_list.infrastructure.repository.changefeed;
+
+import com.tygrus.task_list.domain.exception.ChangeFeedTruncatedException;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskChange;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.TaskChangeFeed;
+import com.tygrus.task_list.infrastructure.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * InMemoryTaskChangeFeed 測試
+ *
+ * 測試重點：
+ * - 序號遞增，讀取依序號從保留範圍取出
+ * - 超出保留範圍的讀取拋出 ChangeFeedTruncatedException
+ * - 訂閱先補送舊變更再持續傳遞新變更
+ * - InMemoryTaskRepository 的寫入依序發布新增、更新與刪除
+ */
+@DisplayName("InMemoryTaskChangeFeed 測試")
+class InMemoryTaskChangeFeedTest {
+
+    private static Task task(String id) {
+        return Task.builder().id(TaskId.of(id)).title("任務 " + id).build();
+    }
+
+    @Nested
+    @DisplayName("讀取")
+    class ReadTest {
+
+        @Test
+        @DisplayName("應該從指定序號依序讀取")
+        void shouldReadFromSequence() {
+            // Arrange
+            InMemoryTaskChangeFeed feed = new InMemoryTaskChangeFeed(10);
+            for (int i = 1; i <= 5; i++) {
+                feed.publish(TaskChange.Type.INSERTED, task("task-" + i));
+            }
+
+            // Act
+            List<TaskChange> changes = feed.read(3, 10);
+
+            // Assert
+            assertThat(feed.latestSequence()).isEqualTo(5);
+            assertThat(changes).extracting(TaskChange::sequence).containsExactly(3L, 4L, 5L);
+            assertThat(feed.read(6, 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("外部序號不連續時應該從下一個存在的序號開始讀取")
+        void shouldSkipGapsInAppendedSequences() {
+            // Arrange
+            InMemoryTaskChangeFeed feed = new InMemoryTaskChangeFeed(10);
+            Task task = task("task-1");
+            for (long sequence : new long[] {2, 3, 7, 9}) {
+                feed.append(new TaskChange(sequence, TaskChange.Type.UPDATED, task.getId(), task, Instant.now()));
+            }
+
+            // Act & Assert
+            assertThat(feed.read(4, 10)).extracting(TaskChange::sequence).containsExactly(7L, 9L);
+            assertThatThrownBy(() -> feed.append(
+                new TaskChange(9, TaskChange.Type.UPDATED, task.getId(), task, Instant.now())))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("超出保留範圍的讀取應該拋出例外")
+        void shouldRejectReadBeyondRetention() {
+            // Arrange
+            InMemoryTaskChangeFeed feed = new InMemoryTaskChangeFeed(3);
+            for (int i = 1; i <= 5; i++) {
+                feed.publish(TaskChange.Type.INSERTED, task("task-" + i));
+            }
+
+            // Act & Assert
+            assertThatThrownBy(() -> feed.read(2, 10))
+                .isInstanceOf(ChangeFeedTruncatedException.class)
+                .satisfies(e -> assertThat(((ChangeFeedTruncatedException) e).getOldestAvailableSequence())
+                    .isEqualTo(3));
+            assertThat(feed.read(3, 10)).extracting(TaskChange::sequence).containsExactly(3L, 4L, 5L);
+        }
+    }
+
+    @Nested
+    @DisplayName("訂閱")
+    class SubscribeTest {
+
+        @Test
+        @DisplayName("應該先補送舊變更再傳遞新變更")
+        void shouldReplayThenFollow() throws Exception {
+            // Arrange
+            InMemoryTaskChangeFeed feed = new InMemoryTaskChangeFeed(100);
+            feed.publish(TaskChange.Type.INSERTED, task("task-1"));
+            feed.publish(TaskChange.Type.INSERTED, task("task-2"));
+            List<Long> received = new CopyOnWriteArrayList<>();
+
+            // Act
+            try (TaskChangeFeed.Subscription subscription = feed.subscribe(2, change -> received.add(change.sequence()))) {
+                feed.publish(TaskChange.Type.INSERTED, task("task-3"));
+                awaitPosition(subscription, 3);
+
+                // Assert
+                assertThat(received).containsExactly(2L, 3L);
+                assertThat(subscription.isActive()).isTrue();
+            }
+        }
+
+        @Test
+        @DisplayName("listener 拋出例外時應該繼續傳遞後續變更")
+        void shouldContinueAfterListenerFailure() throws Exception {
+            // Arrange
+            InMemoryTaskChangeFeed feed = new InMemoryTaskChangeFeed(100);
+            List<Long> received = new CopyOnWriteArrayList<>();
+
+            // Act
+            try (TaskChangeFeed.Subscription subscription = feed.subscribe(1, change -> {
+                if (change.sequence() == 1) {
+                    throw new IllegalStateException("listener failure");
+                }
+                received.add(change.sequence());
+            })) {
+                feed.publish(TaskChange.Type.INSERTED, task("task-1"));
+                feed.publish(TaskChange.Type.INSERTED, task("task-2"));
+                awaitPosition(subscription, 2);
+
+                // Assert
+                assertThat(received).containsExactly(2L);
+            }
+        }
+
+        @Test
+        @DisplayName("關閉後應該停止傳遞")
+        void shouldStopAfterClose() throws Exception {
+            // Arrange
+            InMemoryTaskChangeFeed feed = new InMemoryTaskChangeFeed(100);
+            List<Long> received = new CopyOnWriteArrayList<>();
+            TaskChangeFeed.Subscription subscription = feed.subscribe(1, change -> received.add(change.sequence()));
+            feed.publish(TaskChange.Type.INSERTED, task("task-1"));
+            awaitPosition(subscription, 1);
+
+            // Act
+            subscription.close();
+            feed.publish(TaskChange.Type.INSERTED, task("task-2"));
+            TimeUnit.MILLISECONDS.sleep(100);
+
+            // Assert
+            assertThat(subscription.isActive()).isFalse();
+            assertThat(received).containsExactly(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("InMemoryTaskRepository 變更流")
+    class RepositoryFeedTest {
+
+        @Test
+        @DisplayName("應該依寫入順序發布新增、更新與刪除")
+        void shouldPublishWritesInOrder() {
+            // Arrange
+            InMemoryTaskRepository repository = new InMemoryTaskRepository();
+            Task task = task("task-1");
+
+            // Act
+            repository.save(task);
+            repository.save(task);
+            repository.deleteById(task.getId());
+
+            // Assert
+            List<TaskChange> changes = repository.changeFeed().read(1, 10);
+            assertThat(changes).extracting(TaskChange::type).containsExactly(
+                TaskChange.Type.INSERTED, TaskChange.Type.UPDATED, TaskChange.Type.DELETED);
+            assertThat(changes).extracting(change -> change.task().getVersion()).containsExactly(0L, 1L, 1L);
+            assertThat(changes).allSatisfy(change -> assertThat(change.taskId()).isEqualTo(task.getId()));
+        }
+
+        @Test
+        @DisplayName("軟刪除應該發布為刪除")
+        void shouldPublishSoftDeleteAsDeleted() {
+            // Arrange
+            InMemoryTaskRepository repository = new InMemoryTaskRepository();
+            Task task = repository.save(task("task-1"));
+
+            // Act
+            task.markAsDeleted("tester", "不再需要");
+            repository.save(task);
+
+            // Assert
+            assertThat(repository.changeFeed().read(2, 10))
+                .extracting(TaskChange::type)
+                .containsExactly(TaskChange.Type.DELETED);
+        }
+    }
+
+    private static void awaitPosition(TaskChangeFeed.Subscription subscription, long sequence)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (subscription.position() < sequence && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        assertThat(subscription.position()).isGreaterThanOrEqualTo(sequence);
+    }
+}
@@ -0,0 +1,185 @@
+package com.tygrus.task_list.infrastructure.repository.counter;
+
+import com.tygrus.task_list.domain.model.Priority;
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskCounts;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.model.TaskStatus;
+import com.tygrus.task_list.infrastructure.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * TaskCounters 測試
+ *
+ * 測試重點：
+ * - 新增、狀態轉換、軟刪除與移除時的計數調整
+ * - 校正修正偏差，掃描期間有寫入時略過
+ * - InMemoryTaskRepository 的計數與掃描結果一致
+ */
+@DisplayName("TaskCounters 測試")
+class TaskCountersTest {
+
+    private static Task task(String id, TaskStatus status, Priority priority) {
+        LocalDateTime now = LocalDateTime.now();
+        return Task.restoreFromPersistence(TaskId.of(id), "任務 " + id, null, status, priority,
+            null, now, now, false, null, null);
+    }
+
+    @Nested
+    @DisplayName("增量調整")
+    class ApplyTest {
+
+        @Test
+        @DisplayName("應該依寫入前後的任務調整狀態與優先級計數")
+        void shouldAdjustOnTransitions() {
+            // Arrange
+            TaskCounters counters = new TaskCounters();
+            Task created = task("task-1", TaskStatus.TODO, Priority.HIGH);
+            Task started = task("task-1", TaskStatus.IN_PROGRESS, Priority.HIGH);
+
+            // Act
+            counters.apply(null, created);
+            counters.apply(created, started);
+            counters.apply(null, task("task-2", TaskStatus.TODO, Priority.LOW));
+
+            // Assert
+            assertThat(counters.countOf(TaskStatus.TODO)).isEqualTo(1);
+            assertThat(counters.countOf(TaskStatus.IN_PROGRESS)).isEqualTo(1);
+            assertThat(counters.countOf(Priority.HIGH)).isEqualTo(1);
+            assertThat(counters.countOf(Priority.LOW)).isEqualTo(1);
+            assertThat(counters.snapshot().total()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("軟刪除與移除應該不再計入")
+        void shouldExcludeDeletedTasks() {
+            // Arrange
+            TaskCounters counters = new TaskCounters();
+            Task first = task("task-1", TaskStatus.TODO, Priority.MEDIUM);
+            Task second = task("task-2", TaskStatus.TODO, Priority.MEDIUM);
+            counters.apply(null, first);
+            counters.apply(null, second);
+            Task softDeleted = task("task-1", TaskStatus.TODO, Priority.MEDIUM);
+            softDeleted.markAsDeleted("tester", "不再需要");
+
+            // Act
+            counters.apply(first, softDeleted);
+            counters.apply(second, null);
+
+            // Assert
+            assertThat(counters.snapshot()).isEqualTo(TaskCounts.empty());
+        }
+    }
+
+    @Nested
+    @DisplayName("校正")
+    class ReconcileTest {
+
+        @Test
+        @DisplayName("應該以資料來源修正偏差")
+        void shouldCorrectDrift() {
+            // Arrange
+            TaskCounters counters = new TaskCounters();
+            counters.apply(null, task("task-1", TaskStatus.TODO, Priority.HIGH));
+            long[] statusCounts = new long[TaskStatus.values().length];
+            long[] priorityCounts = new long[Priority.values().length];
+            statusCounts[TaskStatus.COMPLETED.ordinal()] = 3;
+            priorityCounts[Priority.LOW.ordinal()] = 3;
+            TaskCounts actual = TaskCounts.of(statusCounts, priorityCounts);
+
+            // Act
+            boolean reconciled = counters.reconcile(() -> actual);
+
+            // Assert
+            assertThat(reconciled).isTrue();
+            assertThat(counters.snapshot()).isEqualTo(actual);
+            assertThat(counters.corrections()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("有寫入進行或掃描期間開始寫入時應該略過")
+        void shouldSkipWhenWritesOverlap() {
+            // Arrange
+            TaskCounters counters = new TaskCounters();
+
+            // Act & Assert
+            counters.beginWrite();
+            assertThat(counters.reconcile(TaskCounts::empty)).isFalse();
+            counters.endWrite();
+
+            assertThat(counters.reconcile(() -> {
+                counters.beginWrite();
+                counters.endWrite();
+                return TaskCounts.empty();
+            })).isFalse();
+            assertThat(counters.reconcile(TaskCounts::empty)).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("InMemoryTaskRepository 計數")
+    class RepositoryCountsTest {
+
+        @Test
+        @DisplayName("應該反映新增、狀態轉換、軟刪除與刪除")
+        void shouldTrackWrites() {
+            // Arrange
+            InMemoryTaskRepository repository = new InMemoryTaskRepository();
+            repository.save(task("task-1", TaskStatus.TODO, Priority.HIGH));
+            repository.save(task("task-2", TaskStatus.TODO, Priority.LOW));
+            repository.save(task("task-3", TaskStatus.PENDING, Priority.MEDIUM));
+
+            // Act
+            repository.save(task("task-1", TaskStatus.IN_PROGRESS, Priority.HIGH));
+            Task softDeleted = task("task-2", TaskStatus.TODO, Priority.LOW);
+            softDeleted.markAsDeleted("tester", "重複");
+            repository.save(softDeleted);
+            repository.deleteById(TaskId.of("task-3"));
+
+            // Assert
+            TaskCounts counts = repository.counts();
+            assertThat(counts.total()).isEqualTo(1);
+            assertThat(counts.countOf(TaskStatus.IN_PROGRESS)).isEqualTo(1);
+            assertThat(counts.countOf(Priority.HIGH)).isEqualTo(1);
+            assertThat(counts).isEqualTo(TaskCounts.of(repository.findAllAsColumns()));
+        }
+
+        @Test
+        @DisplayName("並行寫入後計數應該與掃描結果一致")
+        void shouldMatchScanAfterConcurrentWrites() {
+            // Arrange
+            InMemoryTaskRepository repository = new InMemoryTaskRepository();
+            TaskStatus[] statuses = TaskStatus.values();
+            Priority[] priorities = Priority.values();
+
+            // Act
+            List<CompletableFuture<Void>> writers = new ArrayList<>();
+            for (int writer = 0; writer < 4; writer++) {
+                int seed = writer;
+                writers.add(CompletableFuture.runAsync(() -> IntStream.range(0, 2000).forEach(i -> {
+                    String id = "task-" + (i % 200);
+                    repository.save(task(id, statuses[(i + seed) % statuses.length],
+                        priorities[(i * 7 + seed) % priorities.length]));
+                    if (i % 13 == 0) {
+                        repository.deleteById(TaskId.of(id));
+                    }
+                })));
+            }
+            CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new)).join();
+
+            // Assert
+            assertThat(repository.counts()).isEqualTo(TaskCounts.of(repository.findAllAsColumns()));
+            assertThat(repository.reconcileCounters()).isTrue();
+        }
+    }
+}
@@ -17,6 +17,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -371,7 +373,7 @@ class TaskReminderSchedulerTest {
         @DisplayName("應該發送每週摘要")
         void shouldSendWeeklySummary() throws Exception {
             // Given
-            when(mockTaskRepository.findAll()).thenReturn(testTasks);
+            stubStreamAll(testTasks);
             when(mockTaskReminderUseCase.handleTaskReminder(any()))
                 .thenReturn(CompletableFuture.completedFuture(
                     new TaskReminderUseCase.ReminderResult("weekly-1", "task-001", true, "notif-1", LocalDateTime.now())));
@@ -380,7 +382,7 @@ class TaskReminderSchedulerTest {
             scheduler.sendWeeklySummary();
             
             // Then
-            verify(mockTaskRepository).findAll();
+            verify(mockTaskRepository).streamAll(any());
             
             ArgumentCaptor<TaskReminderEvent> eventCaptor = ArgumentCaptor.forClass(TaskReminderEvent.class);
             verify(mockTaskReminderUseCase, timeout(1000)).handleTaskReminder(eventCaptor.capture());
@@ -470,4 +472,9 @@ class TaskReminderSchedulerTest {
             verify(mockTaskReminderUseCase, timeout(1000)).handleTaskReminder(any());
         }
     }
-}
\ No newline at end of file
+
+    private void stubStreamAll(List<Task> tasks) {
+        when(mockTaskRepository.streamAll(any())).thenAnswer(invocation ->
+            invocation.<Function<Stream<Task>, Object>>getArgument(0).apply(tasks.stream()));
+    }
+}
@@ -0,0 +1,170 @@
+package com.tygrus.task_list.infrastructure.search;
+
+import com.tygrus.task_list.domain.model.Task;
+import com.tygrus.task_list.domain.model.TaskId;
+import com.tygrus.task_list.domain.repository.TaskRepository;
+import com.tygrus.task_list.infrastructure.repository.DomainTaskRepositoryAdapter;
+import com.tygrus.task_list.infrastructure.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * TaskTextIndex 測試
+ *
+ * 測試重點：
+ * - 中文以 bigram、英文以 trigram 索引，查詢結果與子字串比對一致
+ * - 多個查詢詞為 AND
+ * - 透過變更流增量反映新增、修改與刪除
+ * - 無法以索引篩選的查詢回傳 empty
+ */
+@DisplayName("TaskTextIndex 測試")
+class TaskTextIndexTest {
+
+    private TaskRepository repository;
+    private TaskTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = new DomainTaskRepositoryAdapter(new InMemoryTaskRepository());
+        index = new TaskTextIndex(repository);
+    }
+
+    private Task save(String id, String title, String description) {
+        return repository.save(Task.builder().id(TaskId.of(id)).title(title).description(description).build());
+    }
+
+    private List<String> searchTitle(String query) {
+        return index.search(query, null).orElseThrow().stream()
+            .map(task -> task.getId().getValue())
+            .sorted()
+            .toList();
+    }
+
+    @Nested
+    @DisplayName("查詢")
+    class SearchTest {
+
+        @Test
+        @DisplayName("應該以中文子字串查詢")
+        void shouldMatchChineseSubstring() {
+            // Arrange
+            save("task-1", "撰寫週報告", null);
+            save("task-2", "準備會議報告", null);
+            save("task-3", "部署資料庫", null);
+
+            // Act & Assert
+            assertThat(searchTitle("報告")).containsExactly("task-1", "task-2");
+            assertThat(searchTitle("週報")).containsExactly("task-1");
+            assertThat(searchTitle("報")).containsExactly("task-1", "task-2");
+            assertThat(searchTitle("告部")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("應該不分大小寫比對英文子字串")
+        void shouldMatchLatinSubstringIgnoringCase() {
+            // Arrange
+            save("task-1", "Database Migration", null);
+            save("task-2", "Review migrations", null);
+            save("task-3", "Deploy backend", null);
+
+            // Act & Assert
+            assertThat(searchTitle("MIGRAT")).containsExactly("task-1", "task-2");
+            assertThat(searchTitle("base")).containsExactly("task-1");
+        }
+
+        @Test
+        @DisplayName("多個查詢詞應該全部包含")
+        void shouldRequireAllTerms() {
+            // Arrange
+            save("task-1", "weekly 報告 review", null);
+            save("task-2", "weekly 會議", null);
+            save("task-3", "monthly 報告", null);
+
+            // Act & Assert
+            assertThat(searchTitle("weekly 報告")).containsExactly("task-1");
+            assertThat(searchTitle("報告  weekly")).containsExactly("task-1");
+        }
+
+        @Test
+        @DisplayName("應該同時比對標題與描述條件")
+        void shouldCombineTitleAndDescription() {
+            // Arrange
+            save("task-1", "部署 release", "需要先備份資料庫");
+            save("task-2", "部署 hotfix", "不需要停機");
+
+            // Act
+            Optional<List<Task>> result = index.search("部署", "資料庫");
+
+            // Assert
+            assertThat(result).hasValueSatisfying(tasks ->
+                assertThat(tasks).extracting(task -> task.getId().getValue()).containsExactly("task-1"));
+        }
+
+        @Test
+        @DisplayName("查詢詞都無法以索引篩選時應該回傳empty")
+        void shouldReturnEmptyForUnindexableQuery() {
+            // Arrange
+            save("task-1", "ab test", null);
+
+            // Act & Assert
+            assertThat(index.search("ab", null)).isEmpty();
+            assertThat(index.search("  ", null)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("增量更新")
+    class IncrementalTest {
+
+        @Test
+        @DisplayName("應該反映建立索引後的新增、修改與刪除")
+        void shouldApplyChangesAfterBuild() {
+            // Arrange
+            save("task-1", "舊標題 report", null);
+            assertThat(searchTitle("report")).containsExactly("task-1");
+
+            // Act
+            save("task-2", "新任務 report", null);
+            save("task-1", "改過的標題", null);
+            repository.deleteById(TaskId.of("task-2"));
+            save("task-3", "改過的 report", null);
+
+            // Assert
+            assertThat(searchTitle("report")).containsExactly("task-3");
+            assertThat(searchTitle("改過")).containsExactly("task-1", "task-3");
+            assertThat(index.size()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("大量修改後壓縮索引仍應該回傳正確結果")
+        void shouldStayCorrectAfterCompaction() {
+            // Arrange
+            int count = 1100;
+            for (int i = 0; i < count; i++) {
+                save("task-" + i, "初始 title " + i, null);
+            }
+            index.refresh();
+
+            // Act
+            for (int round = 1; round <= 2; round++) {
+                for (int i = 0; i < count; i++) {
+                    save("task-" + i, "第" + round + "輪 title " + i, null);
+                }
+                index.refresh();
+            }
+
+            // Assert
+            assertThat(index.size()).isEqualTo(count);
+            assertThat(index.search("第2輪", null).orElseThrow()).hasSize(count);
+            assertThat(index.search("初始", null).orElseThrow()).isEmpty();
+            assertThat(searchTitle("第2輪 title 1099")).containsExactly("task-1099");
+        }
+    }
+}